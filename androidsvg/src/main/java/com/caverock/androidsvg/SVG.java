@@ -23,6 +23,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -86,6 +87,8 @@ public class SVG {
 
     private static final double SQRT2 = 1.414213562373095;
 
+    private static final int MAX_CACHED_PICTURES = 4;
+
 
     private Svg rootElement = null;
 
@@ -105,6 +108,14 @@ public class SVG {
     // Map from id attribute to element
     Map<String, SvgElementBase> idToElementMap = new HashMap<String, SvgElementBase>();
 
+    // Recorded pictures by viewport and view, valid until document, DPI or CSS rules are changed
+    private final Map<PictureKey, Picture> pictureCache = new LinkedHashMap<PictureKey, Picture>(MAX_CACHED_PICTURES, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<PictureKey, Picture> eldest) {
+            return size() > MAX_CACHED_PICTURES;
+        }
+    };
+
 
     protected enum Unit {
         px,
@@ -227,6 +238,7 @@ public class SVG {
      */
     public void registerExternalFileResolver(SVGExternalFileResolver fileResolver) {
         this.fileResolver = fileResolver;
+        invalidatePictureCache();
     }
 
 
@@ -240,6 +252,9 @@ public class SVG {
      * @param dpi the DPI value that the renderer should use.
      */
     public void setRenderDPI(float dpi) {
+        if (this.renderDPI != dpi) {
+            invalidatePictureCache();
+        }
         this.renderDPI = dpi;
     }
 
@@ -293,13 +308,21 @@ public class SVG {
 
     /**
      * Renders this SVG document to a Picture object.
+     * <p>
+     * Recorded pictures are cached per viewport size until the document, render DPI or CSS rules are changed,
+     * so the returned Picture may be shared and shouldn't be recorded into.
      *
      * @param widthInPixels  the width of the initial viewport
      * @param heightInPixels the height of the initial viewport
      * @return a Picture object suitable for later rendering using {@code Canvas.darwPicture()}
      */
     public Picture renderToPicture(int widthInPixels, int heightInPixels) {
-        Picture picture = new Picture();
+        PictureKey key = new PictureKey(null, widthInPixels, heightInPixels);
+        Picture picture = getCachedPicture(key);
+        if (picture != null)
+            return picture;
+
+        picture = new Picture();
         Canvas canvas = picture.beginRecording(widthInPixels, heightInPixels);
         Box viewPort = new Box(0f, 0f, (float) widthInPixels, (float) heightInPixels);
 
@@ -308,6 +331,7 @@ public class SVG {
         renderer.renderDocument(this, null, null, false);
 
         picture.endRecording();
+        putCachedPicture(key, picture);
         return picture;
     }
 
@@ -319,6 +343,8 @@ public class SVG {
      * Calling this method with a {@code viewId} will result in the specified view being positioned and scaled
      * to the viewport.  In other words, use {@link #renderToPicture()} to render the whole document, or use this
      * method instead to render just a part of it.
+     * <p>
+     * Recorded pictures are cached in the same way as in {@link #renderToPicture(int, int)}.
      *
      * @param viewId         the id of a view element in the document that defines which section of the document is to be visible.
      * @param widthInPixels  the width of the initial viewport
@@ -339,7 +365,12 @@ public class SVG {
             return null;
         }
 
-        Picture picture = new Picture();
+        PictureKey key = new PictureKey(viewId, widthInPixels, heightInPixels);
+        Picture picture = getCachedPicture(key);
+        if (picture != null)
+            return picture;
+
+        picture = new Picture();
         Canvas canvas = picture.beginRecording(widthInPixels, heightInPixels);
         Box viewPort = new Box(0f, 0f, (float) widthInPixels, (float) heightInPixels);
 
@@ -348,10 +379,69 @@ public class SVG {
         renderer.renderDocument(this, view.viewBox, view.preserveAspectRatio, false);
 
         picture.endRecording();
+        putCachedPicture(key, picture);
         return picture;
     }
 
 
+    /**
+     * Drops pictures recorded by {@link #renderToPicture(int, int)} and {@link #renderViewToPicture(String, int, int)}.
+     * <p>
+     * The cache is invalidated automatically by the setters of this class, call this method
+     * after modifying the document in any other way.
+     */
+    public void invalidatePictureCache() {
+        synchronized (pictureCache) {
+            pictureCache.clear();
+        }
+    }
+
+
+    private Picture getCachedPicture(PictureKey key) {
+        synchronized (pictureCache) {
+            return pictureCache.get(key);
+        }
+    }
+
+
+    private void putCachedPicture(PictureKey key, Picture picture) {
+        synchronized (pictureCache) {
+            pictureCache.put(key, picture);
+        }
+    }
+
+
+    private static final class PictureKey {
+        private final String viewId;
+        private final int width;
+        private final int height;
+
+        PictureKey(String viewId, int width, int height) {
+            this.viewId = viewId;
+            this.width = width;
+            this.height = height;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (!(o instanceof PictureKey))
+                return false;
+            PictureKey other = (PictureKey) o;
+            return width == other.width && height == other.height &&
+                    (viewId == null ? other.viewId == null : viewId.equals(other.viewId));
+        }
+
+        @Override
+        public int hashCode() {
+            int result = viewId == null ? 0 : viewId.hashCode();
+            result = 31 * result + width;
+            return 31 * result + height;
+        }
+    }
+
+
     //===============================================================================
     // SVG document rendering to a canvas object (direct rendering)
 
@@ -562,6 +652,7 @@ public class SVG {
             throw new IllegalArgumentException("SVG document is empty");
 
         this.rootElement.width = new Length(pixels);
+        invalidatePictureCache();
     }
 
 
@@ -579,6 +670,7 @@ public class SVG {
 
         try {
             this.rootElement.width = SVGParser.parseLength(value);
+            invalidatePictureCache();
         } catch (SAXException e) {
             throw new SVGParseException(e.getMessage());
         }
@@ -617,6 +709,7 @@ public class SVG {
             throw new IllegalArgumentException("SVG document is empty");
 
         this.rootElement.height = new Length(pixels);
+        invalidatePictureCache();
     }
 
 
@@ -634,6 +727,7 @@ public class SVG {
 
         try {
             this.rootElement.height = SVGParser.parseLength(value);
+            invalidatePictureCache();
         } catch (SAXException e) {
             throw new SVGParseException(e.getMessage());
         }
@@ -663,6 +757,7 @@ public class SVG {
             throw new IllegalArgumentException("SVG document is empty");
 
         this.rootElement.viewBox = new Box(minX, minY, width, height);
+        invalidatePictureCache();
     }
 
 
@@ -697,6 +792,7 @@ public class SVG {
             throw new IllegalArgumentException("SVG document is empty");
 
         this.rootElement.preserveAspectRatio = preserveAspectRatio;
+        invalidatePictureCache();
     }
 
 
@@ -763,6 +859,7 @@ public class SVG {
 
     protected void setRootElement(SVG.Svg rootElement) {
         this.rootElement = rootElement;
+        invalidatePictureCache();
     }
 
 
@@ -811,6 +908,7 @@ public class SVG {
 
     protected void addCSSRules(Ruleset ruleset) {
         this.cssRules.addAll(ruleset);
+        invalidatePictureCache();
     }
 
 
@@ -73,6 +73,15 @@ public class SVGParser extends DefaultHandler2 {
     private static final String SVG_NAMESPACE = "http://www.w3.org/2000/svg";
     private static final String XLINK_NAMESPACE = "http://www.w3.org/1999/xlink";
     private static final String FEATURE_STRING_PREFIX = "http://www.w3.org/TR/SVG11/feature#";
+    private static final String LEXICAL_HANDLER_PROPERTY = "http://xml.org/sax/properties/lexical-handler";
+
+    // XML readers are expensive to create, so they are reused between documents
+    private static final int XML_READER_POOL_SIZE = 4;
+    private static final XMLReader[] xmlReaderPool = new XMLReader[XML_READER_POOL_SIZE];
+    private static int xmlReaderPoolCount = 0;
+    private static SAXParserFactory saxParserFactory = null;
+    // Detaches pooled readers from the last parsed document
+    private static final DefaultHandler2 EMPTY_HANDLER = new DefaultHandler2();
 
     // SVG parser
     private SVG svgDocument = null;
@@ -587,13 +596,14 @@ public class SVGParser extends DefaultHandler2 {
         }
 
         // Invoke the SAX XML parser on the input.
-        SAXParserFactory spf = SAXParserFactory.newInstance();
+        XMLReader xr = null;
+        boolean parsed = false;
         try {
-            SAXParser sp = spf.newSAXParser();
-            XMLReader xr = sp.getXMLReader();
+            xr = obtainXMLReader();
             xr.setContentHandler(this);
-            xr.setProperty("http://xml.org/sax/properties/lexical-handler", this);
+            xr.setProperty(LEXICAL_HANDLER_PROPERTY, this);
             xr.parse(new InputSource(is));
+            parsed = true;
         } catch (IOException e) {
             throw new SVGParseException("File error", e);
         } catch (ParserConfigurationException e) {
@@ -601,6 +611,9 @@ public class SVGParser extends DefaultHandler2 {
         } catch (SAXException e) {
             throw new SVGParseException("SVG parse error: " + e.getMessage(), e);
         } finally {
+            if (parsed) {
+                recycleXMLReader(xr);
+            }
             try {
                 is.close();
             } catch (IOException e) {
@@ -611,6 +624,41 @@ public class SVGParser extends DefaultHandler2 {
     }
 
 
+    private static XMLReader obtainXMLReader() throws ParserConfigurationException, SAXException {
+        synchronized (xmlReaderPool) {
+            if (xmlReaderPoolCount > 0) {
+                xmlReaderPoolCount--;
+                XMLReader xr = xmlReaderPool[xmlReaderPoolCount];
+                xmlReaderPool[xmlReaderPoolCount] = null;
+                return xr;
+            }
+            // SAXParserFactory is not guaranteed to be thread safe
+            if (saxParserFactory == null) {
+                saxParserFactory = SAXParserFactory.newInstance();
+            }
+            SAXParser sp = saxParserFactory.newSAXParser();
+            return sp.getXMLReader();
+        }
+    }
+
+
+    // Readers which failed in the middle of a document are not recycled, as their state is unknown
+    private static void recycleXMLReader(XMLReader xr) {
+        try {
+            xr.setContentHandler(EMPTY_HANDLER);
+            xr.setProperty(LEXICAL_HANDLER_PROPERTY, EMPTY_HANDLER);
+        } catch (SAXException e) {
+            return;
+        }
+        synchronized (xmlReaderPool) {
+            if (xmlReaderPoolCount < XML_READER_POOL_SIZE) {
+                xmlReaderPool[xmlReaderPoolCount] = xr;
+                xmlReaderPoolCount++;
+            }
+        }
+    }
+
+
     //=========================================================================
     // SAX methods
     //=========================================================================
@@ -0,0 +1,72 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads a graph and prints shortest distances from the first vertex.
+ */
+public class Main {
+    private static final int INFINITY = Integer.MAX_VALUE;
+
+    static class Edge {
+        final int to;
+        final int weight;
+
+        Edge(int to, int weight) {
+            this.to = to;
+            this.weight = weight;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(System.in));
+        String[] header = reader.readLine().trim().split("\\s+");
+        int n = Integer.parseInt(header[0]);
+        int m = Integer.parseInt(header[1]);
+
+        Map<Integer, List<Edge>> graph = new HashMap<>();
+        for (int i = 0; i < m; i++) {
+            String[] line = reader.readLine().trim().split(" ");
+            int from = Integer.parseInt(line[0]) - 1;
+            int to = Integer.parseInt(line[1]) - 1;
+            int weight = Integer.parseInt(line[2]);
+            graph.computeIfAbsent(from, k -> new ArrayList<>()).add(new Edge(to, weight));
+        }
+
+        int[] distances = new int[n];
+        boolean[] visited = new boolean[n];
+        java.util.Arrays.fill(distances, INFINITY);
+        distances[0] = 0;
+
+        for (int step = 0; step < n; step++) {
+            int current = -1;
+            for (int v = 0; v < n; v++) { // pick the closest unvisited vertex
+                if (!visited[v] && (current == -1 || distances[v] < distances[current])) {
+                    current = v;
+                }
+            }
+            if (current == -1 || distances[current] == INFINITY) {
+                break;
+            }
+            visited[current] = true;
+
+            for (Edge edge : graph.getOrDefault(current, new ArrayList<>())) {
+                long candidate = (long) distances[current] + edge.weight;
+                if (candidate < distances[edge.to]) {
+                    distances[edge.to] = (int) candidate;
+                }
+            }
+        }
+
+        StringBuilder output = new StringBuilder();
+        for (int v = 0; v < n; v++) {
+            output.append(distances[v] == INFINITY ? "-1" : String.valueOf(distances[v]));
+            output.append(v + 1 < n ? ' ' : '\n');
+        }
+        System.out.print(output);
+    }
+}
@@ -0,0 +1,58 @@
+#include <iostream>
+#include <queue>
+#include <vector>
+#include <limits>
+
+/*
+ * Reads a graph and prints shortest distances from the first vertex.
+ */
+using namespace std;
+
+const long long INFINITY_DISTANCE = numeric_limits<long long>::max();
+
+struct Edge {
+    int to;
+    int weight;
+};
+
+vector<long long> shortestDistances(const vector<vector<Edge>> &graph, int start) {
+    vector<long long> distances(graph.size(), INFINITY_DISTANCE);
+    priority_queue<pair<long long, int>, vector<pair<long long, int>>, greater<>> queue;
+    distances[start] = 0;
+    queue.push({0, start});
+
+    while (!queue.empty()) {
+        auto [distance, vertex] = queue.top();
+        queue.pop();
+        if (distance > distances[vertex]) {
+            continue; // outdated queue entry
+        }
+        for (const Edge &edge : graph[vertex]) {
+            long long candidate = distance + edge.weight;
+            if (candidate < distances[edge.to]) {
+                distances[edge.to] = candidate;
+                queue.push({candidate, edge.to});
+            }
+        }
+    }
+    return distances;
+}
+
+int main() {
+    ios::sync_with_stdio(false);
+    int n, m;
+    cin >> n >> m;
+
+    vector<vector<Edge>> graph(n);
+    for (int i = 0; i < m; ++i) {
+        int from, to, weight;
+        cin >> from >> to >> weight;
+        graph[from - 1].push_back({to - 1, weight});
+    }
+
+    vector<long long> distances = shortestDistances(graph, 0);
+    for (int v = 0; v < n; ++v) {
+        cout << (distances[v] == INFINITY_DISTANCE ? -1 : distances[v]) << (v + 1 < n ? " " : "\n");
+    }
+    return 0;
+}
@@ -0,0 +1,53 @@
+import heapq
+import sys
+from collections import defaultdict
+
+INFINITY = float('inf')
+
+
+class Graph:
+    """
+    Weighted directed graph stored as adjacency lists.
+    """
+
+    def __init__(self, size):
+        self.size = size
+        self.edges = defaultdict(list)
+
+    def add_edge(self, source, target, weight):
+        self.edges[source].append((target, weight))
+
+    def shortest_distances(self, start=0):
+        distances = [INFINITY] * self.size
+        distances[start] = 0
+        queue = [(0, start)]
+        while queue:
+            distance, vertex = heapq.heappop(queue)
+            if distance > distances[vertex]:
+                continue  # outdated queue entry
+            for target, weight in self.edges[vertex]:
+                candidate = distance + weight
+                if candidate < distances[target]:
+                    distances[target] = candidate
+                    heapq.heappush(queue, (candidate, target))
+        return distances
+
+
+def read_graph(lines):
+    n, m = map(int, lines[0].split())
+    graph = Graph(n)
+    for line in lines[1:m + 1]:
+        source, target, weight = map(int, line.split())
+        graph.add_edge(source - 1, target - 1, weight)
+    return graph
+
+
+def main():
+    lines = sys.stdin.read().strip().split('\n')
+    graph = read_graph(lines)
+    distances = graph.shortest_distances()
+    print(' '.join('-1' if d == INFINITY else str(d) for d in distances))
+
+
+if __name__ == "__main__":
+    main()
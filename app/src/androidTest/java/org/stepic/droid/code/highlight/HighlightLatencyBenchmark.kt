@@ -0,0 +1,87 @@
+package org.stepic.droid.code.highlight
+
+import android.util.Log
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import androidx.test.filters.LargeTest
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.stepic.droid.code.highlight.prettify.PrettifyParser
+
+/**
+ * Measures keystroke to highlight latency for large files: typing in the middle of the file
+ * with full re-highlighting against [IncrementalHighlighter].
+ * Results are printed to logcat with [TAG].
+ */
+@LargeTest
+@RunWith(AndroidJUnit4::class)
+class HighlightLatencyBenchmark {
+    companion object {
+        private const val TAG = "HighlightLatencyBenchmark"
+
+        private const val LINES = 2000
+        private const val KEYSTROKES = 100
+        private const val TYPED_TEXT = "value = value + 1;\n"
+    }
+
+    private val parser = PrettifyParser()
+
+    @Test
+    fun java() =
+        measure("java", listOf(
+            "public class Main {",
+            "    /* block comment */",
+            "    public static void main(String[] args) {",
+            "        String s = \"string literal\"; // comment",
+            "        System.out.println(s + 42);",
+            "    }",
+            "}"
+        ))
+
+    @Test
+    fun python() =
+        measure("py", listOf(
+            "def main():",
+            "    \"\"\"docstring\"\"\"",
+            "    s = 'string literal'  # comment",
+            "    print(s, 42)",
+            ""
+        ))
+
+    @Test
+    fun cpp() =
+        measure("cpp", listOf(
+            "#include <iostream>",
+            "/* block comment */",
+            "int main() {",
+            "    std::string s = \"string literal\"; // comment",
+            "    return 42;",
+            "}"
+        ))
+
+    private fun measure(lang: String, snippet: List<String>) {
+        val source = (0 until LINES).joinToString(separator = "\n") { snippet[it % snippet.size] }
+        val position = source.indexOf('\n', source.length / 2) + 1
+
+        val fullNanos = measureTyping(source, position) { parser.parse(lang, it) }
+
+        val highlighter = IncrementalHighlighter(parser)
+        highlighter.highlight(lang, source)
+        val incrementalNanos = measureTyping(source, position) { highlighter.highlight(lang, it) }
+
+        Log.i(TAG, "$lang ($LINES lines, ${source.length} chars): full = ${fullNanos / 1000} us/keystroke, incremental = ${incrementalNanos / 1000} us/keystroke")
+    }
+
+    private inline fun measureTyping(source: String, position: Int, highlight: (String) -> Unit): Long {
+        var text = source
+        var total = 0L
+        for (i in 0 until KEYSTROKES) {
+            val offset = position + i
+            text = text.substring(0, offset) + TYPED_TEXT[i % TYPED_TEXT.length] + text.substring(offset)
+
+            val start = System.nanoTime()
+            highlight(text)
+            total += System.nanoTime() - start
+        }
+        return total / KEYSTROKES
+    }
+}
@@ -0,0 +1,77 @@
+package org.stepic.droid.code.highlight.prettify
+
+import android.os.Debug
+import android.util.Log
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import androidx.test.filters.LargeTest
+import androidx.test.platform.app.InstrumentationRegistry
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.stepic.droid.code.highlight.prettify.parser.DecorationBuffer
+import org.stepic.droid.code.highlight.prettify.parser.Job
+
+/**
+ * Compares highlighting of sources from assets/fixtures/code into [ParseResult][org.stepic.droid.code.highlight.syntaxhighlight.ParseResult] list
+ * against decorating into reused [DecorationBuffer]: wall time and number of allocated objects per pass.
+ * Results are printed to logcat with [TAG].
+ */
+@LargeTest
+@RunWith(AndroidJUnit4::class)
+class DecorationBufferBenchmark {
+    companion object {
+        private const val TAG = "DecorationBufferBenchmark"
+
+        private const val SOURCE_REPEATS = 20
+        private const val WARM_UP_ITERATIONS = 5
+        private const val ITERATIONS = 20
+    }
+
+    private val parser = PrettifyParser()
+
+    @Test
+    fun java() =
+        measure("java", "Main.java")
+
+    @Test
+    fun python() =
+        measure("py", "main.py")
+
+    @Test
+    fun cpp() =
+        measure("cpp", "main.cpp")
+
+    private fun measure(lang: String, fixture: String) {
+        val source = InstrumentationRegistry.getInstrumentation().context.assets
+            .open("fixtures/code/$fixture")
+            .bufferedReader()
+            .use { it.readText() }
+            .repeat(SOURCE_REPEATS)
+
+        val (parseNanos, parseAllocations) = measurePass {
+            parser.parse(lang, source)
+        }
+
+        val buffer = DecorationBuffer()
+        val (bufferNanos, bufferAllocations) = measurePass {
+            parser.decorate(lang, Job(0, source, buffer), 0, null)
+        }
+
+        Log.i(TAG, "$fixture (${source.length} chars, ${buffer.size()} decorations): " +
+                "parse results = ${parseNanos / 1000} us/pass, $parseAllocations allocations/pass, " +
+                "buffer = ${bufferNanos / 1000} us/pass, $bufferAllocations allocations/pass")
+    }
+
+    @Suppress("DEPRECATION")
+    private inline fun measurePass(highlight: () -> Unit): Pair<Long, Int> {
+        repeat(WARM_UP_ITERATIONS) { highlight() }
+
+        Debug.resetThreadAllocCount()
+        Debug.startAllocCounting()
+        val start = System.nanoTime()
+        repeat(ITERATIONS) { highlight() }
+        val nanos = (System.nanoTime() - start) / ITERATIONS
+        Debug.stopAllocCounting()
+
+        return nanos to Debug.getThreadAllocCount() / ITERATIONS
+    }
+}
@@ -0,0 +1,55 @@
+package org.stepic.droid.code.highlight.prettify.parser
+
+import android.util.Log
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import androidx.test.filters.LargeTest
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.stepic.droid.code.highlight.prettify.PrettifyParser
+
+/**
+ * Measures time from parser creation to the first highlighted line with lazily compiled grammars
+ * against compilation of all registered grammars, which was done on startup before.
+ * Results are printed to logcat with [TAG].
+ */
+@LargeTest
+@RunWith(AndroidJUnit4::class)
+class FirstHighlightBenchmark {
+    companion object {
+        private const val TAG = "FirstHighlightBenchmark"
+
+        private const val ITERATIONS = 10
+    }
+
+    @Test
+    fun java() =
+        measure("java", "public static void main(String[] args) { System.out.println(\"Hello\"); }")
+
+    @Test
+    fun python() =
+        measure("py", "print('Hello')  # comment")
+
+    @Test
+    fun cpp() =
+        measure("cpp", "int main() { std::cout << \"Hello\" << std::endl; return 0; }")
+
+    private fun measure(lang: String, line: String) {
+        var firstLineNanos = 0L
+        var allGrammarsNanos = 0L
+
+        for (i in 0 until ITERATIONS) {
+            Prettify.clearLangHandlerCache()
+            var start = System.nanoTime()
+            PrettifyParser().parse(lang, line)
+            firstLineNanos += System.nanoTime() - start
+
+            Prettify.clearLangHandlerCache()
+            start = System.nanoTime()
+            val prettify = Prettify()
+            Prettify.getRegisteredExtensions().forEach { prettify.langHandlerForExtension(it, "") }
+            allGrammarsNanos += System.nanoTime() - start
+        }
+
+        Log.i(TAG, "$lang: first highlighted line = ${firstLineNanos / ITERATIONS / 1000} us, all grammars = ${allGrammarsNanos / ITERATIONS / 1000} us")
+    }
+}
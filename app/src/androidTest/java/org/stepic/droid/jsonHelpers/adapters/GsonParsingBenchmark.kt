@@ -0,0 +1,118 @@
+package org.stepic.droid.jsonHelpers.adapters
+
+import android.util.Log
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import androidx.test.filters.LargeTest
+import androidx.test.platform.app.InstrumentationRegistry
+import com.google.gson.Gson
+import com.google.gson.GsonBuilder
+import com.google.gson.JsonDeserializer
+import com.google.gson.JsonObject
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.stepic.droid.jsonHelpers.adapters.model.ModelAdapterFactory
+import org.stepik.android.model.Reply
+import org.stepik.android.model.ReplyWrapper
+import org.stepik.android.model.feedback.ChoiceFeedback
+import org.stepik.android.model.feedback.Feedback
+import org.stepik.android.model.feedback.StringFeedback
+import org.stepik.android.remote.course.model.CourseResponse
+import org.stepik.android.remote.lesson.model.LessonResponse
+import org.stepik.android.remote.progress.model.ProgressResponse
+import org.stepik.android.remote.section.model.SectionResponse
+import org.stepik.android.remote.step.model.StepResponse
+import org.stepik.android.remote.submission.model.SubmissionResponse
+import org.stepik.android.remote.unit.model.UnitResponse
+import java.util.Date
+
+/**
+ * Compares parsing of api pages from assets/fixtures with reflective adapters and tree based deserializers
+ * against streaming adapters registered in SerializationModule.
+ * Results are printed to logcat with [TAG].
+ */
+@LargeTest
+@RunWith(AndroidJUnit4::class)
+class GsonParsingBenchmark {
+    companion object {
+        private const val TAG = "GsonParsingBenchmark"
+
+        private const val WARM_UP_ITERATIONS = 20
+        private const val ITERATIONS = 200
+    }
+
+    private val reflectiveGson: Gson =
+        GsonBuilder()
+            .enableComplexMapKeySerialization()
+            .registerTypeAdapterFactory(CodeOptionsAdapterFactory())
+            .registerTypeAdapter(ReplyWrapper::class.java, JsonDeserializer<ReplyWrapper> { json, _, context ->
+                ReplyWrapper(context.deserialize<Reply>(json, Reply::class.java))
+            })
+            .registerTypeAdapter(Feedback::class.java, JsonDeserializer<Feedback> { json, _, context ->
+                if (json is JsonObject) {
+                    context.deserialize<ChoiceFeedback>(json, ChoiceFeedback::class.java)
+                } else {
+                    StringFeedback(json.asString)
+                }
+            })
+            .registerTypeAdapter(Date::class.java, UTCDateAdapter())
+            .create()
+
+    private val streamingGson: Gson =
+        GsonBuilder()
+            .enableComplexMapKeySerialization()
+            .registerTypeAdapterFactory(CodeOptionsAdapterFactory())
+            .registerTypeAdapterFactory(ModelAdapterFactory())
+            .registerTypeAdapterFactory(DatasetWrapperAdapterFactory())
+            .registerTypeAdapterFactory(ReplyWrapperAdapterFactory())
+            .registerTypeAdapterFactory(FeedbackAdapterFactory())
+            .registerTypeAdapter(Date::class.java, UTCDateAdapter().asTypeAdapter())
+            .create()
+
+    @Test
+    fun courses() =
+        measure("courses.json", CourseResponse::class.java)
+
+    @Test
+    fun sections() =
+        measure("sections.json", SectionResponse::class.java)
+
+    @Test
+    fun units() =
+        measure("units.json", UnitResponse::class.java)
+
+    @Test
+    fun lessons() =
+        measure("lessons.json", LessonResponse::class.java)
+
+    @Test
+    fun steps() =
+        measure("steps.json", StepResponse::class.java)
+
+    @Test
+    fun progresses() =
+        measure("progresses.json", ProgressResponse::class.java)
+
+    @Test
+    fun submissions() =
+        measure("submissions.json", SubmissionResponse::class.java)
+
+    private fun <T> measure(fixture: String, type: Class<T>) {
+        val json = InstrumentationRegistry.getInstrumentation().context.assets
+            .open("fixtures/$fixture")
+            .bufferedReader()
+            .use { it.readText() }
+
+        val reflectiveNanos = measureParsing { reflectiveGson.fromJson(json, type) }
+        val streamingNanos = measureParsing { streamingGson.fromJson(json, type) }
+
+        Log.i(TAG, "$fixture (${json.length} chars): reflective = ${reflectiveNanos / 1000} us/page, streaming = ${streamingNanos / 1000} us/page")
+    }
+
+    private inline fun measureParsing(parse: () -> Unit): Long {
+        repeat(WARM_UP_ITERATIONS) { parse() }
+
+        val start = System.nanoTime()
+        repeat(ITERATIONS) { parse() }
+        return (System.nanoTime() - start) / ITERATIONS
+    }
+}
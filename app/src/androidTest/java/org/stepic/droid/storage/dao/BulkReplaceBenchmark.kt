@@ -0,0 +1,87 @@
+package org.stepic.droid.storage.dao
+
+import android.database.sqlite.SQLiteDatabase
+import android.util.Log
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import androidx.test.filters.LargeTest
+import org.junit.After
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.stepic.droid.storage.operations.DatabaseOperationsImpl
+import org.stepik.android.cache.unit.structure.DbStructureUnit
+import org.stepik.android.model.Unit
+import java.util.Date
+
+/**
+ * Compares rows/sec of ContentValues based replace with compiled statement bulk replace.
+ * Results are printed to logcat with [TAG].
+ */
+@LargeTest
+@RunWith(AndroidJUnit4::class)
+class BulkReplaceBenchmark {
+    companion object {
+        private const val TAG = "BulkReplaceBenchmark"
+
+        private const val ROWS_COUNT = 5000
+        private const val ITERATIONS = 5
+    }
+
+    private lateinit var database: SQLiteDatabase
+    private lateinit var databaseOperations: DatabaseOperationsImpl
+    private lateinit var unitDao: UnitDaoImpl
+
+    private val units = List(ROWS_COUNT) { index ->
+        Unit(
+            id = index.toLong(),
+            section = index / 10L,
+            lesson = index.toLong(),
+            assignments = longArrayOf(index.toLong()),
+            position = index % 10,
+            progress = "77-$index",
+            beginDate = Date(),
+            gradingPolicy = "halved",
+            isActive = true,
+            createDate = Date(),
+            updateDate = Date()
+        )
+    }
+
+    @Before
+    fun setUp() {
+        database = SQLiteDatabase.create(null)
+        DbStructureUnit.createTable(database)
+        databaseOperations = DatabaseOperationsImpl(database)
+        unitDao = UnitDaoImpl(databaseOperations)
+    }
+
+    @After
+    fun tearDown() {
+        database.close()
+    }
+
+    @Test
+    fun contentValuesReplace() {
+        measure("content values") {
+            databaseOperations.executeReplaceAll(DbStructureUnit.TABLE_NAME, units.map(unitDao::getContentValues))
+        }
+    }
+
+    @Test
+    fun bulkReplace() {
+        measure("bulk replace") {
+            unitDao.insertOrReplaceAll(units)
+        }
+    }
+
+    private inline fun measure(name: String, block: () -> kotlin.Unit) {
+        block() // warm up
+
+        val start = System.nanoTime()
+        repeat(ITERATIONS) { block() }
+        val elapsedNanos = System.nanoTime() - start
+
+        val rowsPerSecond = ROWS_COUNT.toLong() * ITERATIONS * 1_000_000_000L / elapsedNanos
+        Log.i(TAG, "$name: $rowsPerSecond rows/sec")
+    }
+}
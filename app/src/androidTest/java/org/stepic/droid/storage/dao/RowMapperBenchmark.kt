@@ -0,0 +1,119 @@
+package org.stepic.droid.storage.dao
+
+import android.content.ContentValues
+import android.database.Cursor
+import android.database.MatrixCursor
+import android.database.sqlite.SQLiteDatabase
+import android.util.Log
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import androidx.test.filters.LargeTest
+import com.google.gson.Gson
+import org.junit.After
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.stepic.droid.storage.operations.DatabaseOperationsImpl
+import org.stepik.android.cache.video.dao.VideoDao
+import org.stepik.android.model.Course
+import org.stepik.android.model.Section
+import org.stepik.android.model.Step
+import org.stepik.android.model.Video
+import java.util.Date
+
+/**
+ * Compares per-row cost of parsing with column lookup on every row
+ * with parsing through row mapper which resolves column indices once per cursor.
+ * Results are printed to logcat with [TAG].
+ */
+@LargeTest
+@RunWith(AndroidJUnit4::class)
+class RowMapperBenchmark {
+    companion object {
+        private const val TAG = "RowMapperBenchmark"
+
+        private const val ROWS_COUNT = 2000
+        private const val ITERATIONS = 10
+    }
+
+    private val videoDao = object : VideoDao {
+        override fun get(videoId: Long): Video? = null
+        override fun get(videoIds: LongArray): List<Video> = emptyList()
+        override fun replace(video: Video) {}
+        override fun remove(videoId: Long) {}
+    }
+
+    private lateinit var database: SQLiteDatabase
+    private lateinit var courseDao: CourseDaoImpl
+    private lateinit var stepDao: StepDaoImpl
+    private lateinit var sectionDao: SectionDaoImpl
+
+    @Before
+    fun setUp() {
+        database = SQLiteDatabase.create(null)
+        val databaseOperations = DatabaseOperationsImpl(database)
+        val gson = Gson()
+
+        courseDao = CourseDaoImpl(databaseOperations, videoDao, gson)
+        stepDao = StepDaoImpl(databaseOperations, BlockDaoImpl(databaseOperations, gson, videoDao))
+        sectionDao = SectionDaoImpl(databaseOperations)
+    }
+
+    @After
+    fun tearDown() {
+        database.close()
+    }
+
+    @Test
+    fun courseParsing() {
+        val cursor = createCursor(List(ROWS_COUNT) { courseDao.getContentValues(Course(id = it.toLong(), title = "Course $it", sections = longArrayOf(1, 2, 3))) })
+        measure("course", cursor, courseDao::parsePersistentObject, courseDao::createRowMapper)
+    }
+
+    @Test
+    fun stepParsing() {
+        val cursor = createCursor(List(ROWS_COUNT) { stepDao.getContentValues(Step(id = it.toLong(), lesson = 1, position = it.toLong(), createDate = Date())) })
+        measure("step", cursor, stepDao::parsePersistentObject, stepDao::createRowMapper)
+    }
+
+    @Test
+    fun sectionParsing() {
+        val cursor = createCursor(List(ROWS_COUNT) { sectionDao.getContentValues(Section(id = it.toLong(), course = 1, units = listOf(1L, 2L, 3L), title = "Section $it")) })
+        measure("section", cursor, sectionDao::parsePersistentObject, sectionDao::createRowMapper)
+    }
+
+    private fun createCursor(rows: List<ContentValues>): Cursor {
+        val columns = rows.first().keySet().toTypedArray()
+        val cursor = MatrixCursor(columns, rows.size)
+        rows.forEach { values ->
+            cursor.addRow(columns.map { column ->
+                when (val value = values.get(column)) {
+                    is Boolean -> if (value) 1 else 0
+                    else -> value
+                }
+            })
+        }
+        return cursor
+    }
+
+    private fun <T> measure(name: String, cursor: Cursor, parser: (Cursor) -> T, mapperFactory: (Cursor) -> RowMapper<T>) {
+        val perRowLookupNanos = measureRows(cursor) { parser(cursor) }
+
+        val mapper = mapperFactory(cursor)
+        val rowMapperNanos = measureRows(cursor) { mapper.map(cursor) }
+
+        Log.i(TAG, "$name: column lookup per row = $perRowLookupNanos ns/row, row mapper = $rowMapperNanos ns/row")
+        cursor.close()
+    }
+
+    private inline fun measureRows(cursor: Cursor, parseRow: () -> Unit): Long {
+        val start = System.nanoTime()
+        repeat(ITERATIONS) {
+            cursor.moveToFirst()
+            while (!cursor.isAfterLast) {
+                parseRow()
+                cursor.moveToNext()
+            }
+        }
+        return (System.nanoTime() - start) / (ROWS_COUNT * ITERATIONS)
+    }
+}
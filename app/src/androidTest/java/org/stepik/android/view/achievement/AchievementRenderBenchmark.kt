@@ -0,0 +1,81 @@
+package org.stepik.android.view.achievement
+
+import android.graphics.Bitmap
+import android.graphics.Canvas
+import android.graphics.RectF
+import android.util.Log
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import androidx.test.filters.LargeTest
+import androidx.test.platform.app.InstrumentationRegistry
+import com.caverock.androidsvg.SVG
+import org.junit.Test
+import org.junit.runner.RunWith
+
+/**
+ * Measures frame time of achievement icons from assets/images/vector/achievements:
+ * walking svg object tree on every frame against replaying picture cached by [SVG.renderToPicture].
+ * Results are printed to logcat with [TAG].
+ */
+@LargeTest
+@RunWith(AndroidJUnit4::class)
+class AchievementRenderBenchmark {
+    companion object {
+        private const val TAG = "AchievementRenderBenchmark"
+
+        private const val ASSETS_PATH = "images/vector/achievements"
+        private const val SIZE = 256
+        private const val WARM_UP_FRAMES = 5
+        private const val FRAMES = 60
+    }
+
+    private val assets = InstrumentationRegistry.getInstrumentation().targetContext.assets
+
+    @Test
+    fun achievements() {
+        val documents = listSvgAssets(ASSETS_PATH).map { SVG.getFromAsset(assets, it) }
+        val bitmap = Bitmap.createBitmap(SIZE, SIZE, Bitmap.Config.ARGB_8888)
+        val canvas = Canvas(bitmap)
+        val viewPort = RectF(0f, 0f, SIZE.toFloat(), SIZE.toFloat()) // same size as pictures
+
+        val treeNanos = measureFrames(documents) { svg ->
+            svg.renderToCanvas(canvas, viewPort)
+        }
+
+        documents.forEach(SVG::invalidatePictureCache)
+        val firstFrameStart = System.nanoTime()
+        documents.forEach { canvas.drawPicture(it.renderToPicture(SIZE, SIZE)) }
+        val firstFrameNanos = (System.nanoTime() - firstFrameStart) / documents.size
+
+        val pictureNanos = measureFrames(documents) { svg ->
+            canvas.drawPicture(svg.renderToPicture(SIZE, SIZE))
+        }
+
+        bitmap.recycle()
+
+        Log.i(TAG, "${documents.size} documents ($SIZE x $SIZE): " +
+                "tree = ${treeNanos / 1000} us/frame, " +
+                "first picture = ${firstFrameNanos / 1000} us/frame, " +
+                "cached picture = ${pictureNanos / 1000} us/frame")
+    }
+
+    private fun listSvgAssets(path: String): List<String> =
+        assets
+            .list(path)
+            .orEmpty()
+            .flatMap { name ->
+                val child = "$path/$name"
+                if (name.endsWith(".svg")) {
+                    listOf(child)
+                } else {
+                    listSvgAssets(child)
+                }
+            }
+
+    private inline fun measureFrames(documents: List<SVG>, draw: (SVG) -> Unit): Long {
+        repeat(WARM_UP_FRAMES) { documents.forEach(draw) }
+
+        val start = System.nanoTime()
+        repeat(FRAMES) { documents.forEach(draw) }
+        return (System.nanoTime() - start) / (FRAMES * documents.size)
+    }
+}
@@ -29,6 +29,7 @@ open class QuizCardsAdapter(
     }
 
     private val presenters = ArrayList<CardPresenter>()
+    private val lessonIds = HashSet<Long>()
 
     fun destroy() = presenters.forEach(CardPresenter::destroy)
 
@@ -41,7 +42,7 @@ open class QuizCardsAdapter(
     }
 
     fun isCardExists(lessonId: Long) =
-            presenters.any { it.card.lessonId == lessonId }
+            lessonId in lessonIds
 
     override fun onCreateViewHolder(parent: ViewGroup) =
             QuizCardViewHolder(LayoutInflater.from(parent.context).inflate(R.layout.adaptive_quiz_card_view, parent, false))
@@ -69,6 +70,7 @@ open class QuizCardsAdapter(
 
     fun add(card: Card) {
         presenters.add(CardPresenter(card, listener, answerListener))
+        lessonIds.add(card.lessonId)
         onDataAdded()
     }
 
@@ -76,6 +78,10 @@ open class QuizCardsAdapter(
         presenters.isEmpty() || presenters.size == 1 && presenters[0].card.lessonId == lesson
 
     override fun poll() {
-        presenters.removeAt(0).destroy()
+        val presenter = presenters.removeAt(0)
+        if (presenters.none { it.card.lessonId == presenter.card.lessonId }) {
+            lessonIds.remove(presenter.card.lessonId)
+        }
+        presenter.destroy()
     }
 }
\ No newline at end of file
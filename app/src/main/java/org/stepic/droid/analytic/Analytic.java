@@ -17,6 +17,11 @@ public interface Analytic {
         String REACTION_HARD_AFTER_CORRECT = "reaction_hard_after_correct_answer";
 
         String ADAPTIVE_MODE_DISABLED = "adaptive_mode_disabled";
+
+        /**
+         * Time in milliseconds between swipe and appearance of the next card, 0 if next card was already loaded
+         */
+        String NEXT_CARD_AWAIT_TIME = "adaptive_next_card_await_time";
     }
 
     interface Onboarding {
@@ -397,16 +402,22 @@ public interface Analytic {
         String MOVE_DOWNLOADED_FILE_ERROR = "downloader_v2_move_downloaded_file";
 
         String SYSTEM_DOWNLOAD_ERROR = "downloader_v2_system_download_error";
+        String HTTP_DOWNLOAD_ERROR = "downloader_v2_http_download_error";
 
         String ADD_TASK_ERROR = "downloader_v2_add_task_error";
         String REMOVE_TASK_ERROR = "downloader_v2_remove_task_error";
 
+        String PLANNING_TIME = "downloader_v2_planning_time";
+
         String FILE_TRANSFER_ERROR = "downloader_v2_file_transfer_error";
 
         String CLICK_SETTINGS_SECTIONS = "downloading_click_settings_sections";
 
         interface Params {
             String DOWNLOAD_STATUS = "status";
+            String STEPS_COUNT = "steps_count";
+            String TASKS_COUNT = "tasks_count";
+            String TIME_MS = "time_ms";
         }
 
     }
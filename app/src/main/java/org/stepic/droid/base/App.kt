@@ -20,7 +20,6 @@ import io.branch.referral.Branch
 import org.stepic.droid.BuildConfig
 import org.stepic.droid.R
 import org.stepic.droid.analytic.experiments.SplitTestsHolder
-import org.stepic.droid.code.highlight.ParserContainer
 import org.stepic.droid.core.ComponentManager
 import org.stepic.droid.core.ComponentManagerImpl
 import org.stepic.droid.di.AppCoreComponent
@@ -72,10 +71,6 @@ class App : MultiDexApplication() {
     @Inject
     internal lateinit var stepDeferrableViewReportService: DeferrableViewAssignmentReportServiceContainer
 
-    //don't use this field, it is just for init ASAP in background thread
-    @Inject
-    internal lateinit var codeParserContainer: ParserContainer
-
     @Inject
     internal lateinit var sharedPreferenceHelper: SharedPreferenceHelper
 
@@ -0,0 +1,239 @@
+package org.stepic.droid.code.highlight
+
+import org.stepic.droid.code.highlight.prettify.PrettifyParser
+import org.stepic.droid.code.highlight.prettify.parser.DecorationBuffer
+import org.stepic.droid.code.highlight.prettify.parser.Job
+import org.stepic.droid.code.highlight.prettify.parser.Prettify
+
+/**
+ * Keeps decorations of the previously highlighted text and re-lexes only the edited lines.
+ *
+ * For each line the lexer state at its start is kept: line starts in the initial state if it is a token boundary
+ * or lies inside of a whitespace token, so lexing from it produces the same tokens as lexing of the whole text.
+ * Lexing restarts from the closest line in the initial state before the edit and stops at the first line
+ * after the edit which is in the initial state in both passes, decorations after it are shifted from the previous pass.
+ * Tokens which were matched with lookahead till the end of the text (e.g. unterminated comments in grammars
+ * without end of input fallback) could change after any edit behind them, so lexing never restarts after them.
+ * Shorter failed lookaheads are not reported by the regex engine, so in rare cases a token in front of the edit
+ * keeps its previous style until the next full pass (language change).
+ *
+ * Re-lexed decorations are collected to the buffer reused between passes and spliced to the new primitive arrays,
+ * so a pass doesn't allocate objects per token.
+ */
+class IncrementalHighlighter(
+    private val parser: PrettifyParser
+) {
+    private var lang: String? = null
+    private var text: String = ""
+    private var decorations: SyntaxDecorations = SyntaxDecorations.EMPTY
+    private var initialLineStarts: PositionList = PositionList()
+    private var lookaheadTokenStarts: PositionList = PositionList()
+
+    private val relexBuffer = DecorationBuffer()
+
+    @Synchronized
+    fun highlight(lang: String, newText: String): SyntaxDecorations {
+        if (lang == this.lang && newText == text) {
+            return decorations
+        }
+
+        if (lang != this.lang || initialLineStarts.size == 0 || parser.isMarkup(lang, newText)) {
+            val lineStarts = PositionList()
+            val lookaheadStarts = PositionList()
+            val job = Job(0, newText)
+            parser.decorate(lang, job, 0) { tokenStart, tokenEnd, style, hitEnd ->
+                collectInitialLineStarts(newText, tokenStart, tokenEnd, style, lineStarts)
+                if (hitEnd) {
+                    lookaheadStarts.add(tokenStart)
+                }
+                -1
+            }
+            update(lang, newText, SyntaxDecorations.wrap(job.decorationBuffer, newText.length), lineStarts, lookaheadStarts)
+        } else {
+            relex(lang, newText)
+        }
+        return decorations
+    }
+
+    private fun relex(lang: String, newText: String) {
+        val oldText = text
+        val minLength = minOf(oldText.length, newText.length)
+        var prefix = 0
+        while (prefix < minLength && oldText[prefix] == newText[prefix]) {
+            prefix++
+        }
+        var suffix = 0
+        while (suffix < minLength - prefix && oldText[oldText.length - 1 - suffix] == newText[newText.length - 1 - suffix]) {
+            suffix++
+        }
+
+        val delta = newText.length - oldText.length
+        val editEnd = newText.length - suffix
+
+        // text before prefix is the same, so old states are valid there
+        val oldLineStarts = initialLineStarts
+        val oldLookaheadStarts = lookaheadTokenStarts
+        val restartBound =
+            if (oldLookaheadStarts.size > 0) {
+                minOf(prefix, oldLookaheadStarts[0])
+            } else {
+                prefix
+            }
+        val restart = oldLineStarts[maxOf(oldLineStarts.indexOfLast(restartBound), 0)]
+
+        val lineStarts = oldLineStarts.copyBefore(restart)
+        val lookaheadStarts = oldLookaheadStarts.copyBefore(restart)
+
+        val job = Job(0, newText, relexBuffer)
+        val convergence = parser.decorate(lang, job, restart) { tokenStart, tokenEnd, style, hitEnd ->
+            if (hitEnd) {
+                lookaheadStarts.add(tokenStart)
+            }
+
+            val from = lineStarts.size
+            collectInitialLineStarts(newText, tokenStart, tokenEnd, style, lineStarts)
+
+            for (i in from until lineStarts.size) {
+                val lineStart = lineStarts[i]
+                if (lineStart > editEnd && oldLineStarts.contains(lineStart - delta)) {
+                    lineStarts.size = i
+                    return@decorate lineStart
+                }
+            }
+            -1
+        }
+
+        if (convergence < newText.length) {
+            lineStarts.addShifted(oldLineStarts, convergence - delta, delta)
+            lookaheadStarts.removeFrom(convergence)
+            lookaheadStarts.addShifted(oldLookaheadStarts, convergence - delta, delta)
+        }
+
+        update(lang, newText, splice(decorations, relexBuffer, restart, convergence, delta, newText.length), lineStarts, lookaheadStarts)
+    }
+
+    /**
+     * Old decorations before [restart], new ones in [restart, convergence) and shifted old decorations after
+     */
+    private fun splice(old: SyntaxDecorations, relexed: DecorationBuffer, restart: Int, convergence: Int, delta: Int, length: Int): SyntaxDecorations {
+        val buffer = DecorationBuffer(old.size + relexed.size())
+
+        var i = 0
+        while (i < old.size && old.offsets[i] < restart) {
+            buffer.add(old.offsets[i], old.styleIds[i])
+            i++
+        }
+
+        for (j in 0 until relexed.size()) {
+            if (relexed.getOffset(j) >= convergence) break
+            buffer.add(relexed.getOffset(j), relexed.getStyleId(j))
+        }
+
+        if (convergence < length) {
+            var k = maxOf(old.indexAt(convergence - delta), 0)
+            buffer.add(convergence, old.styleIds[k])
+            k++
+            while (k < old.size) {
+                buffer.add(old.offsets[k] + delta, old.styleIds[k])
+                k++
+            }
+        }
+
+        return SyntaxDecorations.wrap(buffer, length)
+    }
+
+    private fun update(lang: String, text: String, decorations: SyntaxDecorations, initialLineStarts: PositionList, lookaheadTokenStarts: PositionList) {
+        this.lang = lang
+        this.text = text
+        this.decorations = decorations
+        this.initialLineStarts = initialLineStarts
+        this.lookaheadTokenStarts = lookaheadTokenStarts
+    }
+
+    private fun collectInitialLineStarts(text: String, tokenStart: Int, tokenEnd: Int, style: String, lineStarts: PositionList) {
+        if (tokenStart == 0 || text[tokenStart - 1] == '\n') {
+            lineStarts.add(tokenStart)
+        }
+
+        if (style == Prettify.PR_PLAIN && isBlank(text, tokenStart, tokenEnd)) {
+            var lineBreak = text.indexOf('\n', tokenStart)
+            while (lineBreak != -1 && lineBreak + 1 < tokenEnd) {
+                lineStarts.add(lineBreak + 1)
+                lineBreak = text.indexOf('\n', lineBreak + 1)
+            }
+        }
+    }
+
+    private fun isBlank(text: String, start: Int, end: Int): Boolean {
+        for (i in start until end) {
+            if (!Character.isWhitespace(text[i])) return false
+        }
+        return true
+    }
+
+    /**
+     * Sorted positions without boxing
+     */
+    private class PositionList {
+        private var positions = IntArray(64)
+
+        var size = 0
+
+        operator fun get(index: Int): Int =
+            positions[index]
+
+        fun add(position: Int) {
+            if (size == positions.size) {
+                positions = positions.copyOf(size * 2)
+            }
+            positions[size++] = position
+        }
+
+        fun copyBefore(position: Int): PositionList {
+            val list = PositionList()
+            for (i in 0 until size) {
+                if (positions[i] >= position) break
+                list.add(positions[i])
+            }
+            return list
+        }
+
+        /**
+         * Adds positions of [other] starting from [from] shifted by [delta]
+         */
+        fun addShifted(other: PositionList, from: Int, delta: Int) {
+            val index = other.indexOfLast(from - 1) + 1
+            for (i in index until other.size) {
+                add(other[i] + delta)
+            }
+        }
+
+        fun removeFrom(position: Int) {
+            size = indexOfLast(position - 1) + 1
+        }
+
+        /**
+         * @return index of the last position which is less or equal to [position] or -1
+         */
+        fun indexOfLast(position: Int): Int {
+            var low = 0
+            var high = size - 1
+            var index = -1
+            while (low <= high) {
+                val mid = (low + high) ushr 1
+                if (positions[mid] <= position) {
+                    index = mid
+                    low = mid + 1
+                } else {
+                    high = mid - 1
+                }
+            }
+            return index
+        }
+
+        fun contains(position: Int): Boolean {
+            val index = indexOfLast(position)
+            return index != -1 && positions[index] == position
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package org.stepic.droid.code.highlight
+
+import org.stepic.droid.code.highlight.prettify.parser.DecorationBuffer
+import org.stepic.droid.code.highlight.prettify.parser.Prettify
+
+/**
+ * Style runs of highlighted text: style with id [styleIds] at i (see [Prettify.getStyleId])
+ * starts at [offsets] at i and lasts till the next offset or [length]
+ */
+class SyntaxDecorations(
+    val offsets: IntArray,
+    val styleIds: IntArray,
+    val size: Int,
+    val length: Int
+) {
+    companion object {
+        val EMPTY = SyntaxDecorations(IntArray(0), IntArray(0), 0, 0)
+
+        /**
+         * Takes ownership of backing arrays of [buffer], so buffer shouldn't be modified later
+         */
+        fun wrap(buffer: DecorationBuffer, length: Int): SyntaxDecorations {
+            buffer.trimTail(length)
+            return SyntaxDecorations(buffer.offsets, buffer.styleIds, buffer.size(), length)
+        }
+    }
+
+    /**
+     * @return index of decoration which contains [position] or -1 if there is no such decoration
+     */
+    fun indexAt(position: Int): Int {
+        var low = 0
+        var high = size - 1
+        var index = -1
+        while (low <= high) {
+            val mid = (low + high) ushr 1
+            if (offsets[mid] <= position) {
+                index = mid
+                low = mid + 1
+            } else {
+                high = mid - 1
+            }
+        }
+        return index
+    }
+
+    /**
+     * @return id of style at [position] or -1 if there is no decoration
+     */
+    fun styleIdAt(position: Int): Int {
+        val index = indexAt(position)
+        return if (index == -1) -1 else styleIds[index]
+    }
+
+    fun endOf(index: Int): Int =
+        if (index + 1 < size) offsets[index + 1] else length
+}
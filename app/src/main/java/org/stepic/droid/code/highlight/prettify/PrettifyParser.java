@@ -1,5 +1,6 @@
 package org.stepic.droid.code.highlight.prettify;
 
+import org.stepic.droid.code.highlight.prettify.parser.DecorationBuffer;
 import org.stepic.droid.code.highlight.prettify.parser.Job;
 import org.stepic.droid.code.highlight.prettify.parser.Prettify;
 import org.stepic.droid.code.highlight.syntaxhighlight.ParseResult;
@@ -31,18 +32,32 @@ public class PrettifyParser implements Parser {
     public List<ParseResult> parse(String fileExtension, String content) {
         Job job = new Job(0, content);
         prettify.langHandlerForExtension(fileExtension, content).decorate(job);
-        List<Object> decorations = job.getDecorations();
+        DecorationBuffer decorations = job.getDecorationBuffer();
 
-
-        List<ParseResult> returnList = new ArrayList<>();
+        List<ParseResult> returnList = new ArrayList<>(decorations.size());
 
         // apply style according to the style list
-        for (int i = 0, iEnd = decorations.size(); i < iEnd; i += 2) {
-            int endPos = i + 2 < iEnd ? (Integer) decorations.get(i + 2) : content.length();
-            int startPos = (Integer) decorations.get(i);
-            returnList.add(new ParseResult(startPos, endPos - startPos, Collections.singletonList((String) decorations.get(i + 1))));
+        for (int i = 0, iEnd = decorations.size(); i < iEnd; i++) {
+            int endPos = i + 1 < iEnd ? decorations.getOffset(i + 1) : content.length();
+            int startPos = decorations.getOffset(i);
+            returnList.add(new ParseResult(startPos, endPos - startPos, Collections.singletonList(Prettify.getStyle(decorations.getStyleId(i)))));
         }
 
         return returnList;
     }
+
+    /**
+     * Decorates job.sourceCode from {@code start} till the position returned by {@code tokenListener},
+     * see {@link Prettify.CreateSimpleLexer#decorate(Job, int, Prettify.TokenListener)}.
+     */
+    public int decorate(String fileExtension, Job job, int start, Prettify.TokenListener tokenListener) {
+        return prettify.langHandlerForExtension(fileExtension, job.getSourceCode()).decorate(job, start, tokenListener);
+    }
+
+    /**
+     * Markup lexers embed other languages, so their state can't be restored from a line start.
+     */
+    public boolean isMarkup(String fileExtension, String content) {
+        return prettify.langHandlerForExtension(fileExtension, content) == prettify.langHandlerForExtension("default-markup", null);
+    }
 }
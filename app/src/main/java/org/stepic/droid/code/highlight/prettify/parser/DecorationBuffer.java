@@ -0,0 +1,117 @@
+package org.stepic.droid.code.highlight.prettify.parser;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Primitive storage of decorations: n<sup>th</sup> style run starts at {@code offsets[n]}
+ * and has style {@code styleIds[n]}, see {@link Prettify#getStyleId(String)}.
+ *
+ * Decorations are deduplicated on insertion in the same way as {@link Util#removeDuplicates(List, String)} does,
+ * so offsets are expected in ascending order. Buffer could be reused between passes with {@link #clear()}.
+ */
+public class DecorationBuffer {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private int[] offsets;
+    private int[] styleIds;
+    private int size;
+
+    /**
+     * Constructor.
+     */
+    public DecorationBuffer() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param capacity initial number of decorations
+     */
+    public DecorationBuffer(int capacity) {
+        offsets = new int[Math.max(capacity, DEFAULT_CAPACITY)];
+        styleIds = new int[offsets.length];
+    }
+
+    /**
+     * Adds decoration, decoration with the same offset overrides the previous one
+     * and adjacent decorations with the same style are merged.
+     *
+     * @param offset start of the style run
+     * @param styleId id of the style
+     */
+    public void add(int offset, int styleId) {
+        if (size > 0 && offsets[size - 1] == offset) {
+            size--;
+        }
+        if (size > 0 && styleIds[size - 1] == styleId) {
+            return;
+        }
+        if (size == offsets.length) {
+            offsets = Arrays.copyOf(offsets, size * 2);
+            styleIds = Arrays.copyOf(styleIds, size * 2);
+        }
+        offsets[size] = offset;
+        styleIds[size] = styleId;
+        size++;
+    }
+
+    /**
+     * Removes last zero length decorations, keeps at least one decoration.
+     *
+     * @param end end of the decorated source
+     */
+    public void trimTail(int end) {
+        while (size > 1 && offsets[size - 1] >= end) {
+            size--;
+        }
+    }
+
+    /**
+     * Removes all decorations, keeps allocated arrays.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getOffset(int index) {
+        return offsets[index];
+    }
+
+    public int getStyleId(int index) {
+        return styleIds[index];
+    }
+
+    /**
+     * Backing array of offsets, only first {@link #size()} items are valid.
+     */
+    public int[] getOffsets() {
+        return offsets;
+    }
+
+    /**
+     * Backing array of style ids, only first {@link #size()} items are valid.
+     */
+    public int[] getStyleIds() {
+        return styleIds;
+    }
+
+    /**
+     * @return decorations in the format of {@link Job#getDecorations()}
+     */
+    public List<Object> toList() {
+        List<Object> decorations = new ArrayList<>(size * 2);
+        for (int i = 0; i < size; i++) {
+            decorations.add(offsets[i]);
+            decorations.add(Prettify.getStyle(styleIds[i]));
+        }
+        return decorations;
+    }
+}
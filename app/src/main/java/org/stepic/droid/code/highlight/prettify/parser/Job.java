@@ -13,7 +13,6 @@
 // limitations under the License.
 package org.stepic.droid.code.highlight.prettify.parser;
 
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -32,11 +31,9 @@ public class Job {
      */
     protected String sourceCode;
     /**
-     * The parsed results. n<sup>th</sup> items are starting position position,
-     * n+1<sup>th</sup> items are the three-letter style keyword, where n start
-     * from 0.
+     * The parsed results, see {@link DecorationBuffer}.
      */
-    protected List<Object> decorations;
+    protected DecorationBuffer decorationBuffer;
 
     /**
      * Constructor.
@@ -52,12 +49,27 @@ public class Job {
      * @param sourceCode the source code
      */
     public Job(int basePos, String sourceCode) {
+        this(basePos, sourceCode, new DecorationBuffer());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param basePos the starting point of the source code
+     * @param sourceCode the source code
+     * @param decorationBuffer the buffer for parsed results, it is cleared before parsing,
+     *     so it could be reused between jobs
+     */
+    public Job(int basePos, String sourceCode, DecorationBuffer decorationBuffer) {
         if (sourceCode == null) {
             throw new NullPointerException("argument 'sourceCode' cannot be null");
         }
+        if (decorationBuffer == null) {
+            throw new NullPointerException("argument 'decorationBuffer' cannot be null");
+        }
         this.basePos = basePos;
         this.sourceCode = sourceCode;
-        decorations = new ArrayList<>();
+        this.decorationBuffer = decorationBuffer;
     }
 
     /**
@@ -100,24 +112,37 @@ public class Job {
     }
 
     /**
-     * Get the parsed results. see {@link #decorations}.
+     * Get the parsed results without boxing.
+     *
+     * @return the parsed results
+     */
+    public DecorationBuffer getDecorationBuffer() {
+        return decorationBuffer;
+    }
+
+    /**
+     * Get the parsed results. n<sup>th</sup> items are starting position position,
+     * n+1<sup>th</sup> items are the three-letter style keyword, where n start
+     * from 0.
      *
      * @return the parsed results
      */
     public List<Object> getDecorations() {
-        return new ArrayList<>(decorations);
+        return decorationBuffer.toList();
     }
 
     /**
-     * Set the parsed results. see {@link #decorations}.
+     * Set the parsed results. see {@link #getDecorations()}.
      *
      * @param decorations the parsed results
      */
     public void setDecorations(List<Object> decorations) {
+        decorationBuffer.clear();
         if (decorations == null) {
-            this.decorations = new ArrayList<>();
             return;
         }
-        this.decorations = new ArrayList<>(decorations);
+        for (int i = 0, iEnd = decorations.size(); i < iEnd; i += 2) {
+            decorationBuffer.add((Integer) decorations.get(i), Prettify.getStyleId((String) decorations.get(i + 1)));
+        }
     }
 }
@@ -47,8 +47,11 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
@@ -197,6 +200,44 @@ public class Prettify {
      * embedding of line numbers within code listings.
      */
     public static final String PR_NOCODE = "nocode";
+
+    /** Interned token styles, style id is an index in this array. Copied on write. */
+    private static volatile String[] styles = new String[0];
+    private static final ConcurrentHashMap<String, Integer> STYLE_IDS = new ConcurrentHashMap<>();
+
+    private static final int PR_PLAIN_ID = getStyleId(PR_PLAIN);
+
+    /**
+     * Interns token style.
+     *
+     * @param style the token style, e.g. {@link #PR_STRING}
+     * @return id of the style, which is stable for the process lifetime
+     */
+    public static int getStyleId(String style) {
+        Integer styleId = STYLE_IDS.get(style);
+        if (styleId != null) {
+            return styleId;
+        }
+        synchronized (STYLE_IDS) {
+            styleId = STYLE_IDS.get(style);
+            if (styleId == null) {
+                styleId = styles.length;
+                String[] newStyles = Arrays.copyOf(styles, styleId + 1);
+                newStyles[styleId] = style;
+                styles = newStyles;
+                STYLE_IDS.put(style, styleId);
+            }
+            return styleId;
+        }
+    }
+
+    /**
+     * @param styleId id returned by {@link #getStyleId(String)}
+     * @return the token style
+     */
+    public static String getStyle(int styleId) {
+        return styles[styleId];
+    }
     /**
      * A set of tokens that can precede a regular expression literal in
      * javascript
@@ -220,66 +261,49 @@ public class Prettify {
     // adjacent is not valid in any language I'm aware of, so I'm punting.
     // TODO: maybe style special characters inside a regexp as punctuation.
 
-    public Prettify() {
+    /**
+     * Creates a language handler, see {@link #registerLangHandler(LangHandlerFactory, List)}.
+     */
+    private interface LangHandlerFactory {
+        CreateSimpleLexer create() throws Exception;
+    }
+
+    /** Maps language-specific file extensions to factories of handlers, filled once in the static initializer. */
+    private static final Map<String, LangHandlerFactory> LANG_HANDLER_REGISTRY = new HashMap<>();
+    /**
+     * Compiled handlers shared between all {@link Prettify} instances. Keyed by factory,
+     * so file extensions of the same language share the same compiled grammar.
+     */
+    private static final ConcurrentHashMap<LangHandlerFactory, CreateSimpleLexer> LANG_HANDLER_CACHE = new ConcurrentHashMap<>();
+
+    private static final Pattern MARKUP_START_PATTERN = Pattern.compile("^\\s*<");
+
+    static {
         try {
-            Map<String, Object> decorateSourceMap = new HashMap<String, Object>();
+            Map<String, Object> decorateSourceMap = new HashMap<>();
             decorateSourceMap.put("keywords", ALL_KEYWORDS);
             decorateSourceMap.put("hashComments", true);
             decorateSourceMap.put("cStyleComments", true);
             decorateSourceMap.put("multiLineStrings", true);
             decorateSourceMap.put("regexLiterals", true);
-            registerLangHandler(sourceDecorator(decorateSourceMap), Collections.singletonList("default-code"));
-
-            List<List<Object>> shortcutStylePatterns, fallthroughStylePatterns;
-
-            shortcutStylePatterns = new ArrayList<>();
-            fallthroughStylePatterns = new ArrayList<>();
-            fallthroughStylePatterns.add(Arrays.asList(new Object[]{PR_PLAIN, Pattern.compile("^[^<?]+")}));
-            fallthroughStylePatterns.add(Arrays.asList(new Object[]{PR_DECLARATION, Pattern.compile("^<!\\w[^>]*(?:>|$)")}));
-            fallthroughStylePatterns.add(Arrays.asList(new Object[]{PR_COMMENT, Pattern.compile("^<\\!--[\\s\\S]*?(?:-\\->|$)")}));
-            // Unescaped content in an unknown language
-            fallthroughStylePatterns.add(Arrays.asList(new Object[]{"lang-", Pattern.compile("^<\\?([\\s\\S]+?)(?:\\?>|$)")}));
-            fallthroughStylePatterns.add(Arrays.asList(new Object[]{"lang-", Pattern.compile("^<%([\\s\\S]+?)(?:%>|$)")}));
-            fallthroughStylePatterns.add(Arrays.asList(new Object[]{PR_PUNCTUATION, Pattern.compile("^(?:<[%?]|[%?]>)")}));
-            fallthroughStylePatterns.add(Arrays.asList(new Object[]{"lang-", Pattern.compile("^<xmp\\b[^>]*>([\\s\\S]+?)<\\/xmp\\b[^>]*>", Pattern.CASE_INSENSITIVE)}));
-            // Unescaped content in javascript.  (Or possibly vbscript).
-            fallthroughStylePatterns.add(Arrays.asList(new Object[]{"lang-js", Pattern.compile("^<script\\b[^>]*>([\\s\\S]*?)(<\\/script\\b[^>]*>)", Pattern.CASE_INSENSITIVE)}));
-            // Contains unescaped stylesheet content
-            fallthroughStylePatterns.add(Arrays.asList(new Object[]{"lang-css", Pattern.compile("^<style\\b[^>]*>([\\s\\S]*?)(<\\/style\\b[^>]*>)", Pattern.CASE_INSENSITIVE)}));
-            fallthroughStylePatterns.add(Arrays.asList(new Object[]{"lang-in.tag", Pattern.compile("^(<\\/?[a-z][^<>]*>)", Pattern.CASE_INSENSITIVE)}));
-            registerLangHandler(new CreateSimpleLexer(shortcutStylePatterns, fallthroughStylePatterns), Arrays.asList("default-markup", "htm", "html", "mxml", "xhtml", "xml", "xsl"));
-
-            shortcutStylePatterns = new ArrayList<>();
-            fallthroughStylePatterns = new ArrayList<>();
-            shortcutStylePatterns.add(Arrays.asList(new Object[]{PR_PLAIN, Pattern.compile("^[\\s]+"), null, " \t\r\n"}));
-            shortcutStylePatterns.add(Arrays.asList(new Object[]{PR_ATTRIB_VALUE, Pattern.compile("^(?:\\\"[^\\\"]*\\\"?|\\'[^\\']*\\'?)"), null, "\"'"}));
-            fallthroughStylePatterns.add(Arrays.asList(new Object[]{PR_TAG, Pattern.compile("^^<\\/?[a-z](?:[\\w.:-]*\\w)?|\\/?>$", Pattern.CASE_INSENSITIVE)}));
-            fallthroughStylePatterns.add(Arrays.asList(new Object[]{PR_ATTRIB_NAME, Pattern.compile("^(?!style[\\s=]|on)[a-z](?:[\\w:-]*\\w)?", Pattern.CASE_INSENSITIVE)}));
-            fallthroughStylePatterns.add(Arrays.asList(new Object[]{"lang-uq.val", Pattern.compile("^=\\s*([^>\\'\\\"\\s]*(?:[^>\\'\\\"\\s\\/]|\\/(?=\\s)))", Pattern.CASE_INSENSITIVE)}));
-            fallthroughStylePatterns.add(Arrays.asList(new Object[]{PR_PUNCTUATION, Pattern.compile("^[=<>\\/]+")}));
-            fallthroughStylePatterns.add(Arrays.asList(new Object[]{"lang-js", Pattern.compile("^on\\w+\\s*=\\s*\\\"([^\\\"]+)\\\"", Pattern.CASE_INSENSITIVE)}));
-            fallthroughStylePatterns.add(Arrays.asList(new Object[]{"lang-js", Pattern.compile("^on\\w+\\s*=\\s*\\'([^\\']+)\\'", Pattern.CASE_INSENSITIVE)}));
-            fallthroughStylePatterns.add(Arrays.asList(new Object[]{"lang-js", Pattern.compile("^on\\w+\\s*=\\s*([^\\\"\\'>\\s]+)", Pattern.CASE_INSENSITIVE)}));
-            fallthroughStylePatterns.add(Arrays.asList(new Object[]{"lang-css", Pattern.compile("^style\\s*=\\s*\\\"([^\\\"]+)\\\"", Pattern.CASE_INSENSITIVE)}));
-            fallthroughStylePatterns.add(Arrays.asList(new Object[]{"lang-css", Pattern.compile("^style\\s*=\\s*\\'([^\\']+)\\'", Pattern.CASE_INSENSITIVE)}));
-            fallthroughStylePatterns.add(Arrays.asList(new Object[]{"lang-css", Pattern.compile("^style\\s*=\\s\\*([^\\\"\\'>\\s]+)", Pattern.CASE_INSENSITIVE)}));
-            registerLangHandler(new CreateSimpleLexer(shortcutStylePatterns, fallthroughStylePatterns), Collections.singletonList("in.tag"));
-
-            shortcutStylePatterns = new ArrayList<>();
-            fallthroughStylePatterns = new ArrayList<>();
-            fallthroughStylePatterns.add(Arrays.asList(new Object[]{PR_ATTRIB_VALUE, Pattern.compile("^[\\s\\S]+")}));
-            registerLangHandler(new CreateSimpleLexer(shortcutStylePatterns, fallthroughStylePatterns), Collections.singletonList("uq.val"));
+            registerLangHandler(sourceDecoratorFactory(decorateSourceMap), Collections.singletonList("default-code"));
+
+            registerLangHandler(Prettify::createMarkupHandler, Arrays.asList("default-markup", "htm", "html", "mxml", "xhtml", "xml", "xsl"));
+
+            registerLangHandler(Prettify::createInTagHandler, Collections.singletonList("in.tag"));
+
+            registerLangHandler(Prettify::createUnquotedValueHandler, Collections.singletonList("uq.val"));
 
             decorateSourceMap = new HashMap<>();
             decorateSourceMap.put("keywords", CPP_KEYWORDS);
             decorateSourceMap.put("hashComments", true);
             decorateSourceMap.put("cStyleComments", true);
             decorateSourceMap.put("types", C_TYPES);
-            registerLangHandler(sourceDecorator(decorateSourceMap), Arrays.asList("c", "cc", "cpp", "cxx", "cyc", "m"));
+            registerLangHandler(sourceDecoratorFactory(decorateSourceMap), Arrays.asList("c", "cc", "cpp", "cxx", "cyc", "m"));
 
             decorateSourceMap = new HashMap<>();
             decorateSourceMap.put("keywords", "null,true,false");
-            registerLangHandler(sourceDecorator(decorateSourceMap), Collections.singletonList("json"));
+            registerLangHandler(sourceDecoratorFactory(decorateSourceMap), Collections.singletonList("json"));
 
             decorateSourceMap = new HashMap<>();
             decorateSourceMap.put("keywords", CSHARP_KEYWORDS);
@@ -287,45 +311,45 @@ public class Prettify {
             decorateSourceMap.put("cStyleComments", true);
             decorateSourceMap.put("verbatimStrings", true);
             decorateSourceMap.put("types", C_TYPES);
-            registerLangHandler(sourceDecorator(decorateSourceMap), Collections.singletonList("cs"));
+            registerLangHandler(sourceDecoratorFactory(decorateSourceMap), Collections.singletonList("cs"));
 
             decorateSourceMap = new HashMap<>();
             decorateSourceMap.put("keywords", JAVA_KEYWORDS);
             decorateSourceMap.put("cStyleComments", true);
-            registerLangHandler(sourceDecorator(decorateSourceMap), Collections.singletonList("java"));
+            registerLangHandler(sourceDecoratorFactory(decorateSourceMap), Collections.singletonList("java"));
 
             decorateSourceMap = new HashMap<>();
             decorateSourceMap.put("keywords", SH_KEYWORDS);
             decorateSourceMap.put("hashComments", true);
             decorateSourceMap.put("multiLineStrings", true);
-            registerLangHandler(sourceDecorator(decorateSourceMap), Arrays.asList("bash", "bsh", "csh", "sh"));
+            registerLangHandler(sourceDecoratorFactory(decorateSourceMap), Arrays.asList("bash", "bsh", "csh", "sh"));
 
             decorateSourceMap = new HashMap<>();
             decorateSourceMap.put("keywords", PYTHON_KEYWORDS);
             decorateSourceMap.put("hashComments", true);
             decorateSourceMap.put("multiLineStrings", true);
             decorateSourceMap.put("tripleQuotedStrings", true);
-            registerLangHandler(sourceDecorator(decorateSourceMap), Arrays.asList("cv", "py", "python"));
+            registerLangHandler(sourceDecoratorFactory(decorateSourceMap), Arrays.asList("cv", "py", "python"));
 
             decorateSourceMap = new HashMap<>();
             decorateSourceMap.put("keywords", PERL_KEYWORDS);
             decorateSourceMap.put("hashComments", true);
             decorateSourceMap.put("multiLineStrings", true);
             decorateSourceMap.put("regexLiterals", 2);   // multiline regex literals
-            registerLangHandler(sourceDecorator(decorateSourceMap), Arrays.asList("perl", "pl", "pm"));
+            registerLangHandler(sourceDecoratorFactory(decorateSourceMap), Arrays.asList("perl", "pl", "pm"));
 
             decorateSourceMap = new HashMap<>();
             decorateSourceMap.put("keywords", RUBY_KEYWORDS);
             decorateSourceMap.put("hashComments", true);
             decorateSourceMap.put("multiLineStrings", true);
             decorateSourceMap.put("regexLiterals", true);
-            registerLangHandler(sourceDecorator(decorateSourceMap), Arrays.asList("rb", "ruby"));
+            registerLangHandler(sourceDecoratorFactory(decorateSourceMap), Arrays.asList("rb", "ruby"));
 
             decorateSourceMap = new HashMap<>();
             decorateSourceMap.put("keywords", JSCRIPT_KEYWORDS);
             decorateSourceMap.put("cStyleComments", true);
             decorateSourceMap.put("regexLiterals", true);
-            registerLangHandler(sourceDecorator(decorateSourceMap), Arrays.asList("javascript", "js"));
+            registerLangHandler(sourceDecoratorFactory(decorateSourceMap), Arrays.asList("javascript", "js"));
 
             decorateSourceMap = new HashMap<>();
             decorateSourceMap.put("keywords", COFFEE_KEYWORDS);
@@ -334,18 +358,15 @@ public class Prettify {
             decorateSourceMap.put("multilineStrings", true);
             decorateSourceMap.put("tripleQuotedStrings", true);
             decorateSourceMap.put("regexLiterals", true);
-            registerLangHandler(sourceDecorator(decorateSourceMap), Collections.singletonList("coffee"));
+            registerLangHandler(sourceDecoratorFactory(decorateSourceMap), Collections.singletonList("coffee"));
 
             decorateSourceMap = new HashMap<>();
             decorateSourceMap.put("keywords", RUST_KEYWORDS);
             decorateSourceMap.put("cStyleComments", true);
             decorateSourceMap.put("multilineStrings", true);
-            registerLangHandler(sourceDecorator(decorateSourceMap), Arrays.asList("rc", "rs", "rust"));
+            registerLangHandler(sourceDecoratorFactory(decorateSourceMap), Arrays.asList("rc", "rs", "rust"));
 
-            shortcutStylePatterns = new ArrayList<>();
-            fallthroughStylePatterns = new ArrayList<>();
-            fallthroughStylePatterns.add(Arrays.asList(new Object[]{PR_STRING, Pattern.compile("^[\\s\\S]+")}));
-            registerLangHandler(new CreateSimpleLexer(shortcutStylePatterns, fallthroughStylePatterns), Collections.singletonList("regex"));
+            registerLangHandler(Prettify::createRegexHandler, Collections.singletonList("regex"));
 
             /*
              * Registers a language handler for Protocol Buffers as described at
@@ -363,7 +384,7 @@ public class Prettify {
                     + "syntax,to,true");
             decorateSourceMap.put("types", Pattern.compile("^(bool|(double|s?fixed|[su]?int)(32|64)|float|string)\\b"));
             decorateSourceMap.put("cStyleComments", true);
-            registerLangHandler(sourceDecorator(decorateSourceMap), Collections.singletonList("proto"));
+            registerLangHandler(sourceDecoratorFactory(decorateSourceMap), Collections.singletonList("proto"));
 
             register(LangAppollo.class, LangAppollo.getFileExtensions());
             register(LangBasic.class, LangBasic.getFileExtensions());
@@ -398,24 +419,109 @@ public class Prettify {
         }
     }
 
+    /**
+     * Handlers are registered in the static initializer, but their grammars are compiled
+     * only when the corresponding file extension is used for the first time.
+     */
+    public Prettify() {
+    }
+
+    /**
+     * Handler for markup, embedded scripts, styles and tags are decorated by other handlers.
+     */
+    private static CreateSimpleLexer createMarkupHandler() throws Exception {
+        List<List<Object>> shortcutStylePatterns = new ArrayList<>();
+        List<List<Object>> fallthroughStylePatterns = new ArrayList<>();
+        fallthroughStylePatterns.add(Arrays.asList(new Object[]{PR_PLAIN, Pattern.compile("^[^<?]+")}));
+        fallthroughStylePatterns.add(Arrays.asList(new Object[]{PR_DECLARATION, Pattern.compile("^<!\\w[^>]*(?:>|$)")}));
+        fallthroughStylePatterns.add(Arrays.asList(new Object[]{PR_COMMENT, Pattern.compile("^<\\!--[\\s\\S]*?(?:-\\->|$)")}));
+        // Unescaped content in an unknown language
+        fallthroughStylePatterns.add(Arrays.asList(new Object[]{"lang-", Pattern.compile("^<\\?([\\s\\S]+?)(?:\\?>|$)")}));
+        fallthroughStylePatterns.add(Arrays.asList(new Object[]{"lang-", Pattern.compile("^<%([\\s\\S]+?)(?:%>|$)")}));
+        fallthroughStylePatterns.add(Arrays.asList(new Object[]{PR_PUNCTUATION, Pattern.compile("^(?:<[%?]|[%?]>)")}));
+        fallthroughStylePatterns.add(Arrays.asList(new Object[]{"lang-", Pattern.compile("^<xmp\\b[^>]*>([\\s\\S]+?)<\\/xmp\\b[^>]*>", Pattern.CASE_INSENSITIVE)}));
+        // Unescaped content in javascript.  (Or possibly vbscript).
+        fallthroughStylePatterns.add(Arrays.asList(new Object[]{"lang-js", Pattern.compile("^<script\\b[^>]*>([\\s\\S]*?)(<\\/script\\b[^>]*>)", Pattern.CASE_INSENSITIVE)}));
+        // Contains unescaped stylesheet content
+        fallthroughStylePatterns.add(Arrays.asList(new Object[]{"lang-css", Pattern.compile("^<style\\b[^>]*>([\\s\\S]*?)(<\\/style\\b[^>]*>)", Pattern.CASE_INSENSITIVE)}));
+        fallthroughStylePatterns.add(Arrays.asList(new Object[]{"lang-in.tag", Pattern.compile("^(<\\/?[a-z][^<>]*>)", Pattern.CASE_INSENSITIVE)}));
+        return new CreateSimpleLexer(shortcutStylePatterns, fallthroughStylePatterns);
+    }
+
+    /**
+     * Handler for the content of markup tags.
+     */
+    private static CreateSimpleLexer createInTagHandler() throws Exception {
+        List<List<Object>> shortcutStylePatterns = new ArrayList<>();
+        List<List<Object>> fallthroughStylePatterns = new ArrayList<>();
+        shortcutStylePatterns.add(Arrays.asList(new Object[]{PR_PLAIN, Pattern.compile("^[\\s]+"), null, " \t\r\n"}));
+        shortcutStylePatterns.add(Arrays.asList(new Object[]{PR_ATTRIB_VALUE, Pattern.compile("^(?:\\\"[^\\\"]*\\\"?|\\'[^\\']*\\'?)"), null, "\"'"}));
+        fallthroughStylePatterns.add(Arrays.asList(new Object[]{PR_TAG, Pattern.compile("^^<\\/?[a-z](?:[\\w.:-]*\\w)?|\\/?>$", Pattern.CASE_INSENSITIVE)}));
+        fallthroughStylePatterns.add(Arrays.asList(new Object[]{PR_ATTRIB_NAME, Pattern.compile("^(?!style[\\s=]|on)[a-z](?:[\\w:-]*\\w)?", Pattern.CASE_INSENSITIVE)}));
+        fallthroughStylePatterns.add(Arrays.asList(new Object[]{"lang-uq.val", Pattern.compile("^=\\s*([^>\\'\\\"\\s]*(?:[^>\\'\\\"\\s\\/]|\\/(?=\\s)))", Pattern.CASE_INSENSITIVE)}));
+        fallthroughStylePatterns.add(Arrays.asList(new Object[]{PR_PUNCTUATION, Pattern.compile("^[=<>\\/]+")}));
+        fallthroughStylePatterns.add(Arrays.asList(new Object[]{"lang-js", Pattern.compile("^on\\w+\\s*=\\s*\\\"([^\\\"]+)\\\"", Pattern.CASE_INSENSITIVE)}));
+        fallthroughStylePatterns.add(Arrays.asList(new Object[]{"lang-js", Pattern.compile("^on\\w+\\s*=\\s*\\'([^\\']+)\\'", Pattern.CASE_INSENSITIVE)}));
+        fallthroughStylePatterns.add(Arrays.asList(new Object[]{"lang-js", Pattern.compile("^on\\w+\\s*=\\s*([^\\\"\\'>\\s]+)", Pattern.CASE_INSENSITIVE)}));
+        fallthroughStylePatterns.add(Arrays.asList(new Object[]{"lang-css", Pattern.compile("^style\\s*=\\s*\\\"([^\\\"]+)\\\"", Pattern.CASE_INSENSITIVE)}));
+        fallthroughStylePatterns.add(Arrays.asList(new Object[]{"lang-css", Pattern.compile("^style\\s*=\\s*\\'([^\\']+)\\'", Pattern.CASE_INSENSITIVE)}));
+        fallthroughStylePatterns.add(Arrays.asList(new Object[]{"lang-css", Pattern.compile("^style\\s*=\\s\\*([^\\\"\\'>\\s]+)", Pattern.CASE_INSENSITIVE)}));
+        return new CreateSimpleLexer(shortcutStylePatterns, fallthroughStylePatterns);
+    }
+
+    /**
+     * Handler for unquoted attribute values of markup tags.
+     */
+    private static CreateSimpleLexer createUnquotedValueHandler() throws Exception {
+        List<List<Object>> shortcutStylePatterns = new ArrayList<>();
+        List<List<Object>> fallthroughStylePatterns = new ArrayList<>();
+        fallthroughStylePatterns.add(Arrays.asList(new Object[]{PR_ATTRIB_VALUE, Pattern.compile("^[\\s\\S]+")}));
+        return new CreateSimpleLexer(shortcutStylePatterns, fallthroughStylePatterns);
+    }
+
+    /**
+     * Handler for regular expression literals.
+     */
+    private static CreateSimpleLexer createRegexHandler() throws Exception {
+        List<List<Object>> shortcutStylePatterns = new ArrayList<>();
+        List<List<Object>> fallthroughStylePatterns = new ArrayList<>();
+        fallthroughStylePatterns.add(Arrays.asList(new Object[]{PR_STRING, Pattern.compile("^[\\s\\S]+")}));
+        return new CreateSimpleLexer(shortcutStylePatterns, fallthroughStylePatterns);
+    }
+
     /**
      * Apply the given language handler to sourceCode and add the resulting
      * decorations to out.
      * @param basePos the index of sourceCode within the chunk of source
      *    whose decorations are already present on out.
      */
-    private static void appendDecorations(int basePos, String sourceCode, CreateSimpleLexer langHandler, List<Object> out) {
+    private static void appendDecorations(int basePos, String sourceCode, CreateSimpleLexer langHandler, DecorationBuffer out) {
         if (sourceCode == null) {
             throw new NullPointerException("argument 'sourceCode' cannot be null");
         }
-        Job job = new Job();
-        job.setSourceCode(sourceCode);
-        job.setBasePos(basePos);
-        langHandler.decorate(job);
-        out.addAll(job.getDecorations());
+        langHandler.decorate(sourceCode, basePos, 0, null, out);
+    }
+
+    /**
+     * Receives tokens of incremental lexing, see {@link CreateSimpleLexer#decorate(Job, int, TokenListener)}.
+     */
+    public interface TokenListener {
+
+        /**
+         * Called after each lexed token except embedded ones.
+         *
+         * @param tokenStart position of the token start
+         * @param tokenEnd position of the token end, exclusive
+         * @param style style of the token
+         * @param hitEnd whether the tokenizer looked ahead till the end of the source to match the token,
+         *     so the token could change after any edit behind it
+         *
+         * @return position in [tokenStart, tokenEnd] to stop lexing at or -1 to continue
+         */
+        int onToken(int tokenStart, int tokenEnd, String style, boolean hitEnd);
     }
 
-    public class CreateSimpleLexer {
+    public static class CreateSimpleLexer {
 
         protected List<List<Object>> fallthroughStylePatterns;
         protected Map<Character, List<Object>> shortcuts = new HashMap<>();
@@ -505,20 +611,47 @@ public class Prettify {
          * }</pre>
          */
         public void decorate(Job job) {
-            String sourceCode = job.getSourceCode();
-            int basePos = job.getBasePos();
-            /* Even entries are positions in source in ascending order.  Odd enties
-       * are style markers (e.g., PR_COMMENT) that run from that position until
+            decorate(job, 0, null);
+        }
+
+        /**
+         * Lexes job.sourceCode from {@code start} till the position returned by {@code tokenListener}.
+         * The tokenizer sees the whole source, so if {@code start} is a token boundary of
+         * {@link #decorate(Job)} the same tokens are produced from it.
+         *
+         * @param job see {@link #decorate(Job)}
+         * @param start position in job.sourceCode to start lexing from
+         * @param tokenListener the listener which decides where to stop or null to lex till the end of the source
+         *
+         * @return position in the larger chunk of source code where lexing was stopped,
+         *     decorations after this position should be ignored
+         */
+        public int decorate(Job job, int start, TokenListener tokenListener) {
+            DecorationBuffer decorations = job.getDecorationBuffer();
+            decorations.clear();
+            int stopPos = decorate(job.getSourceCode(), job.getBasePos(), start, tokenListener, decorations);
+            // remove last zero length tag
+            decorations.trimTail(job.getBasePos() + job.getSourceCode().length());
+            return stopPos;
+        }
+
+        private int decorate(String sourceCode, int basePos, int start, TokenListener tokenListener, DecorationBuffer decorations) {
+            /* Decorations are positions in source in ascending order with ids of
+       * style markers (e.g., PR_COMMENT) that run from that position until
        * the end.
-       * @type {Array.<number|string>}
        */
-            List<Object> decorations = new ArrayList<>(Arrays.asList(new Object[]{basePos, PR_PLAIN}));
-            int pos = 0;  // index into sourceCode
-            String[] tokens = Util.match(tokenizer, sourceCode, true);
+            decorations.add(basePos + start, PR_PLAIN_ID);
+            int pos = start;  // index into sourceCode
+            int stopPos = basePos + sourceCode.length();
+            Matcher tokenMatcher = tokenizer.matcher(sourceCode)
+                    .region(start, sourceCode.length())
+                    .useTransparentBounds(true)
+                    .useAnchoringBounds(false);
             Map<String, String> styleCache = new HashMap<>();
 
-            for (int ti = 0, nTokens = tokens.length; ti < nTokens; ++ti) {
-                String token = tokens[ti];
+            while (tokenMatcher.find()) {
+                String token = tokenMatcher.group(0);
+                boolean hitEnd = tokenMatcher.hitEnd();
                 String style = styleCache.get(token);
                 String[] match = null;
 
@@ -560,8 +693,15 @@ public class Prettify {
                 pos += token.length();
 
                 if (!isEmbedded) {
-                    decorations.add(basePos + tokenStart);
-                    decorations.add(style);
+                    decorations.add(basePos + tokenStart, getStyleId(style));
+
+                    if (tokenListener != null) {
+                        int position = tokenListener.onToken(basePos + tokenStart, basePos + pos, style, hitEnd);
+                        if (position != -1) {
+                            stopPos = position;
+                            break;
+                        }
+                    }
                 } else {  // Treat group 1 as an embedded block of source code.
                     String embeddedSource = match[1];
                     int embeddedSourceStart = token.indexOf(embeddedSource);
@@ -581,7 +721,7 @@ public class Prettify {
                     // Decorate the embedded source
                     appendDecorations(basePos + tokenStart + embeddedSourceStart,
                             embeddedSource,
-                            langHandlerForExtension(lang, embeddedSource),
+                            getLangHandler(lang, embeddedSource),
                             decorations);
                     // Decorate the right of the embedded section
                     appendDecorations(basePos + tokenStart + embeddedSourceEnd,
@@ -590,7 +730,7 @@ public class Prettify {
                 }
             }
 
-            job.setDecorations(Util.removeDuplicates(decorations, job.getSourceCode()));
+            return stopPos;
         }
     }
 
@@ -609,7 +749,11 @@ public class Prettify {
      * @return a function that examines the source code
      *     in the input job and builds the decoration list.
      */
-    private CreateSimpleLexer sourceDecorator(Map<String, Object> options) throws Exception {
+    private static LangHandlerFactory sourceDecoratorFactory(final Map<String, Object> options) {
+        return () -> sourceDecorator(options);
+    }
+
+    private static CreateSimpleLexer sourceDecorator(Map<String, Object> options) throws Exception {
         List<List<Object>> shortcutStylePatterns = new ArrayList<>();
         List<List<Object>> fallthroughStylePatterns = new ArrayList<>();
         if (Util.getVariableValueAsBoolean(options.get("tripleQuotedStrings"))) {
@@ -801,8 +945,6 @@ public class Prettify {
 
         return new CreateSimpleLexer(shortcutStylePatterns, fallthroughStylePatterns);
     }
-    /** Maps language-specific file extensions to handlers. */
-    private Map<String, Object> langHandlerRegistry = new HashMap<>();
 
     /** Register a language handler for the given file extensions.
      * @param handler a function from source code to a list
@@ -819,11 +961,11 @@ public class Prettify {
      *                 to the larger source chunk.
      *      } }
      */
-    private void registerLangHandler(CreateSimpleLexer handler, List<String> fileExtensions) throws Exception {
+    private static void registerLangHandler(LangHandlerFactory handler, List<String> fileExtensions) throws Exception {
         for (int i = fileExtensions.size(); --i >= 0;) {
             String ext = fileExtensions.get(i);
-            if (langHandlerRegistry.get(ext) == null) {
-                langHandlerRegistry.put(ext, handler);
+            if (LANG_HANDLER_REGISTRY.get(ext) == null) {
+                LANG_HANDLER_REGISTRY.put(ext, handler);
             } else {
                 throw new Exception("cannot override language handler " + ext);
             }
@@ -836,18 +978,14 @@ public class Prettify {
      * @throws Exception cannot instantiate the object using the class,
      * or language handler with specified extension exist already
      */
-    private void register(Class<? extends Lang> clazz, List<String> fileExtensions) throws Exception {
+    private static void register(final Class<? extends Lang> clazz, List<String> fileExtensions) throws Exception {
         if (clazz == null) {
             throw new NullPointerException("argument 'clazz' cannot be null");
         }
-        for (int i = fileExtensions.size(); --i >= 0;) {
-            String ext = fileExtensions.get(i);
-            if (langHandlerRegistry.get(ext) == null) {
-                langHandlerRegistry.put(ext, clazz);
-            } else {
-                throw new Exception("cannot override language handler " + ext);
-            }
-        }
+        registerLangHandler(() -> {
+            Lang lang = clazz.newInstance();
+            return new CreateSimpleLexer(lang.getShortcutStylePatterns(), lang.getFallthroughStylePatterns());
+        }, fileExtensions);
     }
 
     /**
@@ -857,29 +995,47 @@ public class Prettify {
      * @return the parser
      */
     public CreateSimpleLexer langHandlerForExtension(String extension, String source) {
-        if (!(extension != null && langHandlerRegistry.get(extension) != null)) {
+        return getLangHandler(extension, source);
+    }
+
+    private static CreateSimpleLexer getLangHandler(String extension, String source) {
+        if (!(extension != null && LANG_HANDLER_REGISTRY.get(extension) != null)) {
             // Treat it as markup if the first non whitespace character is a < and
             // the last non-whitespace character is a >.
-            extension = Util.test(Pattern.compile("^\\s*<"), source)
+            extension = Util.test(MARKUP_START_PATTERN, source)
                     ? "default-markup"
                     : "default-code";
         }
 
-        Object handler = langHandlerRegistry.get(extension);
-        if (handler instanceof CreateSimpleLexer) {
-            return (CreateSimpleLexer) handler;
-        } else {
-            CreateSimpleLexer _simpleLexer;
-            try {
-                Lang _lang = ((Class<Lang>) handler).newInstance();
-                _simpleLexer = new CreateSimpleLexer(_lang.getShortcutStylePatterns(), _lang.getFallthroughStylePatterns());
-                langHandlerRegistry.put(extension, _simpleLexer);
-            } catch (Exception ex) {
-                LOG.log(Level.SEVERE, null, ex);
-                return null;
-            }
+        LangHandlerFactory factory = LANG_HANDLER_REGISTRY.get(extension);
+        CreateSimpleLexer handler = LANG_HANDLER_CACHE.get(factory);
+        if (handler != null) {
+            return handler;
+        }
 
-            return _simpleLexer;
+        try {
+            handler = factory.create();
+        } catch (Exception ex) {
+            LOG.log(Level.SEVERE, null, ex);
+            return null;
         }
+
+        // grammar could be compiled concurrently, keep the first one
+        CreateSimpleLexer cachedHandler = LANG_HANDLER_CACHE.putIfAbsent(factory, handler);
+        return cachedHandler != null ? cachedHandler : handler;
+    }
+
+    /**
+     * @return file extensions of all registered handlers
+     */
+    static Set<String> getRegisteredExtensions() {
+        return LANG_HANDLER_REGISTRY.keySet();
+    }
+
+    /**
+     * Drops compiled handlers, so they will be compiled again on the next use.
+     */
+    static void clearLangHandlerCache() {
+        LANG_HANDLER_CACHE.clear();
     }
 }
@@ -1,6 +1,7 @@
 package org.stepic.droid.code.highlight.themes
 
 import androidx.annotation.ColorInt
+import org.stepic.droid.code.highlight.prettify.parser.Prettify
 import org.stepic.droid.code.highlight.prettify.parser.Prettify.PR_ATTRIB_NAME
 import org.stepic.droid.code.highlight.prettify.parser.Prettify.PR_ATTRIB_VALUE
 import org.stepic.droid.code.highlight.prettify.parser.Prettify.PR_COMMENT
@@ -31,8 +32,6 @@ class CodeSyntax(
         @ColorInt nocode: Int = plain
 ) {
 
-    fun shouldBePainted(prType: String) = colorMap[prType] != plain
-
     val colorMap = hashMapOf(
             PR_STRING       to string,
             PR_KEYWORD      to keyword,
@@ -49,4 +48,17 @@ class CodeSyntax(
             PR_NOCODE       to nocode
     )
 
+    /**
+     * Colors indexed by [Prettify.getStyleId], unknown styles are [plain]
+     */
+    private val colorsByStyleId = colorMap
+            .mapKeys { (style, _) -> Prettify.getStyleId(style) }
+            .let { colors -> IntArray((colors.keys.maxOrNull() ?: -1) + 1) { colors[it] ?: plain } }
+
+    fun shouldBePainted(styleId: Int) = getColor(styleId) != plain
+
+    @ColorInt
+    fun getColor(styleId: Int): Int =
+            if (styleId in colorsByStyleId.indices) colorsByStyleId[styleId] else plain
+
 }
\ No newline at end of file
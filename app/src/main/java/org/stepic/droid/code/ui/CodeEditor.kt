@@ -24,8 +24,9 @@ import io.reactivex.subjects.BehaviorSubject
 import io.reactivex.subjects.PublishSubject
 import org.stepic.droid.analytic.Analytic
 import org.stepic.droid.base.App
+import org.stepic.droid.code.highlight.IncrementalHighlighter
 import org.stepic.droid.code.highlight.ParserContainer
-import org.stepic.droid.code.highlight.syntaxhighlight.ParseResult
+import org.stepic.droid.code.highlight.SyntaxDecorations
 import org.stepic.droid.code.highlight.themes.CodeTheme
 import org.stepic.droid.code.highlight.themes.Presets
 import org.stepic.droid.ui.adapters.CodeToolbarAdapter
@@ -63,7 +64,7 @@ constructor(context: Context, attrs: AttributeSet? = null, defStyleAttr: Int = 0
     private val LINE_NUMBERS_MARGIN_PX = LINE_NUMBERS_MARGIN_DP.toPx().toInt()
 
     private val highlightPublisher = PublishSubject.create<Editable>()
-    private val spanPublisher = BehaviorSubject.create<List<ParseResult>>()
+    private val spanPublisher = BehaviorSubject.create<SyntaxDecorations>()
     private val layoutChangesPublisher = PublishSubject.create<Any>()
 
     private val onGlobalLayoutListener = ViewTreeObserver.OnGlobalLayoutListener { layoutChangesPublisher.onNext(RxEmpty.INSTANCE) }
@@ -71,6 +72,9 @@ constructor(context: Context, attrs: AttributeSet? = null, defStyleAttr: Int = 0
 
     private val compositeDisposable = CompositeDisposable()
 
+    private val highlighter by lazy { IncrementalHighlighter(parserContainer.prettifyParser) }
+    private val syntaxSpans = ArrayList<CodeSyntaxSpan>()
+
     private val lineNumbersBackgroundPaint = Paint()
     private val lineNumbersStrokePaint = Paint()
     private val selectedLinePaint = Paint()
@@ -116,6 +120,7 @@ constructor(context: Context, attrs: AttributeSet? = null, defStyleAttr: Int = 0
     override fun onAttachedToWindow() {
         super.onAttachedToWindow()
         isAttached = true
+        removeSpans(CodeSyntaxSpan::class.java) // text could be set with spans while editor was detached
         initListeners()
         addTextChangedListener(this)
     }
@@ -130,7 +135,7 @@ constructor(context: Context, attrs: AttributeSet? = null, defStyleAttr: Int = 0
                         .observeOn(AndroidSchedulers.mainThread())
                         .subscribe({ updateHighlight(it) }, {
                             analytic.reportError(Analytic.Code.CODE_EDITOR_ERROR, it)
-                            spanPublisher.onNext(emptyList()) // to avoid cyclic error's call due to publish subject behavior
+                            spanPublisher.onNext(SyntaxDecorations.EMPTY) // to avoid cyclic error's call due to publish subject behavior
                             initListeners()
                         })
         )
@@ -139,7 +144,7 @@ constructor(context: Context, attrs: AttributeSet? = null, defStyleAttr: Int = 0
                 highlightPublisher
                         .debounce(INPUT_DEBOUNCE_MS, TimeUnit.MILLISECONDS)
                         .flatMapMaybe {
-                            Maybe.fromCallable { parserContainer.prettifyParser?.parse(lang, it.toString()) }
+                            Maybe.fromCallable { highlighter.highlight(lang, it.toString()) }
                         }
                         .subscribe(spanPublisher::onNext) {
                             analytic.reportError(Analytic.Code.CODE_EDITOR_ERROR, it)
@@ -281,6 +286,9 @@ constructor(context: Context, attrs: AttributeSet? = null, defStyleAttr: Int = 0
     override fun onTextChanged(text: CharSequence, start: Int, before: Int, count: Int) {
         insertedStart = start
         insertedCount = count
+        if (count > 0) {
+            removeSpans(CodeSyntaxSpan::class.java, start, start + count) // spans that came with pasted or set text are not tracked
+        }
     }
 
 
@@ -349,27 +357,38 @@ constructor(context: Context, attrs: AttributeSet? = null, defStyleAttr: Int = 0
     } ?: lineCount - 1
 
 
-    private fun updateHighlight(results: List<ParseResult>) = layout?.let { layout ->
+    /**
+     * Only spans of visible lines are kept, so previously painted spans are removed one by one
+     * instead of scanning spans of the whole text
+     */
+    private fun updateHighlight(decorations: SyntaxDecorations) = layout?.let { layout ->
         val start = layout.getLineStart(getFirstVisibleLine())
         val end = layout.getLineEnd(getLastVisibleLine())
-        removeSpans(CodeSyntaxSpan::class.java)
-        setSpans(start, end, results)
+        syntaxSpans.forEach(editableText::removeSpan)
+        syntaxSpans.clear()
+        setSpans(start, end, decorations)
     }
 
-    private fun removeSpans(spanClass: Class<*>) =
-            editableText.getSpans(0, editableText.length, spanClass).forEach {
+    private fun removeSpans(spanClass: Class<*>, start: Int = 0, end: Int = editableText.length) =
+            editableText.getSpans(start, end, spanClass).forEach {
                 editableText.removeSpan(it)
             }
 
-    private fun setSpans(start: Int, end: Int, parseResults: List<ParseResult>) {
-        parseResults
-                .filterNot { it.offset + it.length < start || it.offset > end }
-                .filter { theme.syntax.shouldBePainted(it.styleKeysString) }
-                .forEach { pr ->
-                    theme.syntax.colorMap[pr.styleKeysString]?.let {
-                        editableText.setSpan(CodeSyntaxSpan(it), pr.offset, Math.min(pr.offset + pr.length, editableText.length), Spannable.SPAN_EXCLUSIVE_EXCLUSIVE)
-                    }
-                }
+    private fun setSpans(start: Int, end: Int, decorations: SyntaxDecorations) {
+        val length = editableText.length
+        var index = Math.max(decorations.indexAt(start), 0)
+        while (index < decorations.size && decorations.offsets[index] <= end) {
+            val styleId = decorations.styleIds[index]
+            val spanStart = decorations.offsets[index]
+            val spanEnd = Math.min(decorations.endOf(index), length)
+
+            if (spanStart < spanEnd && theme.syntax.shouldBePainted(styleId)) {
+                val span = CodeSyntaxSpan(theme.syntax.getColor(styleId))
+                editableText.setSpan(span, spanStart, spanEnd, Spannable.SPAN_EXCLUSIVE_EXCLUSIVE)
+                syntaxSpans.add(span)
+            }
+            index++
+        }
     }
 
 
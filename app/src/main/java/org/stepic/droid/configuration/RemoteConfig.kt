@@ -9,4 +9,5 @@ object RemoteConfig {
     const val ADAPTIVE_COURSES = "adaptive_courses_android"
     const val ADAPTIVE_BACKEND_URL = "adaptive_backend_url"
     const val IS_LOCAL_SUBMISSIONS_ENABLED = "is_local_submissions_enabled"
+    const val IS_IN_APP_DOWNLOADER_ENABLED = "is_in_app_downloader_enabled"
 }
@@ -1,5 +1,6 @@
 package org.stepic.droid.core
 
+import okhttp3.Cache
 import org.stepic.droid.concurrency.MainHandler
 import org.stepic.droid.di.AppSingleton
 import org.stepic.droid.notifications.badges.NotificationsBadgesLogoutPoster
@@ -21,7 +22,8 @@ constructor(
     private val databaseFacade: DatabaseFacade,
     private val analyticDatabase: AnalyticDatabase,
     private val notificationsBadgesLogoutPoster: NotificationsBadgesLogoutPoster,
-    private val removalDownloadsInteractor: RemovalDownloadsInteractor
+    private val removalDownloadsInteractor: RemovalDownloadsInteractor,
+    private val httpCache: Cache
 ) {
 
     fun logout(afterClearData: () -> Unit) {
@@ -32,6 +34,7 @@ constructor(
                 sharedPreferenceHelper.deleteAuthInfo()
                 databaseFacade.dropDatabase()
                 analyticDatabase.clearAllTables()
+                httpCache.evictAll()
             } finally {
                 RWLocks.ClearEnrollmentsLock.writeLock().unlock()
             }
@@ -24,6 +24,7 @@ import org.stepic.droid.notifications.model.Notification
 import org.stepic.droid.notifications.model.NotificationType
 import org.stepic.droid.util.DateTimeHelper
 import org.stepic.droid.util.not
+import org.stepic.droid.util.resolvers.text.NotificationTextResolver
 import org.stepic.droid.util.substringOrNull
 import org.stepik.android.data.user.source.UserRemoteDataSource
 import org.stepik.android.domain.notification.repository.NotificationRepository
@@ -55,8 +56,13 @@ class NotificationListPresenter
     private val config: Config,
     private val analytic: Analytic,
     private val internetEnabledListenerClient: Client<InternetEnabledListener>,
-    private val notificationsBadgesManager: NotificationsBadgesManager
+    private val notificationsBadgesManager: NotificationsBadgesManager,
+    private val notificationTextResolver: NotificationTextResolver
 ) : PresenterBase<NotificationListView>(), InternetEnabledListener {
+    companion object {
+        private val webUrlRegex = Regex(Patterns.WEB_URL.pattern()) // used kotlin Regex instead of android Pattern due to unstable work of Pattern on different Android versions
+    }
+
     private var notificationCategory: NotificationCategory? = null
     val isLoading = AtomicBoolean(false)
     val wasShown = AtomicBoolean(false)
@@ -140,6 +146,8 @@ class NotificationListPresenter
             val notificationHtmlText = notification.htmlText ?: ""
             val fixedHtml = notificationHtmlText.replace("href=\"/", "href=\"$baseUrl/")
             notification.htmlText = fixedHtml
+            // text is rendered here once per page, so adapter doesn't parse html while binding
+            notification.notificationText = notificationTextResolver.resolveNotificationText(fixedHtml)
 
             if (notification.type == NotificationType.comments) {
                 extractUserAvatarUrl(notification)?.let { userId ->
@@ -154,7 +162,7 @@ class NotificationListPresenter
             userRemoteDataSource.getUsers(*userIds.toLongArray()).blockingGet().forEach {
                 val avatar = it.avatar
                 userIdToNotificationsIndexes[it.id]?.forEach { notificationIndex ->
-                    notifications[notificationIndex].userAvatarUrl = avatar
+                    filteredNotifications[notificationIndex].userAvatarUrl = avatar
                 }
             }
         }
@@ -165,8 +173,7 @@ class NotificationListPresenter
 
     @WorkerThread
     private fun extractUserAvatarUrl(notification: Notification): Long? {
-        val matcher = Regex(Patterns.WEB_URL.pattern()) // used kotlin Regex instead of android Pattern due to unstable work of Pattern on different Android versions
-        notification.htmlText?.let { matcher.find(it) } ?.groupValues?.firstOrNull()?.let { userUrl ->
+        notification.htmlText?.let { webUrlRegex.find(it) } ?.groupValues?.firstOrNull()?.let { userUrl ->
             val start = userUrl.lastIndexOf('/')
             return userUrl.substringOrNull(start + 1)?.toLongOrNull()
         }
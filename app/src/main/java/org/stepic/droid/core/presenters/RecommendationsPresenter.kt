@@ -1,5 +1,6 @@
 package org.stepic.droid.core.presenters
 
+import android.os.SystemClock
 import io.reactivex.Completable
 import io.reactivex.Observable
 import io.reactivex.Scheduler
@@ -36,7 +37,6 @@ import org.stepik.android.model.adaptive.Reaction
 import org.stepik.android.model.adaptive.Recommendation
 import org.stepik.android.model.adaptive.RecommendationReaction
 import retrofit2.HttpException
-import java.util.ArrayDeque
 import javax.inject.Inject
 
 @AdaptiveCourseScope
@@ -62,16 +62,37 @@ constructor(
     companion object {
         private const val CARDS_IN_CACHE = 6
         private const val MIN_CARDS_IN_CACHE = 4
+
+        /**
+         * Number of fully loaded cards kept in adapter, including the top one
+         */
+        private const val PREFETCHED_CARDS = 3
     }
 
     private val compositeDisposable = CompositeDisposable()
     private val retrySubject = PublishSubject.create<Any>()
 
-    private val cards = ArrayDeque<Card>()
+    /**
+     * Recommended cards which are not in adapter yet by lesson id in order of recommendation
+     */
+    private val cards = LinkedHashMap<Long, Card>()
 
-    private val adapter = QuizCardsAdapter(this, this)
+    /**
+     * Cards which are being loaded by lesson id, at most [PREFETCHED_CARDS] minus cards in adapter
+     */
+    private val cardDisposables = HashMap<Long, Disposable>()
 
-    private var cardDisposable: Disposable? = null
+    private val adapter = object : QuizCardsAdapter(this, this) {
+        override fun poll() {
+            super.poll()
+            prefetch()
+        }
+    }
+
+    /**
+     * Time of swipe after which there were no loaded cards in adapter or 0
+     */
+    private var nextCardAwaitingSince = 0L
 
     private var error: Throwable? = null
 
@@ -95,7 +116,7 @@ constructor(
             isCourseCompleted -> view.onCourseCompleted()
             !adaptiveCoursesResolver.isAdaptive(courseId) -> view.onCourseNotSupported()
             else -> {
-                resubscribe()
+                prefetch()
                 error?.let(this::onError)
             }
         }
@@ -138,8 +159,23 @@ constructor(
     }
 
     override fun createReaction(lessonId: Long, reaction: Reaction) {
+        val isSwipe = reaction == Reaction.NEVER_AGAIN || reaction == Reaction.MAYBE_LATER
+
         if (adapter.isEmptyOrContainsOnlySwipedCard(lessonId)) {
             view?.onLoading()
+            if (isSwipe) {
+                nextCardAwaitingSince = SystemClock.elapsedRealtime()
+            }
+        } else if (isSwipe) {
+            analytic.reportEventValue(Analytic.Adaptive.NEXT_CARD_AWAIT_TIME, 0)
+        }
+
+        cards.remove(lessonId)?.let(::cancelCard)
+        if (isSwipe) {
+            // difficulty is changed, so recommendations which are not being loaded are stale
+            cards.values
+                .filter { it.lessonId !in cardDisposables }
+                .forEach { cards.remove(it.lessonId); it.recycle() }
         }
 
         compositeDisposable.add(createReactionObservable(lessonId, reaction, cards.size + adapter.getItemCount())
@@ -155,12 +191,11 @@ constructor(
             isCourseCompleted = true
             view?.onCourseCompleted()
         } else {
-            val size = cards.size
             recommendations
                     .filter { !isCardExists(it.lesson) }
-                    .forEach { cards.add(Card(courseId, it.lesson)) }
+                    .forEach { cards[it.lesson] = Card(courseId, it.lesson) }
 
-            if (size == 0) resubscribe()
+            prefetch()
         }
     }
 
@@ -177,43 +212,64 @@ constructor(
         retrySubject.onNext(0)
         view?.onLoading()
 
-        if (cards.isNotEmpty()) {
-            cards.peek().initCard()
-            resubscribe()
-        }
+        disposeCardSubscriptions()
+        prefetch()
     }
 
-    private fun resubscribe() {
-        if (cards.isNotEmpty()) {
-            if (cardDisposable != null && cardDisposable?.isDisposed == false) {
-                cardDisposable?.dispose()
+    /**
+     * Starts loading of next recommended cards, so there are at most [PREFETCHED_CARDS] loaded or loading cards
+     */
+    private fun prefetch() {
+        if (view == null) return
+
+        while (cardDisposables.size < PREFETCHED_CARDS - adapter.getItemCount()) {
+            val card = cards.values.firstOrNull { it.lessonId !in cardDisposables } ?: return
+            val disposable = card.subscribe(this::onCardDataLoaded, this::onError) // already loaded card is emitted immediately
+            if (card.lessonId in cards) {
+                cardDisposables[card.lessonId] = disposable
             }
-
-            cardDisposable = cards.peek()
-                    .subscribe(this::onCardDataLoaded, this::onError)
         }
     }
 
     private fun onCardDataLoaded(card: Card) {
+        cardDisposables.remove(card.lessonId)
+        cards.remove(card.lessonId)
+
         reportView(card)
         adapter.add(card)
         view?.onCardLoaded()
-        cards.poll()
-        resubscribe()
+
+        if (nextCardAwaitingSince != 0L) {
+            analytic.reportEventValue(Analytic.Adaptive.NEXT_CARD_AWAIT_TIME, SystemClock.elapsedRealtime() - nextCardAwaitingSince)
+            nextCardAwaitingSince = 0L
+        }
+
+        prefetch()
+    }
+
+    private fun cancelCard(card: Card) {
+        cardDisposables.remove(card.lessonId)?.dispose()
+        card.recycle()
+    }
+
+    private fun disposeCardSubscriptions() {
+        cardDisposables.values.forEach(Disposable::dispose)
+        cardDisposables.clear()
     }
 
     private fun isCardExists(lessonId: Long) =
-            cards.any { it.lessonId == lessonId } || adapter.isCardExists(lessonId)
+            lessonId in cards || adapter.isCardExists(lessonId)
 
     override fun detachView(view: RecommendationsView) {
         adapter.detach()
-        cardDisposable?.dispose()
+        disposeCardSubscriptions()
         super.detachView(view)
     }
 
     fun destroy() {
         compositeDisposable.dispose()
-        cards.forEach(Card::recycle)
+        disposeCardSubscriptions()
+        cards.values.forEach(Card::recycle)
         adapter.destroy()
     }
 
@@ -9,6 +9,7 @@ import org.stepic.droid.persistence.storage.dao.PersistentStateDao
 import org.stepic.droid.storage.dao.IDao
 import org.stepic.droid.storage.operations.DatabaseFacade
 import org.stepik.android.cache.analytic.dao.AnalyticDao
+import org.stepik.android.cache.comment.dao.DiscussionCommentsDao
 import org.stepik.android.cache.download.dao.DownloadedCoursesDao
 import org.stepik.android.cache.personal_deadlines.dao.DeadlinesBannerDao
 import org.stepik.android.cache.personal_deadlines.dao.PersonalDeadlinesDao
@@ -57,6 +58,7 @@ interface StorageComponent {
     val submissionDao: IDao<Submission>
     val certificateDao: IDao<Certificate>
     val discussionThreadDao: IDao<DiscussionThread>
+    val discussionCommentsDao: DiscussionCommentsDao
     val attemptDao: IDao<Attempt>
     val downloadedCoursesDao: DownloadedCoursesDao
     val socialProfileDao: IDao<SocialProfile>
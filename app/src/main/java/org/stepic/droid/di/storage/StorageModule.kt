@@ -50,6 +50,8 @@ import org.stepik.android.cache.certificates.dao.CertificateDaoImpl
 import org.stepik.android.cache.course_collection.dao.CourseCollectionDaoImpl
 import org.stepik.android.cache.course_list.dao.CourseListQueryDaoImpl
 import org.stepik.android.cache.course_payments.dao.CoursePaymentsDaoImpl
+import org.stepik.android.cache.comment.dao.DiscussionCommentsDao
+import org.stepik.android.cache.comment.dao.DiscussionCommentsDaoImpl
 import org.stepik.android.cache.discussion_thread.dao.DiscussionThreadDaoImpl
 import org.stepik.android.cache.download.dao.DownloadedCoursesDao
 import org.stepik.android.cache.download.dao.DownloadedCoursesDaoImpl
@@ -222,6 +224,10 @@ abstract class StorageModule {
     @Binds
     internal abstract fun bindDiscussionThreadDao(discussionThreadDaoImpl: DiscussionThreadDaoImpl): IDao<DiscussionThread>
 
+    @StorageSingleton
+    @Binds
+    internal abstract fun bindDiscussionCommentsDao(discussionCommentsDaoImpl: DiscussionCommentsDaoImpl): DiscussionCommentsDao
+
     @StorageSingleton
     @Binds
     internal abstract fun bindAttemptDao(attemptDaoImpl: AttemptDaoImpl): IDao<Attempt>
@@ -0,0 +1,40 @@
+package org.stepic.droid.jsonHelpers.adapters
+
+import com.google.gson.Gson
+import com.google.gson.TypeAdapter
+import com.google.gson.TypeAdapterFactory
+import com.google.gson.reflect.TypeToken
+import com.google.gson.stream.JsonReader
+import com.google.gson.stream.JsonToken
+import org.stepik.android.model.attempts.Dataset
+import org.stepik.android.model.attempts.DatasetWrapper
+
+/**
+ * Dataset is either an object or a primitive value, which is stored as [Dataset.someStringValueFromServer]
+ */
+class DatasetWrapperAdapterFactory : TypeAdapterFactory {
+    override fun <T : Any?> create(gson: Gson, type: TypeToken<T>): TypeAdapter<T>? {
+        if (type.rawType != DatasetWrapper::class.java) {
+            return null
+        }
+        val datasetAdapter = gson.getAdapter(Dataset::class.java)
+        val delegate = gson.getDelegateAdapter(this, TypeToken.get(DatasetWrapper::class.java))
+
+        @Suppress("UNCHECKED_CAST")
+        return object : StreamingReadAdapter<DatasetWrapper>(delegate) {
+            override fun readValue(reader: JsonReader): DatasetWrapper =
+                when (reader.peek()) {
+                    JsonToken.BEGIN_OBJECT ->
+                        DatasetWrapper(datasetAdapter.read(reader))
+
+                    JsonToken.STRING, JsonToken.NUMBER, JsonToken.BOOLEAN ->
+                        DatasetWrapper(Dataset(someStringValueFromServer = reader.nextStringOrNull()))
+
+                    else -> {
+                        reader.skipValue()
+                        DatasetWrapper()
+                    }
+                }
+        } as TypeAdapter<T>
+    }
+}
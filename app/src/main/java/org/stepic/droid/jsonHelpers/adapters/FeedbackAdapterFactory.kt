@@ -0,0 +1,86 @@
+package org.stepic.droid.jsonHelpers.adapters
+
+import com.google.gson.Gson
+import com.google.gson.TypeAdapter
+import com.google.gson.TypeAdapterFactory
+import com.google.gson.reflect.TypeToken
+import com.google.gson.stream.JsonReader
+import com.google.gson.stream.JsonToken
+import com.google.gson.stream.JsonWriter
+import org.stepik.android.model.feedback.BlanksFeedback
+import org.stepik.android.model.feedback.ChoiceFeedback
+import org.stepik.android.model.feedback.Feedback
+import org.stepik.android.model.feedback.StringFeedback
+
+/**
+ * Feedback is a primitive value, [ChoiceFeedback] if object contains options_feedback or [BlanksFeedback] otherwise
+ */
+class FeedbackAdapterFactory : TypeAdapterFactory {
+    companion object {
+        private const val OPTIONS_FEEDBACK = "options_feedback"
+        private const val BLANKS_FEEDBACK = "blanks_feedback"
+    }
+
+    override fun <T : Any?> create(gson: Gson, type: TypeToken<T>): TypeAdapter<T>? {
+        if (type.rawType != Feedback::class.java) {
+            return null
+        }
+        val optionsFeedbackAdapter = gson.getAdapter(object : TypeToken<List<String>>() {})
+        val blanksFeedbackAdapter = gson.getAdapter(object : TypeToken<List<Boolean>>() {})
+
+        @Suppress("UNCHECKED_CAST")
+        return object : TypeAdapter<Feedback>() {
+            override fun write(out: JsonWriter, value: Feedback?) {
+                if (value == null) {
+                    out.nullValue()
+                } else {
+                    gson.toJson(value, value.javaClass, out)
+                }
+            }
+
+            override fun read(reader: JsonReader): Feedback? =
+                when (reader.peek()) {
+                    JsonToken.NULL -> {
+                        reader.nextNull()
+                        null
+                    }
+
+                    JsonToken.BEGIN_OBJECT ->
+                        readObjectFeedback(reader)
+
+                    JsonToken.STRING, JsonToken.NUMBER, JsonToken.BOOLEAN ->
+                        StringFeedback(reader.nextStringOrNull())
+
+                    else -> {
+                        reader.skipValue()
+                        StringFeedback()
+                    }
+                }
+
+            private fun readObjectFeedback(reader: JsonReader): Feedback {
+                var hasOptionsFeedback = false
+                var optionsFeedback: List<String>? = null
+                var blanksFeedback: List<Boolean>? = null
+
+                reader.readObject { name ->
+                    when (name) {
+                        OPTIONS_FEEDBACK -> {
+                            hasOptionsFeedback = true
+                            optionsFeedback = optionsFeedbackAdapter.read(this)
+                        }
+                        BLANKS_FEEDBACK ->
+                            blanksFeedback = blanksFeedbackAdapter.read(this)
+                        else ->
+                            skipValue()
+                    }
+                }
+
+                return if (hasOptionsFeedback) {
+                    ChoiceFeedback(optionsFeedback)
+                } else {
+                    BlanksFeedback(blanksFeedback)
+                }
+            }
+        } as TypeAdapter<T>
+    }
+}
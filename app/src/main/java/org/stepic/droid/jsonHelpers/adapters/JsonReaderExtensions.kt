@@ -0,0 +1,84 @@
+package org.stepic.droid.jsonHelpers.adapters
+
+import com.google.gson.stream.JsonReader
+import com.google.gson.stream.JsonToken
+
+/**
+ * Primitive readers below follow gson built-in adapters:
+ * json null keeps default value of primitive field, strings are accepted for booleans and numbers
+ */
+inline fun JsonReader.readObject(readField: JsonReader.(name: String) -> Unit) {
+    beginObject()
+    while (hasNext()) {
+        readField(nextName())
+    }
+    endObject()
+}
+
+/**
+ * Consumes json null and returns true if it was next token
+ */
+fun JsonReader.consumeNull(): Boolean =
+    if (peek() == JsonToken.NULL) {
+        nextNull()
+        true
+    } else {
+        false
+    }
+
+fun JsonReader.nextStringOrNull(): String? =
+    when (peek()) {
+        JsonToken.NULL -> {
+            nextNull()
+            null
+        }
+        JsonToken.BOOLEAN ->
+            nextBoolean().toString()
+        else ->
+            nextString()
+    }
+
+fun JsonReader.nextBooleanOrDefault(default: Boolean): Boolean =
+    when (peek()) {
+        JsonToken.NULL -> {
+            nextNull()
+            default
+        }
+        JsonToken.STRING ->
+            nextString().toBoolean()
+        else ->
+            nextBoolean()
+    }
+
+fun JsonReader.nextIntOrDefault(default: Int): Int =
+    if (consumeNull()) default else nextInt()
+
+fun JsonReader.nextLongOrDefault(default: Long): Long =
+    if (consumeNull()) default else nextLong()
+
+fun JsonReader.nextLongOrNull(): Long? =
+    if (consumeNull()) null else nextLong()
+
+fun JsonReader.nextDoubleOrDefault(default: Double): Double =
+    if (consumeNull()) default else nextDouble()
+
+fun JsonReader.nextDoubleOrNull(): Double? =
+    if (consumeNull()) null else nextDouble()
+
+fun JsonReader.nextLongArrayOrNull(): LongArray? {
+    if (consumeNull()) {
+        return null
+    }
+
+    var values = LongArray(8)
+    var size = 0
+    beginArray()
+    while (hasNext()) {
+        if (size == values.size) {
+            values = values.copyOf(size * 2)
+        }
+        values[size++] = nextLong()
+    }
+    endArray()
+    return values.copyOf(size)
+}
@@ -0,0 +1,113 @@
+package org.stepic.droid.jsonHelpers.adapters
+
+import com.google.gson.Gson
+import com.google.gson.TypeAdapter
+import com.google.gson.TypeAdapterFactory
+import com.google.gson.reflect.TypeToken
+import com.google.gson.stream.JsonReader
+import com.google.gson.stream.JsonToken
+import com.google.gson.stream.JsonWriter
+import org.stepik.android.model.Attachment
+import org.stepik.android.model.Reply
+import org.stepik.android.model.ReplyWrapper
+import org.stepik.android.model.TableChoiceAnswer
+
+/**
+ * Field choices of reply contains either booleans or table choice answers,
+ * the latter are moved to [Reply.tableChoices]
+ */
+class ReplyWrapperAdapterFactory : TypeAdapterFactory {
+    override fun <T : Any?> create(gson: Gson, type: TypeToken<T>): TypeAdapter<T>? {
+        if (type.rawType != ReplyWrapper::class.java) {
+            return null
+        }
+
+        @Suppress("UNCHECKED_CAST")
+        return ReplyWrapperAdapter(gson) as TypeAdapter<T>
+    }
+
+    private class ReplyWrapperAdapter(gson: Gson) : TypeAdapter<ReplyWrapper>() {
+        private val replyAdapter = gson.getAdapter(Reply::class.java)
+        private val booleanAdapter = gson.getAdapter(Boolean::class.javaObjectType)
+        private val tableChoiceAnswerAdapter = gson.getAdapter(TableChoiceAnswer::class.java)
+        private val tableChoicesAdapter = gson.getAdapter(object : TypeToken<List<TableChoiceAnswer>>() {})
+        private val attachmentsAdapter = gson.getAdapter(object : TypeToken<List<Attachment>>() {})
+        private val intListAdapter = gson.getAdapter(object : TypeToken<List<Int>>() {})
+        private val stringListAdapter = gson.getAdapter(object : TypeToken<List<String>>() {})
+
+        override fun write(out: JsonWriter, value: ReplyWrapper?) {
+            replyAdapter.write(out, value?.reply)
+        }
+
+        override fun read(reader: JsonReader): ReplyWrapper? {
+            if (reader.consumeNull()) {
+                return null
+            }
+
+            var choices: List<Boolean>? = null
+            var tableChoicesFromChoices: List<TableChoiceAnswer>? = null
+            var text: String? = null
+            var attachments: List<Attachment>? = null
+            var formula: String? = null
+            var number: String? = null
+            var ordering: List<Int>? = null
+            var language: String? = null
+            var code: String? = null
+            var blanks: List<String>? = null
+            var solveSql: String? = null
+            var tableChoices: List<TableChoiceAnswer>? = null
+
+            reader.readObject { name ->
+                when (name) {
+                    "choices" ->
+                        if (peek() == JsonToken.BEGIN_ARRAY) {
+                            beginArray()
+                            if (!hasNext() || peek() == JsonToken.BEGIN_OBJECT) {
+                                val answers = ArrayList<TableChoiceAnswer>()
+                                while (hasNext()) {
+                                    answers.add(tableChoiceAnswerAdapter.read(this))
+                                }
+                                tableChoicesFromChoices = answers
+                            } else {
+                                val values = ArrayList<Boolean>()
+                                while (hasNext()) {
+                                    values.add(booleanAdapter.read(this))
+                                }
+                                choices = values
+                            }
+                            endArray()
+                        } else {
+                            skipValue()
+                        }
+                    "text" -> text = nextStringOrNull()
+                    "attachments" -> attachments = attachmentsAdapter.read(this)
+                    "formula" -> formula = nextStringOrNull()
+                    "number" -> number = nextStringOrNull()
+                    "ordering" -> ordering = intListAdapter.read(this)
+                    "language" -> language = nextStringOrNull()
+                    "code" -> code = nextStringOrNull()
+                    "blanks" -> blanks = stringListAdapter.read(this)
+                    "solve_sql" -> solveSql = nextStringOrNull()
+                    "tableChoices" -> tableChoices = tableChoicesAdapter.read(this)
+                    else -> skipValue()
+                }
+            }
+
+            val reply =
+                Reply(
+                    choices = choices,
+                    text = text,
+                    attachments = attachments,
+                    formula = formula,
+                    number = number,
+                    ordering = ordering,
+                    language = language,
+                    code = code,
+                    blanks = blanks,
+                    solveSql = solveSql,
+                    tableChoices = tableChoicesFromChoices ?: tableChoices
+                )
+            return ReplyWrapper(reply)
+        }
+    }
+}
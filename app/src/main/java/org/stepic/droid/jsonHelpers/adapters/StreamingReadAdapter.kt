@@ -0,0 +1,25 @@
+package org.stepic.droid.jsonHelpers.adapters
+
+import com.google.gson.TypeAdapter
+import com.google.gson.stream.JsonReader
+import com.google.gson.stream.JsonWriter
+
+/**
+ * Reads values directly from token stream and writes them with [delegate], so serialized form stays the same
+ */
+abstract class StreamingReadAdapter<T>(
+    private val delegate: TypeAdapter<T>
+) : TypeAdapter<T>() {
+    final override fun write(out: JsonWriter, value: T?) {
+        delegate.write(out, value)
+    }
+
+    final override fun read(reader: JsonReader): T? =
+        if (reader.consumeNull()) {
+            null
+        } else {
+            readValue(reader)
+        }
+
+    protected abstract fun readValue(reader: JsonReader): T
+}
@@ -7,6 +7,9 @@ import com.google.gson.JsonParseException
 import com.google.gson.JsonPrimitive
 import com.google.gson.JsonSerializationContext
 import com.google.gson.JsonSerializer
+import com.google.gson.TypeAdapter
+import com.google.gson.stream.JsonReader
+import com.google.gson.stream.JsonWriter
 import org.jetbrains.annotations.Contract
 import java.lang.reflect.Type
 import java.text.ParseException
@@ -32,14 +35,41 @@ class UTCDateAdapter : JsonSerializer<Date>, JsonDeserializer<Date> {
     private val deserializeDateFormat = createDateFormat(UTC_ISO_FORMAT_SIMPLE)
 
     override fun serialize(date: Date, typeOfSrc: Type?, context: JsonSerializationContext?): JsonElement =
+        JsonPrimitive(formatDate(date))
+
+    override fun deserialize(jsonElement: JsonElement, typeOfT: Type?, context: JsonDeserializationContext?): Date =
+        parseDate(jsonElement.asString)
+
+    /**
+     * Streaming version of this adapter, that doesn't create [JsonPrimitive] for each date
+     */
+    fun asTypeAdapter(): TypeAdapter<Date> =
+        object : TypeAdapter<Date>() {
+            override fun write(out: JsonWriter, value: Date?) {
+                if (value == null) {
+                    out.nullValue()
+                } else {
+                    out.value(formatDate(value))
+                }
+            }
+
+            override fun read(reader: JsonReader): Date? =
+                if (reader.consumeNull()) {
+                    null
+                } else {
+                    parseDate(reader.nextString())
+                }
+        }
+
+    private fun formatDate(date: Date): String =
         synchronized(serializeDateFormat) {
-            JsonPrimitive(serializeDateFormat.format(date))
+            serializeDateFormat.format(date)
         }
 
-    override fun deserialize(jsonElement: JsonElement, typeOfT: Type?, context: JsonDeserializationContext?): Date =
+    private fun parseDate(date: String): Date =
         try {
             synchronized(deserializeDateFormat) {
-                deserializeDateFormat.parse(jsonElement.asString.take(UTC_ISO_FORMAT_SIMPLE_LENGTH))
+                deserializeDateFormat.parse(date.take(UTC_ISO_FORMAT_SIMPLE_LENGTH))
             }
         } catch (e: ParseException) {
             throw JsonParseException(e)
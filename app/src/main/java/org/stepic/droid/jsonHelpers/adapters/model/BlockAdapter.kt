@@ -0,0 +1,63 @@
+package org.stepic.droid.jsonHelpers.adapters.model
+
+import com.google.gson.Gson
+import com.google.gson.JsonElement
+import com.google.gson.TypeAdapter
+import com.google.gson.stream.JsonReader
+import org.stepic.droid.jsonHelpers.adapters.StreamingReadAdapter
+import org.stepic.droid.jsonHelpers.adapters.nextStringOrNull
+import org.stepic.droid.jsonHelpers.adapters.readObject
+import org.stepik.android.model.Block
+import org.stepik.android.model.Video
+import org.stepik.android.model.code.CodeOptions
+
+class BlockAdapter(
+    gson: Gson,
+    delegate: TypeAdapter<Block>
+) : StreamingReadAdapter<Block>(delegate) {
+    private val videoAdapter = gson.getAdapter(Video::class.java)
+    private val codeOptionsAdapter = gson.getAdapter(CodeOptions::class.java)
+    private val jsonElementAdapter = gson.getAdapter(JsonElement::class.java)
+
+    override fun readValue(reader: JsonReader): Block {
+        var name: String? = null
+        var text: String? = null
+        var video: Video? = null
+        var options: CodeOptions? = null
+        var subtitleFiles: JsonElement? = null
+        var subtitles: JsonElement? = null
+        var source: JsonElement? = null
+        var testsArchive: JsonElement? = null
+        var feedbackCorrect: JsonElement? = null
+        var feedbackWrong: JsonElement? = null
+
+        reader.readObject { fieldName ->
+            when (fieldName) {
+                "name" -> name = nextStringOrNull()
+                "text" -> text = nextStringOrNull()
+                "video" -> video = videoAdapter.read(this)
+                "options" -> options = codeOptionsAdapter.read(this)
+                "subtitle_files" -> subtitleFiles = jsonElementAdapter.read(this)
+                "subtitles" -> subtitles = jsonElementAdapter.read(this)
+                "source" -> source = jsonElementAdapter.read(this)
+                "tests_archive" -> testsArchive = jsonElementAdapter.read(this)
+                "feedback_correct" -> feedbackCorrect = jsonElementAdapter.read(this)
+                "feedback_wrong" -> feedbackWrong = jsonElementAdapter.read(this)
+                else -> skipValue()
+            }
+        }
+
+        return Block(
+            name = name,
+            text = text,
+            video = video,
+            options = options,
+            subtitleFiles = subtitleFiles,
+            subtitles = subtitles,
+            source = source,
+            testsArchive = testsArchive,
+            feedbackCorrect = feedbackCorrect,
+            feedbackWrong = feedbackWrong
+        )
+    }
+}
@@ -0,0 +1,183 @@
+package org.stepic.droid.jsonHelpers.adapters.model
+
+import com.google.gson.Gson
+import com.google.gson.TypeAdapter
+import com.google.gson.stream.JsonReader
+import org.stepic.droid.jsonHelpers.adapters.StreamingReadAdapter
+import org.stepic.droid.jsonHelpers.adapters.nextBooleanOrDefault
+import org.stepic.droid.jsonHelpers.adapters.nextDoubleOrDefault
+import org.stepic.droid.jsonHelpers.adapters.nextLongArrayOrNull
+import org.stepic.droid.jsonHelpers.adapters.nextLongOrDefault
+import org.stepic.droid.jsonHelpers.adapters.nextLongOrNull
+import org.stepic.droid.jsonHelpers.adapters.nextStringOrNull
+import org.stepic.droid.jsonHelpers.adapters.readObject
+import org.stepik.android.model.Course
+import org.stepik.android.model.CourseOptions
+import org.stepik.android.model.Video
+
+class CourseAdapter(
+    gson: Gson,
+    delegate: TypeAdapter<Course>
+) : StreamingReadAdapter<Course>(delegate) {
+    private val videoAdapter = gson.getAdapter(Video::class.java)
+    private val courseOptionsAdapter = gson.getAdapter(CourseOptions::class.java)
+
+    override fun readValue(reader: JsonReader): Course {
+        var id = 0L
+        var title: String? = null
+        var description: String? = null
+        var cover: String? = null
+        var certificate: String? = null
+        var requirements: String? = null
+        var summary: String? = null
+        var workload: String? = null
+        var intro: String? = null
+        var introVideo: Video? = null
+        var language: String? = null
+        var authors: LongArray? = null
+        var instructors: LongArray? = null
+        var sections: LongArray? = null
+        var courseFormat: String? = null
+        var targetAudience: String? = null
+        var certificateFooter: String? = null
+        var certificateCoverOrg: String? = null
+        var totalUnits = 0L
+        var enrollment = 0L
+        var progress: String? = null
+        var owner = 0L
+        var readiness = 0.0
+        var isContest = false
+        var isFeatured = false
+        var isActive = false
+        var isPublic = false
+        var certificateDistinctionThreshold = 0L
+        var certificateRegularThreshold = 0L
+        var certificateLink: String? = null
+        var isCertificateAutoIssued = false
+        var isCertificateIssued = false
+        var lastDeadline: String? = null
+        var beginDate: String? = null
+        var endDate: String? = null
+        var slug: String? = null
+        var scheduleLink: String? = null
+        var scheduleLongLink: String? = null
+        var scheduleType: String? = null
+        var lastStepId: String? = null
+        var learnersCount = 0L
+        var reviewSummary = 0L
+        var timeToComplete: Long? = null
+        var courseOptions: CourseOptions? = null
+        var isPaid = false
+        var price: String? = null
+        var currencyCode: String? = null
+        var displayPrice: String? = null
+        var priceTier: String? = null
+
+        reader.readObject { name ->
+            when (name) {
+                "id" -> id = nextLongOrDefault(id)
+                "title" -> title = nextStringOrNull()
+                "description" -> description = nextStringOrNull()
+                "cover" -> cover = nextStringOrNull()
+                "certificate" -> certificate = nextStringOrNull()
+                "requirements" -> requirements = nextStringOrNull()
+                "summary" -> summary = nextStringOrNull()
+                "workload" -> workload = nextStringOrNull()
+                "intro" -> intro = nextStringOrNull()
+                "intro_video" -> introVideo = videoAdapter.read(this)
+                "language" -> language = nextStringOrNull()
+                "authors" -> authors = nextLongArrayOrNull()
+                "instructors" -> instructors = nextLongArrayOrNull()
+                "sections" -> sections = nextLongArrayOrNull()
+                "course_format" -> courseFormat = nextStringOrNull()
+                "target_audience" -> targetAudience = nextStringOrNull()
+                "certificate_footer" -> certificateFooter = nextStringOrNull()
+                "certificate_cover_org" -> certificateCoverOrg = nextStringOrNull()
+                "total_units" -> totalUnits = nextLongOrDefault(totalUnits)
+                "enrollment" -> enrollment = nextLongOrDefault(enrollment)
+                "progress" -> progress = nextStringOrNull()
+                "owner" -> owner = nextLongOrDefault(owner)
+                "readiness" -> readiness = nextDoubleOrDefault(readiness)
+                "is_contest" -> isContest = nextBooleanOrDefault(isContest)
+                "is_featured" -> isFeatured = nextBooleanOrDefault(isFeatured)
+                "is_active" -> isActive = nextBooleanOrDefault(isActive)
+                "is_public" -> isPublic = nextBooleanOrDefault(isPublic)
+                "certificate_distinction_threshold" -> certificateDistinctionThreshold = nextLongOrDefault(certificateDistinctionThreshold)
+                "certificate_regular_threshold" -> certificateRegularThreshold = nextLongOrDefault(certificateRegularThreshold)
+                "certificate_link" -> certificateLink = nextStringOrNull()
+                "is_certificate_auto_issued" -> isCertificateAutoIssued = nextBooleanOrDefault(isCertificateAutoIssued)
+                "is_certificate_issued" -> isCertificateIssued = nextBooleanOrDefault(isCertificateIssued)
+                "last_deadline" -> lastDeadline = nextStringOrNull()
+                "begin_date" -> beginDate = nextStringOrNull()
+                "end_date" -> endDate = nextStringOrNull()
+                "slug" -> slug = nextStringOrNull()
+                "schedule_link" -> scheduleLink = nextStringOrNull()
+                "schedule_long_link" -> scheduleLongLink = nextStringOrNull()
+                "schedule_type" -> scheduleType = nextStringOrNull()
+                "last_step" -> lastStepId = nextStringOrNull()
+                "learners_count" -> learnersCount = nextLongOrDefault(learnersCount)
+                "review_summary" -> reviewSummary = nextLongOrDefault(reviewSummary)
+                "time_to_complete" -> timeToComplete = nextLongOrNull()
+                "options" -> courseOptions = courseOptionsAdapter.read(this)
+                "is_paid" -> isPaid = nextBooleanOrDefault(isPaid)
+                "price" -> price = nextStringOrNull()
+                "currency_code" -> currencyCode = nextStringOrNull()
+                "display_price" -> displayPrice = nextStringOrNull()
+                "price_tier" -> priceTier = nextStringOrNull()
+                else -> skipValue()
+            }
+        }
+
+        return Course(
+            id = id,
+            title = title,
+            description = description,
+            cover = cover,
+            certificate = certificate,
+            requirements = requirements,
+            summary = summary,
+            workload = workload,
+            intro = intro,
+            introVideo = introVideo,
+            language = language,
+            authors = authors,
+            instructors = instructors,
+            sections = sections,
+            courseFormat = courseFormat,
+            targetAudience = targetAudience,
+            certificateFooter = certificateFooter,
+            certificateCoverOrg = certificateCoverOrg,
+            totalUnits = totalUnits,
+            enrollment = enrollment,
+            progress = progress,
+            owner = owner,
+            readiness = readiness,
+            isContest = isContest,
+            isFeatured = isFeatured,
+            isActive = isActive,
+            isPublic = isPublic,
+            certificateDistinctionThreshold = certificateDistinctionThreshold,
+            certificateRegularThreshold = certificateRegularThreshold,
+            certificateLink = certificateLink,
+            isCertificateAutoIssued = isCertificateAutoIssued,
+            isCertificateIssued = isCertificateIssued,
+            lastDeadline = lastDeadline,
+            beginDate = beginDate,
+            endDate = endDate,
+            slug = slug,
+            scheduleLink = scheduleLink,
+            scheduleLongLink = scheduleLongLink,
+            scheduleType = scheduleType,
+            lastStepId = lastStepId,
+            learnersCount = learnersCount,
+            reviewSummary = reviewSummary,
+            timeToComplete = timeToComplete,
+            courseOptions = courseOptions,
+            isPaid = isPaid,
+            price = price,
+            currencyCode = currencyCode,
+            displayPrice = displayPrice,
+            priceTier = priceTier
+        )
+    }
+}
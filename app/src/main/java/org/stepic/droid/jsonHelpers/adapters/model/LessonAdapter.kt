@@ -0,0 +1,98 @@
+package org.stepic.droid.jsonHelpers.adapters.model
+
+import com.google.gson.Gson
+import com.google.gson.TypeAdapter
+import com.google.gson.stream.JsonReader
+import org.stepic.droid.jsonHelpers.adapters.StreamingReadAdapter
+import org.stepic.droid.jsonHelpers.adapters.nextBooleanOrDefault
+import org.stepic.droid.jsonHelpers.adapters.nextLongArrayOrNull
+import org.stepic.droid.jsonHelpers.adapters.nextLongOrDefault
+import org.stepic.droid.jsonHelpers.adapters.nextStringOrNull
+import org.stepic.droid.jsonHelpers.adapters.readObject
+import org.stepik.android.model.Lesson
+import org.stepik.android.model.LessonActions
+import java.util.Date
+
+class LessonAdapter(
+    gson: Gson,
+    delegate: TypeAdapter<Lesson>
+) : StreamingReadAdapter<Lesson>(delegate) {
+    private val actionsAdapter = gson.getAdapter(LessonActions::class.java)
+    private val stringArrayAdapter = gson.getAdapter(Array<String>::class.java)
+    private val dateAdapter = gson.getAdapter(Date::class.java)
+
+    override fun readValue(reader: JsonReader): Lesson {
+        var id = 0L
+        var title: String? = null
+        var slug: String? = null
+        var coverUrl: String? = null
+        var courses = longArrayOf()
+        var steps = longArrayOf()
+        var actions: LessonActions? = null
+        var isFeatured = false
+        var progress: String? = null
+        var owner = 0L
+        var subscriptions: Array<String>? = null
+        var viewedBy = 0L
+        var passedBy = 0L
+        var voteDelta = 0L
+        var language: String? = null
+        var isPublic = false
+        var createDate: Date? = null
+        var updateDate: Date? = null
+        var learnersGroup: String? = null
+        var teachersGroup: String? = null
+        var timeToComplete = 0L
+
+        reader.readObject { name ->
+            when (name) {
+                "id" -> id = nextLongOrDefault(id)
+                "title" -> title = nextStringOrNull()
+                "slug" -> slug = nextStringOrNull()
+                "cover_url" -> coverUrl = nextStringOrNull()
+                "courses" -> courses = nextLongArrayOrNull() ?: longArrayOf()
+                "steps" -> steps = nextLongArrayOrNull() ?: longArrayOf()
+                "actions" -> actions = actionsAdapter.read(this)
+                "is_featured" -> isFeatured = nextBooleanOrDefault(isFeatured)
+                "progress" -> progress = nextStringOrNull()
+                "owner" -> owner = nextLongOrDefault(owner)
+                "subscriptions" -> subscriptions = stringArrayAdapter.read(this)
+                "viewed_by" -> viewedBy = nextLongOrDefault(viewedBy)
+                "passed_by" -> passedBy = nextLongOrDefault(passedBy)
+                "vote_delta" -> voteDelta = nextLongOrDefault(voteDelta)
+                "language" -> language = nextStringOrNull()
+                "is_public" -> isPublic = nextBooleanOrDefault(isPublic)
+                "create_date" -> createDate = dateAdapter.read(this)
+                "update_date" -> updateDate = dateAdapter.read(this)
+                "learners_group" -> learnersGroup = nextStringOrNull()
+                "teachers_group" -> teachersGroup = nextStringOrNull()
+                "time_to_complete" -> timeToComplete = nextLongOrDefault(timeToComplete)
+                else -> skipValue()
+            }
+        }
+
+        return Lesson(
+            id = id,
+            title = title,
+            slug = slug,
+            coverUrl = coverUrl,
+            courses = courses,
+            steps = steps,
+            actions = actions,
+            isFeatured = isFeatured,
+            progress = progress,
+            owner = owner,
+            subscriptions = subscriptions,
+            viewedBy = viewedBy,
+            passedBy = passedBy,
+            voteDelta = voteDelta,
+            language = language,
+            isPublic = isPublic,
+            createDate = createDate,
+            updateDate = updateDate,
+            learnersGroup = learnersGroup,
+            teachersGroup = teachersGroup,
+            timeToComplete = timeToComplete
+        )
+    }
+}
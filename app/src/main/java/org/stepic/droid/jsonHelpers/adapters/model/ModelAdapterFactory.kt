@@ -0,0 +1,55 @@
+package org.stepic.droid.jsonHelpers.adapters.model
+
+import com.google.gson.Gson
+import com.google.gson.TypeAdapter
+import com.google.gson.TypeAdapterFactory
+import com.google.gson.reflect.TypeToken
+import org.stepik.android.model.Block
+import org.stepik.android.model.Course
+import org.stepik.android.model.Lesson
+import org.stepik.android.model.Progress
+import org.stepik.android.model.Section
+import org.stepik.android.model.Step
+import org.stepik.android.model.Submission
+import org.stepik.android.model.Unit
+
+/**
+ * Provides streaming adapters for models of api pages, that are parsed most often.
+ * Adapters read fields by their serialized names without reflection and write with default reflective adapters.
+ */
+class ModelAdapterFactory : TypeAdapterFactory {
+    override fun <T : Any?> create(gson: Gson, type: TypeToken<T>): TypeAdapter<T>? {
+        val adapter: TypeAdapter<*> =
+            when (type.rawType) {
+                Course::class.java ->
+                    CourseAdapter(gson, gson.getDelegateAdapter(this, TypeToken.get(Course::class.java)))
+
+                Section::class.java ->
+                    SectionAdapter(gson, gson.getDelegateAdapter(this, TypeToken.get(Section::class.java)))
+
+                Unit::class.java ->
+                    UnitAdapter(gson, gson.getDelegateAdapter(this, TypeToken.get(Unit::class.java)))
+
+                Lesson::class.java ->
+                    LessonAdapter(gson, gson.getDelegateAdapter(this, TypeToken.get(Lesson::class.java)))
+
+                Step::class.java ->
+                    StepAdapter(gson, gson.getDelegateAdapter(this, TypeToken.get(Step::class.java)))
+
+                Block::class.java ->
+                    BlockAdapter(gson, gson.getDelegateAdapter(this, TypeToken.get(Block::class.java)))
+
+                Progress::class.java ->
+                    ProgressAdapter(gson.getDelegateAdapter(this, TypeToken.get(Progress::class.java)))
+
+                Submission::class.java ->
+                    SubmissionAdapter(gson, gson.getDelegateAdapter(this, TypeToken.get(Submission::class.java)))
+
+                else ->
+                    return null
+            }
+
+        @Suppress("UNCHECKED_CAST")
+        return adapter as TypeAdapter<T>
+    }
+}
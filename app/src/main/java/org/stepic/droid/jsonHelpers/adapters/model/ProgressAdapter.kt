@@ -0,0 +1,47 @@
+package org.stepic.droid.jsonHelpers.adapters.model
+
+import com.google.gson.TypeAdapter
+import com.google.gson.stream.JsonReader
+import org.stepic.droid.jsonHelpers.adapters.StreamingReadAdapter
+import org.stepic.droid.jsonHelpers.adapters.nextBooleanOrDefault
+import org.stepic.droid.jsonHelpers.adapters.nextLongOrDefault
+import org.stepic.droid.jsonHelpers.adapters.nextStringOrNull
+import org.stepic.droid.jsonHelpers.adapters.readObject
+import org.stepik.android.model.Progress
+
+class ProgressAdapter(
+    delegate: TypeAdapter<Progress>
+) : StreamingReadAdapter<Progress>(delegate) {
+    override fun readValue(reader: JsonReader): Progress {
+        var id: String? = null
+        var lastViewed: String? = null
+        var score: String? = null
+        var cost = 0L
+        var nSteps = 0L
+        var nStepsPassed = 0L
+        var isPassed = false
+
+        reader.readObject { name ->
+            when (name) {
+                "id" -> id = nextStringOrNull()
+                "last_viewed" -> lastViewed = nextStringOrNull()
+                "score" -> score = nextStringOrNull()
+                "cost" -> cost = nextLongOrDefault(cost)
+                "n_steps" -> nSteps = nextLongOrDefault(nSteps)
+                "n_steps_passed" -> nStepsPassed = nextLongOrDefault(nStepsPassed)
+                "is_passed" -> isPassed = nextBooleanOrDefault(isPassed)
+                else -> skipValue()
+            }
+        }
+
+        return Progress(
+            id = id,
+            lastViewed = lastViewed,
+            score = score,
+            cost = cost,
+            nSteps = nSteps,
+            nStepsPassed = nStepsPassed,
+            isPassed = isPassed
+        )
+    }
+}
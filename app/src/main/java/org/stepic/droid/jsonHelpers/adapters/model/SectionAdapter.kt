@@ -0,0 +1,100 @@
+package org.stepic.droid.jsonHelpers.adapters.model
+
+import com.google.gson.Gson
+import com.google.gson.TypeAdapter
+import com.google.gson.stream.JsonReader
+import org.stepic.droid.jsonHelpers.adapters.StreamingReadAdapter
+import org.stepic.droid.jsonHelpers.adapters.nextBooleanOrDefault
+import org.stepic.droid.jsonHelpers.adapters.nextIntOrDefault
+import org.stepic.droid.jsonHelpers.adapters.nextLongArrayOrNull
+import org.stepic.droid.jsonHelpers.adapters.nextLongOrDefault
+import org.stepic.droid.jsonHelpers.adapters.nextStringOrNull
+import org.stepic.droid.jsonHelpers.adapters.readObject
+import org.stepik.android.model.Actions
+import org.stepik.android.model.DiscountingPolicyType
+import org.stepik.android.model.Section
+import java.util.Date
+
+class SectionAdapter(
+    gson: Gson,
+    delegate: TypeAdapter<Section>
+) : StreamingReadAdapter<Section>(delegate) {
+    private val dateAdapter = gson.getAdapter(Date::class.java)
+    private val actionsAdapter = gson.getAdapter(Actions::class.java)
+    private val discountingPolicyAdapter = gson.getAdapter(DiscountingPolicyType::class.java)
+
+    override fun readValue(reader: JsonReader): Section {
+        var id = 0L
+        var course = 0L
+        var units: List<Long> = emptyList()
+        var position = 0
+        var progress: String? = null
+        var title: String? = null
+        var slug: String? = null
+        var beginDate: Date? = null
+        var endDate: Date? = null
+        var softDeadline: Date? = null
+        var hardDeadline: Date? = null
+        var createDate: Date? = null
+        var updateDate: Date? = null
+        var gradingPolicy: String? = null
+        var isActive = false
+        var actions: Actions? = null
+        var isExam = false
+        var discountingPolicy: DiscountingPolicyType? = null
+        var isRequirementSatisfied = true
+        var requiredSection = 0L
+        var requiredPercent = 0
+
+        reader.readObject { name ->
+            when (name) {
+                "id" -> id = nextLongOrDefault(id)
+                "course" -> course = nextLongOrDefault(course)
+                "units" -> units = nextLongArrayOrNull()?.asList() ?: emptyList()
+                "position" -> position = nextIntOrDefault(position)
+                "progress" -> progress = nextStringOrNull()
+                "title" -> title = nextStringOrNull()
+                "slug" -> slug = nextStringOrNull()
+                "begin_date" -> beginDate = dateAdapter.read(this)
+                "end_date" -> endDate = dateAdapter.read(this)
+                "soft_deadline" -> softDeadline = dateAdapter.read(this)
+                "hard_deadline" -> hardDeadline = dateAdapter.read(this)
+                "create_date" -> createDate = dateAdapter.read(this)
+                "update_date" -> updateDate = dateAdapter.read(this)
+                "grading_policy" -> gradingPolicy = nextStringOrNull()
+                "is_active" -> isActive = nextBooleanOrDefault(isActive)
+                "actions" -> actions = actionsAdapter.read(this)
+                "is_exam" -> isExam = nextBooleanOrDefault(isExam)
+                "discounting_policy" -> discountingPolicy = discountingPolicyAdapter.read(this)
+                "is_requirement_satisfied" -> isRequirementSatisfied = nextBooleanOrDefault(isRequirementSatisfied)
+                "required_section" -> requiredSection = nextLongOrDefault(requiredSection)
+                "required_percent" -> requiredPercent = nextIntOrDefault(requiredPercent)
+                else -> skipValue()
+            }
+        }
+
+        return Section(
+            id = id,
+            course = course,
+            units = units,
+            position = position,
+            progress = progress,
+            title = title,
+            slug = slug,
+            beginDate = beginDate,
+            endDate = endDate,
+            softDeadline = softDeadline,
+            hardDeadline = hardDeadline,
+            createDate = createDate,
+            updateDate = updateDate,
+            gradingPolicy = gradingPolicy,
+            isActive = isActive,
+            actions = actions,
+            isExam = isExam,
+            discountingPolicy = discountingPolicy,
+            isRequirementSatisfied = isRequirementSatisfied,
+            requiredSection = requiredSection,
+            requiredPercent = requiredPercent
+        )
+    }
+}
@@ -0,0 +1,97 @@
+package org.stepic.droid.jsonHelpers.adapters.model
+
+import com.google.gson.Gson
+import com.google.gson.TypeAdapter
+import com.google.gson.reflect.TypeToken
+import com.google.gson.stream.JsonReader
+import org.stepic.droid.jsonHelpers.adapters.StreamingReadAdapter
+import org.stepic.droid.jsonHelpers.adapters.nextBooleanOrDefault
+import org.stepic.droid.jsonHelpers.adapters.nextDoubleOrNull
+import org.stepic.droid.jsonHelpers.adapters.nextIntOrDefault
+import org.stepic.droid.jsonHelpers.adapters.nextLongOrDefault
+import org.stepic.droid.jsonHelpers.adapters.nextStringOrNull
+import org.stepic.droid.jsonHelpers.adapters.readObject
+import org.stepik.android.model.Actions
+import org.stepik.android.model.Block
+import org.stepik.android.model.Step
+import java.util.Date
+
+class StepAdapter(
+    gson: Gson,
+    delegate: TypeAdapter<Step>
+) : StreamingReadAdapter<Step>(delegate) {
+    private val statusAdapter = gson.getAdapter(Step.Status::class.java)
+    private val blockAdapter = gson.getAdapter(Block::class.java)
+    private val stringListAdapter = gson.getAdapter(object : TypeToken<List<String>>() {})
+    private val dateAdapter = gson.getAdapter(Date::class.java)
+    private val actionsAdapter = gson.getAdapter(Actions::class.java)
+
+    override fun readValue(reader: JsonReader): Step {
+        var id = 0L
+        var lesson = 0L
+        var position = 0L
+        var status: Step.Status? = null
+        var block: Block? = null
+        var progress: String? = null
+        var subscriptions: List<String>? = null
+        var viewedBy = 0L
+        var passedBy = 0L
+        var worth = 0L
+        var createDate: Date? = null
+        var updateDate: Date? = null
+        var actions: Actions? = null
+        var discussionsCount = 0
+        var discussionProxy: String? = null
+        var discussionThreads: List<String>? = null
+        var hasSubmissionRestriction = false
+        var maxSubmissionCount = 0
+        var correctRatio: Double? = null
+
+        reader.readObject { name ->
+            when (name) {
+                "id" -> id = nextLongOrDefault(id)
+                "lesson" -> lesson = nextLongOrDefault(lesson)
+                "position" -> position = nextLongOrDefault(position)
+                "status" -> status = statusAdapter.read(this)
+                "block" -> block = blockAdapter.read(this)
+                "progress" -> progress = nextStringOrNull()
+                "subscriptions" -> subscriptions = stringListAdapter.read(this)
+                "viewed_by" -> viewedBy = nextLongOrDefault(viewedBy)
+                "passed_by" -> passedBy = nextLongOrDefault(passedBy)
+                "worth" -> worth = nextLongOrDefault(worth)
+                "create_date" -> createDate = dateAdapter.read(this)
+                "update_date" -> updateDate = dateAdapter.read(this)
+                "actions" -> actions = actionsAdapter.read(this)
+                "discussions_count" -> discussionsCount = nextIntOrDefault(discussionsCount)
+                "discussion_proxy" -> discussionProxy = nextStringOrNull()
+                "discussion_threads" -> discussionThreads = stringListAdapter.read(this)
+                "has_submissions_restrictions" -> hasSubmissionRestriction = nextBooleanOrDefault(hasSubmissionRestriction)
+                "max_submissions_count" -> maxSubmissionCount = nextIntOrDefault(maxSubmissionCount)
+                "correct_ratio" -> correctRatio = nextDoubleOrNull()
+                else -> skipValue()
+            }
+        }
+
+        return Step(
+            id = id,
+            lesson = lesson,
+            position = position,
+            status = status,
+            block = block,
+            progress = progress,
+            subscriptions = subscriptions,
+            viewedBy = viewedBy,
+            passedBy = passedBy,
+            worth = worth,
+            createDate = createDate,
+            updateDate = updateDate,
+            actions = actions,
+            discussionsCount = discussionsCount,
+            discussionProxy = discussionProxy,
+            discussionThreads = discussionThreads,
+            hasSubmissionRestriction = hasSubmissionRestriction,
+            maxSubmissionCount = maxSubmissionCount,
+            correctRatio = correctRatio
+        )
+    }
+}
@@ -0,0 +1,65 @@
+package org.stepic.droid.jsonHelpers.adapters.model
+
+import com.google.gson.Gson
+import com.google.gson.TypeAdapter
+import com.google.gson.stream.JsonReader
+import org.stepic.droid.jsonHelpers.adapters.StreamingReadAdapter
+import org.stepic.droid.jsonHelpers.adapters.nextLongOrDefault
+import org.stepic.droid.jsonHelpers.adapters.nextStringOrNull
+import org.stepic.droid.jsonHelpers.adapters.readObject
+import org.stepik.android.model.ReplyWrapper
+import org.stepik.android.model.Submission
+import org.stepik.android.model.feedback.Feedback
+import java.util.Date
+
+class SubmissionAdapter(
+    gson: Gson,
+    delegate: TypeAdapter<Submission>
+) : StreamingReadAdapter<Submission>(delegate) {
+    private val statusAdapter = gson.getAdapter(Submission.Status::class.java)
+    private val dateAdapter = gson.getAdapter(Date::class.java)
+    private val replyWrapperAdapter = gson.getAdapter(ReplyWrapper::class.java)
+    private val feedbackAdapter = gson.getAdapter(Feedback::class.java)
+
+    override fun readValue(reader: JsonReader): Submission {
+        var id = 0L
+        var status: Submission.Status? = null
+        var score: String? = null
+        var hint: String? = null
+        var time: Date? = null
+        var replyWrapper: ReplyWrapper? = null
+        var attempt = 0L
+        var session: String? = null
+        var eta: String? = null
+        var feedback: Feedback? = null
+
+        reader.readObject { name ->
+            when (name) {
+                "id" -> id = nextLongOrDefault(id)
+                "status" -> status = statusAdapter.read(this)
+                "score" -> score = nextStringOrNull()
+                "hint" -> hint = nextStringOrNull()
+                "time" -> time = dateAdapter.read(this)
+                "reply" -> replyWrapper = replyWrapperAdapter.read(this)
+                "attempt" -> attempt = nextLongOrDefault(attempt)
+                "session" -> session = nextStringOrNull()
+                "eta" -> eta = nextStringOrNull()
+                "feedback" -> feedback = feedbackAdapter.read(this)
+                else -> skipValue()
+            }
+        }
+
+        return Submission(
+            id = id,
+            status = status,
+            score = score,
+            hint = hint,
+            time = time,
+            _reply = replyWrapper?.reply,
+            attempt = attempt,
+            session = session,
+            eta = eta,
+            feedback = feedback
+        )
+    }
+}
@@ -0,0 +1,90 @@
+package org.stepic.droid.jsonHelpers.adapters.model
+
+import com.google.gson.Gson
+import com.google.gson.TypeAdapter
+import com.google.gson.stream.JsonReader
+import org.stepic.droid.jsonHelpers.adapters.StreamingReadAdapter
+import org.stepic.droid.jsonHelpers.adapters.nextBooleanOrDefault
+import org.stepic.droid.jsonHelpers.adapters.nextIntOrDefault
+import org.stepic.droid.jsonHelpers.adapters.nextLongArrayOrNull
+import org.stepic.droid.jsonHelpers.adapters.nextLongOrDefault
+import org.stepic.droid.jsonHelpers.adapters.nextStringOrNull
+import org.stepic.droid.jsonHelpers.adapters.readObject
+import org.stepik.android.model.Unit
+import java.util.Date
+
+class UnitAdapter(
+    gson: Gson,
+    delegate: TypeAdapter<Unit>
+) : StreamingReadAdapter<Unit>(delegate) {
+    private val dateAdapter = gson.getAdapter(Date::class.java)
+
+    override fun readValue(reader: JsonReader): Unit {
+        var id = 0L
+        var section = 0L
+        var lesson = 0L
+        var assignments: LongArray? = null
+        var position = 0
+        var progress: String? = null
+        var beginDate: Date? = null
+        var endDate: Date? = null
+        var softDeadline: Date? = null
+        var hardDeadline: Date? = null
+        var gradingPolicy: String? = null
+        var beginDateSource: String? = null
+        var endDateSource: String? = null
+        var softDeadlineSource: String? = null
+        var hardDeadlineSource: String? = null
+        var gradingPolicySource: String? = null
+        var isActive = false
+        var createDate: Date? = null
+        var updateDate: Date? = null
+
+        reader.readObject { name ->
+            when (name) {
+                "id" -> id = nextLongOrDefault(id)
+                "section" -> section = nextLongOrDefault(section)
+                "lesson" -> lesson = nextLongOrDefault(lesson)
+                "assignments" -> assignments = nextLongArrayOrNull()
+                "position" -> position = nextIntOrDefault(position)
+                "progress" -> progress = nextStringOrNull()
+                "begin_date" -> beginDate = dateAdapter.read(this)
+                "end_date" -> endDate = dateAdapter.read(this)
+                "soft_deadline" -> softDeadline = dateAdapter.read(this)
+                "hard_deadline" -> hardDeadline = dateAdapter.read(this)
+                "grading_policy" -> gradingPolicy = nextStringOrNull()
+                "begin_date_source" -> beginDateSource = nextStringOrNull()
+                "end_date_source" -> endDateSource = nextStringOrNull()
+                "soft_deadline_source" -> softDeadlineSource = nextStringOrNull()
+                "hard_deadline_source" -> hardDeadlineSource = nextStringOrNull()
+                "grading_policy_source" -> gradingPolicySource = nextStringOrNull()
+                "is_active" -> isActive = nextBooleanOrDefault(isActive)
+                "create_date" -> createDate = dateAdapter.read(this)
+                "update_date" -> updateDate = dateAdapter.read(this)
+                else -> skipValue()
+            }
+        }
+
+        return Unit(
+            id = id,
+            section = section,
+            lesson = lesson,
+            assignments = assignments,
+            position = position,
+            progress = progress,
+            beginDate = beginDate,
+            endDate = endDate,
+            softDeadline = softDeadline,
+            hardDeadline = hardDeadline,
+            gradingPolicy = gradingPolicy,
+            beginDateSource = beginDateSource,
+            endDateSource = endDateSource,
+            softDeadlineSource = softDeadlineSource,
+            hardDeadlineSource = hardDeadlineSource,
+            gradingPolicySource = gradingPolicySource,
+            isActive = isActive,
+            createDate = createDate,
+            updateDate = updateDate
+        )
+    }
+}
@@ -0,0 +1,6 @@
+package org.stepic.droid.persistence.di
+
+import javax.inject.Qualifier
+
+@Qualifier
+annotation class DownloadsHttpClient
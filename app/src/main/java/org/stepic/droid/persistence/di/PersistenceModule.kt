@@ -8,9 +8,10 @@ import dagger.Provides
 import io.reactivex.Observable
 import io.reactivex.Observer
 import io.reactivex.subjects.PublishSubject
+import okhttp3.OkHttpClient
 import org.stepic.droid.di.qualifiers.PersistenceProgressStatusMapper
 import org.stepic.droid.persistence.downloads.DownloadTaskManager
-import org.stepic.droid.persistence.downloads.DownloadTaskManagerImpl
+import org.stepic.droid.persistence.downloads.DownloadTaskManagerSelector
 import org.stepic.droid.persistence.downloads.helpers.AddDownloadTaskHelper
 import org.stepic.droid.persistence.downloads.helpers.AddDownloadTaskHelperImpl
 import org.stepic.droid.persistence.downloads.helpers.RemoveDownloadTaskHelper
@@ -77,7 +78,7 @@ abstract class PersistenceModule {
 
     @Binds
     @PersistenceScope
-    abstract fun bindDownloadTaskManager(downloadTaskManagerImpl: DownloadTaskManagerImpl): DownloadTaskManager
+    abstract fun bindDownloadTaskManager(downloadTaskManagerSelector: DownloadTaskManagerSelector): DownloadTaskManager
 
     @Binds
     @PersistenceScope
@@ -132,6 +133,24 @@ abstract class PersistenceModule {
         fun provideDownloadManager(context: Context): DownloadManager =
                 context.getSystemService(Context.DOWNLOAD_SERVICE) as DownloadManager
 
+        /**
+         * Shares connection pool of app client, but without its cache and interceptors
+         * as files are downloaded from third party hosts
+         */
+        @Provides
+        @JvmStatic
+        @DownloadsHttpClient
+        @PersistenceScope
+        fun provideDownloadsHttpClient(okHttpClient: OkHttpClient): OkHttpClient =
+                okHttpClient
+                        .newBuilder()
+                        .apply {
+                            interceptors().clear()
+                            networkInterceptors().clear()
+                        }
+                        .cache(null)
+                        .build()
+
         @Provides
         @JvmStatic
         @FSLock
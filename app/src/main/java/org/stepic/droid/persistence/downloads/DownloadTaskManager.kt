@@ -6,5 +6,10 @@ import org.stepic.droid.persistence.model.PersistentItem
 
 interface DownloadTaskManager {
     fun addTask(request: DownloadRequest): Completable
+
+    /**
+     * Enqueues all [requests] and stores their persistent items in single transaction
+     */
+    fun addTasks(requests: List<DownloadRequest>): Completable
     fun removeTasks(items: List<PersistentItem>, shouldRemoveFromDb: Boolean = false): Completable
 }
\ No newline at end of file
@@ -8,6 +8,7 @@ import org.stepic.droid.R
 import org.stepic.droid.persistence.di.FSLock
 import org.stepic.droid.persistence.di.PersistenceScope
 import org.stepic.droid.persistence.files.ExternalStorageManager
+import org.stepic.droid.persistence.files.PersistentFileIndex
 import org.stepic.droid.persistence.model.DownloadConfiguration
 import org.stepic.droid.persistence.model.DownloadRequest
 import org.stepic.droid.persistence.model.PersistentItem
@@ -26,33 +27,53 @@ constructor(
         private val downloadManager: DownloadManager,
         private val persistentItemObserver: PersistentItemObserver,
         private val externalStorageManager: ExternalStorageManager,
+        private val persistentFileIndex: PersistentFileIndex,
 
         @FSLock
         private val fsLock: ReentrantLock
 ): DownloadTaskManager {
     override fun addTask(request: DownloadRequest): Completable = Completable.fromAction {
         fsLock.withLock { // in order to prevent receiving broadcast before persistentItem was added
-            val title = request.title.split("-").map { it.trim() }
-            val systemRequest = DownloadManager.Request(Uri.parse(request.task.originalPath))
-                    .setNotificationVisibility(DownloadManager.Request.VISIBILITY_VISIBLE)
-                    .setAllowedNetworkTypes(request
-                            .configuration
-                            .allowedNetworkTypes
-                            .map(DownloadConfiguration.NetworkType::systemNetworkType)
-                            .reduce(Int::or)
-                    )
-                    .setTitle(context.getString(R.string.download_system_request_title, title.last(), title.first()))
+            persistentItemObserver.update(enqueue(request))
+        }
+    }
 
-            val downloadId = downloadManager.enqueue(systemRequest)
+    override fun addTasks(requests: List<DownloadRequest>): Completable = Completable.fromAction {
+        if (requests.isEmpty()) return@fromAction
 
-            persistentItemObserver.update(PersistentItem(
-                    task = request.task,
-                    downloadId = downloadId,
-                    status = PersistentItem.Status.IN_PROGRESS
-            ))
+        fsLock.withLock {
+            val items = ArrayList<PersistentItem>(requests.size)
+            try {
+                requests.mapTo(items, ::enqueue)
+            } finally { // already enqueued downloads should be tracked even if some request failed
+                if (items.isNotEmpty()) {
+                    persistentItemObserver.updateAll(items)
+                }
+            }
         }
     }
 
+    private fun enqueue(request: DownloadRequest): PersistentItem {
+        val title = request.title.split("-").map { it.trim() }
+        val systemRequest = DownloadManager.Request(Uri.parse(request.task.originalPath))
+                .setNotificationVisibility(DownloadManager.Request.VISIBILITY_VISIBLE)
+                .setAllowedNetworkTypes(request
+                        .configuration
+                        .allowedNetworkTypes
+                        .map(DownloadConfiguration.NetworkType::systemNetworkType)
+                        .reduce(Int::or)
+                )
+                .setTitle(context.getString(R.string.download_system_request_title, title.last(), title.first()))
+
+        val downloadId = downloadManager.enqueue(systemRequest)
+
+        return PersistentItem(
+                task = request.task,
+                downloadId = downloadId,
+                status = PersistentItem.Status.IN_PROGRESS
+        )
+    }
+
     override fun removeTasks(items: List<PersistentItem>, shouldRemoveFromDb: Boolean): Completable = Completable.fromAction {
         fsLock.withLock {
             items.forEach {
@@ -66,6 +87,7 @@ constructor(
                     if (file.exists() && !file.delete()) {
                         throw IOException("Can't remove file: $it")
                     }
+                    persistentFileIndex.onFileRemoved(file)
                 }
 
                 if (shouldRemoveFromDb) {
@@ -0,0 +1,45 @@
+package org.stepic.droid.persistence.downloads
+
+import com.google.firebase.remoteconfig.FirebaseRemoteConfig
+import io.reactivex.Completable
+import org.stepic.droid.configuration.RemoteConfig
+import org.stepic.droid.persistence.di.PersistenceScope
+import org.stepic.droid.persistence.downloads.http.HttpDownloadTaskManager
+import org.stepic.droid.persistence.model.DownloadRequest
+import org.stepic.droid.persistence.model.PersistentItem
+import javax.inject.Inject
+
+/**
+ * Adds new tasks with system or in-app download manager depending on [RemoteConfig.IS_IN_APP_DOWNLOADER_ENABLED],
+ * tasks are removed with the manager that added them
+ */
+@PersistenceScope
+class DownloadTaskManagerSelector
+@Inject
+constructor(
+    private val firebaseRemoteConfig: FirebaseRemoteConfig,
+    private val systemDownloadTaskManager: DownloadTaskManagerImpl,
+    private val httpDownloadTaskManager: HttpDownloadTaskManager
+) : DownloadTaskManager {
+    private val selectedDownloadTaskManager: DownloadTaskManager
+        get() =
+            if (firebaseRemoteConfig[RemoteConfig.IS_IN_APP_DOWNLOADER_ENABLED].asBoolean()) {
+                httpDownloadTaskManager
+            } else {
+                systemDownloadTaskManager
+            }
+
+    override fun addTask(request: DownloadRequest): Completable =
+        selectedDownloadTaskManager.addTask(request)
+
+    override fun addTasks(requests: List<DownloadRequest>): Completable =
+        selectedDownloadTaskManager.addTasks(requests)
+
+    override fun removeTasks(items: List<PersistentItem>, shouldRemoveFromDb: Boolean): Completable {
+        val (httpItems, systemItems) = items.partition { HttpDownloadTaskManager.isHttpDownload(it.downloadId) }
+        return Completable.concatArray(
+            systemDownloadTaskManager.removeTasks(systemItems, shouldRemoveFromDb),
+            httpDownloadTaskManager.removeTasks(httpItems, shouldRemoveFromDb)
+        )
+    }
+}
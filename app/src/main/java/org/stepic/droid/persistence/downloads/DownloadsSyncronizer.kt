@@ -13,6 +13,7 @@ import io.reactivex.rxkotlin.subscribeBy
 import org.stepic.droid.di.qualifiers.BackgroundScheduler
 import org.stepic.droid.persistence.di.FSLock
 import org.stepic.droid.persistence.di.PersistenceScope
+import org.stepic.droid.persistence.downloads.http.HttpDownloadTaskManager
 import org.stepic.droid.persistence.files.ExternalStorageManager
 import org.stepic.droid.persistence.model.PersistentItem
 import org.stepic.droid.persistence.model.Structure
@@ -43,6 +44,7 @@ constructor(
 
     private val downloadErrorPoster: DownloadErrorPoster,
     private val externalStorageManager: ExternalStorageManager,
+    private val httpDownloadTaskManager: HttpDownloadTaskManager,
 
     @BackgroundScheduler
     private val scheduler: Scheduler,
@@ -67,6 +69,9 @@ constructor(
                     .concatMapSingle {
                         persistentItemDao.getItemsByStatus(PersistentItem.Status.IN_PROGRESS)
                     }
+                    .map { items -> // in-app downloads push their updates
+                        items.filterNot { HttpDownloadTaskManager.isHttpDownload(it.downloadId) }
+                    }
                     .takeWhile(List<PersistentItem>::isNotEmpty)
                     .concatMapSingle {
                         zip(Single.just(it), systemDownloadsDao.get(*it.map(PersistentItem::downloadId).toLongArray()))
@@ -84,6 +89,7 @@ constructor(
         Completable.fromAction {
             fixInTransferItems()
             fixInProgressItems()
+            httpDownloadTaskManager.resumeTasks()
         }
 
     private fun fixInTransferItems() = fsLock.withLock {
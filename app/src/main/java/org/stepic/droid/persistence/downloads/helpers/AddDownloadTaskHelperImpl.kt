@@ -1,8 +1,12 @@
 package org.stepic.droid.persistence.downloads.helpers
 
+import android.os.SystemClock
+import androidx.core.os.bundleOf
 import io.reactivex.Completable
 import io.reactivex.Observable
-import io.reactivex.rxkotlin.toObservable
+import io.reactivex.Single
+import io.reactivex.rxkotlin.Singles
+import org.stepic.droid.analytic.Analytic
 import org.stepic.droid.persistence.content.StepContentResolver
 import org.stepic.droid.persistence.di.PersistenceScope
 import org.stepic.droid.persistence.downloads.DownloadTaskManager
@@ -16,7 +20,6 @@ import org.stepic.droid.persistence.model.Structure
 import org.stepic.droid.persistence.model.isCorrect
 import org.stepic.droid.persistence.storage.PersistentStateManager
 import org.stepic.droid.persistence.storage.dao.PersistentItemDao
-import org.stepic.droid.persistence.storage.structure.DBStructurePersistentItem
 import org.stepik.android.domain.step.repository.StepRepository
 import javax.inject.Inject
 
@@ -31,51 +34,118 @@ constructor(
     private val stepContentResolver: StepContentResolver,
     private val downloadTitleResolver: DownloadTitleResolver,
 
-    private val persistentItemDao: PersistentItemDao
+    private val persistentItemDao: PersistentItemDao,
+
+    private val analytic: Analytic
 ) : AddDownloadTaskHelper {
+    companion object {
+        /**
+         * Number of structures which steps, persistent items and titles are resolved together
+         */
+        private const val PLANNING_PAGE_SIZE = 100
+    }
+
     override fun addTasks(structureObservable: Observable<Structure>, configuration: DownloadConfiguration): Completable =
-        structureObservable
-            .doOnNext { persistentStateManager.invalidateStructure(it, PersistentState.State.IN_PROGRESS) }
-            .flatMapCompletable { structure ->
-                resolveStructureContent(structure, configuration)
-                        .flatMapCompletable(downloadTaskManager::addTask)
-                        .doOnComplete {
-                            persistentStateManager.invalidateStructure(structure, PersistentState.State.CACHED)
-                        }.doOnError {
-                            persistentStateManager.invalidateStructure(structure, PersistentState.State.NOT_CACHED)
-                        }.doOnDispose {
-                            persistentStateManager.invalidateStructure(structure, PersistentState.State.NOT_CACHED)
-                        }
-            }
+        Completable.defer {
+            val planningStats = PlanningStats()
+            structureObservable
+                .buffer(PLANNING_PAGE_SIZE)
+                .concatMapCompletable { structures -> addTasksPage(structures, configuration, planningStats) }
+                .doOnComplete { reportPlanningStats(planningStats) }
+        }
 
-    private fun resolveStructureContent(structure: Structure, configuration: DownloadConfiguration): Observable<DownloadRequest> =
+    private fun addTasksPage(structures: List<Structure>, configuration: DownloadConfiguration, planningStats: PlanningStats): Completable =
+        Completable.defer {
+            structures.forEach { persistentStateManager.invalidateStructure(it, PersistentState.State.IN_PROGRESS) }
+
+            val planningStart = SystemClock.elapsedRealtime()
+            resolvePageContent(structures, configuration)
+                .doOnSuccess { requests ->
+                    planningStats.add(structures.size, requests.size, SystemClock.elapsedRealtime() - planningStart)
+                }
+                .flatMapCompletable(downloadTaskManager::addTasks)
+                .doOnComplete {
+                    structures.forEach { persistentStateManager.invalidateStructure(it, PersistentState.State.CACHED) }
+                }.doOnError {
+                    structures.forEach { persistentStateManager.invalidateStructure(it, PersistentState.State.NOT_CACHED) }
+                }.doOnDispose {
+                    structures.forEach { persistentStateManager.invalidateStructure(it, PersistentState.State.NOT_CACHED) }
+                }
+        }
+
+    private fun resolvePageContent(structures: List<Structure>, configuration: DownloadConfiguration): Single<List<DownloadRequest>> =
         stepRepository
-            .getStep(structure.step)
-            .map { step ->
-                val paths = stepContentResolver.getDownloadableContentFromStep(step, configuration)
-                val pathsFiltered = cleanUpPreviousTasks(structure.step, paths)
-                pathsFiltered.map { DownloadTask(it, structure) }
+            .getSteps(*structures.map(Structure::step).toLongArray())
+            .flatMap { steps ->
+                val pathsByStep = steps.associateBy({ it.id }) { stepContentResolver.getDownloadableContentFromStep(it, configuration) }
+                Singles.zip(
+                    cleanUpPreviousTasks(pathsByStep),
+                    downloadTitleResolver.resolveTitles(structures.filter { it.step in pathsByStep })
+                )
             }
-            .flatMapObservable(List<DownloadTask>::toObservable)
-            .flatMap({
-                downloadTitleResolver.resolveTitle(it.structure).toObservable()
-            }, {a, b -> DownloadRequest(a, b, configuration) })
-
-    private fun cleanUpPreviousTasks(stepId: Long, paths: Iterable<String>): Iterable<String> {
-        val alreadyDownloadedPaths = mutableSetOf<String>()
-        val itemsToRemove = mutableListOf<PersistentItem>()
-
-        val oldTasks = persistentItemDao.getAll(mapOf(DBStructurePersistentItem.Columns.STEP to stepId.toString()))
-
-        oldTasks.forEach { item ->
-            if (item.task.originalPath in paths && item.status.isCorrect) {
-                alreadyDownloadedPaths.add(item.task.originalPath)
-            } else {
-                itemsToRemove.add(item)
+            .map { (pathsByStep, titlesByStep) ->
+                structures.flatMap { structure ->
+                    val title = titlesByStep[structure.step]
+                        ?: return@flatMap emptyList<DownloadRequest>()
+
+                    pathsByStep[structure.step]
+                        .orEmpty()
+                        .map { DownloadRequest(DownloadTask(it, structure), title, configuration) }
+                }
             }
-        }
 
-        downloadTaskManager.removeTasks(itemsToRemove, shouldRemoveFromDb = true).blockingAwait()
-        return paths.filterNot(alreadyDownloadedPaths::contains)
+    /**
+     * Removes previous tasks of steps that are not correct or no longer belong to step content
+     * @return paths that should be downloaded mapped by step id
+     */
+    private fun cleanUpPreviousTasks(pathsByStep: Map<Long, Set<String>>): Single<Map<Long, List<String>>> =
+        persistentItemDao
+            .getItemsBySteps(pathsByStep.keys.toLongArray())
+            .flatMap { oldTasks ->
+                val alreadyDownloadedPaths = mutableSetOf<Pair<Long, String>>()
+                val itemsToRemove = mutableListOf<PersistentItem>()
+
+                oldTasks.forEach { item ->
+                    val step = item.task.structure.step
+                    if (item.task.originalPath in pathsByStep[step].orEmpty() && item.status.isCorrect) {
+                        alreadyDownloadedPaths.add(step to item.task.originalPath)
+                    } else {
+                        itemsToRemove.add(item)
+                    }
+                }
+
+                downloadTaskManager
+                    .removeTasks(itemsToRemove, shouldRemoveFromDb = true)
+                    .toSingle {
+                        pathsByStep.mapValues { (step, paths) -> paths.filterNot { (step to it) in alreadyDownloadedPaths } }
+                    }
+            }
+
+    private fun reportPlanningStats(planningStats: PlanningStats) {
+        if (planningStats.stepsCount == 0) return
+
+        analytic.reportEvent(Analytic.DownloaderV2.PLANNING_TIME, bundleOf(
+            Analytic.DownloaderV2.Params.TIME_MS to planningStats.timeMs,
+            Analytic.DownloaderV2.Params.STEPS_COUNT to planningStats.stepsCount,
+            Analytic.DownloaderV2.Params.TASKS_COUNT to planningStats.tasksCount
+        ))
+    }
+
+    /**
+     * Accumulates planning time of pages, pages are planned sequentially
+     */
+    private class PlanningStats {
+        var stepsCount = 0
+            private set
+        var tasksCount = 0
+            private set
+        var timeMs = 0L
+            private set
+
+        fun add(stepsCount: Int, tasksCount: Int, timeMs: Long) {
+            this.stepsCount += stepsCount
+            this.tasksCount += tasksCount
+            this.timeMs += timeMs
+        }
     }
-}
\ No newline at end of file
+}
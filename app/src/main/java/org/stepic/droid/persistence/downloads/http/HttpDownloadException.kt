@@ -0,0 +1,8 @@
+package org.stepic.droid.persistence.downloads.http
+
+import java.io.IOException
+
+class HttpDownloadException(
+    val code: Int,
+    message: String
+) : IOException("HTTP $code: $message")
@@ -0,0 +1,91 @@
+package org.stepic.droid.persistence.downloads.http
+
+import java.util.concurrent.Executor
+
+/**
+ * Runs jobs on [executor] in FIFO order: at most [maxRunningJobs] jobs at once
+ * and at most [maxRunningJobsPerHost] of them for the same host.
+ * Jobs that are not [Job.isReady] are skipped till next [promote] call.
+ */
+class HttpDownloadQueue<J : HttpDownloadQueue.Job>(
+    private val executor: Executor,
+    private val maxRunningJobs: Int,
+    private val maxRunningJobsPerHost: Int
+) {
+    interface Job : Runnable {
+        val host: String
+
+        fun isReady(): Boolean
+    }
+
+    private val pendingJobs = mutableListOf<J>()
+    private val runningJobs = mutableListOf<J>()
+    private val runningJobsPerHost = mutableMapOf<String, Int>()
+
+    fun enqueue(jobs: List<J>) {
+        synchronized(this) {
+            pendingJobs += jobs
+        }
+        promote()
+    }
+
+    /**
+     * Removes job if it wasn't started yet
+     * @return true if job was removed
+     */
+    @Synchronized
+    fun remove(job: J): Boolean =
+        pendingJobs.remove(job)
+
+    @Synchronized
+    fun getRunningJobs(): List<J> =
+        runningJobs.toList()
+
+    @Synchronized
+    fun getPendingJobsCount(): Int =
+        pendingJobs.size
+
+    /**
+     * Starts pending jobs while limits allow
+     */
+    fun promote() {
+        val startedJobs = synchronized(this) {
+            val jobs = mutableListOf<J>()
+            val iterator = pendingJobs.iterator()
+            while (iterator.hasNext() && runningJobs.size < maxRunningJobs) {
+                val job = iterator.next()
+                val hostJobs = runningJobsPerHost[job.host] ?: 0
+                if (hostJobs >= maxRunningJobsPerHost || !job.isReady()) continue
+
+                iterator.remove()
+                runningJobs += job
+                runningJobsPerHost[job.host] = hostJobs + 1
+                jobs += job
+            }
+            jobs
+        }
+
+        startedJobs.forEach { job ->
+            executor.execute {
+                try {
+                    job.run()
+                } finally {
+                    onJobFinished(job)
+                }
+            }
+        }
+    }
+
+    private fun onJobFinished(job: J) {
+        synchronized(this) {
+            runningJobs -= job
+            val hostJobs = (runningJobsPerHost[job.host] ?: 1) - 1
+            if (hostJobs > 0) {
+                runningJobsPerHost[job.host] = hostJobs
+            } else {
+                runningJobsPerHost -= job.host
+            }
+        }
+        promote()
+    }
+}
@@ -0,0 +1,27 @@
+package org.stepic.droid.persistence.downloads.http
+
+import org.stepic.droid.persistence.di.PersistenceScope
+import org.stepic.droid.persistence.model.SystemDownloadRecord
+import java.util.concurrent.ConcurrentHashMap
+import javax.inject.Inject
+
+/**
+ * In-memory state of in-app downloads in the same format as system downloads have
+ */
+@PersistenceScope
+class HttpDownloadRecords
+@Inject
+constructor() {
+    private val records = ConcurrentHashMap<Long, SystemDownloadRecord>()
+
+    fun put(record: SystemDownloadRecord) {
+        records[record.id] = record
+    }
+
+    fun remove(downloadId: Long) {
+        records.remove(downloadId)
+    }
+
+    fun get(vararg ids: Long): List<SystemDownloadRecord> =
+        ids.mapNotNull(records::get)
+}
@@ -0,0 +1,405 @@
+package org.stepic.droid.persistence.downloads.http
+
+import android.app.DownloadManager
+import android.net.Uri
+import android.os.SystemClock
+import android.system.ErrnoException
+import android.system.OsConstants
+import io.reactivex.Completable
+import io.reactivex.Observer
+import io.reactivex.disposables.CompositeDisposable
+import io.reactivex.rxkotlin.plusAssign
+import io.reactivex.rxkotlin.subscribeBy
+import okhttp3.HttpUrl
+import okhttp3.OkHttpClient
+import org.stepic.droid.analytic.Analytic
+import org.stepic.droid.persistence.di.DownloadsHttpClient
+import org.stepic.droid.persistence.di.FSLock
+import org.stepic.droid.persistence.di.PersistenceScope
+import org.stepic.droid.persistence.downloads.DownloadErrorPoster
+import org.stepic.droid.persistence.downloads.DownloadTaskManager
+import org.stepic.droid.persistence.downloads.resolvers.DownloadTitleResolver
+import org.stepic.droid.persistence.files.ExternalStorageManager
+import org.stepic.droid.persistence.files.PersistentFileIndex
+import org.stepic.droid.persistence.model.DownloadConfiguration
+import org.stepic.droid.persistence.model.DownloadRequest
+import org.stepic.droid.persistence.model.PersistentItem
+import org.stepic.droid.persistence.model.StorageLocation
+import org.stepic.droid.persistence.model.Structure
+import org.stepic.droid.persistence.model.SystemDownloadRecord
+import org.stepic.droid.persistence.storage.PersistentItemObserver
+import org.stepic.droid.persistence.storage.dao.PersistentItemDao
+import org.stepik.android.domain.network.repository.NetworkTypeRepository
+import java.io.File
+import java.io.IOException
+import java.util.EnumSet
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.LinkedBlockingQueue
+import java.util.concurrent.ThreadPoolExecutor
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicLong
+import java.util.concurrent.locks.ReentrantLock
+import javax.inject.Inject
+import kotlin.concurrent.withLock
+
+/**
+ * Downloads files in app process with OkHttp instead of system [DownloadManager].
+ * Files are downloaded directly to selected storage location, interrupted downloads are resumed with Range requests.
+ * Progress is stored in [HttpDownloadRecords] and pushed to updates observer instead of being polled.
+ */
+@PersistenceScope
+class HttpDownloadTaskManager
+@Inject
+constructor(
+    @DownloadsHttpClient
+    private val okHttpClient: OkHttpClient,
+
+    private val persistentItemDao: PersistentItemDao,
+    private val persistentItemObserver: PersistentItemObserver,
+    private val updatesObserver: Observer<Structure>,
+
+    private val externalStorageManager: ExternalStorageManager,
+    private val persistentFileIndex: PersistentFileIndex,
+    private val httpDownloadRecords: HttpDownloadRecords,
+    private val downloadTitleResolver: DownloadTitleResolver,
+    private val networkTypeRepository: NetworkTypeRepository,
+
+    private val downloadErrorPoster: DownloadErrorPoster,
+    private val analytic: Analytic,
+
+    @FSLock
+    private val fsLock: ReentrantLock
+) : DownloadTaskManager {
+    companion object {
+        private const val MAX_RUNNING_DOWNLOADS = 4
+        private const val MAX_RUNNING_DOWNLOADS_PER_HOST = 2
+
+        private const val PROGRESS_UPDATE_INTERVAL_MS = 500L
+
+        /**
+         * Max retries of download interrupted with network error without any progress
+         */
+        private const val MAX_RETRIES = 5
+
+        /**
+         * Delay before retry, multiplied by number of retry
+         */
+        private const val RETRY_DELAY_MS = 2000L
+
+        /**
+         * Idle download threads are released after this timeout
+         */
+        private const val THREAD_KEEP_ALIVE_SECONDS = 30L
+
+        /**
+         * In-app download ids are negative in order not to intersect with system download ids
+         */
+        fun isHttpDownload(downloadId: Long): Boolean =
+            downloadId < 0
+    }
+
+    private val downloadIds = AtomicLong(-(System.currentTimeMillis() shl 10))
+
+    private val queue = HttpDownloadQueue<DownloadJob>(
+        ThreadPoolExecutor(MAX_RUNNING_DOWNLOADS, MAX_RUNNING_DOWNLOADS, THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, LinkedBlockingQueue())
+            .apply { allowCoreThreadTimeOut(true) },
+        MAX_RUNNING_DOWNLOADS,
+        MAX_RUNNING_DOWNLOADS_PER_HOST
+    )
+    private val jobs = ConcurrentHashMap<Long, DownloadJob>()
+
+    @Volatile
+    private var availableNetworkTypes = EnumSet.noneOf(DownloadConfiguration.NetworkType::class.java)
+    private var isNetworkTracked = false
+
+    /**
+     * Network tracking and pending retries, disposed when there are no jobs
+     */
+    private val compositeDisposable = CompositeDisposable()
+
+    override fun addTask(request: DownloadRequest): Completable =
+        addTasks(listOf(request))
+
+    override fun addTasks(requests: List<DownloadRequest>): Completable = Completable.fromAction {
+        if (requests.isEmpty()) return@fromAction
+
+        val newJobs = fsLock.withLock { // storage location shouldn't be changed till items are stored
+            val location = externalStorageManager.getSelectedStorageLocation()
+            val items = requests.map { createPersistentItem(it, location) }
+            persistentItemObserver.updateAll(items)
+
+            items.mapIndexed { index, item ->
+                DownloadJob(item, requests[index].configuration.allowedNetworkTypes, requests[index].title)
+            }
+        }
+        enqueue(newJobs)
+    }
+
+    /**
+     * Resumes in-app downloads that were interrupted with process death
+     */
+    fun resumeTasks() {
+        val items = persistentItemDao
+            .getItemsByStatus(PersistentItem.Status.IN_PROGRESS)
+            .blockingGet()
+            .filter { isHttpDownload(it.downloadId) && it.downloadId !in jobs }
+
+        if (items.isEmpty()) return
+
+        val allowedNetworkTypes = networkTypeRepository.getAllowedNetworkTypes().blockingGet()
+        val titles = downloadTitleResolver
+            .resolveTitles(items.map { it.task.structure }.distinct())
+            .onErrorReturnItem(emptyMap())
+            .blockingGet()
+
+        enqueue(items.map { DownloadJob(it, allowedNetworkTypes, titles[it.task.structure.step] ?: it.localFileName) })
+    }
+
+    override fun removeTasks(items: List<PersistentItem>, shouldRemoveFromDb: Boolean): Completable = Completable.fromAction {
+        fsLock.withLock {
+            items.forEach {
+                persistentItemObserver.update(it.copy(status = PersistentItem.Status.FILE_TRANSFER))
+            }
+
+            items.forEach { item ->
+                jobs.remove(item.downloadId)?.let { job ->
+                    job.cancel()
+                    queue.remove(job)
+                }
+                httpDownloadRecords.remove(item.downloadId)
+                stopNetworkTrackingIfIdle()
+                deleteFiles(item)
+
+                if (shouldRemoveFromDb) {
+                    persistentItemObserver.remove(item)
+                } else {
+                    persistentItemObserver.update(item.copy(status = PersistentItem.Status.CANCELLED))
+                }
+            }
+        }
+    }
+
+    private fun createPersistentItem(request: DownloadRequest, location: StorageLocation): PersistentItem {
+        val downloadId = downloadIds.decrementAndGet()
+        return PersistentItem(
+            localFileName = "${-downloadId}_${request.task.structure.step}_${System.nanoTime()}",
+            localFileDir = location.path.canonicalPath,
+            isInAppInternalDir = location.type == StorageLocation.Type.APP_INTERNAL,
+            downloadId = downloadId,
+            status = PersistentItem.Status.IN_PROGRESS,
+            task = request.task
+        )
+    }
+
+    private fun enqueue(newJobs: List<DownloadJob>) {
+        newJobs.forEach { job ->
+            jobs[job.item.downloadId] = job
+            httpDownloadRecords.put(job.record)
+        }
+        startNetworkTracking() // after jobs are added in order not to be stopped as idle
+        queue.enqueue(newJobs)
+    }
+
+    private fun deleteFiles(item: PersistentItem) {
+        val file = externalStorageManager.resolvePathForPersistentItem(item)?.let(::File)
+            ?: File(item.localFileDir, item.localFileName).takeIf { item.localFileName.isNotEmpty() }
+            ?: return
+
+        listOf(file, HttpFileDownload.getPartFile(file), HttpFileDownload.getValidatorFile(file)).forEach {
+            if (it.exists() && !it.delete()) {
+                throw IOException("Can't remove file: $it")
+            }
+        }
+        persistentFileIndex.onFileRemoved(file)
+    }
+
+    @Synchronized
+    private fun startNetworkTracking() {
+        if (isNetworkTracked) return
+        isNetworkTracked = true
+
+        availableNetworkTypes = networkTypeRepository.getAvailableNetworkTypes().blockingGet()
+        compositeDisposable += networkTypeRepository
+            .getAvailableNetworkTypesStream()
+            .subscribeBy(
+                onNext = ::onNetworkTypesChanged,
+                onError = ::onNetworkTrackingError
+            )
+    }
+
+    @Synchronized
+    private fun onNetworkTrackingError(e: Throwable) {
+        isNetworkTracked = false // will be restarted with next enqueue
+        analytic.reportError(Analytic.DownloaderV2.HTTP_DOWNLOAD_ERROR, e)
+    }
+
+    @Synchronized
+    private fun stopNetworkTrackingIfIdle() {
+        if (!isNetworkTracked || jobs.isNotEmpty()) return
+        isNetworkTracked = false
+        compositeDisposable.clear()
+    }
+
+    private fun onNetworkTypesChanged(networkTypes: EnumSet<DownloadConfiguration.NetworkType>) {
+        availableNetworkTypes = networkTypes
+        queue.getRunningJobs()
+            .filterNot(DownloadJob::isReady)
+            .forEach(DownloadJob::pause)
+        queue.promote()
+    }
+
+    private inner class DownloadJob(
+        val item: PersistentItem,
+        private val allowedNetworkTypes: EnumSet<DownloadConfiguration.NetworkType>,
+        title: String
+    ) : HttpDownloadQueue.Job {
+        private val targetFile = File(item.localFileDir, item.localFileName)
+
+        override val host: String =
+            HttpUrl.parse(item.task.originalPath)?.host() ?: ""
+
+        @Volatile
+        var record = SystemDownloadRecord(
+            id = item.downloadId,
+            title = title,
+            bytesDownloaded = 0,
+            bytesTotal = -1,
+            status = DownloadManager.STATUS_PENDING,
+            reason = 0,
+            localUri = Uri.fromFile(targetFile).toString()
+        )
+            private set
+
+        @Volatile
+        private var download: HttpFileDownload? = null
+
+        @Volatile
+        private var isCancelled = false
+
+        @Volatile
+        private var isPaused = false
+
+        private var lastUpdateTimestamp = 0L
+
+        private var retries = 0
+
+        override fun isReady(): Boolean =
+            allowedNetworkTypes.any(availableNetworkTypes::contains)
+
+        override fun run() {
+            val download = HttpFileDownload(okHttpClient, item.task.originalPath, targetFile)
+            this.download = download
+            if (isCancelled) return
+
+            try {
+                updateRecord(record.copy(status = DownloadManager.STATUS_RUNNING))
+                download.execute(::onProgress)
+
+                fsLock.withLock {
+                    if (isCancelled) {
+                        download.delete()
+                        return
+                    }
+                    download.commit()
+                    persistentFileIndex.onFileAdded(targetFile)
+                    persistentItemObserver.update(item.copy(status = PersistentItem.Status.COMPLETED))
+                }
+                onFinished()
+            } catch (e: Exception) {
+                when {
+                    isCancelled ->
+                        download.delete()
+
+                    isPaused -> {
+                        isPaused = false
+                        updateRecord(record.copy(status = DownloadManager.STATUS_PAUSED, reason = DownloadManager.PAUSED_WAITING_FOR_NETWORK))
+                        queue.enqueue(listOf(this))
+                    }
+
+                    isRetryable(e) -> { // e.g. connection reset, part file will be resumed like after pause
+                        retries++
+                        updateRecord(record.copy(status = DownloadManager.STATUS_PAUSED, reason = DownloadManager.PAUSED_WAITING_TO_RETRY))
+                        compositeDisposable += Completable
+                            .timer(RETRY_DELAY_MS * retries, TimeUnit.MILLISECONDS)
+                            .subscribeBy(onComplete = {
+                                if (!isCancelled) {
+                                    queue.enqueue(listOf(this))
+                                }
+                            })
+                    }
+
+                    else ->
+                        onError(e)
+                }
+            }
+        }
+
+        fun pause() {
+            isPaused = true
+            download?.cancel()
+        }
+
+        fun cancel() {
+            isCancelled = true
+            download?.cancel()
+        }
+
+        private fun onProgress(bytesDownloaded: Long, bytesTotal: Long) {
+            if (bytesDownloaded > record.bytesDownloaded) {
+                retries = 0
+            }
+            record = record.copy(
+                bytesDownloaded = bytesDownloaded.coerceAtMost(Int.MAX_VALUE.toLong()).toInt(),
+                bytesTotal = bytesTotal.coerceAtMost(Int.MAX_VALUE.toLong()).toInt()
+            )
+            httpDownloadRecords.put(record)
+
+            val now = SystemClock.elapsedRealtime()
+            if (now - lastUpdateTimestamp >= PROGRESS_UPDATE_INTERVAL_MS) {
+                lastUpdateTimestamp = now
+                updatesObserver.onNext(item.task.structure)
+            }
+        }
+
+        private fun onError(e: Exception) {
+            fsLock.withLock {
+                if (isCancelled) return
+                persistentItemObserver.update(item.copy(status = PersistentItem.Status.DOWNLOAD_ERROR))
+            }
+
+            val reason = when {
+                e is HttpDownloadException ->
+                    e.code
+
+                isNoSpaceError(e) ->
+                    DownloadManager.ERROR_INSUFFICIENT_SPACE
+
+                else ->
+                    DownloadManager.ERROR_HTTP_DATA_ERROR
+            }
+            downloadErrorPoster.onRecordError(record.copy(status = DownloadManager.STATUS_FAILED, reason = reason))
+            analytic.reportError(Analytic.DownloaderV2.HTTP_DOWNLOAD_ERROR, e)
+            onFinished()
+        }
+
+        private fun isRetryable(e: Exception): Boolean =
+            e is IOException && e !is HttpDownloadException && !isNoSpaceError(e) && retries < MAX_RETRIES
+
+        private fun isNoSpaceError(e: Exception): Boolean =
+            android.os.Build.VERSION.SDK_INT >= android.os.Build.VERSION_CODES.LOLLIPOP &&
+                (e.cause as? ErrnoException)?.errno == OsConstants.ENOSPC
+
+        private fun onFinished() {
+            jobs.remove(item.downloadId, this)
+            httpDownloadRecords.remove(item.downloadId)
+            stopNetworkTrackingIfIdle()
+            updatesObserver.onNext(item.task.structure)
+        }
+
+        private fun updateRecord(record: SystemDownloadRecord) {
+            this.record = record
+            httpDownloadRecords.put(record)
+            updatesObserver.onNext(item.task.structure)
+        }
+    }
+}
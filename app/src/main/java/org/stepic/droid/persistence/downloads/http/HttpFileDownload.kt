@@ -0,0 +1,194 @@
+package org.stepic.droid.persistence.downloads.http
+
+import okhttp3.Call
+import okhttp3.OkHttpClient
+import okhttp3.Request
+import java.io.File
+import java.io.FileOutputStream
+import java.io.IOException
+import java.io.InterruptedIOException
+import java.net.HttpURLConnection
+
+/**
+ * Downloads [url] into [partFile] next to [targetFile].
+ * Existing part file is resumed with Range request and it is moved to [targetFile] only with [commit],
+ * so [targetFile] never contains partially downloaded content.
+ * ETag or Last-Modified of downloaded content is kept in [validatorFile] and sent with If-Range,
+ * so part file is not resumed with content of changed remote file.
+ */
+class HttpFileDownload(
+    private val okHttpClient: OkHttpClient,
+    val url: String,
+    val targetFile: File
+) {
+    companion object {
+        private const val PART_FILE_SUFFIX = ".part"
+        private const val VALIDATOR_FILE_SUFFIX = ".validator"
+        private const val BUFFER_SIZE = 16 * 1024
+
+        private const val HTTP_RANGE_NOT_SATISFIABLE = 416
+
+        private val contentRangeRegex = "bytes (\\d+)-\\d+/(\\d+|\\*)".toRegex()
+        private val unsatisfiedContentRangeRegex = "bytes \\*/(\\d+)".toRegex()
+
+        fun getPartFile(targetFile: File): File =
+            File(targetFile.path + PART_FILE_SUFFIX)
+
+        fun getValidatorFile(targetFile: File): File =
+            File(targetFile.path + VALIDATOR_FILE_SUFFIX)
+    }
+
+    val partFile: File =
+        getPartFile(targetFile)
+
+    val validatorFile: File =
+        getValidatorFile(targetFile)
+
+    @Volatile
+    private var call: Call? = null
+
+    @Volatile
+    var isCancelled: Boolean = false
+        private set
+
+    /**
+     * Blocks till content is downloaded to [partFile]
+     *
+     * @param onProgress is called with downloaded bytes and total bytes or -1 if it is unknown
+     * @throws HttpDownloadException if server responded with error
+     * @throws InterruptedIOException if download was cancelled
+     */
+    @Throws(IOException::class)
+    fun execute(onProgress: (bytesDownloaded: Long, bytesTotal: Long) -> Unit) {
+        val validator = readValidator()
+        val offset = if (validator != null && partFile.exists()) partFile.length() else 0L // part file can't be resumed without validator
+
+        val requestBuilder = Request.Builder()
+            .url(url)
+            .header("Accept-Encoding", "identity") // transparent gzip breaks byte offsets
+        if (validator != null && offset > 0) {
+            requestBuilder
+                .header("Range", "bytes=$offset-")
+                .header("If-Range", validator)
+        }
+
+        val call = okHttpClient.newCall(requestBuilder.build())
+        this.call = call
+        if (isCancelled) {
+            call.cancel()
+        }
+
+        call.execute().use { response ->
+            val bytesTotal: Long
+            val append: Boolean
+
+            when {
+                response.code() == HttpURLConnection.HTTP_PARTIAL -> {
+                    val match = response.header("Content-Range")?.let(contentRangeRegex::matchEntire)
+                    if (match == null || match.groupValues[1].toLong() != offset) {
+                        partFile.delete()
+                        throw HttpDownloadException(response.code(), "Unexpected content range: ${response.header("Content-Range")}")
+                    }
+                    bytesTotal = match.groupValues[2].toLongOrNull() ?: -1
+                    append = true
+                }
+
+                response.code() == HTTP_RANGE_NOT_SATISFIABLE && offset > 0 -> {
+                    val bytesAvailable = response.header("Content-Range")
+                        ?.let(unsatisfiedContentRangeRegex::matchEntire)
+                        ?.groupValues
+                        ?.get(1)
+                        ?.toLong()
+
+                    if (bytesAvailable == offset) { // part file is already complete
+                        onProgress(offset, offset)
+                        return
+                    }
+                    partFile.delete()
+                    throw HttpDownloadException(response.code(), "Part file doesn't match remote content")
+                }
+
+                response.isSuccessful -> { // server ignored Range header or remote file was changed, download from scratch
+                    bytesTotal = response.body()?.contentLength() ?: -1
+                    append = false
+                    writeValidator(response.header("ETag")?.takeUnless { it.startsWith("W/") } ?: response.header("Last-Modified"))
+                }
+
+                else ->
+                    throw HttpDownloadException(response.code(), response.message())
+            }
+
+            val body = response.body()
+                ?: throw HttpDownloadException(response.code(), "Empty body")
+
+            var bytesDownloaded = if (append) offset else 0L
+            onProgress(bytesDownloaded, bytesTotal)
+
+            body.byteStream().use { input ->
+                FileOutputStream(partFile, append).use { output ->
+                    val buffer = ByteArray(BUFFER_SIZE)
+                    while (true) {
+                        val count = input.read(buffer)
+                        if (count == -1) break
+
+                        output.write(buffer, 0, count)
+                        bytesDownloaded += count
+                        onProgress(bytesDownloaded, bytesTotal)
+                    }
+                }
+            }
+
+            if (bytesTotal >= 0 && bytesDownloaded != bytesTotal) {
+                throw IOException("Unexpected end of stream: $bytesDownloaded of $bytesTotal bytes")
+            }
+        }
+    }
+
+    /**
+     * Moves downloaded [partFile] to [targetFile]
+     */
+    @Throws(IOException::class)
+    fun commit() {
+        if (targetFile.exists() && !targetFile.delete()) {
+            throw IOException("Can't delete previous file: $targetFile")
+        }
+        if (!partFile.renameTo(targetFile)) {
+            throw IOException("Can't move downloaded file to $targetFile")
+        }
+        validatorFile.delete()
+    }
+
+    /**
+     * Stops download, already downloaded part is kept in order to resume it later
+     */
+    fun cancel() {
+        isCancelled = true
+        call?.cancel()
+    }
+
+    /**
+     * Removes downloaded part with its validator and target file
+     */
+    fun delete() {
+        partFile.delete()
+        validatorFile.delete()
+        targetFile.delete()
+    }
+
+    private fun readValidator(): String? =
+        validatorFile
+            .takeIf(File::exists)
+            ?.readText()
+            ?.takeIf(String::isNotEmpty)
+
+    /**
+     * Weak ETag can't be used with If-Range, so part file without [validator] will be downloaded from scratch
+     */
+    private fun writeValidator(validator: String?) {
+        if (validator != null) {
+            validatorFile.writeText(validator)
+        } else {
+            validatorFile.delete()
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package org.stepic.droid.persistence.downloads.progress
+
+import io.reactivex.BackpressureStrategy
+import io.reactivex.Completable
+import io.reactivex.Maybe
+import io.reactivex.Observable
+import io.reactivex.Scheduler
+import io.reactivex.subjects.PublishSubject
+import org.stepic.droid.di.qualifiers.BackgroundScheduler
+import org.stepic.droid.di.qualifiers.PersistenceProgressStatusMapper
+import org.stepic.droid.persistence.di.PersistenceScope
+import org.stepic.droid.persistence.downloads.progress.mapper.DownloadProgressStatusMapper
+import org.stepic.droid.persistence.model.DownloadProgress
+import org.stepic.droid.persistence.model.PersistentItem
+import org.stepic.droid.persistence.model.PersistentState
+import org.stepic.droid.persistence.model.Structure
+import org.stepic.droid.persistence.model.isCorrect
+import org.stepic.droid.persistence.storage.PersistentStateManager
+import org.stepic.droid.persistence.storage.dao.PersistentItemDao
+import org.stepic.droid.persistence.storage.dao.SystemDownloadsDao
+import javax.inject.Inject
+
+/**
+ * Polls progress of all watched items together: once per interval states, persistent items and system downloads
+ * of watched items are fetched with bulk queries and results are dispatched to watchers by item key.
+ * Polling is active only while there are watched items.
+ */
+@PersistenceScope
+class DownloadProgressPoller
+@Inject
+constructor(
+    intervalUpdatesObservable: Observable<kotlin.Unit>,
+
+    private val systemDownloadsDao: SystemDownloadsDao,
+    private val persistentItemDao: PersistentItemDao,
+    private val persistentStateManager: PersistentStateManager,
+
+    @PersistenceProgressStatusMapper
+    private val downloadProgressStatusMapper: DownloadProgressStatusMapper,
+
+    @BackgroundScheduler
+    scheduler: Scheduler
+) {
+    /**
+     * Kind of watched items, e.g. units
+     */
+    class ItemType(
+        val persistentStateType: PersistentState.Type,
+        val persistentItemKeyFieldColumn: String,
+        val keyFieldValue: (Structure) -> Long
+    )
+
+    private data class ItemKey(val itemType: ItemType, val id: Long)
+
+    private val watchedItems = mutableMapOf<ItemKey, Int>()
+
+    /**
+     * Requests out of interval poll, e.g. for newly watched items
+     */
+    private val pollRequests = PublishSubject.create<kotlin.Unit>().toSerialized()
+
+    private val progressUpdates: Observable<Map<ItemKey, DownloadProgress>> =
+        Observable
+            .merge(intervalUpdatesObservable, pollRequests)
+            .toFlowable(BackpressureStrategy.LATEST) // polls requested during poll are merged into one
+            .observeOn(scheduler, false, 1)
+            .concatMapMaybe {
+                Maybe
+                    .fromCallable { poll(getWatchedItems()) }
+                    .onErrorComplete() // failed poll is skipped in order not to terminate progress of all watched items
+            }
+            .toObservable()
+            .share()
+
+    /**
+     * Returns progress of item on each poll while it is subscribed
+     */
+    fun getProgress(itemType: ItemType, itemId: Long): Observable<DownloadProgress> {
+        val key = ItemKey(itemType, itemId)
+        return Observable.defer {
+            addWatchedItem(key)
+            progressUpdates
+                .mergeWith(Completable.fromAction { pollRequests.onNext(kotlin.Unit) }) // request poll after subscription to updates
+                .concatMap { progresses -> progresses[key]?.let { Observable.just(it) } ?: Observable.empty() }
+                .doFinally { removeWatchedItem(key) }
+        }
+    }
+
+    private fun poll(keys: Collection<ItemKey>): Map<ItemKey, DownloadProgress> {
+        if (keys.isEmpty()) return emptyMap()
+
+        val states = keys
+            .groupBy(ItemKey::itemType)
+            .flatMap { (itemType, typeKeys) ->
+                val typeStates = persistentStateManager.getStates(typeKeys.map(ItemKey::id).toLongArray(), itemType.persistentStateType)
+                typeKeys.map { it to (typeStates[it.id] ?: PersistentState.State.NOT_CACHED) }
+            }
+            .toMap()
+
+        val polledKeys = keys.filter { states[it] != PersistentState.State.IN_PROGRESS }
+        val items = polledKeys
+            .groupBy(ItemKey::itemType)
+            .flatMap { (itemType, typeKeys) ->
+                persistentItemDao
+                    .getAllInRange(itemType.persistentItemKeyFieldColumn, typeKeys.map(ItemKey::id).toLongArray())
+                    .map { ItemKey(itemType, itemType.keyFieldValue(it.task.structure)) to it }
+            }
+            .groupBy({ it.first }, { it.second })
+
+        val downloadIds = items.values
+            .flatten()
+            .filter { it.status.isCorrect }
+            .map(PersistentItem::downloadId)
+            .distinct()
+            .toLongArray()
+        val records = systemDownloadsDao.get(*downloadIds).blockingGet().associateBy { it.id }
+
+        return keys.associateWith { key ->
+            val state = states.getValue(key)
+            val status =
+                if (state == PersistentState.State.IN_PROGRESS) {
+                    DownloadProgress.Status.Pending
+                } else {
+                    val keyItems = items[key].orEmpty()
+                    downloadProgressStatusMapper.countItemProgress(keyItems, keyItems.mapNotNull { records[it.downloadId] }, state)
+                }
+            DownloadProgress(key.id, status)
+        }
+    }
+
+    @Synchronized
+    private fun getWatchedItems(): Set<ItemKey> =
+        watchedItems.keys.toSet()
+
+    @Synchronized
+    private fun addWatchedItem(key: ItemKey) {
+        watchedItems[key] = (watchedItems[key] ?: 0) + 1
+    }
+
+    @Synchronized
+    private fun removeWatchedItem(key: ItemKey) {
+        val count = (watchedItems[key] ?: 1) - 1
+        if (count > 0) {
+            watchedItems[key] = count
+        } else {
+            watchedItems.remove(key)
+        }
+    }
+}
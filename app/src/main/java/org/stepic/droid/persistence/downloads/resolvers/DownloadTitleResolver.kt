@@ -8,4 +8,10 @@ interface DownloadTitleResolver {
 
     fun resolveTitle(structure: Structure): Single<String> =
             resolveTitle(structure.lesson, structure.step)
-}
\ No newline at end of file
+
+    /**
+     * Resolves titles of [structures] with single lessons request
+     * @return titles mapped by step id
+     */
+    fun resolveTitles(structures: List<Structure>): Single<Map<Long, String>>
+}
@@ -2,7 +2,9 @@ package org.stepic.droid.persistence.downloads.resolvers
 
 import io.reactivex.Single
 import org.stepic.droid.persistence.di.PersistenceScope
+import org.stepic.droid.persistence.model.Structure
 import org.stepik.android.domain.lesson.repository.LessonRepository
+import org.stepik.android.model.Lesson
 import javax.inject.Inject
 
 @PersistenceScope
@@ -14,8 +16,25 @@ constructor(
     override fun resolveTitle(lessonId: Long, stepId: Long): Single<String> =
         lessonRepository
             .getLesson(lessonId)
-            .map {
-                "${it.title} - ${it.steps.indexOf(stepId) + 1}"
-            }
+            .map { getTitle(it, stepId) }
             .toSingle()
-}
\ No newline at end of file
+
+    override fun resolveTitles(structures: List<Structure>): Single<Map<Long, String>> =
+        if (structures.isEmpty()) {
+            Single.just(emptyMap())
+        } else {
+            lessonRepository
+                .getLessons(*structures.map(Structure::lesson).distinct().toLongArray())
+                .map { lessons ->
+                    val lessonsById = lessons.associateBy(Lesson::id)
+                    structures.associateBy(Structure::step) { structure ->
+                        val lesson = lessonsById[structure.lesson]
+                            ?: throw NoSuchElementException("Lesson ${structure.lesson} not found")
+                        getTitle(lesson, structure.step)
+                    }
+                }
+        }
+
+    private fun getTitle(lesson: Lesson, stepId: Long): String =
+        "${lesson.title} - ${lesson.steps.indexOf(stepId) + 1}"
+}
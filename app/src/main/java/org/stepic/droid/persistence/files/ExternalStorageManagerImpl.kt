@@ -18,7 +18,8 @@ class ExternalStorageManagerImpl
 constructor(
         private val analytic: Analytic,
         private val context: Context,
-        private val userPreferences: UserPreferences
+        private val userPreferences: UserPreferences,
+        private val persistentFileIndex: PersistentFileIndex
 ): ExternalStorageManager {
     @Throws(ExternalStorageNotAvailable::class)
     override fun getAvailableStorageLocations(): List<StorageLocation> {
@@ -37,13 +38,18 @@ constructor(
         return locations.toList()
     }
 
-    private fun resolveDownloadsFilesDir(): File? = context.filesDir?.let {
+    @Volatile
+    private var downloadsFilesDir: File? = null // in order not to check dir for each persistent item
+
+    private fun resolveDownloadsFilesDir(): File? = downloadsFilesDir ?: context.filesDir?.let {
         File(it, Environment.DIRECTORY_DOWNLOADS)
     }?.let {
         if (!it.exists() && !it.mkdir()) {
             return@let null
         }
         return@let it
+    }?.also {
+        downloadsFilesDir = it
     }
 
     @Throws(ExternalStorageNotAvailable::class)
@@ -65,15 +71,15 @@ constructor(
     override fun resolvePathForPersistentItem(item: PersistentItem): String? {
         if (item.status != PersistentItem.Status.COMPLETED) return null
 
-        val file = if (item.isInAppInternalDir) {
-            resolveDownloadsFilesDir()?.absolutePath?.let { File(it, item.localFileName) }
+        val directory = if (item.isInAppInternalDir) {
+            resolveDownloadsFilesDir()
         } else {
-            File(item.localFileDir, item.localFileName)
+            File(item.localFileDir)
         }
 
-        val path = file?.takeIf(File::exists)?.canonicalPath
+        val path = directory?.let { persistentFileIndex.resolvePath(it, item.localFileName) }
         if (path == null) {
-            analytic.reportEventWithName(Analytic.DownloaderV2.FILE_NOT_FOND, "${file?.canonicalPath}")
+            analytic.reportEventWithName(Analytic.DownloaderV2.FILE_NOT_FOND, "${directory?.let { File(it, item.localFileName).path }}")
         }
         return path
     }
@@ -0,0 +1,144 @@
+package org.stepic.droid.persistence.files
+
+import io.reactivex.Scheduler
+import org.stepic.droid.di.qualifiers.BackgroundScheduler
+import org.stepic.droid.persistence.di.PersistenceScope
+import java.io.File
+import java.util.concurrent.TimeUnit
+import javax.inject.Inject
+
+/**
+ * In-memory index of files in storage directories in order not to check each persistent file with file system.
+ * Directory is indexed with single scan on first access, then index is updated by services that add or remove files
+ * and is verified with rescan in background not more often than [VERIFY_INTERVAL_MS].
+ *
+ * Index misses are checked with file system, so file that was added bypassing index is still found.
+ */
+@PersistenceScope
+class PersistentFileIndex
+@Inject
+constructor(
+    @BackgroundScheduler
+    private val scheduler: Scheduler
+) {
+    companion object {
+        private const val VERIFY_INTERVAL_MS = 60_000L
+    }
+
+    private class DirectoryIndex(
+        val canonicalPath: String,
+        var fileNames: MutableSet<String>,
+        var verifiedAt: Long
+    ) {
+        var version = 0
+        var isVerifying = false
+    }
+
+    /**
+     * Directories by canonical path
+     */
+    private val directories = hashMapOf<String, DirectoryIndex>()
+
+    /**
+     * Canonical paths of directories by their paths
+     */
+    private val canonicalPaths = hashMapOf<String, String>()
+
+    /**
+     * Returns canonical path of file with [fileName] in [directory] or null if there is no such file
+     */
+    fun resolvePath(directory: File, fileName: String): String? {
+        val index = getDirectoryIndex(directory) ?: return null
+        val path = File(index.canonicalPath, fileName).path
+
+        val isIndexed = synchronized(this) {
+            scheduleVerificationIfNeeded(index)
+            fileName in index.fileNames
+        }
+
+        return when {
+            isIndexed ->
+                path
+
+            File(path).exists() -> {
+                onFileAdded(File(path))
+                path
+            }
+
+            else ->
+                null
+        }
+    }
+
+    fun onFileAdded(file: File) {
+        updateDirectoryIndex(file) { it.add(file.name) }
+    }
+
+    fun onFileRemoved(file: File) {
+        updateDirectoryIndex(file) { it.remove(file.name) }
+    }
+
+    private fun getDirectoryIndex(directory: File): DirectoryIndex? {
+        synchronized(this) {
+            canonicalPaths[directory.path]
+                ?.let(directories::get)
+                ?.let { return it }
+        }
+
+        val canonicalPath = directory.canonicalPath
+        val fileNames = scanDirectory(directory) ?: return null
+
+        return synchronized(this) {
+            canonicalPaths[directory.path] = canonicalPath
+            directories.getOrPut(canonicalPath) { DirectoryIndex(canonicalPath, fileNames, now()) }
+        }
+    }
+
+    private inline fun updateDirectoryIndex(file: File, update: (MutableSet<String>) -> Unit) {
+        val directory = file.parentFile ?: return
+        synchronized(this) {
+            val index = canonicalPaths[directory.path]
+                ?.let(directories::get)
+                ?: directories[directory.path] // file could be passed by canonical path from resolvePath
+                ?: return // directory will be scanned on first access
+
+            update(index.fileNames)
+            index.version++
+        }
+    }
+
+    private fun scheduleVerificationIfNeeded(index: DirectoryIndex) {
+        if (index.isVerifying || now() - index.verifiedAt < VERIFY_INTERVAL_MS) return
+
+        index.isVerifying = true
+        scheduler.scheduleDirect { verify(index) }
+    }
+
+    private fun verify(index: DirectoryIndex) {
+        val version = synchronized(this) { index.version }
+        val fileNames = scanDirectory(File(index.canonicalPath))
+
+        synchronized(this) {
+            index.isVerifying = false
+            index.verifiedAt = now()
+
+            when {
+                fileNames == null -> { // directory is not available anymore
+                    directories.remove(index.canonicalPath)
+                    canonicalPaths.values.removeAll { it == index.canonicalPath }
+                }
+
+                index.version == version ->
+                    index.fileNames = fileNames
+
+                // else index was updated during scan and scan result is outdated, so it will be verified next time
+            }
+        }
+    }
+
+    private fun scanDirectory(directory: File): MutableSet<String>? =
+        directory.list()?.toHashSet()
+
+    private fun now(): Long =
+        scheduler.now(TimeUnit.MILLISECONDS)
+}
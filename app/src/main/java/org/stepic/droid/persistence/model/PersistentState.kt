@@ -3,8 +3,22 @@ package org.stepic.droid.persistence.model
 class PersistentState(
         val id: Long,
         val type: Type,
-        val state: State
+        val state: State,
+        /**
+         * Aggregate counters of children states for parent items, [CHILDREN_UNKNOWN] if they weren't computed yet.
+         * Children without stored state are counted as [State.NOT_CACHED]
+         */
+        val childrenCached: Int = CHILDREN_UNKNOWN,
+        val childrenInProgress: Int = CHILDREN_UNKNOWN,
+        /**
+         * Number of children counters were computed for, counters are recomputed if children list size changes
+         */
+        val childrenCount: Int = CHILDREN_UNKNOWN
 ) {
+    companion object {
+        const val CHILDREN_UNKNOWN = -1
+    }
+
     enum class Type {
         COURSE,
         SECTION,
@@ -16,4 +30,4 @@ class PersistentState(
     enum class State {
         CACHED, IN_PROGRESS, NOT_CACHED
     }
-}
\ No newline at end of file
+}
@@ -12,6 +12,7 @@ import org.stepic.droid.base.App
 import org.stepic.droid.persistence.di.FSLock
 import org.stepic.droid.persistence.downloads.DownloadErrorPoster
 import org.stepic.droid.persistence.files.ExternalStorageManager
+import org.stepic.droid.persistence.files.PersistentFileIndex
 import org.stepic.droid.persistence.model.PersistentItem
 import org.stepic.droid.persistence.model.StorageLocation
 import org.stepic.droid.persistence.model.SystemDownloadRecord
@@ -44,6 +45,9 @@ class DownloadCompleteService: JobIntentService() {
     @Inject
     lateinit var externalStorageManager: ExternalStorageManager
 
+    @Inject
+    lateinit var persistentFileIndex: PersistentFileIndex
+
     @Inject
     lateinit var persistentItemObserver: PersistentItemObserver
 
@@ -128,6 +132,7 @@ class DownloadCompleteService: JobIntentService() {
                     input.copyTo(output)
                 }
             }
+            persistentFileIndex.onFileAdded(targetFile)
 
             persistentItemObserver.update(newPersistentItem.copy(
                 status = PersistentItem.Status.COMPLETED
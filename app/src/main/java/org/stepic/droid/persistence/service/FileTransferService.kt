@@ -8,6 +8,7 @@ import org.stepic.droid.analytic.Analytic
 import org.stepic.droid.base.App
 import org.stepic.droid.persistence.di.FSLock
 import org.stepic.droid.persistence.files.ExternalStorageManager
+import org.stepic.droid.persistence.files.PersistentFileIndex
 import org.stepic.droid.persistence.model.PersistentItem
 import org.stepic.droid.persistence.model.PersistentState
 import org.stepic.droid.persistence.model.StorageLocation
@@ -51,6 +52,9 @@ class FileTransferService: JobIntentService() {
     @Inject
     lateinit var externalStorageManager: ExternalStorageManager
 
+    @Inject
+    lateinit var persistentFileIndex: PersistentFileIndex
+
     @Inject
     lateinit var fileTransferEventSubject: PublishSubject<Event>
 
@@ -89,7 +93,10 @@ class FileTransferService: JobIntentService() {
 
             if (file.canonicalPath != targetFile.canonicalPath) {
                 file.copyTo(targetFile, overwrite = true)
-                file.delete()
+                persistentFileIndex.onFileAdded(targetFile)
+                if (file.delete()) {
+                    persistentFileIndex.onFileRemoved(file)
+                }
             }
 
             persistentItemObserver.update(persistentItem.copy(
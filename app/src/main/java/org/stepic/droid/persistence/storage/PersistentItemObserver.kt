@@ -4,5 +4,6 @@ import org.stepic.droid.persistence.model.PersistentItem
 
 interface PersistentItemObserver {
     fun update(item: PersistentItem)
+    fun updateAll(items: List<PersistentItem>)
     fun remove(item: PersistentItem)
 }
\ No newline at end of file
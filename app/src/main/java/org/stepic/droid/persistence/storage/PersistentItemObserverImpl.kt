@@ -20,6 +20,11 @@ constructor(
         updatesObserver.onNext(item.task.structure)
     }
 
+    override fun updateAll(items: List<PersistentItem>) {
+        persistentItemDao.insertOrReplaceAll(items)
+        items.mapTo(LinkedHashSet()) { it.task.structure }.forEach(updatesObserver::onNext)
+    }
+
     override fun remove(item: PersistentItem) {
         persistentItemDao.remove(mapOf(
             DBStructurePersistentItem.Columns.STEP to item.task.structure.step.toString(),
@@ -8,5 +8,10 @@ interface PersistentStateManager {
     fun invalidateStructure(structure: Structure, state: PersistentState.State)
     fun getState(id: Long, type: PersistentState.Type): PersistentState.State
 
+    /**
+     * @return states of items mapped by id, items without state are omitted
+     */
+    fun getStates(ids: LongArray, type: PersistentState.Type): Map<Long, PersistentState.State>
+
     fun resetInProgressItems()
 }
\ No newline at end of file
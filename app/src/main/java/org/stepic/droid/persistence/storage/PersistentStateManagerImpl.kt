@@ -5,13 +5,16 @@ import org.stepic.droid.persistence.di.PersistenceScope
 import org.stepic.droid.persistence.model.PersistentState
 import org.stepic.droid.persistence.model.Structure
 import org.stepic.droid.persistence.storage.dao.PersistentStateDao
-import org.stepic.droid.persistence.storage.structure.DBStructurePersistentState
 import org.stepic.droid.storage.operations.DatabaseFacade
-import java.util.concurrent.locks.ReentrantReadWriteLock
+import java.util.concurrent.locks.ReentrantLock
 import javax.inject.Inject
-import kotlin.concurrent.read
-import kotlin.concurrent.write
+import kotlin.concurrent.withLock
 
+/**
+ * Parent items keep aggregate counters of cached and in progress children,
+ * so step transition updates only changed states up the hierarchy and all of them are written in one transaction.
+ * Readers don't take lock as database is in WAL mode and they see either state before or after transaction.
+ */
 @PersistenceScope
 class PersistentStateManagerImpl
 @Inject
@@ -21,72 +24,127 @@ constructor(
         private val updatesObserver: Observer<Structure>
 ): PersistentStateManager {
     companion object {
-        private fun concatStates(stateA: PersistentState.State, stateB: PersistentState.State) = when {
-            stateA == PersistentState.State.IN_PROGRESS || stateB == PersistentState.State.IN_PROGRESS ->
+        private fun getAggregatedState(childrenCached: Int, childrenInProgress: Int, childrenCount: Int) = when {
+            childrenInProgress > 0 ->
                 PersistentState.State.IN_PROGRESS
 
-            stateA == PersistentState.State.NOT_CACHED || stateB == PersistentState.State.NOT_CACHED ->
-                PersistentState.State.NOT_CACHED
+            childrenCount > 0 && childrenCached >= childrenCount ->
+                PersistentState.State.CACHED
 
             else ->
-                PersistentState.State.CACHED
+                PersistentState.State.NOT_CACHED
         }
+
+        private fun PersistentState.State.countAs(state: PersistentState.State): Int =
+                if (this == state) 1 else 0
     }
 
-    private val lock = ReentrantReadWriteLock()
+    private val writeLock = ReentrantLock()
+
+    override fun invalidateStructure(structure: Structure, state: PersistentState.State) = writeLock.withLock {
+        val hierarchy = listOf(
+                structure.step to PersistentState.Type.STEP,
+                structure.lesson to PersistentState.Type.LESSON,
+                structure.unit to PersistentState.Type.UNIT,
+                structure.section to PersistentState.Type.SECTION,
+                structure.course to PersistentState.Type.COURSE
+        )
+
+        var childId = structure.step
+        var oldChildState = getStateLockFree(structure.step, PersistentState.Type.STEP)
+        var newChildState = state
+        var shouldRecount = false // counters can't be updated with delta if child level was skipped
+
+        val updates = ArrayList<PersistentState>(hierarchy.size)
+        updates += PersistentState(structure.step, PersistentState.Type.STEP, state)
+
+        for (level in 1 until hierarchy.size) {
+            if (!shouldRecount && oldChildState == newChildState) break
+
+            val (id, type) = hierarchy[level]
+            val childType = hierarchy[level - 1].second
+            val oldState = persistentStateDao.getState(id, type)
+
+            val childIds = getChildIds(id, type)
+            if (childIds == null) { // item is missing in db, so it is skipped and next level is recounted from stored children
+                childId = id
+                oldChildState = oldState?.state ?: PersistentState.State.NOT_CACHED
+                newChildState = oldChildState
+                shouldRecount = true
+                continue
+            }
+
+            val (childrenCached, childrenInProgress) =
+                    if (!shouldRecount &&
+                            oldState != null &&
+                            oldState.childrenCached != PersistentState.CHILDREN_UNKNOWN &&
+                            oldState.childrenCount == childIds.size) {
+                        oldState.childrenCached + newChildState.countAs(PersistentState.State.CACHED) - oldChildState.countAs(PersistentState.State.CACHED) to
+                                oldState.childrenInProgress + newChildState.countAs(PersistentState.State.IN_PROGRESS) - oldChildState.countAs(PersistentState.State.IN_PROGRESS)
+                    } else {
+                        countChildren(childIds, childType, childId, newChildState)
+                    }
+
+            val newState = getAggregatedState(childrenCached, childrenInProgress, childIds.size)
+            updates += PersistentState(id, type, newState, childrenCached, childrenInProgress, childIds.size)
+
+            childId = id
+            oldChildState = oldState?.state ?: PersistentState.State.NOT_CACHED
+            newChildState = newState
+            shouldRecount = false
+        }
 
-    override fun invalidateStructure(structure: Structure, state: PersistentState.State) = lock.write {
-        persistentStateDao.insertOrReplace(PersistentState(structure.step, PersistentState.Type.STEP, state))
-        invalidate(structure.lesson, PersistentState.Type.LESSON)
-        invalidate(structure.unit, PersistentState.Type.UNIT)
-        invalidate(structure.section, PersistentState.Type.SECTION)
-        invalidate(structure.course, PersistentState.Type.COURSE)
+        persistentStateDao.insertOrReplaceAll(updates)
         updatesObserver.onNext(structure)
     }
 
-    private fun invalidate(id: Long, type: PersistentState.Type) {
-        when (type) {
-            PersistentState.Type.STEP -> {}
+    private fun getChildIds(id: Long, type: PersistentState.Type): LongArray? =
+            when (type) {
+                PersistentState.Type.STEP ->
+                    null
 
-            PersistentState.Type.LESSON -> {
-                val lesson = databaseFacade.getLessonById(id) ?: return
+                PersistentState.Type.LESSON ->
+                    databaseFacade.getLessonById(id)?.steps
 
-                val state = lesson.steps.map { getState(it, PersistentState.Type.STEP) }.reduce(::concatStates)
-                persistentStateDao.insertOrReplace(PersistentState(lesson.id, PersistentState.Type.LESSON, state))
-            }
+                PersistentState.Type.UNIT ->
+                    databaseFacade.getUnitById(id)?.let { longArrayOf(it.lesson) }
 
-            PersistentState.Type.UNIT -> {
-                val unit = databaseFacade.getUnitById(id) ?: return
+                PersistentState.Type.SECTION ->
+                    databaseFacade.getSectionById(id)?.units?.toLongArray()
 
-                val state = getState(unit.lesson, PersistentState.Type.LESSON)
-                persistentStateDao.insertOrReplace(PersistentState(unit.id, PersistentState.Type.UNIT, state))
+                PersistentState.Type.COURSE ->
+                    databaseFacade.getCourseById(id)?.sections
             }
 
-            PersistentState.Type.SECTION -> {
-                val section = databaseFacade.getSectionById(id) ?: return
-
-                val state = section.units.map { getState(it, PersistentState.Type.UNIT) }.reduce(::concatStates)
-                persistentStateDao.insertOrReplace(PersistentState(section.id, PersistentState.Type.SECTION, state))
-            }
-
-            PersistentState.Type.COURSE -> {
-                val course = databaseFacade.getCourseById(id) ?: return
-                val sections = course.sections ?: return
-
-                val state = sections.map { getState(it, PersistentState.Type.SECTION) }.reduce(::concatStates)
-                persistentStateDao.insertOrReplace(PersistentState(course.id, PersistentState.Type.COURSE, state))
+    /**
+     * Computes counters from stored children states for parents without counters,
+     * state of child [childId] is taken as [childState] as it isn't stored yet
+     */
+    private fun countChildren(childIds: LongArray, childType: PersistentState.Type, childId: Long, childState: PersistentState.State): Pair<Int, Int> {
+        val isChild = childId in childIds
+        var cached = if (isChild) childState.countAs(PersistentState.State.CACHED) else 0
+        var inProgress = if (isChild) childState.countAs(PersistentState.State.IN_PROGRESS) else 0
+        persistentStateDao.getStates(childIds, childType).forEach {
+            if (it.id != childId) {
+                cached += it.state.countAs(PersistentState.State.CACHED)
+                inProgress += it.state.countAs(PersistentState.State.IN_PROGRESS)
             }
         }
+        return cached to inProgress
     }
 
     private fun getStateLockFree(id: Long, type: PersistentState.Type): PersistentState.State =
-            persistentStateDao.get(mapOf(DBStructurePersistentState.Columns.ID to id.toString(), DBStructurePersistentState.Columns.TYPE to type.name))
-                    ?.state ?: PersistentState.State.NOT_CACHED
+            persistentStateDao.getState(id, type)?.state ?: PersistentState.State.NOT_CACHED
 
     override fun getState(id: Long, type: PersistentState.Type): PersistentState.State =
-            lock.read { getStateLockFree(id, type) }
+            getStateLockFree(id, type)
+
+    override fun getStates(ids: LongArray, type: PersistentState.Type): Map<Long, PersistentState.State> =
+            persistentStateDao
+                    .getStates(ids, type)
+                    .associateBy(PersistentState::id, PersistentState::state)
 
-    override fun resetInProgressItems() = lock.write {
+    override fun resetInProgressItems() = writeLock.withLock {
         persistentStateDao.resetInProgressItems()
     }
-}
\ No newline at end of file
+}
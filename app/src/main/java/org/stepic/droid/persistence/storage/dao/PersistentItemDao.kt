@@ -22,6 +22,8 @@ interface PersistentItemDao : IDao<PersistentItem> {
     fun getItemsByStep(step: Long): Single<List<PersistentItem>> =
         getItems(mapOf(DBStructurePersistentItem.Columns.STEP to step.toString()))
 
+    fun getItemsBySteps(steps: LongArray): Single<List<PersistentItem>>
+
     fun getItemsByStatus(status: PersistentItem.Status): Single<List<PersistentItem>> =
         getItems(mapOf(DBStructurePersistentItem.Columns.STATUS to status.name))
 
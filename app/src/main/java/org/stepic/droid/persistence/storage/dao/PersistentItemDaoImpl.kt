@@ -71,8 +71,11 @@ constructor(
         get(selector)?.let(emitter::onSuccess) ?: emitter.onComplete()
     }
 
+    override fun getItemsBySteps(steps: LongArray): Single<List<PersistentItem>> =
+        Single.fromCallable { getAllInRange(DBStructurePersistentItem.Columns.STEP, steps) }
+
     override fun getAllCorrectItems(): Observable<List<PersistentItem>> = Observable.fromCallable {
-        val statuses = PersistentItem.Status.values().filter(PersistentItem.Status::isCorrect).joinToString { "'${it.name}'" }
+        val statuses = PersistentItem.Status.values().filter(PersistentItem.Status::isCorrect).map { it.name }
         getAllInRange(DBStructurePersistentItem.Columns.STATUS, statuses)
     }
 }
\ No newline at end of file
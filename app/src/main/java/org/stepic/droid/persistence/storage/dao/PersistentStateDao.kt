@@ -4,5 +4,11 @@ import org.stepic.droid.persistence.model.PersistentState
 import org.stepic.droid.storage.dao.IDao
 
 interface PersistentStateDao : IDao<PersistentState> {
+    fun getState(id: Long, type: PersistentState.Type): PersistentState?
+    fun getStates(ids: LongArray, type: PersistentState.Type): List<PersistentState>
+
+    /**
+     * Resets in progress items to not cached and in progress children counters to zero
+     */
     fun resetInProgressItems()
-}
\ No newline at end of file
+}
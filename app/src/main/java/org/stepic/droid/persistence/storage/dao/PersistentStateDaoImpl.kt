@@ -15,6 +15,10 @@ class PersistentStateDaoImpl
 constructor(
         databaseOperations: DatabaseOperations
 ): DaoBase<PersistentState>(databaseOperations), PersistentStateDao {
+    companion object {
+        private const val MAX_QUERY_ARGS = 900 // SQLite limit is 999 including type argument
+    }
+
     override fun getDbName() = DBStructurePersistentState.TABLE_NAME
 
     override fun getDefaultPrimaryColumn() = DBStructurePersistentState.Columns.ID // actually ID + TYPE
@@ -24,16 +28,37 @@ constructor(
         put(DBStructurePersistentState.Columns.ID, persistentObject.id)
         put(DBStructurePersistentState.Columns.TYPE, persistentObject.type.name)
         put(DBStructurePersistentState.Columns.STATE, persistentObject.state.name)
+        put(DBStructurePersistentState.Columns.CHILDREN_CACHED, persistentObject.childrenCached)
+        put(DBStructurePersistentState.Columns.CHILDREN_IN_PROGRESS, persistentObject.childrenInProgress)
+        put(DBStructurePersistentState.Columns.CHILDREN_COUNT, persistentObject.childrenCount)
     }
 
     override fun parsePersistentObject(cursor: Cursor) = PersistentState (
             id = cursor.getLong(cursor.getColumnIndex(DBStructurePersistentState.Columns.ID)),
             type = PersistentState.Type.valueOf(cursor.getString(cursor.getColumnIndex(DBStructurePersistentState.Columns.TYPE))),
-            state = PersistentState.State.valueOf(cursor.getString(cursor.getColumnIndex(DBStructurePersistentState.Columns.STATE)))
+            state = PersistentState.State.valueOf(cursor.getString(cursor.getColumnIndex(DBStructurePersistentState.Columns.STATE))),
+            childrenCached = cursor.getInt(cursor.getColumnIndex(DBStructurePersistentState.Columns.CHILDREN_CACHED)),
+            childrenInProgress = cursor.getInt(cursor.getColumnIndex(DBStructurePersistentState.Columns.CHILDREN_IN_PROGRESS)),
+            childrenCount = cursor.getInt(cursor.getColumnIndex(DBStructurePersistentState.Columns.CHILDREN_COUNT))
     )
 
+    override fun getState(id: Long, type: PersistentState.Type): PersistentState? =
+            get(mapOf(DBStructurePersistentState.Columns.ID to id.toString(), DBStructurePersistentState.Columns.TYPE to type.name))
+
+    override fun getStates(ids: LongArray, type: PersistentState.Type): List<PersistentState> =
+            ids.asList().chunked(MAX_QUERY_ARGS).flatMap { chunk ->
+                getAllWithQuery(
+                        "SELECT * FROM $dbName WHERE ${DBStructurePersistentState.Columns.TYPE} = ? " +
+                                "AND ${DBStructurePersistentState.Columns.ID} IN (${chunk.joinToString { "?" }})",
+                        arrayOf(type.name) + chunk.map(Long::toString)
+                )
+            }
+
     override fun resetInProgressItems(): Unit = executeSql(
-            "UPDATE $dbName SET ${DBStructurePersistentState.Columns.STATE} = ? WHERE ${DBStructurePersistentState.Columns.STATE} = ?",
-            arrayOf(PersistentState.State.NOT_CACHED.name, PersistentState.State.IN_PROGRESS.name)
+            "UPDATE $dbName SET " +
+                    "${DBStructurePersistentState.Columns.STATE} = CASE WHEN ${DBStructurePersistentState.Columns.STATE} = ? THEN ? ELSE ${DBStructurePersistentState.Columns.STATE} END, " +
+                    "${DBStructurePersistentState.Columns.CHILDREN_IN_PROGRESS} = MIN(${DBStructurePersistentState.Columns.CHILDREN_IN_PROGRESS}, 0) " +
+                    "WHERE ${DBStructurePersistentState.Columns.STATE} = ? OR ${DBStructurePersistentState.Columns.CHILDREN_IN_PROGRESS} > 0",
+            arrayOf(PersistentState.State.IN_PROGRESS.name, PersistentState.State.NOT_CACHED.name, PersistentState.State.IN_PROGRESS.name)
     )
 }
\ No newline at end of file
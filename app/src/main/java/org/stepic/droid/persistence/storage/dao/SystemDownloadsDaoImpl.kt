@@ -3,7 +3,10 @@ package org.stepic.droid.persistence.storage.dao
 import android.app.DownloadManager
 import android.database.Cursor
 import io.reactivex.Single
+import io.reactivex.rxkotlin.Singles.zip
 import org.stepic.droid.persistence.di.PersistenceScope
+import org.stepic.droid.persistence.downloads.http.HttpDownloadRecords
+import org.stepic.droid.persistence.downloads.http.HttpDownloadTaskManager
 import org.stepic.droid.persistence.model.SystemDownloadRecord
 import javax.inject.Inject
 
@@ -11,9 +14,20 @@ import javax.inject.Inject
 class SystemDownloadsDaoImpl
 @Inject
 constructor(
-    private val downloadManager: DownloadManager
+    private val downloadManager: DownloadManager,
+    private val httpDownloadRecords: HttpDownloadRecords
 ): SystemDownloadsDao {
-    override fun get(vararg ids: Long): Single<List<SystemDownloadRecord>> =
+    override fun get(vararg ids: Long): Single<List<SystemDownloadRecord>> {
+        val (httpIds, systemIds) = ids.partition { HttpDownloadTaskManager.isHttpDownload(it) }
+        return if (httpIds.isEmpty()) {
+            getSystemRecords(ids)
+        } else {
+            zip(Single.fromCallable { httpDownloadRecords.get(*httpIds.toLongArray()) }, getSystemRecords(systemIds.toLongArray()))
+                .map { (httpRecords, systemRecords) -> httpRecords + systemRecords }
+        }
+    }
+
+    private fun getSystemRecords(ids: LongArray): Single<List<SystemDownloadRecord>> =
         if (ids.isEmpty()) {
             Single.just(emptyList())
         } else {
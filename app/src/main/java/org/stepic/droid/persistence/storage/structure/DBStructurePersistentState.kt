@@ -9,6 +9,9 @@ object DBStructurePersistentState {
         const val ID = "id"
         const val TYPE = "type"
         const val STATE = "state"
+        const val CHILDREN_CACHED = "children_cached"
+        const val CHILDREN_IN_PROGRESS = "children_in_progress"
+        const val CHILDREN_COUNT = "children_count"
     }
 
     fun createTable(db: SQLiteDatabase) {
@@ -22,4 +25,4 @@ object DBStructurePersistentState {
             )""".trimIndent()
         db.execSQL(sql)
     }
-}
\ No newline at end of file
+}
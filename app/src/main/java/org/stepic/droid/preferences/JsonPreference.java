@@ -0,0 +1,76 @@
+package org.stepic.droid.preferences;
+
+import android.content.SharedPreferences;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Type;
+
+/**
+ * Preference which value is stored as json.
+ * Value is decoded once and kept in memory as snapshot till the next write or {@link #invalidate()},
+ * so repeated reads neither parse json nor allocate. Stored values are expected to be immutable.
+ *
+ * @param <T> type of value
+ */
+final class JsonPreference<T> {
+    private static final Object NOT_LOADED = new Object();
+
+    private final String key;
+    private final Type valueType;
+    private final Gson gson;
+
+    private volatile Object snapshot = NOT_LOADED;
+
+    JsonPreference(String key, Type valueType, Gson gson) {
+        this.key = key;
+        this.valueType = valueType;
+        this.gson = gson;
+    }
+
+    @Nullable
+    @SuppressWarnings("unchecked")
+    T get(SharedPreferences preferences) {
+        Object value = snapshot;
+        if (value == NOT_LOADED) {
+            synchronized (this) {
+                value = snapshot;
+                if (value == NOT_LOADED) {
+                    value = decode(preferences.getString(key, null));
+                    snapshot = value;
+                }
+            }
+        }
+        return (T) value;
+    }
+
+    /**
+     * Puts encoded value to {@code editor}, snapshot is replaced immediately so it should be applied by caller
+     */
+    synchronized void put(SharedPreferences.Editor editor, @Nullable T value) {
+        editor.putString(key, gson.toJson(value, valueType));
+        snapshot = value;
+    }
+
+    /**
+     * Drops snapshot, should be called after preference is removed from store
+     */
+    synchronized void invalidate() {
+        snapshot = NOT_LOADED;
+    }
+
+    @Nullable
+    private T decode(@Nullable String json) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            return gson.fromJson(json, valueType);
+        } catch (JsonParseException e) {
+            return null;
+        }
+    }
+}
@@ -7,7 +7,6 @@ import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatDelegate;
 
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import com.google.gson.reflect.TypeToken;
 
 import org.jetbrains.annotations.NotNull;
@@ -29,6 +28,7 @@ import org.stepik.android.remote.auth.model.OAuthResponse;
 import org.stepik.android.view.injection.qualifiers.AuthLock;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.List;
@@ -110,8 +110,19 @@ public class SharedPreferenceHelper {
 
     private final static String NIGHT_MODE = "night_mode";
 
-    private OAuthResponse cachedAuthStepikResponse = null;
+    private final Gson gson = new Gson();
 
+    private final JsonPreference<OAuthResponse> authResponsePreference =
+            new JsonPreference<>(AUTH_RESPONSE_JSON, OAuthResponse.class, gson);
+    private final JsonPreference<Profile> profilePreference =
+            new JsonPreference<>(PROFILE_JSON, Profile.class, gson);
+    private final JsonPreference<List<EmailAddress>> emailAddressesPreference =
+            new JsonPreference<>(EMAIL_LIST, new TypeToken<List<EmailAddress>>(){}.getType(), gson);
+
+    /**
+     * Lazily obtained stores, indexed by {@link PreferenceType#ordinal()}
+     */
+    private final SharedPreferences[] preferences = new SharedPreferences[PreferenceType.values().length];
 
     private final Context context;
     private final Analytic analytic;
@@ -153,9 +164,11 @@ public class SharedPreferenceHelper {
     }
 
     public void rateShown(long timeMillis) {
-        put(PreferenceType.DEVICE_SPECIFIC, RATE_LAST_TIMESTAMP, timeMillis);
         long times = getLong(PreferenceType.DEVICE_SPECIFIC, RATE_TIMES_SHOWN, 0);
-        put(PreferenceType.DEVICE_SPECIFIC, RATE_TIMES_SHOWN, times + 1);
+        edit(PreferenceType.DEVICE_SPECIFIC)
+                .putLong(RATE_LAST_TIMESTAMP, timeMillis)
+                .putLong(RATE_TIMES_SHOWN, times + 1)
+                .apply();
     }
 
     /**
@@ -244,8 +257,10 @@ public class SharedPreferenceHelper {
     public boolean isNeedShowLangWidget() {
         boolean isLangWidgetWasShown = getBoolean(PreferenceType.LOGIN, IS_LANG_WIDGET_WAS_SHOWN_AFTER_LOGIN, false);
         if (!isLangWidgetWasShown) {
-            put(PreferenceType.LOGIN, IS_LANG_WIDGET_WAS_SHOWN_AFTER_LOGIN, true);
-            put(PreferenceType.LOGIN, NEED_SHOW_LANG_WIDGET, true);
+            edit(PreferenceType.LOGIN)
+                    .putBoolean(IS_LANG_WIDGET_WAS_SHOWN_AFTER_LOGIN, true)
+                    .putBoolean(NEED_SHOW_LANG_WIDGET, true)
+                    .apply();
         }
 
         return getBoolean(PreferenceType.LOGIN, NEED_SHOW_LANG_WIDGET, true);
@@ -673,43 +688,30 @@ public class SharedPreferenceHelper {
         if (profile != null) {
             analytic.setUserId(profile.getId() + "");
         }
-        Gson gson = new Gson();
-        String json = gson.toJson(profile);
-        put(PreferenceType.LOGIN, PROFILE_JSON, json);
+        SharedPreferences.Editor editor = edit(PreferenceType.LOGIN);
+        profilePreference.put(editor, profile);
+        editor.apply();
     }
 
     @Nullable
     public Profile getProfile() {
-        String json = getString(PreferenceType.LOGIN, PROFILE_JSON);
-        if (json == null) {
-            return null;
-        }
-        Gson gson = new GsonBuilder().create();
-        return gson.fromJson(json, Profile.class);
+        return profilePreference.get(getPreferences(PreferenceType.LOGIN));
     }
 
     public void storeEmailAddresses(List<EmailAddress> emailAddresses) {
         if (emailAddresses == null) return;
-        Gson gson = new Gson();
-        String json = gson.toJson(emailAddresses);
-        put(PreferenceType.LOGIN, EMAIL_LIST, json);
+        SharedPreferences.Editor editor = edit(PreferenceType.LOGIN);
+        emailAddressesPreference.put(editor, Collections.unmodifiableList(new ArrayList<>(emailAddresses)));
+        editor.apply();
     }
 
     @Nullable
     public List<EmailAddress> getStoredEmails() {
-        String json = getString(PreferenceType.LOGIN, EMAIL_LIST);
-        if (json == null) {
+        List<EmailAddress> emailAddresses = emailAddressesPreference.get(getPreferences(PreferenceType.LOGIN));
+        if (emailAddresses == null) {
             return Collections.emptyList();
         }
-        Gson gson = new GsonBuilder().create();
-        List<EmailAddress> result;
-        try {
-            result = gson.fromJson(json, new TypeToken<List<EmailAddress>>(){}.getType());
-        } catch (Exception e) {
-            result = Collections.emptyList();
-        }
-        return result;
-
+        return emailAddresses;
     }
 
     public void saveVideoQualityForPlaying(String videoQuality) {
@@ -744,13 +746,11 @@ public class SharedPreferenceHelper {
     }
 
     public void storeAuthInfo(OAuthResponse response) {
-        Gson gson = new Gson();
-        String json = gson.toJson(response);
-        put(PreferenceType.LOGIN, AUTH_RESPONSE_JSON, json);
-        cachedAuthStepikResponse = response;
-
         long millisNow = DateTimeHelper.INSTANCE.nowUtc(); // we should use +0 UTC for avoid problems with TimeZones
-        put(PreferenceType.LOGIN, ACCESS_TOKEN_TIMESTAMP, millisNow);
+
+        SharedPreferences.Editor editor = edit(PreferenceType.LOGIN);
+        authResponsePreference.put(editor, response);
+        editor.putLong(ACCESS_TOKEN_TIMESTAMP, millisNow).apply();
 
         put(PreferenceType.DEVICE_SPECIFIC, IS_EVER_LOGGED, true);
     }
@@ -772,9 +772,11 @@ public class SharedPreferenceHelper {
                 userId += profile.getId();
             }
             analytic.setUserId(userId);
-            cachedAuthStepikResponse = null;
             clear(PreferenceType.LOGIN);
             clear(PreferenceType.FEATURED_FILTER);
+            authResponsePreference.invalidate();
+            profilePreference.invalidate();
+            emailAddressesPreference.invalidate();
         } finally {
             authLock.writeLock().unlock();
         }
@@ -782,18 +784,7 @@ public class SharedPreferenceHelper {
 
     @Nullable
     public OAuthResponse getAuthResponseFromStore() {
-        if (cachedAuthStepikResponse != null) {
-            return cachedAuthStepikResponse;
-        }
-
-        String json = getString(PreferenceType.LOGIN, AUTH_RESPONSE_JSON);
-        if (json == null) {
-            return null;
-        }
-
-        Gson gson = new GsonBuilder().create();
-        cachedAuthStepikResponse = gson.fromJson(json, OAuthResponse.class);
-        return cachedAuthStepikResponse;
+        return authResponsePreference.get(getPreferences(PreferenceType.LOGIN));
     }
 
     public long getAccessTokenTimestamp() {
@@ -851,60 +842,72 @@ public class SharedPreferenceHelper {
         return getString(PreferenceType.LOGIN, COOKIES_HEADER);
     }
 
+    private SharedPreferences getPreferences(PreferenceType type) {
+        SharedPreferences sharedPreferences = preferences[type.ordinal()];
+        if (sharedPreferences == null) {
+            // context returns the same instance for the same name, so race here is harmless
+            sharedPreferences = context.getSharedPreferences(type.getStoreName(), Context.MODE_PRIVATE);
+            preferences[type.ordinal()] = sharedPreferences;
+        }
+        return sharedPreferences;
+    }
+
+    /**
+     * Writes of several values should be made with single editor, so they are applied in one background commit
+     */
+    private SharedPreferences.Editor edit(PreferenceType type) {
+        return getPreferences(type).edit();
+    }
+
     private void put(PreferenceType type, String key, String value) {
-        SharedPreferences.Editor editor = context.getSharedPreferences(type.getStoreName(), Context.MODE_PRIVATE).edit();
+        SharedPreferences.Editor editor = edit(type);
         editor.putString(key, value).apply();
     }
 
     private void put(PreferenceType type, String key, int value) {
-        SharedPreferences.Editor editor = context.getSharedPreferences(type.getStoreName(), Context.MODE_PRIVATE).edit();
+        SharedPreferences.Editor editor = edit(type);
         editor.putInt(key, value).apply();
     }
 
     private void put(PreferenceType type, String key, long value) {
-        SharedPreferences.Editor editor = context.getSharedPreferences(type.getStoreName(), Context.MODE_PRIVATE).edit();
+        SharedPreferences.Editor editor = edit(type);
         editor.putLong(key, value).apply();
     }
 
     private void put(PreferenceType type, String key, Boolean value) {
-        SharedPreferences.Editor editor = context.getSharedPreferences(type.getStoreName(), Context.MODE_PRIVATE).edit();
+        SharedPreferences.Editor editor = edit(type);
         editor.putBoolean(key, value).apply();
     }
 
     private void put(PreferenceType type, String key, float value) {
-        SharedPreferences.Editor editor = context.getSharedPreferences(type.getStoreName(), Context.MODE_PRIVATE).edit();
+        SharedPreferences.Editor editor = edit(type);
         editor.putFloat(key, value).apply();
     }
 
     private void clear(PreferenceType type) {
-        SharedPreferences.Editor editor = context.getSharedPreferences(type.getStoreName(), Context.MODE_PRIVATE).edit();
+        SharedPreferences.Editor editor = edit(type);
         editor.clear().apply();
     }
 
     private int getInt(PreferenceType preferenceType, String key, int defaultValue) {
-        return context.getSharedPreferences(preferenceType.getStoreName(), Context.MODE_PRIVATE)
-                .getInt(key, defaultValue);
+        return getPreferences(preferenceType).getInt(key, defaultValue);
     }
 
     private int getInt(PreferenceType preferenceType, String key) {
-        return context.getSharedPreferences(preferenceType.getStoreName(), Context.MODE_PRIVATE)
-                .getInt(key, -1);
+        return getPreferences(preferenceType).getInt(key, -1);
     }
 
     private long getLong(PreferenceType preferenceType, String key, long defaultValue) {
-        return context.getSharedPreferences(preferenceType.getStoreName(), Context.MODE_PRIVATE)
-                .getLong(key, defaultValue);
+        return getPreferences(preferenceType).getLong(key, defaultValue);
     }
 
     private long getLong(PreferenceType preferenceType, String key) {
-        return context.getSharedPreferences(preferenceType.getStoreName(), Context.MODE_PRIVATE)
-                .getLong(key, -1);
+        return getPreferences(preferenceType).getLong(key, -1);
     }
 
     @Nullable
     private String getString(PreferenceType preferenceType, String key) {
-        return context.getSharedPreferences(preferenceType.getStoreName(), Context.MODE_PRIVATE)
-                .getString(key, null);
+        return getPreferences(preferenceType).getString(key, null);
     }
 
     private boolean getBoolean(PreferenceType preferenceType, String key) {
@@ -912,7 +915,6 @@ public class SharedPreferenceHelper {
     }
 
     private boolean getBoolean(PreferenceType preferenceType, String key, boolean defaultValue) {
-        return context.getSharedPreferences(preferenceType.getStoreName(), Context.MODE_PRIVATE)
-                .getBoolean(key, defaultValue);
+        return getPreferences(preferenceType).getBoolean(key, defaultValue);
     }
 }
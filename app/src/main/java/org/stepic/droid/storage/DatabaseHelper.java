@@ -30,6 +30,11 @@ import org.stepic.droid.storage.migration.MigrationFrom55To56;
 import org.stepic.droid.storage.migration.MigrationFrom56To57;
 import org.stepic.droid.storage.migration.MigrationFrom57To58;
 import org.stepic.droid.storage.migration.MigrationFrom58To59;
+import org.stepic.droid.storage.migration.MigrationFrom59To60;
+import org.stepic.droid.storage.migration.MigrationFrom60To61;
+import org.stepic.droid.storage.migration.MigrationFrom61To62;
+import org.stepic.droid.storage.migration.MigrationFrom62To63;
+import org.stepic.droid.storage.migration.MigrationFrom63To64;
 import org.stepic.droid.storage.structure.DatabaseInfo;
 import org.stepic.droid.storage.structure.DbStructureAdaptiveExp;
 import org.stepic.droid.storage.structure.DbStructureAssignment;
@@ -73,6 +78,13 @@ public final class DatabaseHelper extends SQLiteOpenHelper {
         super(context, DatabaseInfo.FILE_NAME, null, DatabaseInfo.VERSION);
     }
 
+    @Override
+    public void onConfigure(SQLiteDatabase db) {
+        super.onConfigure(db);
+        // readers use pooled connections and are not blocked by the writer
+        db.enableWriteAheadLogging();
+    }
+
     @Override
     public void onCreate(SQLiteDatabase db) {
         createCourseTable(db, DbStructureEnrolledAndFeaturedCourses.ENROLLED_COURSES);
@@ -148,6 +160,11 @@ public final class DatabaseHelper extends SQLiteOpenHelper {
         upgradeFrom56To57(db);
         upgradeFrom57To58(db);
         upgradeFrom58To59(db);
+        upgradeFrom59To60(db);
+        upgradeFrom60To61(db);
+        upgradeFrom61To62(db);
+        upgradeFrom62To63(db);
+        upgradeFrom63To64(db);
     }
 
 
@@ -426,6 +443,46 @@ public final class DatabaseHelper extends SQLiteOpenHelper {
         if (oldVersion < 59) {
             upgradeFrom58To59(db);
         }
+
+        if (oldVersion < 60) {
+            upgradeFrom59To60(db);
+        }
+
+        if (oldVersion < 61) {
+            upgradeFrom60To61(db);
+        }
+
+        if (oldVersion < 62) {
+            upgradeFrom61To62(db);
+        }
+
+        if (oldVersion < 63) {
+            upgradeFrom62To63(db);
+        }
+
+        if (oldVersion < 64) {
+            upgradeFrom63To64(db);
+        }
+    }
+
+    private void upgradeFrom63To64(SQLiteDatabase db) {
+        MigrationFrom63To64.INSTANCE.migrate(db);
+    }
+
+    private void upgradeFrom62To63(SQLiteDatabase db) {
+        MigrationFrom62To63.INSTANCE.migrate(db);
+    }
+
+    private void upgradeFrom61To62(SQLiteDatabase db) {
+        MigrationFrom61To62.INSTANCE.migrate(db);
+    }
+
+    private void upgradeFrom60To61(SQLiteDatabase db) {
+        MigrationFrom60To61.INSTANCE.migrate(db);
+    }
+
+    private void upgradeFrom59To60(SQLiteDatabase db) {
+        MigrationFrom59To60.INSTANCE.migrate(db);
     }
 
     private void upgradeFrom58To59(SQLiteDatabase db) {
@@ -2,10 +2,14 @@ package org.stepic.droid.storage.dao
 
 import android.content.ContentValues
 import android.database.Cursor
+import android.database.sqlite.SQLiteStatement
 import com.google.gson.Gson
 import com.google.gson.JsonArray
 import org.stepic.droid.model.BlockPersistentWrapper
 import org.stepic.droid.storage.operations.DatabaseOperations
+import org.stepic.droid.storage.operations.StatementBinder
+import org.stepic.droid.util.bindLongOrNull
+import org.stepic.droid.util.bindStringOrNull
 import org.stepik.android.cache.block.structure.DbStructureBlock
 import org.stepik.android.cache.video.dao.VideoDao
 import org.stepik.android.model.Block
@@ -20,6 +24,31 @@ constructor(
     private val gson: Gson,
     private val videoDao: VideoDao
 ) : DaoBase<BlockPersistentWrapper>(databaseOperations) {
+    private val statementBinder =
+        object : StatementBinder<BlockPersistentWrapper> {
+            override val columns = arrayOf(
+                DbStructureBlock.Column.STEP_ID,
+                DbStructureBlock.Column.NAME,
+                DbStructureBlock.Column.TEXT,
+                DbStructureBlock.Column.EXTERNAL_VIDEO_DURATION,
+                DbStructureBlock.Column.EXTERNAL_THUMBNAIL,
+                DbStructureBlock.Column.EXTERNAL_VIDEO_ID,
+                DbStructureBlock.Column.CODE_OPTIONS
+            )
+
+            override fun bind(statement: SQLiteStatement, item: BlockPersistentWrapper) {
+                val externalVideo = item.block.video
+
+                statement.bindLong(1, item.stepId)
+                statement.bindStringOrNull(2, item.block.name)
+                statement.bindStringOrNull(3, item.block.text)
+                statement.bindLongOrNull(4, externalVideo?.duration)
+                statement.bindStringOrNull(5, externalVideo?.thumbnail)
+                statement.bindLongOrNull(6, externalVideo?.id)
+                statement.bindStringOrNull(7, item.block.options?.let { gson.toJson(it, CodeOptions::class.java) })
+            }
+        }
+
 
     public override fun parsePersistentObject(cursor: Cursor): BlockPersistentWrapper {
         val indexName = cursor.getColumnIndex(DbStructureBlock.Column.NAME)
@@ -86,12 +115,20 @@ constructor(
 
     public override fun getDefaultPrimaryValue(persistentObject: BlockPersistentWrapper) = persistentObject.stepId.toString()
 
-    override fun populateNestedObjects(persistentObject: BlockPersistentWrapper): BlockPersistentWrapper =
-        persistentObject.apply {
-            block.video = videoDao.get(block.video?.id ?: -1)
+    override fun populateNestedObjects(persistentObjects: MutableList<BlockPersistentWrapper>) {
+        val videos = videoDao
+            .get(persistentObjects.mapNotNull { it.block.video?.id }.toLongArray())
+            .associateBy(Video::id)
+
+        persistentObjects.forEach { blockWrapper ->
+            blockWrapper.block.video = blockWrapper.block.video?.id?.let(videos::get)
         }
+    }
 
     override fun storeNestedObjects(persistentObject: BlockPersistentWrapper) {
         persistentObject.block.video?.let(videoDao::replace)
     }
+
+    override fun getStatementBinder(): StatementBinder<BlockPersistentWrapper> =
+        statementBinder
 }
@@ -5,11 +5,9 @@ import android.database.Cursor
 import com.google.gson.Gson
 import org.stepic.droid.storage.operations.DatabaseOperations
 import org.stepic.droid.storage.structure.DbStructureCourse
-import org.stepic.droid.util.DbParseHelper
+import org.stepic.droid.util.DbLongArrayCodec
 import org.stepic.droid.util.getBoolean
-import org.stepic.droid.util.getDouble
-import org.stepic.droid.util.getLong
-import org.stepic.droid.util.getString
+import org.stepic.droid.util.getLongArray
 import org.stepic.droid.util.toObject
 import org.stepik.android.cache.video.dao.VideoDao
 import org.stepik.android.model.Course
@@ -30,60 +28,10 @@ constructor(
     public override fun getDefaultPrimaryValue(persistentObject: Course) = persistentObject.id.toString()
 
     public override fun parsePersistentObject(cursor: Cursor): Course =
-        Course(
-            id = cursor.getLong(DbStructureCourse.Columns.ID),
-            title = cursor.getString(DbStructureCourse.Columns.TITLE),
-            description = cursor.getString(DbStructureCourse.Columns.DESCRIPTION),
-            cover = cursor.getString(DbStructureCourse.Columns.COVER),
-            certificate = cursor.getString(DbStructureCourse.Columns.CERTIFICATE),
-            requirements = cursor.getString(DbStructureCourse.Columns.REQUIREMENTS),
-            summary = cursor.getString(DbStructureCourse.Columns.SUMMARY),
-            workload = cursor.getString(DbStructureCourse.Columns.WORKLOAD),
-            intro = cursor.getString(DbStructureCourse.Columns.INTRO),
-            introVideo = Video(id = cursor.getLong(DbStructureCourse.Columns.INTRO_VIDEO_ID)),
-            language = cursor.getString(DbStructureCourse.Columns.LANGUAGE),
-            authors = DbParseHelper.parseStringToLongArray(cursor.getString(DbStructureCourse.Columns.AUTHORS)),
-            instructors = DbParseHelper.parseStringToLongArray(cursor.getString(DbStructureCourse.Columns.INSTRUCTORS)),
-            sections = DbParseHelper.parseStringToLongArray(cursor.getString(DbStructureCourse.Columns.SECTIONS)),
-            courseFormat = cursor.getString(DbStructureCourse.Columns.COURSE_FORMAT),
-            targetAudience = cursor.getString(DbStructureCourse.Columns.TARGET_AUDIENCE),
-            certificateFooter = cursor.getString(DbStructureCourse.Columns.CERTIFICATE_FOOTER),
-            certificateCoverOrg = cursor.getString(DbStructureCourse.Columns.CERTIFICATE_COVER_ORG),
-            totalUnits = cursor.getLong(DbStructureCourse.Columns.TOTAL_UNITS),
-            enrollment = cursor.getLong(DbStructureCourse.Columns.ENROLLMENT),
-            progress = cursor.getString(DbStructureCourse.Columns.PROGRESS),
-            owner = cursor.getLong(DbStructureCourse.Columns.OWNER),
-            readiness = cursor.getDouble(DbStructureCourse.Columns.READINESS),
-            isContest = cursor.getBoolean(DbStructureCourse.Columns.IS_CONTEST),
-            isFeatured = cursor.getBoolean(DbStructureCourse.Columns.IS_FEATURED),
-            isActive = cursor.getBoolean(DbStructureCourse.Columns.IS_ACTIVE),
-            isPublic = cursor.getBoolean(DbStructureCourse.Columns.IS_PUBLIC),
-            certificateDistinctionThreshold = cursor.getLong(DbStructureCourse.Columns.CERTIFICATE_DISTINCTION_THRESHOLD),
-            certificateRegularThreshold = cursor.getLong(DbStructureCourse.Columns.CERTIFICATE_REGULAR_THRESHOLD),
-            certificateLink = cursor.getString(DbStructureCourse.Columns.CERTIFICATE_LINK),
-            isCertificateAutoIssued = cursor.getBoolean(DbStructureCourse.Columns.IS_CERTIFICATE_AUTO_ISSUED),
-            isCertificateIssued = cursor.getBoolean(DbStructureCourse.Columns.IS_CERTIFICATE_ISSUED),
-            lastDeadline = cursor.getString(DbStructureCourse.Columns.LAST_DEADLINE),
-            beginDate = cursor.getString(DbStructureCourse.Columns.BEGIN_DATE),
-            endDate = cursor.getString(DbStructureCourse.Columns.END_DATE),
-            slug = cursor.getString(DbStructureCourse.Columns.SLUG),
-
-            scheduleLink = cursor.getString(DbStructureCourse.Columns.SCHEDULE_LINK),
-            scheduleLongLink = cursor.getString(DbStructureCourse.Columns.SCHEDULE_LONG_LINK),
-            scheduleType = cursor.getString(DbStructureCourse.Columns.SCHEDULE_TYPE),
-
-            lastStepId = cursor.getString(DbStructureCourse.Columns.LAST_STEP),
-            learnersCount = cursor.getLong(DbStructureCourse.Columns.LEARNERS_COUNT),
-            reviewSummary = cursor.getLong(DbStructureCourse.Columns.REVIEW_SUMMARY),
-            timeToComplete = cursor.getLong(DbStructureCourse.Columns.TIME_TO_COMPLETE),
-            courseOptions = cursor.getString(DbStructureCourse.Columns.OPTIONS)?.toObject(gson),
-
-            isPaid = cursor.getBoolean(DbStructureCourse.Columns.IS_PAID),
-            price = cursor.getString(DbStructureCourse.Columns.PRICE),
-            currencyCode = cursor.getString(DbStructureCourse.Columns.CURRENCY_CODE),
-            displayPrice = cursor.getString(DbStructureCourse.Columns.DISPLAY_PRICE),
-            priceTier = cursor.getString(DbStructureCourse.Columns.PRICE_TIER)
-        )
+        createRowMapper(cursor).map(cursor)
+
+    public override fun createRowMapper(cursor: Cursor): RowMapper<Course> =
+        CourseRowMapper(cursor)
 
     public override fun getContentValues(course: Course): ContentValues {
         val values = ContentValues()
@@ -99,9 +47,9 @@ constructor(
         values.put(DbStructureCourse.Columns.INTRO, course.intro)
         values.put(DbStructureCourse.Columns.INTRO_VIDEO_ID, course.introVideo?.id ?: -1) // todo add complete course entity and remove this hack
         values.put(DbStructureCourse.Columns.LANGUAGE, course.language)
-        values.put(DbStructureCourse.Columns.AUTHORS, DbParseHelper.parseLongArrayToString(course.authors))
-        values.put(DbStructureCourse.Columns.INSTRUCTORS, DbParseHelper.parseLongArrayToString(course.instructors))
-        values.put(DbStructureCourse.Columns.SECTIONS, DbParseHelper.parseLongArrayToString(course.sections))
+        values.put(DbStructureCourse.Columns.AUTHORS, DbLongArrayCodec.encode(course.authors))
+        values.put(DbStructureCourse.Columns.INSTRUCTORS, DbLongArrayCodec.encode(course.instructors))
+        values.put(DbStructureCourse.Columns.SECTIONS, DbLongArrayCodec.encode(course.sections))
         values.put(DbStructureCourse.Columns.COURSE_FORMAT, course.courseFormat)
         values.put(DbStructureCourse.Columns.TARGET_AUDIENCE, course.targetAudience)
         values.put(DbStructureCourse.Columns.CERTIFICATE_FOOTER, course.certificateFooter)
@@ -144,12 +92,125 @@ constructor(
         return values
     }
 
-    override fun populateNestedObjects(course: Course): Course =
-        course.apply {
-            introVideo = videoDao.get(course.introVideo?.id ?: -1) // less overhead vs immutability
+    override fun populateNestedObjects(persistentObjects: MutableList<Course>) {
+        val videos = videoDao
+            .get(persistentObjects.mapNotNull { it.introVideo?.id }.toLongArray())
+            .associateBy(Video::id)
+
+        persistentObjects.forEach { course ->
+            course.introVideo = course.introVideo?.id?.let(videos::get) // less overhead vs immutability
         }
+    }
 
     override fun storeNestedObjects(persistentObject: Course) {
         persistentObject.introVideo?.let(videoDao::replace)
     }
+
+    private inner class CourseRowMapper(cursor: Cursor) : RowMapper<Course> {
+        private val idIndex = cursor.getColumnIndexOrThrow(DbStructureCourse.Columns.ID)
+        private val titleIndex = cursor.getColumnIndexOrThrow(DbStructureCourse.Columns.TITLE)
+        private val descriptionIndex = cursor.getColumnIndexOrThrow(DbStructureCourse.Columns.DESCRIPTION)
+        private val coverIndex = cursor.getColumnIndexOrThrow(DbStructureCourse.Columns.COVER)
+        private val certificateIndex = cursor.getColumnIndexOrThrow(DbStructureCourse.Columns.CERTIFICATE)
+        private val requirementsIndex = cursor.getColumnIndexOrThrow(DbStructureCourse.Columns.REQUIREMENTS)
+        private val summaryIndex = cursor.getColumnIndexOrThrow(DbStructureCourse.Columns.SUMMARY)
+        private val workloadIndex = cursor.getColumnIndexOrThrow(DbStructureCourse.Columns.WORKLOAD)
+        private val introIndex = cursor.getColumnIndexOrThrow(DbStructureCourse.Columns.INTRO)
+        private val introVideoIdIndex = cursor.getColumnIndexOrThrow(DbStructureCourse.Columns.INTRO_VIDEO_ID)
+        private val languageIndex = cursor.getColumnIndexOrThrow(DbStructureCourse.Columns.LANGUAGE)
+        private val authorsIndex = cursor.getColumnIndexOrThrow(DbStructureCourse.Columns.AUTHORS)
+        private val instructorsIndex = cursor.getColumnIndexOrThrow(DbStructureCourse.Columns.INSTRUCTORS)
+        private val sectionsIndex = cursor.getColumnIndexOrThrow(DbStructureCourse.Columns.SECTIONS)
+        private val courseFormatIndex = cursor.getColumnIndexOrThrow(DbStructureCourse.Columns.COURSE_FORMAT)
+        private val targetAudienceIndex = cursor.getColumnIndexOrThrow(DbStructureCourse.Columns.TARGET_AUDIENCE)
+        private val certificateFooterIndex = cursor.getColumnIndexOrThrow(DbStructureCourse.Columns.CERTIFICATE_FOOTER)
+        private val certificateCoverOrgIndex = cursor.getColumnIndexOrThrow(DbStructureCourse.Columns.CERTIFICATE_COVER_ORG)
+        private val totalUnitsIndex = cursor.getColumnIndexOrThrow(DbStructureCourse.Columns.TOTAL_UNITS)
+        private val enrollmentIndex = cursor.getColumnIndexOrThrow(DbStructureCourse.Columns.ENROLLMENT)
+        private val progressIndex = cursor.getColumnIndexOrThrow(DbStructureCourse.Columns.PROGRESS)
+        private val ownerIndex = cursor.getColumnIndexOrThrow(DbStructureCourse.Columns.OWNER)
+        private val readinessIndex = cursor.getColumnIndexOrThrow(DbStructureCourse.Columns.READINESS)
+        private val isContestIndex = cursor.getColumnIndexOrThrow(DbStructureCourse.Columns.IS_CONTEST)
+        private val isFeaturedIndex = cursor.getColumnIndexOrThrow(DbStructureCourse.Columns.IS_FEATURED)
+        private val isActiveIndex = cursor.getColumnIndexOrThrow(DbStructureCourse.Columns.IS_ACTIVE)
+        private val isPublicIndex = cursor.getColumnIndexOrThrow(DbStructureCourse.Columns.IS_PUBLIC)
+        private val certificateDistinctionThresholdIndex = cursor.getColumnIndexOrThrow(DbStructureCourse.Columns.CERTIFICATE_DISTINCTION_THRESHOLD)
+        private val certificateRegularThresholdIndex = cursor.getColumnIndexOrThrow(DbStructureCourse.Columns.CERTIFICATE_REGULAR_THRESHOLD)
+        private val certificateLinkIndex = cursor.getColumnIndexOrThrow(DbStructureCourse.Columns.CERTIFICATE_LINK)
+        private val isCertificateAutoIssuedIndex = cursor.getColumnIndexOrThrow(DbStructureCourse.Columns.IS_CERTIFICATE_AUTO_ISSUED)
+        private val isCertificateIssuedIndex = cursor.getColumnIndexOrThrow(DbStructureCourse.Columns.IS_CERTIFICATE_ISSUED)
+        private val lastDeadlineIndex = cursor.getColumnIndexOrThrow(DbStructureCourse.Columns.LAST_DEADLINE)
+        private val beginDateIndex = cursor.getColumnIndexOrThrow(DbStructureCourse.Columns.BEGIN_DATE)
+        private val endDateIndex = cursor.getColumnIndexOrThrow(DbStructureCourse.Columns.END_DATE)
+        private val slugIndex = cursor.getColumnIndexOrThrow(DbStructureCourse.Columns.SLUG)
+        private val scheduleLinkIndex = cursor.getColumnIndexOrThrow(DbStructureCourse.Columns.SCHEDULE_LINK)
+        private val scheduleLongLinkIndex = cursor.getColumnIndexOrThrow(DbStructureCourse.Columns.SCHEDULE_LONG_LINK)
+        private val scheduleTypeIndex = cursor.getColumnIndexOrThrow(DbStructureCourse.Columns.SCHEDULE_TYPE)
+        private val lastStepIndex = cursor.getColumnIndexOrThrow(DbStructureCourse.Columns.LAST_STEP)
+        private val learnersCountIndex = cursor.getColumnIndexOrThrow(DbStructureCourse.Columns.LEARNERS_COUNT)
+        private val reviewSummaryIndex = cursor.getColumnIndexOrThrow(DbStructureCourse.Columns.REVIEW_SUMMARY)
+        private val timeToCompleteIndex = cursor.getColumnIndexOrThrow(DbStructureCourse.Columns.TIME_TO_COMPLETE)
+        private val optionsIndex = cursor.getColumnIndexOrThrow(DbStructureCourse.Columns.OPTIONS)
+        private val isPaidIndex = cursor.getColumnIndexOrThrow(DbStructureCourse.Columns.IS_PAID)
+        private val priceIndex = cursor.getColumnIndexOrThrow(DbStructureCourse.Columns.PRICE)
+        private val currencyCodeIndex = cursor.getColumnIndexOrThrow(DbStructureCourse.Columns.CURRENCY_CODE)
+        private val displayPriceIndex = cursor.getColumnIndexOrThrow(DbStructureCourse.Columns.DISPLAY_PRICE)
+        private val priceTierIndex = cursor.getColumnIndexOrThrow(DbStructureCourse.Columns.PRICE_TIER)
+
+        override fun map(cursor: Cursor): Course =
+            Course(
+                id = cursor.getLong(idIndex),
+                title = cursor.getString(titleIndex),
+                description = cursor.getString(descriptionIndex),
+                cover = cursor.getString(coverIndex),
+                certificate = cursor.getString(certificateIndex),
+                requirements = cursor.getString(requirementsIndex),
+                summary = cursor.getString(summaryIndex),
+                workload = cursor.getString(workloadIndex),
+                intro = cursor.getString(introIndex),
+                introVideo = Video(id = cursor.getLong(introVideoIdIndex)),
+                language = cursor.getString(languageIndex),
+                authors = cursor.getLongArray(authorsIndex),
+                instructors = cursor.getLongArray(instructorsIndex),
+                sections = cursor.getLongArray(sectionsIndex),
+                courseFormat = cursor.getString(courseFormatIndex),
+                targetAudience = cursor.getString(targetAudienceIndex),
+                certificateFooter = cursor.getString(certificateFooterIndex),
+                certificateCoverOrg = cursor.getString(certificateCoverOrgIndex),
+                totalUnits = cursor.getLong(totalUnitsIndex),
+                enrollment = cursor.getLong(enrollmentIndex),
+                progress = cursor.getString(progressIndex),
+                owner = cursor.getLong(ownerIndex),
+                readiness = cursor.getDouble(readinessIndex),
+                isContest = cursor.getBoolean(isContestIndex),
+                isFeatured = cursor.getBoolean(isFeaturedIndex),
+                isActive = cursor.getBoolean(isActiveIndex),
+                isPublic = cursor.getBoolean(isPublicIndex),
+                certificateDistinctionThreshold = cursor.getLong(certificateDistinctionThresholdIndex),
+                certificateRegularThreshold = cursor.getLong(certificateRegularThresholdIndex),
+                certificateLink = cursor.getString(certificateLinkIndex),
+                isCertificateAutoIssued = cursor.getBoolean(isCertificateAutoIssuedIndex),
+                isCertificateIssued = cursor.getBoolean(isCertificateIssuedIndex),
+                lastDeadline = cursor.getString(lastDeadlineIndex),
+                beginDate = cursor.getString(beginDateIndex),
+                endDate = cursor.getString(endDateIndex),
+                slug = cursor.getString(slugIndex),
+
+                scheduleLink = cursor.getString(scheduleLinkIndex),
+                scheduleLongLink = cursor.getString(scheduleLongLinkIndex),
+                scheduleType = cursor.getString(scheduleTypeIndex),
+
+                lastStepId = cursor.getString(lastStepIndex),
+                learnersCount = cursor.getLong(learnersCountIndex),
+                reviewSummary = cursor.getLong(reviewSummaryIndex),
+                timeToComplete = cursor.getLong(timeToCompleteIndex),
+                courseOptions = cursor.getString(optionsIndex)?.toObject(gson),
+
+                isPaid = cursor.getBoolean(isPaidIndex),
+                price = cursor.getString(priceIndex),
+                currencyCode = cursor.getString(currencyCodeIndex),
+                displayPrice = cursor.getString(displayPriceIndex),
+                priceTier = cursor.getString(priceTierIndex)
+            )
+    }
 }
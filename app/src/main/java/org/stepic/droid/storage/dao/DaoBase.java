@@ -10,15 +10,22 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.stepic.droid.storage.operations.DatabaseOperations;
 import org.stepic.droid.storage.operations.ResultHandler;
+import org.stepic.droid.storage.operations.StatementBinder;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 
 import kotlin.collections.CollectionsKt;
 
 public abstract class DaoBase<T> implements IDao<T> {
-
+    /**
+     * Max amount of bound parameters in one IN query,
+     * smaller batches are padded up to power of 2 in order to reuse compiled statements
+     */
+    private static final int IN_RANGE_BATCH_SIZE = 128;
 
     private final DatabaseOperations databaseOperations;
 
@@ -75,7 +82,7 @@ public abstract class DaoBase<T> implements IDao<T> {
             }
         });
         if (persistentObject != null) {
-            persistentObject = populateNestedObjects(persistentObject);
+            persistentObject = populateNestedObject(persistentObject);
         }
         return persistentObject;
     }
@@ -98,7 +105,7 @@ public abstract class DaoBase<T> implements IDao<T> {
             }
         });
         if (persistentObject != null) {
-            persistentObject = populateNestedObjects(persistentObject);
+            persistentObject = populateNestedObject(persistentObject);
         }
         return persistentObject;
     }
@@ -139,28 +146,88 @@ public abstract class DaoBase<T> implements IDao<T> {
         return getAllWithQuery(query, null);
     }
 
+    @NotNull
+    @Override
+    public final List<T> getAllInRange(@NotNull String whereColumn, @NotNull long[] ids) {
+        String[] args = new String[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            args[i] = Long.toString(ids[i]);
+        }
+        return getAllInRange(whereColumn, args);
+    }
+
+    @NotNull
+    @Override
+    public final List<T> getAllInRange(@NotNull String whereColumn, @NotNull List<String> ids) {
+        return getAllInRange(whereColumn, ids.toArray(new String[0]));
+    }
+
+    private List<T> getAllInRange(@NotNull String whereColumn, @NotNull String[] rawIds) {
+        // same id in different batches would return the same row several times
+        String[] ids = new LinkedHashSet<>(Arrays.asList(rawIds)).toArray(new String[0]);
+        List<T> objects = new ArrayList<>(ids.length);
+        for (int batchStart = 0; batchStart < ids.length; batchStart += IN_RANGE_BATCH_SIZE) {
+            int batchSize = Math.min(IN_RANGE_BATCH_SIZE, ids.length - batchStart);
+            int argsCount = Math.min(IN_RANGE_BATCH_SIZE, Integer.highestOneBit(batchSize * 2 - 1));
+
+            String[] args = new String[argsCount];
+            System.arraycopy(ids, batchStart, args, 0, batchSize);
+            Arrays.fill(args, batchSize, argsCount, ids[batchStart + batchSize - 1]); // duplicates don't affect IN result
+
+            collectWithQuery(getInRangeQuery(whereColumn, argsCount), args, objects);
+        }
+        return objects;
+    }
+
+    private String getInRangeQuery(String whereColumn, int argsCount) {
+        StringBuilder query = new StringBuilder("Select * from ")
+                .append(getDbName())
+                .append(" where ")
+                .append(whereColumn)
+                .append(" IN (?");
+        for (int i = 1; i < argsCount; i++) {
+            query.append(",?");
+        }
+        return query.append(')').toString();
+    }
+
     @NotNull
     @Override
     public List<T> getAllWithQuery(@NotNull String query, @Nullable String[] whereArgs) {
-        List<T> objects = databaseOperations.executeQuery(query, whereArgs, new ResultHandler<List<T>>() {
+        List<T> objects = new ArrayList<>();
+        collectWithQuery(query, whereArgs, objects);
+        return objects;
+    }
+
+    /**
+     * Parses query results with nested objects directly into {@code destination}
+     */
+    private void collectWithQuery(@NotNull String query, @Nullable String[] whereArgs, @NotNull final List<T> destination) {
+        final int offset = destination.size();
+        databaseOperations.executeQuery(query, whereArgs, new ResultHandler<Void>() {
             @Override
-            public List<T> handle(Cursor cursor) throws SQLException {
-                List<T> listOfPersistentObjects = new ArrayList<>();
+            public Void handle(Cursor cursor) throws SQLException {
+                RowMapper<T> rowMapper = createRowMapper(cursor);
                 cursor.moveToFirst();
 
                 while (!cursor.isAfterLast()) {
-                    T persistentObject = parsePersistentObject(cursor);
-                    listOfPersistentObjects.add(persistentObject);
+                    destination.add(rowMapper.map(cursor));
                     cursor.moveToNext();
                 }
 
-                return listOfPersistentObjects;
+                return null;
             }
         });
-        for (int i = 0; i < objects.size(); i++) {
-            objects.set(i, populateNestedObjects(objects.get(i)));
+        if (destination.size() > offset) {
+            populateNestedObjects(destination.subList(offset, destination.size()));
         }
-        return objects;
+    }
+
+    private T populateNestedObject(T persistentObject) {
+        List<T> objects = new ArrayList<>(1);
+        objects.add(persistentObject);
+        populateNestedObjects(objects);
+        return objects.get(0);
     }
 
     protected <U> U rawQuery(String query, @Nullable String[] whereArgs, ResultHandler<U> resultHandler) {
@@ -195,11 +262,16 @@ public abstract class DaoBase<T> implements IDao<T> {
 
     @Override
     public void insertOrReplaceAll(@NotNull List<? extends T> persistentObjects) {
-        List<ContentValues> values = new ArrayList<>(persistentObjects.size());
-        for (T object: persistentObjects) {
-            values.add(getContentValues(object));
+        StatementBinder<T> statementBinder = getStatementBinder();
+        if (statementBinder != null) {
+            databaseOperations.executeBulkReplace(getDbName(), statementBinder, persistentObjects);
+        } else {
+            List<ContentValues> values = new ArrayList<>(persistentObjects.size());
+            for (T object: persistentObjects) {
+                values.add(getContentValues(object));
+            }
+            databaseOperations.executeReplaceAll(getDbName(), values);
         }
-        databaseOperations.executeReplaceAll(getDbName(), values);
         for (T object: persistentObjects) {
             storeNestedObjects(object);
         }
@@ -226,7 +298,34 @@ public abstract class DaoBase<T> implements IDao<T> {
 
     protected abstract T parsePersistentObject(Cursor cursor);
 
-    protected T populateNestedObjects(T persistentObject) { return persistentObject; }
+    /**
+     * Creates mapper for all rows of {@code cursor}, by default each row is parsed with {@link #parsePersistentObject(Cursor)}
+     */
+    @NotNull
+    protected RowMapper<T> createRowMapper(@NotNull Cursor cursor) {
+        return new RowMapper<T>() {
+            @Override
+            public T map(@NotNull Cursor cursor) {
+                return parsePersistentObject(cursor);
+            }
+        };
+    }
+
+    /**
+     * @return binder for bulk replace, if null {@link #getContentValues(Object)} is used instead
+     */
+    @Nullable
+    protected StatementBinder<T> getStatementBinder() {
+        return null;
+    }
+
+    /**
+     * Loads nested objects for whole page of parsed objects at once,
+     * objects could be either mutated or replaced in {@code persistentObjects}
+     */
+    @SuppressWarnings("PMD.EmptyMethodInAbstractClassShouldBeAbstract")
+    protected void populateNestedObjects(@NotNull List<T> persistentObjects) {}
+
     @SuppressWarnings("PMD.EmptyMethodInAbstractClassShouldBeAbstract")
     protected void storeNestedObjects(T persistentObject) {}
 
@@ -2,12 +2,20 @@ package org.stepic.droid.storage.dao
 
 import android.content.ContentValues
 import android.database.Cursor
+import android.database.sqlite.SQLiteStatement
 import com.google.gson.Gson
 import org.stepic.droid.storage.operations.DatabaseOperations
+import org.stepic.droid.storage.operations.StatementBinder
+import org.stepic.droid.util.DbLongArrayCodec
 import org.stepic.droid.util.DbParseHelper
+import org.stepic.droid.util.bindBlobOrNull
+import org.stepic.droid.util.bindBoolean
+import org.stepic.droid.util.bindDate
+import org.stepic.droid.util.bindStringOrNull
 import org.stepic.droid.util.getBoolean
 import org.stepic.droid.util.getDate
 import org.stepic.droid.util.getLong
+import org.stepic.droid.util.getLongArray
 import org.stepic.droid.util.getString
 import org.stepic.droid.util.toObject
 import org.stepik.android.cache.lesson.structure.DbStructureLesson
@@ -20,6 +28,57 @@ constructor(
     databaseOperations: DatabaseOperations,
     private val gson: Gson
 ) : DaoBase<Lesson>(databaseOperations) {
+    private val statementBinder =
+        object : StatementBinder<Lesson> {
+            override val columns = arrayOf(
+                DbStructureLesson.Columns.ID,
+                DbStructureLesson.Columns.TITLE,
+                DbStructureLesson.Columns.SLUG,
+                DbStructureLesson.Columns.COVER_URL,
+                DbStructureLesson.Columns.COURSES,
+                DbStructureLesson.Columns.STEPS,
+                DbStructureLesson.Columns.ACTIONS,
+                DbStructureLesson.Columns.IS_FEATURED,
+                DbStructureLesson.Columns.PROGRESS,
+                DbStructureLesson.Columns.OWNER,
+                DbStructureLesson.Columns.SUBSCRIPTIONS,
+                DbStructureLesson.Columns.VIEWED_BY,
+                DbStructureLesson.Columns.PASSED_BY,
+                DbStructureLesson.Columns.VOTE_DELTA,
+                DbStructureLesson.Columns.LANGUAGE,
+                DbStructureLesson.Columns.IS_PUBLIC,
+                DbStructureLesson.Columns.CREATE_DATE,
+                DbStructureLesson.Columns.UPDATE_DATE,
+                DbStructureLesson.Columns.LEARNERS_GROUP,
+                DbStructureLesson.Columns.TEACHERS_GROUP,
+                DbStructureLesson.Columns.TIME_TO_COMPLETE
+            )
+
+            override fun bind(statement: SQLiteStatement, item: Lesson) {
+                statement.bindLong(1, item.id)
+                statement.bindStringOrNull(2, item.title)
+                statement.bindStringOrNull(3, item.slug)
+                statement.bindStringOrNull(4, item.coverUrl)
+                statement.bindStringOrNull(5, DbParseHelper.parseLongArrayToString(item.courses, escapeSymbols = true))
+                statement.bindBlobOrNull(6, DbLongArrayCodec.encode(item.steps))
+                statement.bindString(7, gson.toJson(item.actions))
+                statement.bindBoolean(8, item.isFeatured)
+                statement.bindStringOrNull(9, item.progress)
+                statement.bindLong(10, item.owner)
+                statement.bindStringOrNull(11, DbParseHelper.parseStringArrayToString(item.subscriptions))
+                statement.bindLong(12, item.viewedBy)
+                statement.bindLong(13, item.passedBy)
+                statement.bindLong(14, item.voteDelta)
+                statement.bindStringOrNull(15, item.language)
+                statement.bindBoolean(16, item.isPublic)
+                statement.bindDate(17, item.createDate)
+                statement.bindDate(18, item.updateDate)
+                statement.bindStringOrNull(19, item.learnersGroup)
+                statement.bindStringOrNull(20, item.teachersGroup)
+                statement.bindLong(21, item.timeToComplete)
+            }
+        }
+
     public override fun getDbName() =
         DbStructureLesson.TABLE_NAME
 
@@ -36,7 +95,7 @@ constructor(
             slug = cursor.getString(DbStructureLesson.Columns.SLUG),
             coverUrl = cursor.getString(DbStructureLesson.Columns.COVER_URL),
             courses = DbParseHelper.parseStringToLongArray(cursor.getString(DbStructureLesson.Columns.COURSES), escapeSymbols = true) ?: longArrayOf(),
-            steps = DbParseHelper.parseStringToLongArray(cursor.getString(DbStructureLesson.Columns.STEPS)) ?: longArrayOf(),
+            steps = cursor.getLongArray(DbStructureLesson.Columns.STEPS) ?: longArrayOf(),
             actions = cursor.getString(DbStructureLesson.Columns.ACTIONS)?.toObject(gson),
             isFeatured = cursor.getBoolean(DbStructureLesson.Columns.IS_FEATURED),
             progress = cursor.getString(DbStructureLesson.Columns.PROGRESS),
@@ -62,7 +121,7 @@ constructor(
         values.put(DbStructureLesson.Columns.SLUG, lesson.slug)
         values.put(DbStructureLesson.Columns.COVER_URL, lesson.coverUrl)
         values.put(DbStructureLesson.Columns.COURSES, DbParseHelper.parseLongArrayToString(lesson.courses, escapeSymbols = true))
-        values.put(DbStructureLesson.Columns.STEPS, DbParseHelper.parseLongArrayToString(lesson.steps))
+        values.put(DbStructureLesson.Columns.STEPS, DbLongArrayCodec.encode(lesson.steps))
         values.put(DbStructureLesson.Columns.ACTIONS, gson.toJson(lesson.actions))
         values.put(DbStructureLesson.Columns.IS_FEATURED, lesson.isFeatured)
         values.put(DbStructureLesson.Columns.PROGRESS, lesson.progress)
@@ -81,4 +140,7 @@ constructor(
 
         return values
     }
+
+    override fun getStatementBinder(): StatementBinder<Lesson> =
+        statementBinder
 }
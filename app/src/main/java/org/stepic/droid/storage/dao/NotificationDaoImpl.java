@@ -50,6 +50,8 @@ public class NotificationDaoImpl extends DaoBase<Notification> {
         values.put(DbStructureNotification.Column.HTML_TEXT, persistentObject.getHtmlText());
         values.put(DbStructureNotification.Column.ACTION, persistentObject.getAction());
         values.put(DbStructureNotification.Column.COURSE_ID, persistentObject.getCourseId());
+        CharSequence notificationText = persistentObject.getNotificationText();
+        values.put(DbStructureNotification.Column.TEXT, notificationText != null ? notificationText.toString() : null);
         return values;
     }
 
@@ -66,6 +68,7 @@ public class NotificationDaoImpl extends DaoBase<Notification> {
         int columnIndexHtmlText = cursor.getColumnIndex(DbStructureNotification.Column.HTML_TEXT);
         int columnIndexAction = cursor.getColumnIndex(DbStructureNotification.Column.ACTION);
         int columnIndexCourseId = cursor.getColumnIndex(DbStructureNotification.Column.COURSE_ID);
+        int columnIndexText = cursor.getColumnIndex(DbStructureNotification.Column.TEXT);
 
         return new Notification(
                 cursor.getLong(columnIndexId),
@@ -80,7 +83,7 @@ public class NotificationDaoImpl extends DaoBase<Notification> {
                 cursor.getString(columnIndexAction),
                 cursor.getLong(columnIndexCourseId),
                 null,
-                null,
+                cursor.getString(columnIndexText),
                 0
         );
     }
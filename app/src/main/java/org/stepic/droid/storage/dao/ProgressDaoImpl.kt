@@ -2,8 +2,12 @@ package org.stepic.droid.storage.dao
 
 import android.content.ContentValues
 import android.database.Cursor
+import android.database.sqlite.SQLiteStatement
 import org.stepic.droid.storage.operations.DatabaseOperations
+import org.stepic.droid.storage.operations.StatementBinder
 import org.stepic.droid.storage.structure.DbStructureProgress
+import org.stepic.droid.util.bindBoolean
+import org.stepic.droid.util.bindStringOrNull
 import org.stepic.droid.util.getBoolean
 import org.stepic.droid.util.getLong
 import org.stepic.droid.util.getString
@@ -15,6 +19,29 @@ class ProgressDaoImpl
 constructor(
     databaseOperations: DatabaseOperations
 ) : DaoBase<Progress>(databaseOperations) {
+    private val statementBinder =
+        object : StatementBinder<Progress> {
+            override val columns = arrayOf(
+                DbStructureProgress.Columns.ID,
+                DbStructureProgress.Columns.COST,
+                DbStructureProgress.Columns.SCORE,
+                DbStructureProgress.Columns.IS_PASSED,
+                DbStructureProgress.Columns.LAST_VIEWED,
+                DbStructureProgress.Columns.N_STEPS,
+                DbStructureProgress.Columns.N_STEPS_PASSED
+            )
+
+            override fun bind(statement: SQLiteStatement, item: Progress) {
+                statement.bindStringOrNull(1, item.id)
+                statement.bindLong(2, item.cost)
+                statement.bindStringOrNull(3, item.score)
+                statement.bindBoolean(4, item.isPassed)
+                statement.bindStringOrNull(5, item.lastViewed)
+                statement.bindLong(6, item.nSteps)
+                statement.bindLong(7, item.nStepsPassed)
+            }
+        }
+
     public override fun getDbName(): String =
         DbStructureProgress.TABLE_NAME
 
@@ -46,4 +73,7 @@ constructor(
         values.put(DbStructureProgress.Columns.N_STEPS_PASSED, progress.nStepsPassed)
         return values
     }
+
+    override fun getStatementBinder(): StatementBinder<Progress> =
+        statementBinder
 }
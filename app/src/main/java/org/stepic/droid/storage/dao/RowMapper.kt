@@ -0,0 +1,10 @@
+package org.stepic.droid.storage.dao
+
+import android.database.Cursor
+
+/**
+ * Maps rows of one cursor, column indices should be resolved once on creation
+ */
+interface RowMapper<T> {
+    fun map(cursor: Cursor): T
+}
@@ -3,12 +3,10 @@ package org.stepic.droid.storage.dao
 import android.content.ContentValues
 import android.database.Cursor
 import org.stepic.droid.storage.operations.DatabaseOperations
-import org.stepic.droid.util.DbParseHelper
+import org.stepic.droid.util.DbLongArrayCodec
 import org.stepic.droid.util.getBoolean
 import org.stepic.droid.util.getDate
-import org.stepic.droid.util.getInt
-import org.stepic.droid.util.getLong
-import org.stepic.droid.util.getString
+import org.stepic.droid.util.getLongArray
 import org.stepik.android.cache.section.structure.DbStructureSection
 import org.stepik.android.model.Actions
 import org.stepik.android.model.DiscountingPolicyType
@@ -30,36 +28,17 @@ constructor(
         persistentObject.id.toString()
 
     public override fun parsePersistentObject(cursor: Cursor): Section =
-        Section(
-            id = cursor.getLong(DbStructureSection.Columns.ID),
-            course = cursor.getLong(DbStructureSection.Columns.COURSE),
-            units = DbParseHelper.parseStringToLongList(cursor.getString(DbStructureSection.Columns.UNITS)) ?: emptyList(),
-            position = cursor.getInt(DbStructureSection.Columns.POSITION),
-            progress = cursor.getString(DbStructureSection.Columns.PROGRESS),
-            title = cursor.getString(DbStructureSection.Columns.TITLE),
-            slug = cursor.getString(DbStructureSection.Columns.SLUG),
-            beginDate = cursor.getDate(DbStructureSection.Columns.BEGIN_DATE),
-            endDate = cursor.getDate(DbStructureSection.Columns.END_DATE),
-            softDeadline = cursor.getDate(DbStructureSection.Columns.SOFT_DEADLINE),
-            hardDeadline = cursor.getDate(DbStructureSection.Columns.HARD_DEADLINE),
-            createDate = cursor.getDate(DbStructureSection.Columns.CREATE_DATE),
-            updateDate = cursor.getDate(DbStructureSection.Columns.UPDATE_DATE),
-            gradingPolicy = cursor.getString(DbStructureSection.Columns.GRADING_POLICY),
-            isActive = cursor.getBoolean(DbStructureSection.Columns.IS_ACTIVE),
-            actions = Actions(testSection = cursor.getString(DbStructureSection.Columns.ACTIONS_TEST_SECTION)),
-            isExam = cursor.getBoolean(DbStructureSection.Columns.IS_EXAM),
-            discountingPolicy = DiscountingPolicyType.values().getOrNull(cursor.getInt(DbStructureSection.Columns.DISCOUNTING_POLICY)),
-            isRequirementSatisfied = cursor.getBoolean(DbStructureSection.Columns.IS_REQUIREMENT_SATISFIED),
-            requiredSection = cursor.getLong(DbStructureSection.Columns.REQUIRED_SECTION),
-            requiredPercent = cursor.getInt(DbStructureSection.Columns.REQUIRED_PERCENT)
-        )
+        createRowMapper(cursor).map(cursor)
+
+    public override fun createRowMapper(cursor: Cursor): RowMapper<Section> =
+        SectionRowMapper(cursor)
 
     public override fun getContentValues(section: Section): ContentValues {
         val values = ContentValues()
 
         values.put(DbStructureSection.Columns.ID, section.id)
         values.put(DbStructureSection.Columns.COURSE, section.course)
-        values.put(DbStructureSection.Columns.UNITS, DbParseHelper.parseLongListToString(section.units))
+        values.put(DbStructureSection.Columns.UNITS, DbLongArrayCodec.encode(section.units))
         values.put(DbStructureSection.Columns.POSITION, section.position)
         values.put(DbStructureSection.Columns.PROGRESS, section.progress)
         values.put(DbStructureSection.Columns.TITLE, section.title)
@@ -81,4 +60,53 @@ constructor(
 
         return values
     }
+
+    private class SectionRowMapper(cursor: Cursor) : RowMapper<Section> {
+        private val idIndex = cursor.getColumnIndexOrThrow(DbStructureSection.Columns.ID)
+        private val courseIndex = cursor.getColumnIndexOrThrow(DbStructureSection.Columns.COURSE)
+        private val unitsIndex = cursor.getColumnIndexOrThrow(DbStructureSection.Columns.UNITS)
+        private val positionIndex = cursor.getColumnIndexOrThrow(DbStructureSection.Columns.POSITION)
+        private val progressIndex = cursor.getColumnIndexOrThrow(DbStructureSection.Columns.PROGRESS)
+        private val titleIndex = cursor.getColumnIndexOrThrow(DbStructureSection.Columns.TITLE)
+        private val slugIndex = cursor.getColumnIndexOrThrow(DbStructureSection.Columns.SLUG)
+        private val beginDateIndex = cursor.getColumnIndexOrThrow(DbStructureSection.Columns.BEGIN_DATE)
+        private val endDateIndex = cursor.getColumnIndexOrThrow(DbStructureSection.Columns.END_DATE)
+        private val softDeadlineIndex = cursor.getColumnIndexOrThrow(DbStructureSection.Columns.SOFT_DEADLINE)
+        private val hardDeadlineIndex = cursor.getColumnIndexOrThrow(DbStructureSection.Columns.HARD_DEADLINE)
+        private val createDateIndex = cursor.getColumnIndexOrThrow(DbStructureSection.Columns.CREATE_DATE)
+        private val updateDateIndex = cursor.getColumnIndexOrThrow(DbStructureSection.Columns.UPDATE_DATE)
+        private val gradingPolicyIndex = cursor.getColumnIndexOrThrow(DbStructureSection.Columns.GRADING_POLICY)
+        private val isActiveIndex = cursor.getColumnIndexOrThrow(DbStructureSection.Columns.IS_ACTIVE)
+        private val actionsTestSectionIndex = cursor.getColumnIndexOrThrow(DbStructureSection.Columns.ACTIONS_TEST_SECTION)
+        private val isExamIndex = cursor.getColumnIndexOrThrow(DbStructureSection.Columns.IS_EXAM)
+        private val discountingPolicyIndex = cursor.getColumnIndexOrThrow(DbStructureSection.Columns.DISCOUNTING_POLICY)
+        private val isRequirementSatisfiedIndex = cursor.getColumnIndexOrThrow(DbStructureSection.Columns.IS_REQUIREMENT_SATISFIED)
+        private val requiredSectionIndex = cursor.getColumnIndexOrThrow(DbStructureSection.Columns.REQUIRED_SECTION)
+        private val requiredPercentIndex = cursor.getColumnIndexOrThrow(DbStructureSection.Columns.REQUIRED_PERCENT)
+
+        override fun map(cursor: Cursor): Section =
+            Section(
+                id = cursor.getLong(idIndex),
+                course = cursor.getLong(courseIndex),
+                units = cursor.getLongArray(unitsIndex)?.asList() ?: emptyList(),
+                position = cursor.getInt(positionIndex),
+                progress = cursor.getString(progressIndex),
+                title = cursor.getString(titleIndex),
+                slug = cursor.getString(slugIndex),
+                beginDate = cursor.getDate(beginDateIndex),
+                endDate = cursor.getDate(endDateIndex),
+                softDeadline = cursor.getDate(softDeadlineIndex),
+                hardDeadline = cursor.getDate(hardDeadlineIndex),
+                createDate = cursor.getDate(createDateIndex),
+                updateDate = cursor.getDate(updateDateIndex),
+                gradingPolicy = cursor.getString(gradingPolicyIndex),
+                isActive = cursor.getBoolean(isActiveIndex),
+                actions = Actions(testSection = cursor.getString(actionsTestSectionIndex)),
+                isExam = cursor.getBoolean(isExamIndex),
+                discountingPolicy = DiscountingPolicyType.values().getOrNull(cursor.getInt(discountingPolicyIndex)),
+                isRequirementSatisfied = cursor.getBoolean(isRequirementSatisfiedIndex),
+                requiredSection = cursor.getLong(requiredSectionIndex),
+                requiredPercent = cursor.getInt(requiredPercentIndex)
+            )
+    }
 }
@@ -2,16 +2,18 @@ package org.stepic.droid.storage.dao
 
 import android.content.ContentValues
 import android.database.Cursor
+import android.database.sqlite.SQLiteStatement
 import org.stepic.droid.model.BlockPersistentWrapper
 import org.stepic.droid.storage.operations.DatabaseOperations
+import org.stepic.droid.storage.operations.StatementBinder
 import org.stepic.droid.storage.structure.DbStructureBlock
 import org.stepic.droid.util.DbParseHelper
+import org.stepic.droid.util.bindBoolean
+import org.stepic.droid.util.bindDate
+import org.stepic.droid.util.bindDoubleOrNull
+import org.stepic.droid.util.bindStringOrNull
 import org.stepic.droid.util.getBoolean
 import org.stepic.droid.util.getDate
-import org.stepic.droid.util.getDouble
-import org.stepic.droid.util.getInt
-import org.stepic.droid.util.getLong
-import org.stepic.droid.util.getString
 import org.stepik.android.cache.step.structure.DbStructureStep
 import org.stepik.android.model.Actions
 import org.stepik.android.model.Step
@@ -23,42 +25,57 @@ constructor(
     databaseOperations: DatabaseOperations,
     private val blockWrapperDao: IDao<BlockPersistentWrapper>
 ) : DaoBase<Step>(databaseOperations) {
-
-    public override fun parsePersistentObject(cursor: Cursor): Step {
-        val review = cursor.getString(DbStructureStep.Column.PEER_REVIEW)
-
-        return Step(
-            id = cursor.getLong(DbStructureStep.Column.ID),
-            lesson = cursor.getLong(DbStructureStep.Column.LESSON_ID),
-            status = Step.Status.byName(cursor.getString(DbStructureStep.Column.STATUS)),
-            progress = cursor.getString(DbStructureStep.Column.PROGRESS),
-
-            viewedBy = cursor.getLong(DbStructureStep.Column.VIEWED_BY),
-            passedBy = cursor.getLong(DbStructureStep.Column.PASSED_BY),
-            worth = cursor.getLong(DbStructureStep.Column.WORTH),
-
-            createDate = cursor.getDate(DbStructureStep.Column.CREATE_DATE),
-            updateDate = cursor.getDate(DbStructureStep.Column.UPDATE_DATE),
-
-            subscriptions = DbParseHelper.parseStringToStringList(cursor.getString(DbStructureStep.Column.SUBSCRIPTION)),
-            position = cursor.getLong(DbStructureStep.Column.POSITION),
-            hasSubmissionRestriction = cursor.getBoolean(DbStructureStep.Column.HAS_SUBMISSION_RESTRICTION),
-            maxSubmissionCount = cursor.getInt(DbStructureStep.Column.MAX_SUBMISSION_COUNT),
-
-            discussionsCount = cursor.getInt(DbStructureStep.Column.DISCUSSION_COUNT),
-            discussionProxy = cursor.getString(DbStructureStep.Column.DISCUSSION_PROXY),
-            discussionThreads = DbParseHelper.parseStringToStringList(cursor.getString(DbStructureStep.Column.DISCUSSION_THREADS)),
-
-            correctRatio = cursor.getDouble(DbStructureStep.Column.CORRECT_RATIO),
-
-            actions = Actions(
-                vote = false, edit = false, delete = false, pin = false,
-                testSection = null,
-                doReview = review,
-                editInstructions = null
+    private val statementBinder =
+        object : StatementBinder<Step> {
+            override val columns = arrayOf(
+                DbStructureStep.Column.ID,
+                DbStructureStep.Column.LESSON_ID,
+                DbStructureStep.Column.STATUS,
+                DbStructureStep.Column.PROGRESS,
+                DbStructureStep.Column.SUBSCRIPTION,
+                DbStructureStep.Column.VIEWED_BY,
+                DbStructureStep.Column.PASSED_BY,
+                DbStructureStep.Column.WORTH,
+                DbStructureStep.Column.CREATE_DATE,
+                DbStructureStep.Column.UPDATE_DATE,
+                DbStructureStep.Column.POSITION,
+                DbStructureStep.Column.DISCUSSION_COUNT,
+                DbStructureStep.Column.DISCUSSION_PROXY,
+                DbStructureStep.Column.DISCUSSION_THREADS,
+                DbStructureStep.Column.CORRECT_RATIO,
+                DbStructureStep.Column.HAS_SUBMISSION_RESTRICTION,
+                DbStructureStep.Column.MAX_SUBMISSION_COUNT,
+                DbStructureStep.Column.PEER_REVIEW
             )
-        )
-    }
+
+            override fun bind(statement: SQLiteStatement, item: Step) {
+                statement.bindLong(1, item.id)
+                statement.bindLong(2, item.lesson)
+                statement.bindStringOrNull(3, item.status?.name)
+                statement.bindStringOrNull(4, item.progress)
+                statement.bindStringOrNull(5, DbParseHelper.parseStringArrayToString(item.subscriptions?.toTypedArray()))
+                statement.bindLong(6, item.viewedBy)
+                statement.bindLong(7, item.passedBy)
+                statement.bindLong(8, item.worth)
+                statement.bindDate(9, item.createDate)
+                statement.bindDate(10, item.updateDate)
+                statement.bindLong(11, item.position)
+                statement.bindLong(12, item.discussionsCount.toLong())
+                statement.bindStringOrNull(13, item.discussionProxy)
+                statement.bindStringOrNull(14, DbParseHelper.parseStringArrayToString(item.discussionThreads?.toTypedArray()))
+                statement.bindDoubleOrNull(15, item.correctRatio)
+                statement.bindBoolean(16, item.hasSubmissionRestriction)
+                statement.bindLong(17, item.maxSubmissionCount.toLong())
+                statement.bindStringOrNull(18, item.actions?.doReview)
+            }
+        }
+
+
+    public override fun parsePersistentObject(cursor: Cursor): Step =
+        createRowMapper(cursor).map(cursor)
+
+    public override fun createRowMapper(cursor: Cursor): RowMapper<Step> =
+        StepRowMapper(cursor)
 
     public override fun getContentValues(step: Step): ContentValues {
         val values = ContentValues()
@@ -94,15 +111,14 @@ constructor(
     public override fun getDefaultPrimaryValue(persistentObject: Step): String =
         persistentObject.id.toString()
 
-    override fun get(whereColumnName: String, whereValue: String): Step? =
-        super.get(whereColumnName, whereValue)?.let(this::addInnerObjects)
-
-    override fun getAllWithQuery(query: String, whereArgs: Array<String>?): List<Step> =
-        super.getAllWithQuery(query, whereArgs).map(this::addInnerObjects)
+    override fun populateNestedObjects(persistentObjects: MutableList<Step>) {
+        val blocks = blockWrapperDao
+            .getAllInRange(DbStructureBlock.Column.STEP_ID, persistentObjects.map(Step::id).toLongArray())
+            .associateBy(BlockPersistentWrapper::stepId)
 
-    private fun addInnerObjects(step: Step): Step {
-        step.block = blockWrapperDao.get(DbStructureBlock.Column.STEP_ID, step.id.toString())?.block
-        return step
+        persistentObjects.forEach { step ->
+            step.block = blocks[step.id]?.block
+        }
     }
 
     override fun insertOrReplace(persistentObject: Step) {
@@ -117,4 +133,64 @@ constructor(
                 .mapNotNull { step -> step.block?.let { BlockPersistentWrapper(it, step.id) }}
         )
     }
+
+    override fun getStatementBinder(): StatementBinder<Step> =
+        statementBinder
+
+    private class StepRowMapper(cursor: Cursor) : RowMapper<Step> {
+        private val peerReviewIndex = cursor.getColumnIndexOrThrow(DbStructureStep.Column.PEER_REVIEW)
+        private val idIndex = cursor.getColumnIndexOrThrow(DbStructureStep.Column.ID)
+        private val lessonIdIndex = cursor.getColumnIndexOrThrow(DbStructureStep.Column.LESSON_ID)
+        private val statusIndex = cursor.getColumnIndexOrThrow(DbStructureStep.Column.STATUS)
+        private val progressIndex = cursor.getColumnIndexOrThrow(DbStructureStep.Column.PROGRESS)
+        private val viewedByIndex = cursor.getColumnIndexOrThrow(DbStructureStep.Column.VIEWED_BY)
+        private val passedByIndex = cursor.getColumnIndexOrThrow(DbStructureStep.Column.PASSED_BY)
+        private val worthIndex = cursor.getColumnIndexOrThrow(DbStructureStep.Column.WORTH)
+        private val createDateIndex = cursor.getColumnIndexOrThrow(DbStructureStep.Column.CREATE_DATE)
+        private val updateDateIndex = cursor.getColumnIndexOrThrow(DbStructureStep.Column.UPDATE_DATE)
+        private val subscriptionIndex = cursor.getColumnIndexOrThrow(DbStructureStep.Column.SUBSCRIPTION)
+        private val positionIndex = cursor.getColumnIndexOrThrow(DbStructureStep.Column.POSITION)
+        private val hasSubmissionRestrictionIndex = cursor.getColumnIndexOrThrow(DbStructureStep.Column.HAS_SUBMISSION_RESTRICTION)
+        private val maxSubmissionCountIndex = cursor.getColumnIndexOrThrow(DbStructureStep.Column.MAX_SUBMISSION_COUNT)
+        private val discussionCountIndex = cursor.getColumnIndexOrThrow(DbStructureStep.Column.DISCUSSION_COUNT)
+        private val discussionProxyIndex = cursor.getColumnIndexOrThrow(DbStructureStep.Column.DISCUSSION_PROXY)
+        private val discussionThreadsIndex = cursor.getColumnIndexOrThrow(DbStructureStep.Column.DISCUSSION_THREADS)
+        private val correctRatioIndex = cursor.getColumnIndexOrThrow(DbStructureStep.Column.CORRECT_RATIO)
+
+        override fun map(cursor: Cursor): Step {
+            val review = cursor.getString(peerReviewIndex)
+
+            return Step(
+                id = cursor.getLong(idIndex),
+                lesson = cursor.getLong(lessonIdIndex),
+                status = Step.Status.byName(cursor.getString(statusIndex)),
+                progress = cursor.getString(progressIndex),
+
+                viewedBy = cursor.getLong(viewedByIndex),
+                passedBy = cursor.getLong(passedByIndex),
+                worth = cursor.getLong(worthIndex),
+
+                createDate = cursor.getDate(createDateIndex),
+                updateDate = cursor.getDate(updateDateIndex),
+
+                subscriptions = DbParseHelper.parseStringToStringList(cursor.getString(subscriptionIndex)),
+                position = cursor.getLong(positionIndex),
+                hasSubmissionRestriction = cursor.getBoolean(hasSubmissionRestrictionIndex),
+                maxSubmissionCount = cursor.getInt(maxSubmissionCountIndex),
+
+                discussionsCount = cursor.getInt(discussionCountIndex),
+                discussionProxy = cursor.getString(discussionProxyIndex),
+                discussionThreads = DbParseHelper.parseStringToStringList(cursor.getString(discussionThreadsIndex)),
+
+                correctRatio = cursor.getDouble(correctRatioIndex),
+
+                actions = Actions(
+                    vote = false, edit = false, delete = false, pin = false,
+                    testSection = null,
+                    doReview = review,
+                    editInstructions = null
+                )
+            )
+        }
+    }
 }
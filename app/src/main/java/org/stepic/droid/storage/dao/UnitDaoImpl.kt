@@ -2,12 +2,19 @@ package org.stepic.droid.storage.dao
 
 import android.content.ContentValues
 import android.database.Cursor
+import android.database.sqlite.SQLiteStatement
 import org.stepic.droid.storage.operations.DatabaseOperations
-import org.stepic.droid.util.DbParseHelper
+import org.stepic.droid.storage.operations.StatementBinder
+import org.stepic.droid.util.DbLongArrayCodec
+import org.stepic.droid.util.bindBlobOrNull
+import org.stepic.droid.util.bindBoolean
+import org.stepic.droid.util.bindDate
+import org.stepic.droid.util.bindStringOrNull
 import org.stepic.droid.util.getBoolean
 import org.stepic.droid.util.getDate
 import org.stepic.droid.util.getInt
 import org.stepic.droid.util.getLong
+import org.stepic.droid.util.getLongArray
 import org.stepic.droid.util.getString
 import org.stepik.android.cache.unit.structure.DbStructureUnit
 import org.stepik.android.model.Unit
@@ -18,6 +25,53 @@ class UnitDaoImpl
 constructor(
     databaseOperations: DatabaseOperations
 ) : DaoBase<Unit>(databaseOperations) {
+    private val statementBinder =
+        object : StatementBinder<Unit> {
+            override val columns = arrayOf(
+                DbStructureUnit.Columns.ID,
+                DbStructureUnit.Columns.SECTION,
+                DbStructureUnit.Columns.LESSON,
+                DbStructureUnit.Columns.ASSIGNMENTS,
+                DbStructureUnit.Columns.POSITION,
+                DbStructureUnit.Columns.PROGRESS,
+                DbStructureUnit.Columns.BEGIN_DATE,
+                DbStructureUnit.Columns.END_DATE,
+                DbStructureUnit.Columns.SOFT_DEADLINE,
+                DbStructureUnit.Columns.HARD_DEADLINE,
+                DbStructureUnit.Columns.GRADING_POLICY,
+                DbStructureUnit.Columns.BEGIN_DATE_SOURCE,
+                DbStructureUnit.Columns.END_DATE_SOURCE,
+                DbStructureUnit.Columns.SOFT_DEADLINE_SOURCE,
+                DbStructureUnit.Columns.HARD_DEADLINE_SOURCE,
+                DbStructureUnit.Columns.GRADING_POLICY_SOURCE,
+                DbStructureUnit.Columns.IS_ACTIVE,
+                DbStructureUnit.Columns.CREATE_DATE,
+                DbStructureUnit.Columns.UPDATE_DATE
+            )
+
+            override fun bind(statement: SQLiteStatement, item: Unit) {
+                statement.bindLong(1, item.id)
+                statement.bindLong(2, item.section)
+                statement.bindLong(3, item.lesson)
+                statement.bindBlobOrNull(4, DbLongArrayCodec.encode(item.assignments))
+                statement.bindLong(5, item.position.toLong())
+                statement.bindStringOrNull(6, item.progress)
+                statement.bindDate(7, item.beginDate)
+                statement.bindDate(8, item.endDate)
+                statement.bindDate(9, item.softDeadline)
+                statement.bindDate(10, item.hardDeadline)
+                statement.bindStringOrNull(11, item.gradingPolicy)
+                statement.bindStringOrNull(12, item.beginDateSource)
+                statement.bindStringOrNull(13, item.endDateSource)
+                statement.bindStringOrNull(14, item.softDeadlineSource)
+                statement.bindStringOrNull(15, item.hardDeadlineSource)
+                statement.bindStringOrNull(16, item.gradingPolicySource)
+                statement.bindBoolean(17, item.isActive)
+                statement.bindDate(18, item.createDate)
+                statement.bindDate(19, item.updateDate)
+            }
+        }
+
     public override fun getDbName() = DbStructureUnit.TABLE_NAME
 
     public override fun getDefaultPrimaryColumn() = DbStructureUnit.Columns.ID
@@ -30,7 +84,7 @@ constructor(
             id = cursor.getLong(DbStructureUnit.Columns.ID),
             section = cursor.getLong(DbStructureUnit.Columns.SECTION),
             lesson = cursor.getLong(DbStructureUnit.Columns.LESSON),
-            assignments = DbParseHelper.parseStringToLongArray(cursor.getString(DbStructureUnit.Columns.ASSIGNMENTS)),
+            assignments = cursor.getLongArray(DbStructureUnit.Columns.ASSIGNMENTS),
             position = cursor.getInt(DbStructureUnit.Columns.POSITION),
             progress = cursor.getString(DbStructureUnit.Columns.PROGRESS),
             beginDate = cursor.getDate(DbStructureUnit.Columns.BEGIN_DATE),
@@ -53,7 +107,7 @@ constructor(
         values.put(DbStructureUnit.Columns.ID, unit.id)
         values.put(DbStructureUnit.Columns.SECTION, unit.section)
         values.put(DbStructureUnit.Columns.LESSON, unit.lesson)
-        values.put(DbStructureUnit.Columns.ASSIGNMENTS, DbParseHelper.parseLongArrayToString(unit.assignments))
+        values.put(DbStructureUnit.Columns.ASSIGNMENTS, DbLongArrayCodec.encode(unit.assignments))
         values.put(DbStructureUnit.Columns.POSITION, unit.position)
         values.put(DbStructureUnit.Columns.PROGRESS, unit.progress)
         values.put(DbStructureUnit.Columns.BEGIN_DATE, unit.beginDate?.time ?: -1)
@@ -71,4 +125,7 @@ constructor(
         values.put(DbStructureUnit.Columns.UPDATE_DATE, unit.updateDate?.time ?: -1)
         return values
     }
-}
\ No newline at end of file
+
+    override fun getStatementBinder(): StatementBinder<Unit> =
+        statementBinder
+}
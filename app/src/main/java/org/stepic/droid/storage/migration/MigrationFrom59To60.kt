@@ -0,0 +1,55 @@
+package org.stepic.droid.storage.migration
+
+import android.database.sqlite.SQLiteDatabase
+import org.stepic.droid.storage.structure.DbStructureCourse
+import org.stepic.droid.util.DbLongArrayCodec
+import org.stepic.droid.util.DbParseHelper
+import org.stepic.droid.util.bindBlobOrNull
+import org.stepik.android.cache.lesson.structure.DbStructureLesson
+import org.stepik.android.cache.section.structure.DbStructureSection
+import org.stepik.android.cache.unit.structure.DbStructureUnit
+
+/**
+ * Converts id list columns from "__,__" joined strings to [DbLongArrayCodec] blobs
+ */
+object MigrationFrom59To60 : Migration {
+    private val idListColumns = listOf(
+        DbStructureCourse.TABLE_NAME to DbStructureCourse.Columns.AUTHORS,
+        DbStructureCourse.TABLE_NAME to DbStructureCourse.Columns.INSTRUCTORS,
+        DbStructureCourse.TABLE_NAME to DbStructureCourse.Columns.SECTIONS,
+        DbStructureSection.TABLE_NAME to DbStructureSection.Columns.UNITS,
+        DbStructureUnit.TABLE_NAME to DbStructureUnit.Columns.ASSIGNMENTS,
+        DbStructureLesson.TABLE_NAME to DbStructureLesson.Columns.STEPS
+    )
+
+    override fun migrate(db: SQLiteDatabase) {
+        idListColumns.forEach { (table, column) ->
+            migrateColumn(db, table, column)
+        }
+    }
+
+    private fun migrateColumn(db: SQLiteDatabase, table: String, column: String) {
+        val rowIds = ArrayList<Long>()
+        val values = ArrayList<ByteArray?>()
+
+        // rows are read before update, otherwise updated rows shift cursor window offsets
+        db.rawQuery("SELECT rowid, $column FROM $table WHERE typeof($column) = 'text'", null).use { cursor ->
+            while (cursor.moveToNext()) {
+                rowIds.add(cursor.getLong(0))
+                values.add(DbLongArrayCodec.encode(DbParseHelper.parseStringToLongArray(cursor.getString(1))))
+            }
+        }
+
+        val statement = db.compileStatement("UPDATE $table SET $column = ? WHERE rowid = ?")
+        try {
+            rowIds.forEachIndexed { index, rowId ->
+                statement.clearBindings()
+                statement.bindBlobOrNull(1, values[index])
+                statement.bindLong(2, rowId)
+                statement.executeUpdateDelete()
+            }
+        } finally {
+            statement.close()
+        }
+    }
+}
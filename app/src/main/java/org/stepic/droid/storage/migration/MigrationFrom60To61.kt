@@ -0,0 +1,10 @@
+package org.stepic.droid.storage.migration
+
+import android.database.sqlite.SQLiteDatabase
+import org.stepik.android.cache.comment.structure.DbStructureDiscussionComments
+
+object MigrationFrom60To61 : Migration {
+    override fun migrate(db: SQLiteDatabase) {
+        db.execSQL(DbStructureDiscussionComments.TABLE_SCHEMA)
+    }
+}
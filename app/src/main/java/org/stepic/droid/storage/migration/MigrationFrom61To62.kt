@@ -0,0 +1,12 @@
+package org.stepic.droid.storage.migration
+
+import android.database.sqlite.SQLiteDatabase
+import org.stepic.droid.storage.structure.DbStructureNotification
+
+object MigrationFrom61To62 : Migration {
+    override fun migrate(db: SQLiteDatabase) {
+        db.execSQL("""
+            ALTER TABLE ${DbStructureNotification.NOTIFICATIONS_TEMP} ADD COLUMN ${DbStructureNotification.Column.TEXT} TEXT
+        """.trimIndent())
+    }
+}
@@ -0,0 +1,22 @@
+package org.stepic.droid.storage.migration
+
+import android.database.sqlite.SQLiteDatabase
+import org.stepic.droid.persistence.model.PersistentState
+import org.stepic.droid.persistence.storage.structure.DBStructurePersistentState
+
+/**
+ * Adds aggregate children counters to persistent state, counters of existing rows are computed lazily
+ */
+object MigrationFrom62To63 : Migration {
+    override fun migrate(db: SQLiteDatabase) {
+        db.execSQL("""
+            ALTER TABLE ${DBStructurePersistentState.TABLE_NAME}
+            ADD COLUMN ${DBStructurePersistentState.Columns.CHILDREN_CACHED} INTEGER DEFAULT ${PersistentState.CHILDREN_UNKNOWN}
+        """.trimIndent())
+
+        db.execSQL("""
+            ALTER TABLE ${DBStructurePersistentState.TABLE_NAME}
+            ADD COLUMN ${DBStructurePersistentState.Columns.CHILDREN_IN_PROGRESS} INTEGER DEFAULT ${PersistentState.CHILDREN_UNKNOWN}
+        """.trimIndent())
+    }
+}
@@ -0,0 +1,17 @@
+package org.stepic.droid.storage.migration
+
+import android.database.sqlite.SQLiteDatabase
+import org.stepic.droid.persistence.model.PersistentState
+import org.stepic.droid.persistence.storage.structure.DBStructurePersistentState
+
+/**
+ * Adds number of children that persistent state counters were computed for, existing counters are recomputed lazily
+ */
+object MigrationFrom63To64 : Migration {
+    override fun migrate(db: SQLiteDatabase) {
+        db.execSQL("""
+            ALTER TABLE ${DBStructurePersistentState.TABLE_NAME}
+            ADD COLUMN ${DBStructurePersistentState.Columns.CHILDREN_COUNT} INTEGER DEFAULT ${PersistentState.CHILDREN_UNKNOWN}
+        """.trimIndent())
+    }
+}
@@ -20,6 +20,7 @@ import org.stepic.droid.storage.structure.DbStructureViewedNotificationsQueue
 import org.stepic.droid.util.AppConstants
 import org.stepic.droid.util.DbParseHelper
 import org.stepik.android.cache.assignment.structure.DbStructureAssignment
+import org.stepik.android.cache.comment.dao.DiscussionCommentsDao
 import org.stepik.android.cache.course_calendar.structure.DbStructureSectionDateEvent
 import org.stepik.android.cache.lesson.structure.DbStructureLesson
 import org.stepik.android.cache.personal_deadlines.dao.DeadlinesBannerDao
@@ -78,6 +79,7 @@ constructor(
     private val submissionDao: IDao<Submission>,
     private val certificateDao: IDao<Certificate>,
     private val discussionThreadDao: IDao<DiscussionThread>,
+    private val discussionCommentsDao: DiscussionCommentsDao,
     private val attemptDao: IDao<Attempt>,
     private val socialProfileDao: IDao<SocialProfile>,
     private val userCourseDao: UserCourseDao,
@@ -110,6 +112,7 @@ constructor(
         submissionDao.removeAll()
         certificateDao.removeAll()
         discussionThreadDao.removeAll()
+        discussionCommentsDao.removeAll()
         attemptDao.removeAll()
         socialProfileDao.removeAll()
         userCourseDao.removeAll()
@@ -123,14 +126,8 @@ constructor(
         assignmentDao.insertOrReplaceAll(assignments)
     }
 
-    fun getAssignments(assignmentsIds: LongArray): List<Assignment> {
-        val stringIds = DbParseHelper.parseLongArrayToString(assignmentsIds, AppConstants.COMMA)
-        return if (stringIds != null) {
-            assignmentDao.getAllInRange(DbStructureAssignment.Columns.ID, stringIds)
-        } else {
-            emptyList()
-        }
-    }
+    fun getAssignments(assignmentsIds: LongArray): List<Assignment> =
+        assignmentDao.getAllInRange(DbStructureAssignment.Columns.ID, assignmentsIds)
 
     @Deprecated("because of step has 0..* assignments.")
     fun getAssignmentIdByStepId(stepId: Long): Long {
@@ -138,14 +135,8 @@ constructor(
         return assignment?.id ?: -1
     }
 
-    fun getStepsById(stepIds: LongArray): List<Step> {
-        val stringIds = DbParseHelper.parseLongArrayToString(stepIds, AppConstants.COMMA)
-        return if (stringIds != null) {
-            stepDao.getAllInRange(DbStructureStep.Column.ID, stringIds)
-        } else {
-            emptyList()
-        }
-    }
+    fun getStepsById(stepIds: LongArray): List<Step> =
+        stepDao.getAllInRange(DbStructureStep.Column.ID, stepIds)
 
     fun getLessonById(lessonId: Long) = lessonDao.get(DbStructureLesson.Columns.ID, lessonId.toString())
 
@@ -153,20 +144,8 @@ constructor(
 
     fun getCourseById(courseId: Long) = courseDao.get(DbStructureCourse.Columns.ID, courseId.toString())
 
-    fun getProgresses(progressIds: List<String>): List<Progress> {
-        //todo change implementation of getAllInRange and escape internally
-        val escapedIds = progressIds
-                .map {
-                    "\"$it\""
-                }
-                .toTypedArray()
-        val range = DbParseHelper.parseStringArrayToString(escapedIds, AppConstants.COMMA)
-        return if (range == null) {
-            emptyList()
-        } else {
-            progressDao.getAllInRange(DbStructureProgress.Columns.ID, range)
-        }
-    }
+    fun getProgresses(progressIds: List<String>): List<Progress> =
+        progressDao.getAllInRange(DbStructureProgress.Columns.ID, progressIds)
 
     fun getUnitsByLessonId(lessonId: Long): List<Unit> =
         unitDao.getAll(DbStructureUnit.Columns.LESSON, lessonId.toString())
@@ -230,15 +209,8 @@ constructor(
         courseDao.removeAll()
     }
 
-    fun getLessonsByIds(lessonIds: LongArray): List<Lesson> {
-        val stringIds = DbParseHelper.parseLongArrayToString(lessonIds, AppConstants.COMMA)
-        return if (stringIds != null) {
-            lessonDao
-                    .getAllInRange(DbStructureLesson.Columns.ID, stringIds)
-        } else {
-            emptyList()
-        }
-    }
+    fun getLessonsByIds(lessonIds: LongArray): List<Lesson> =
+        lessonDao.getAllInRange(DbStructureLesson.Columns.ID, lessonIds)
 
     fun addTimestamp(videoTimestamp: VideoTimestamp) {
         videoTimestampDao.insertOrUpdate(videoTimestamp)
@@ -254,21 +226,11 @@ constructor(
     fun getLocalLastStepById(lastStepId: String?): LastStep? =
             lastStepId?.let { lastStepDao.get(DbStructureLastStep.Columns.ID, it) }
 
-    fun getUnitsByIds(keys: List<Long>): List<Unit> {
-        DbParseHelper.parseLongListToString(keys, AppConstants.COMMA)?.let {
-            return unitDao.getAllInRange(DbStructureUnit.Columns.ID, it)
-        }
-
-        return emptyList()
-    }
+    fun getUnitsByIds(keys: List<Long>): List<Unit> =
+        unitDao.getAllInRange(DbStructureUnit.Columns.ID, keys.toLongArray())
 
-    fun getSectionsByIds(keys: LongArray): List<Section> {
-        DbParseHelper.parseLongArrayToString(keys, AppConstants.COMMA)?.let {
-            return sectionDao.getAllInRange(DbStructureSection.Columns.ID, it)
-        }
-
-        return emptyList()
-    }
+    fun getSectionsByIds(keys: LongArray): List<Section> =
+        sectionDao.getAllInRange(DbStructureSection.Columns.ID, keys)
 
     fun getSearchQueries(constraint: String, count: Int) =
         searchQueryDao.getSearchQueries(constraint, count)
@@ -315,9 +277,7 @@ constructor(
     fun getExpForWeeks(courseId: Long) = adaptiveExpDao.getExpForWeeks(courseId)
 
     fun getSectionDateEvents(vararg sectionIds: Long): List<SectionDateEvent> =
-        DbParseHelper.parseLongArrayToString(sectionIds, AppConstants.COMMA)?.let {
-            sectionDateEventDao.getAllInRange(DbStructureSectionDateEvent.Columns.SECTION_ID, it)
-        } ?: emptyList()
+        sectionDateEventDao.getAllInRange(DbStructureSectionDateEvent.Columns.SECTION_ID, sectionIds)
 
     fun removeSectionDateEvents(vararg sectionIds: Long) =
         DbParseHelper.parseLongArrayToString(sectionIds, AppConstants.COMMA)?.let {
@@ -13,5 +13,10 @@ interface DatabaseOperations {
     fun executeReplace(table: String, values: ContentValues?)
     fun executeReplaceAll(table: String, values: List<ContentValues>)
 
+    /**
+     * Replaces [items] with one compiled REPLACE statement for [table]
+     */
+    fun <T> executeBulkReplace(table: String, binder: StatementBinder<T>, items: List<T>)
+
     fun executeDelete(table: String, whereClause: String?, whereArgs: Array<String>?)
 }
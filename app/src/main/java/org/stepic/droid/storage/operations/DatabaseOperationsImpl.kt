@@ -3,103 +3,77 @@ package org.stepic.droid.storage.operations
 import android.content.ContentValues
 import android.database.sqlite.SQLiteDatabase
 import org.stepic.droid.di.storage.StorageSingleton
-import org.stepic.droid.util.RWLocks
+import java.util.concurrent.ConcurrentHashMap
 import javax.inject.Inject
 
+/**
+ * Database is opened in write-ahead-log mode, so queries run on pooled reader connections without locking.
+ * All writes are serialized through [DatabaseWriter] which groups them into shared transactions.
+ */
 @StorageSingleton
 class DatabaseOperationsImpl
 @Inject
 constructor(private val database: SQLiteDatabase) : DatabaseOperations {
 
-    private fun open() {
-        RWLocks.DatabaseLock.writeLock().lock()
-    }
-
-    private fun close() {
-        RWLocks.DatabaseLock.writeLock().unlock()
-    }
+    private val writer = DatabaseWriter(database)
 
-    private fun openRead() {
-        RWLocks.DatabaseLock.readLock().lock()
-    }
-
-    private fun closeRead() {
-        RWLocks.DatabaseLock.readLock().unlock()
-    }
+    private val bulkReplaceQueries = ConcurrentHashMap<String, String>()
 
     override fun <U> executeQuery(sqlQuery: String?, selectionArgs: Array<String>?, handler: ResultHandler<U>): U {
-        try {
-            openRead()
-            val cursor = database.rawQuery(sqlQuery, selectionArgs)
-            return try {
-                handler.handle(cursor)
-            } finally {
-                cursor.close()
-            }
+        val cursor = database.rawQuery(sqlQuery, selectionArgs)
+        return try {
+            handler.handle(cursor)
         } finally {
-            closeRead()
+            cursor.close()
         }
     }
 
-
     override fun executeSql(sqlQuery: String, args: Array<Any>) {
-        try {
-            open()
-            database.execSQL(sqlQuery, args)
-        } finally {
-            close()
-        }
+        writer.execute { it.execSQL(sqlQuery, args) }
     }
 
     override fun executeUpdate(table: String, values: ContentValues?, whereClause: String?, whereArgs: Array<String>?) {
-        try {
-            open()
-            database.update(table, values, whereClause, whereArgs)
-        } finally {
-            close()
-        }
+        writer.execute { it.update(table, values, whereClause, whereArgs) }
     }
 
     override fun executeInsert(table: String, values: ContentValues?) {
-        try {
-            open()
-            database.insert(table, null, values)
-        } finally {
-            close()
-        }
+        writer.execute { it.insert(table, null, values) }
     }
 
     override fun executeReplace(table: String, values: ContentValues?) {
-        try {
-            open()
-            database.replace(table, null, values)
-        } finally {
-            close()
-        }
+        writer.execute { it.replace(table, null, values) }
     }
 
     override fun executeReplaceAll(table: String, values: List<ContentValues>) {
-        try {
-            open()
-            database.beginTransaction()
-
+        writer.execute { database ->
             values.forEach {
                 database.replace(table, null, it)
             }
-            database.setTransactionSuccessful()
-        } finally {
-            database.endTransaction()
-            close()
         }
     }
 
-    override fun executeDelete(table: String, whereClause: String?, whereArgs: Array<String>?) {
-        try {
-            open()
-            database.delete(table, whereClause, whereArgs)
-        } finally {
-            close()
+    override fun <T> executeBulkReplace(table: String, binder: StatementBinder<T>, items: List<T>) {
+        if (items.isEmpty()) return
+
+        val sql = bulkReplaceQueries.getOrPut(table) {
+            binder.columns.joinToString(prefix = "REPLACE INTO $table (", postfix = ") VALUES (${binder.columns.joinToString { "?" }})")
+        }
+
+        writer.execute { database ->
+            val statement = database.compileStatement(sql)
+            try {
+                items.forEach {
+                    statement.clearBindings()
+                    binder.bind(statement, it)
+                    statement.executeInsert()
+                }
+            } finally {
+                statement.close()
+            }
         }
     }
 
+    override fun executeDelete(table: String, whereClause: String?, whereArgs: Array<String>?) {
+        writer.execute { it.delete(table, whereClause, whereArgs) }
+    }
 }
@@ -0,0 +1,109 @@
+package org.stepic.droid.storage.operations
+
+import android.database.sqlite.SQLiteDatabase
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.LinkedBlockingQueue
+
+/**
+ * Single serialized writer for [database].
+ * Writes from all threads are queued and executed on one dedicated thread,
+ * consecutive queued writes are merged into one group transaction.
+ */
+class DatabaseWriter(
+    private val database: SQLiteDatabase
+) {
+    companion object {
+        private const val THREAD_NAME = "DatabaseWriter"
+        private const val MAX_GROUP_SIZE = 64
+    }
+
+    private val queue = LinkedBlockingQueue<WriteTask>()
+
+    private val writerThread = Thread(::processQueue, THREAD_NAME)
+        .apply {
+            isDaemon = true
+            start()
+        }
+
+    /**
+     * Executes [action] on writer thread and blocks until its group transaction is committed
+     */
+    fun execute(action: (SQLiteDatabase) -> Unit) {
+        if (Thread.currentThread() === writerThread) {
+            action(database)
+            return
+        }
+
+        val task = WriteTask(action)
+        queue.put(task)
+        task.await()
+    }
+
+    private fun processQueue() {
+        val group = ArrayList<WriteTask>(MAX_GROUP_SIZE)
+        while (true) {
+            group.add(queue.take())
+            queue.drainTo(group, MAX_GROUP_SIZE - 1)
+            executeGroup(group)
+            group.clear()
+        }
+    }
+
+    private fun executeGroup(group: List<WriteTask>) {
+        val groupError = runInTransaction { group.forEach { it.action(database) } }
+        when {
+            groupError == null ->
+                group.forEach { it.complete(null) }
+
+            group.size == 1 ->
+                group.first().complete(groupError)
+
+            else -> // replay tasks one by one in order to report error only to failed one
+                group.forEach { task -> task.complete(runInTransaction { task.action(database) }) }
+        }
+    }
+
+    private inline fun runInTransaction(block: () -> Unit): Throwable? =
+        try {
+            database.beginTransactionNonExclusive()
+            try {
+                block()
+                database.setTransactionSuccessful()
+            } finally {
+                database.endTransaction()
+            }
+            null
+        } catch (e: Throwable) {
+            e
+        }
+
+    private class WriteTask(
+        val action: (SQLiteDatabase) -> Unit
+    ) {
+        private val latch = CountDownLatch(1)
+
+        @Volatile
+        private var error: Throwable? = null
+
+        fun complete(error: Throwable?) {
+            this.error = error
+            latch.countDown()
+        }
+
+        fun await() {
+            var isInterrupted = false
+            while (true) {
+                try {
+                    latch.await()
+                    break
+                } catch (e: InterruptedException) {
+                    isInterrupted = true
+                }
+            }
+            if (isInterrupted) {
+                Thread.currentThread().interrupt()
+            }
+            error?.let { throw it }
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package org.stepic.droid.storage.operations
+
+import android.database.sqlite.SQLiteStatement
+
+/**
+ * Binds model fields directly to compiled statement arguments.
+ * Argument at index i + 1 corresponds to [columns][i].
+ */
+interface StatementBinder<T> {
+    val columns: Array<String>
+
+    fun bind(statement: SQLiteStatement, item: T)
+}
@@ -2,5 +2,5 @@ package org.stepic.droid.storage.structure
 
 object DatabaseInfo {
     const val FILE_NAME = "stepic_database.db"
-    const val VERSION = 59
+    const val VERSION = 64
 }
@@ -15,6 +15,10 @@ public final class DbStructureNotification {
         public static final String HTML_TEXT = "html_text";
         public static final String ACTION = "action";
         public static final String COURSE_ID = "course_id";
+        /**
+         * Plain text rendered from {@link #HTML_TEXT}
+         */
+        public static final String TEXT = "text";
 
     }
 }
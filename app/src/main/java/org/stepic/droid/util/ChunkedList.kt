@@ -0,0 +1,106 @@
+package org.stepic.droid.util
+
+import java.util.Arrays
+
+/**
+ * Read only concatenation of lists which shares chunks of concatenated lists instead of copying their elements,
+ * so appending or prepending a page costs O(number of chunks) regardless of the number of elements.
+ * Chunks shouldn't be modified after concatenation.
+ */
+class ChunkedList<E>
+private constructor(
+    private val chunks: List<List<E>>
+) : AbstractList<E>(), RandomAccess {
+    companion object {
+        /**
+         * @return concatenation of [first] and [second], chunks of nested [ChunkedList] and [PagedList] are flattened
+         */
+        fun <E> concat(first: List<E>, second: List<E>): List<E> {
+            val chunks = ArrayList<List<E>>()
+            addChunks(chunks, first)
+            addChunks(chunks, second)
+            return when (chunks.size) {
+                0 -> emptyList()
+                1 -> chunks[0]
+                else -> ChunkedList(chunks)
+            }
+        }
+
+        /**
+         * @return [list] without first [count] elements, whole chunks are dropped without copying
+         */
+        fun <E> drop(list: List<E>, count: Int): List<E> =
+            slice(list, count, list.size)
+
+        /**
+         * @return [list] without last [count] elements, whole chunks are dropped without copying
+         */
+        fun <E> dropLast(list: List<E>, count: Int): List<E> =
+            slice(list, 0, list.size - count)
+
+        private fun <E> slice(list: List<E>, from: Int, to: Int): List<E> {
+            if (from == 0 && to == list.size) {
+                return list
+            }
+            val chunks = ArrayList<List<E>>()
+            addChunks(chunks, list)
+
+            val slicedChunks = ArrayList<List<E>>(chunks.size)
+            var offset = 0
+            for (chunk in chunks) {
+                val start = maxOf(from - offset, 0)
+                val end = minOf(to - offset, chunk.size)
+                if (start < end) {
+                    slicedChunks += if (start == 0 && end == chunk.size) chunk else chunk.subList(start, end)
+                }
+                offset += chunk.size
+            }
+            return when (slicedChunks.size) {
+                0 -> emptyList()
+                1 -> slicedChunks[0]
+                else -> ChunkedList(slicedChunks)
+            }
+        }
+
+        private fun <E> addChunks(chunks: MutableList<List<E>>, list: List<E>) {
+            when {
+                list is ChunkedList ->
+                    chunks.addAll(list.chunks)
+
+                list is PagedList ->
+                    addChunks(chunks, list.list)
+
+                list.isNotEmpty() ->
+                    chunks.add(list)
+            }
+        }
+    }
+
+    /**
+     * offsets[i] is index of the first element of chunks[i]
+     */
+    private val offsets = IntArray(chunks.size)
+
+    override val size: Int
+
+    init {
+        var offset = 0
+        chunks.forEachIndexed { index, chunk ->
+            offsets[index] = offset
+            offset += chunk.size
+        }
+        size = offset
+    }
+
+    override fun get(index: Int): E {
+        if (index < 0 || index >= size) {
+            throw IndexOutOfBoundsException("Index: $index, size: $size")
+        }
+        val position = Arrays.binarySearch(offsets, index)
+        val chunkIndex = if (position >= 0) position else -position - 2
+        return chunks[chunkIndex][index - offsets[chunkIndex]]
+    }
+
+    override fun iterator(): Iterator<E> =
+        chunks.asSequence().flatMap { it.asSequence() }.iterator()
+}
@@ -20,4 +20,28 @@ fun Cursor.getDouble(columnName: String): Double =
     this.getDouble(this.getColumnIndexOrThrow(columnName))
 
 fun Cursor.getDate(columnName: String): Date? =
-    this.getLong(columnName).takeIf { it > -1 }?.let(::Date)
\ No newline at end of file
+    this.getLong(columnName).takeIf { it > -1 }?.let(::Date)
+
+fun Cursor.getBoolean(columnIndex: Int): Boolean =
+    this.getInt(columnIndex) > 0
+
+fun Cursor.getDate(columnIndex: Int): Date? =
+    this.getLong(columnIndex).takeIf { it > -1 }?.let(::Date)
+
+/**
+ * Reads id list column stored with [DbLongArrayCodec] or in legacy [DbParseHelper] string format
+ */
+fun Cursor.getLongArray(columnIndex: Int): LongArray? =
+    when (this.getType(columnIndex)) {
+        Cursor.FIELD_TYPE_BLOB ->
+            DbLongArrayCodec.decode(this.getBlob(columnIndex))
+
+        Cursor.FIELD_TYPE_STRING ->
+            DbParseHelper.parseStringToLongArray(this.getString(columnIndex))
+
+        else ->
+            null
+    }
+
+fun Cursor.getLongArray(columnName: String): LongArray? =
+    this.getLongArray(this.getColumnIndexOrThrow(columnName))
@@ -0,0 +1,92 @@
+package org.stepic.droid.util
+
+/**
+ * Compact BLOB format for id list columns:
+ * format version byte, varint count and zigzag varint deltas between consecutive ids
+ */
+object DbLongArrayCodec {
+    private const val FORMAT_VERSION: Byte = 1
+
+    private const val MAX_VARINT_SIZE = 10
+
+    @JvmStatic
+    fun encode(array: LongArray?): ByteArray? {
+        if (array == null || array.isEmpty()) return null
+
+        val buffer = ByteArray(1 + MAX_VARINT_SIZE * (array.size + 1))
+        buffer[0] = FORMAT_VERSION
+        var position = writeVarint(buffer, 1, array.size.toLong())
+
+        var previous = 0L
+        for (value in array) {
+            val delta = value - previous
+            position = writeVarint(buffer, position, (delta shl 1) xor (delta shr 63))
+            previous = value
+        }
+
+        return buffer.copyOf(position)
+    }
+
+    @JvmStatic
+    fun encode(list: List<Long>?): ByteArray? =
+        encode(list?.toLongArray())
+
+    /**
+     * @return decoded array or null if [bytes] is null, has unknown format or is malformed, e.g. truncated
+     */
+    @JvmStatic
+    fun decode(bytes: ByteArray?): LongArray? {
+        if (bytes == null || bytes.isEmpty() || bytes[0] != FORMAT_VERSION) return null
+
+        val sizeEnd = getVarintEnd(bytes, 1)
+        if (sizeEnd == -1) return null
+        val size = readVarint(bytes, 1, sizeEnd)
+        if (size < 0 || size > bytes.size - sizeEnd) return null // each id takes at least one byte
+
+        val array = LongArray(size.toInt())
+        var position = sizeEnd
+        var previous = 0L
+        for (i in array.indices) {
+            val end = getVarintEnd(bytes, position)
+            if (end == -1) return null
+
+            val zigzag = readVarint(bytes, position, end)
+            previous += (zigzag ushr 1) xor -(zigzag and 1)
+            array[i] = previous
+            position = end
+        }
+        return array.takeIf { position == bytes.size }
+    }
+
+    private fun writeVarint(buffer: ByteArray, offset: Int, value: Long): Int {
+        var position = offset
+        var remaining = value
+        while (remaining and 0x7FL.inv() != 0L) {
+            buffer[position++] = ((remaining and 0x7F) or 0x80).toByte()
+            remaining = remaining ushr 7
+        }
+        buffer[position++] = remaining.toByte()
+        return position
+    }
+
+    /**
+     * @return position after varint that starts at [offset] or -1 if it is not terminated within [bytes] or [MAX_VARINT_SIZE]
+     */
+    private fun getVarintEnd(bytes: ByteArray, offset: Int): Int {
+        val limit = minOf(bytes.size, offset + MAX_VARINT_SIZE)
+        for (position in offset until limit) {
+            if (bytes[position].toInt() and 0x80 == 0) return position + 1
+        }
+        return -1
+    }
+
+    private fun readVarint(bytes: ByteArray, start: Int, end: Int): Long {
+        var value = 0L
+        var shift = 0
+        for (position in start until end) {
+            value = value or ((bytes[position].toInt() and 0x7F).toLong() shl shift)
+            shift += 7
+        }
+        return value
+    }
+}
@@ -1,7 +1,7 @@
 package org.stepic.droid.util
 
 class PagedList<E>(
-    list: List<E>,
+    internal val list: List<E>,
 
     val page: Int = 1,
     val hasNext: Boolean = false,
@@ -22,6 +22,18 @@ inline fun <T, R : Any> PagedList<T>.mapNotNullPaged(transform: (T) -> R?): Page
 operator fun <E> PagedList<E>.plus(pagedList: PagedList<E>): PagedList<E> =
     PagedList(this as List<E> + pagedList, page = pagedList.page, hasNext = pagedList.hasNext, hasPrev = hasPrev)
 
+/**
+ * Appends [pagedList] to the end of this list without copying elements, see [ChunkedList]
+ */
+fun <E> PagedList<E>.appendPage(pagedList: PagedList<E>): PagedList<E> =
+    PagedList(ChunkedList.concat(this, pagedList), page = pagedList.page, hasNext = pagedList.hasNext, hasPrev = hasPrev)
+
+/**
+ * Prepends [pagedList] to the start of this list without copying elements, see [ChunkedList]
+ */
+fun <E> PagedList<E>.prependPage(pagedList: PagedList<E>): PagedList<E> =
+    PagedList(ChunkedList.concat(pagedList, this), page = page, hasNext = hasNext, hasPrev = pagedList.hasPrev)
+
 /**
  * Adds element to the end of paged list and returns it
  */
@@ -0,0 +1,44 @@
+package org.stepic.droid.util
+
+import android.database.sqlite.SQLiteStatement
+import java.util.Date
+
+fun SQLiteStatement.bindStringOrNull(index: Int, value: String?) {
+    if (value != null) {
+        bindString(index, value)
+    } else {
+        bindNull(index)
+    }
+}
+
+fun SQLiteStatement.bindLongOrNull(index: Int, value: Long?) {
+    if (value != null) {
+        bindLong(index, value)
+    } else {
+        bindNull(index)
+    }
+}
+
+fun SQLiteStatement.bindDoubleOrNull(index: Int, value: Double?) {
+    if (value != null) {
+        bindDouble(index, value)
+    } else {
+        bindNull(index)
+    }
+}
+
+fun SQLiteStatement.bindBoolean(index: Int, value: Boolean) {
+    bindLong(index, if (value) 1 else 0)
+}
+
+fun SQLiteStatement.bindDate(index: Int, value: Date?) {
+    bindLong(index, value?.time ?: -1)
+}
+
+fun SQLiteStatement.bindBlobOrNull(index: Int, value: ByteArray?) {
+    if (value != null) {
+        bindBlob(index, value)
+    } else {
+        bindNull(index)
+    }
+}
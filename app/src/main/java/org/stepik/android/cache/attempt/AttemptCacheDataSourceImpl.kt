@@ -23,7 +23,7 @@ constructor(
         Single
             .fromCallable {
                 if (attemptIds.isNotEmpty()) {
-                    attemptDao.getAllInRange(DbStructureAttempt.Columns.ID, attemptIds.joinToString())
+                    attemptDao.getAllInRange(DbStructureAttempt.Columns.ID, attemptIds)
                 } else {
                     attemptDao.getAll()
                 }
@@ -0,0 +1,109 @@
+package org.stepik.android.cache.comment
+
+import com.google.gson.Gson
+import io.reactivex.Completable
+import io.reactivex.Maybe
+import org.stepic.droid.util.AppConstants
+import org.stepic.droid.util.DateTimeHelper
+import org.stepic.droid.util.toObject
+import org.stepik.android.cache.comment.dao.DiscussionCommentsDao
+import org.stepik.android.cache.comment.model.CachedDiscussionComments
+import org.stepik.android.cache.comment.structure.DbStructureDiscussionComments
+import org.stepik.android.data.comment.source.CommentCacheDataSource
+import org.stepik.android.domain.comment.model.CommentsData
+import org.stepik.android.domain.discussion_proxy.model.DiscussionOrder
+import javax.inject.Inject
+
+class CommentCacheDataSourceImpl
+@Inject
+constructor(
+    private val gson: Gson,
+    private val discussionCommentsDao: DiscussionCommentsDao
+) : CommentCacheDataSource {
+    companion object {
+        private const val CACHE_TTL = AppConstants.MILLIS_IN_SEVEN_DAYS
+
+        /**
+         * Only first pages of discussion are cached in order to keep cached row small
+         */
+        private const val MAX_CACHED_COMMENTS = 200
+
+        /**
+         * Guards read-merge-write of cached rows
+         */
+        private val lock = Any()
+    }
+
+    override fun getDiscussionComments(discussionProxy: String, discussionOrder: DiscussionOrder): Maybe<CommentsData> =
+        Maybe.fromCallable {
+            getCachedDiscussionComments(discussionProxy, discussionOrder.name)
+                ?.takeIf { it.updatedAt > DateTimeHelper.nowUtc() - CACHE_TTL }
+                ?.data
+                ?.toObject<CommentsData>(gson)
+        }
+
+    override fun saveDiscussionComments(discussionProxy: String, discussionOrder: DiscussionOrder, commentsData: CommentsData): Completable =
+        Completable.fromAction {
+            synchronized(lock) {
+                val now = DateTimeHelper.nowUtc()
+                discussionCommentsDao.removeUpdatedBefore(now - CACHE_TTL)
+
+                val cachedCommentsData = getCachedDiscussionComments(discussionProxy, discussionOrder.name)
+                    ?.data
+                    ?.toObject<CommentsData>(gson)
+
+                val newCommentsData = cachedCommentsData
+                    ?.let { merge(it, commentsData, appendNew = it.comments.size < MAX_CACHED_COMMENTS) }
+                    ?: commentsData
+
+                discussionCommentsDao.insertOrReplace(
+                    CachedDiscussionComments(discussionProxy, discussionOrder.name, gson.toJson(newCommentsData), now)
+                )
+            }
+        }
+
+    override fun updateDiscussionComments(discussionProxy: String, commentsData: CommentsData): Completable =
+        Completable.fromAction {
+            synchronized(lock) {
+                discussionCommentsDao
+                    .getAll(DbStructureDiscussionComments.Columns.DISCUSSION_PROXY, discussionProxy)
+                    .forEach { cachedDiscussionComments ->
+                        val cachedCommentsData = cachedDiscussionComments.data.toObject<CommentsData>(gson)
+                        val newCommentsData = merge(cachedCommentsData, commentsData, appendNew = false)
+
+                        discussionCommentsDao.insertOrReplace(cachedDiscussionComments.copy(data = gson.toJson(newCommentsData)))
+                    }
+            }
+        }
+
+    private fun getCachedDiscussionComments(discussionProxy: String, discussionOrder: String): CachedDiscussionComments? =
+        discussionCommentsDao
+            .get(DbStructureDiscussionComments.Columns.ID, DbStructureDiscussionComments.getId(discussionProxy, discussionOrder))
+
+    /**
+     * Replaces items of [cached] with items of [update] with the same ids in place,
+     * other items of [update] are appended if [appendNew] is set
+     */
+    private fun merge(cached: CommentsData, update: CommentsData, appendNew: Boolean): CommentsData =
+        CommentsData(
+            comments = merge(cached.comments, update.comments, appendNew) { it.id },
+            users = merge(cached.users, update.users, appendNew) { it.id },
+            votes = merge(cached.votes, update.votes, appendNew) { it.id },
+            attempts = merge(cached.attempts, update.attempts, appendNew) { it.id },
+            submissions = merge(cached.submissions, update.submissions, appendNew) { it.id }
+        )
+
+    private inline fun <T, K> merge(cached: List<T>, update: List<T>, appendNew: Boolean, selector: (T) -> K): List<T> {
+        if (update.isEmpty()) {
+            return cached
+        }
+        val updateById = update.associateBy(selector)
+        val result = cached.map { updateById[selector(it)] ?: it }
+        return if (appendNew) {
+            val cachedIds = cached.mapTo(HashSet(cached.size), selector)
+            result + update.filterNot { selector(it) in cachedIds }
+        } else {
+            result
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package org.stepik.android.cache.comment.dao
+
+import org.stepic.droid.storage.dao.IDao
+import org.stepik.android.cache.comment.model.CachedDiscussionComments
+
+interface DiscussionCommentsDao : IDao<CachedDiscussionComments> {
+    fun removeUpdatedBefore(timestamp: Long)
+}
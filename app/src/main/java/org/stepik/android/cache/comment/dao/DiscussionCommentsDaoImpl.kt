@@ -0,0 +1,45 @@
+package org.stepik.android.cache.comment.dao
+
+import android.content.ContentValues
+import android.database.Cursor
+import org.stepic.droid.storage.dao.DaoBase
+import org.stepic.droid.storage.operations.DatabaseOperations
+import org.stepic.droid.util.getLong
+import org.stepic.droid.util.getString
+import org.stepik.android.cache.comment.model.CachedDiscussionComments
+import org.stepik.android.cache.comment.structure.DbStructureDiscussionComments
+import javax.inject.Inject
+
+class DiscussionCommentsDaoImpl
+@Inject
+constructor(databaseOperations: DatabaseOperations) : DaoBase<CachedDiscussionComments>(databaseOperations), DiscussionCommentsDao {
+    override fun getDbName(): String =
+        DbStructureDiscussionComments.TABLE_NAME
+
+    override fun getDefaultPrimaryColumn(): String =
+        DbStructureDiscussionComments.Columns.ID
+
+    override fun getDefaultPrimaryValue(persistentObject: CachedDiscussionComments): String =
+        DbStructureDiscussionComments.getId(persistentObject.discussionProxy, persistentObject.discussionOrder)
+
+    override fun getContentValues(persistentObject: CachedDiscussionComments): ContentValues =
+        ContentValues(5).apply {
+            put(DbStructureDiscussionComments.Columns.ID, getDefaultPrimaryValue(persistentObject))
+            put(DbStructureDiscussionComments.Columns.DISCUSSION_PROXY, persistentObject.discussionProxy)
+            put(DbStructureDiscussionComments.Columns.DISCUSSION_ORDER, persistentObject.discussionOrder)
+            put(DbStructureDiscussionComments.Columns.DATA, persistentObject.data)
+            put(DbStructureDiscussionComments.Columns.UPDATED_AT, persistentObject.updatedAt)
+        }
+
+    override fun parsePersistentObject(cursor: Cursor): CachedDiscussionComments =
+        CachedDiscussionComments(
+            cursor.getString(DbStructureDiscussionComments.Columns.DISCUSSION_PROXY)!!,
+            cursor.getString(DbStructureDiscussionComments.Columns.DISCUSSION_ORDER)!!,
+            cursor.getString(DbStructureDiscussionComments.Columns.DATA)!!,
+            cursor.getLong(DbStructureDiscussionComments.Columns.UPDATED_AT)
+        )
+
+    override fun removeUpdatedBefore(timestamp: Long) {
+        executeSql("DELETE FROM $dbName WHERE ${DbStructureDiscussionComments.Columns.UPDATED_AT} < ?", arrayOf(timestamp))
+    }
+}
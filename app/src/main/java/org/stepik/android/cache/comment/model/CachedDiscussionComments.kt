@@ -0,0 +1,12 @@
+package org.stepik.android.cache.comment.model
+
+/**
+ * Comments of discussion proxy [discussionProxy] loaded with ordering [discussionOrder]
+ * serialized to [data], [updatedAt] is time of the last remote update in millis
+ */
+data class CachedDiscussionComments(
+    val discussionProxy: String,
+    val discussionOrder: String,
+    val data: String,
+    val updatedAt: Long
+)
@@ -0,0 +1,25 @@
+package org.stepik.android.cache.comment.structure
+
+object DbStructureDiscussionComments {
+    const val TABLE_NAME = "discussion_comments"
+
+    object Columns {
+        const val ID = "id"
+        const val DISCUSSION_PROXY = "discussion_proxy"
+        const val DISCUSSION_ORDER = "discussion_order"
+        const val DATA = "data"
+        const val UPDATED_AT = "updated_at"
+    }
+
+    const val TABLE_SCHEMA =
+        "CREATE TABLE IF NOT EXISTS $TABLE_NAME (" +
+            "${Columns.ID} TEXT PRIMARY KEY," +
+            "${Columns.DISCUSSION_PROXY} TEXT," +
+            "${Columns.DISCUSSION_ORDER} TEXT," +
+            "${Columns.DATA} TEXT," +
+            "${Columns.UPDATED_AT} LONG" +
+        ")"
+
+    fun getId(discussionProxy: String, discussionOrder: String): String =
+        "${discussionProxy}_$discussionOrder"
+}
@@ -15,7 +15,7 @@ constructor(
 ) : CourseReviewSummaryCacheDataSource {
     override fun getCourseReviewSummaries(vararg courseReviewSummaryIds: Long): Single<List<CourseReviewSummary>> =
         Single.fromCallable {
-            courseReviewSummaryDao.getAllInRange(DbStructureCourseReviewSummary.Columns.SUMMARY_ID, courseReviewSummaryIds.joinToString())
+            courseReviewSummaryDao.getAllInRange(DbStructureCourseReviewSummary.Columns.SUMMARY_ID, courseReviewSummaryIds)
         }
 
     override fun saveCourseReviewSummaries(courseReviewSummaries: List<CourseReviewSummary>): Completable =
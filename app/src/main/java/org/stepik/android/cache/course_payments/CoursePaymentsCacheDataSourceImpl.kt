@@ -23,6 +23,13 @@ constructor(
             coursePaymentsDao.getAll(queryParams)
         }
 
+    override fun getCoursePaymentsByCourseIds(courseIds: LongArray, coursePaymentStatus: CoursePayment.Status?): Single<List<CoursePayment>> =
+        Single.fromCallable {
+            coursePaymentsDao
+                .getAllInRange(DbStructureCoursePayments.Columns.COURSE, courseIds)
+                .filter { coursePaymentStatus == null || it.status == coursePaymentStatus }
+        }
+
     override fun saveCoursePayments(coursePayments: List<CoursePayment>): Completable =
         Completable.fromCallable {
             coursePaymentsDao.insertOrReplaceAll(coursePayments)
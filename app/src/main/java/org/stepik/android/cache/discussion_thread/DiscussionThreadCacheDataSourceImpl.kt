@@ -16,7 +16,7 @@ constructor(
     override fun getDiscussionThreads(vararg ids: String): Single<List<DiscussionThread>> =
         Single.fromCallable {
             discussionThreadDao
-                .getAllInRange(DbStructureDiscussionThread.Columns.ID, ids.joinToString())
+                .getAllInRange(DbStructureDiscussionThread.Columns.ID, ids.asList())
         }
 
     override fun saveDiscussionThreads(discussionThreads: List<DiscussionThread>): Completable =
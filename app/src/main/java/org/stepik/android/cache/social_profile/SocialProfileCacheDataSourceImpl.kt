@@ -15,7 +15,7 @@ constructor(
 ) : SocialProfileCacheDataSource {
     override fun getSocialProfiles(vararg socialProfileIds: Long): Single<List<SocialProfile>> =
         Single.fromCallable {
-            socialProfileDao.getAllInRange(DbStructureSocialProfile.Columns.ID, socialProfileIds.joinToString())
+            socialProfileDao.getAllInRange(DbStructureSocialProfile.Columns.ID, socialProfileIds)
         }
 
     override fun saveSocialProfiles(socialProfiles: List<SocialProfile>): Completable =
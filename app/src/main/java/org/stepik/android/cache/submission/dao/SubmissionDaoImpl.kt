@@ -3,10 +3,9 @@ package org.stepik.android.cache.submission.dao
 import android.content.ContentValues
 import android.database.Cursor
 import com.google.gson.GsonBuilder
+import org.stepic.droid.jsonHelpers.adapters.FeedbackAdapterFactory
+import org.stepic.droid.jsonHelpers.adapters.ReplyWrapperAdapterFactory
 import org.stepic.droid.jsonHelpers.adapters.UTCDateAdapter
-import org.stepic.droid.jsonHelpers.deserializers.FeedbackDeserializer
-import org.stepic.droid.jsonHelpers.deserializers.ReplyDeserializer
-import org.stepic.droid.jsonHelpers.serializers.ReplySerializer
 import org.stepic.droid.storage.dao.DaoBase
 import org.stepic.droid.storage.operations.DatabaseOperations
 import org.stepic.droid.util.getInt
@@ -14,9 +13,7 @@ import org.stepic.droid.util.getLong
 import org.stepic.droid.util.getString
 import org.stepic.droid.util.toObject
 import org.stepik.android.cache.submission.structure.DbStructureSubmission
-import org.stepik.android.model.ReplyWrapper
 import org.stepik.android.model.Submission
-import org.stepik.android.model.feedback.Feedback
 import java.util.Date
 import javax.inject.Inject
 
@@ -29,10 +26,9 @@ constructor(
 
     private val gson = GsonBuilder()
         .enableComplexMapKeySerialization()
-        .registerTypeAdapter(ReplyWrapper::class.java, ReplyDeserializer())
-        .registerTypeAdapter(ReplyWrapper::class.java, ReplySerializer())
-        .registerTypeAdapter(Date::class.java, utcDateAdapter)
-        .registerTypeAdapter(Feedback::class.java, FeedbackDeserializer())
+        .registerTypeAdapterFactory(ReplyWrapperAdapterFactory())
+        .registerTypeAdapter(Date::class.java, utcDateAdapter.asTypeAdapter())
+        .registerTypeAdapterFactory(FeedbackAdapterFactory())
         .create()
 
     override fun getDbName(): String =
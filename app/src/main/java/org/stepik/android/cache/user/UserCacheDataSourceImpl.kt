@@ -16,7 +16,7 @@ constructor(
 
     override fun getUsers(vararg userIds: Long): Single<List<User>> =
         Single.fromCallable {
-            userDao.getAllInRange(DbStructureUser.Columns.ID, userIds.joinToString())
+            userDao.getAllInRange(DbStructureUser.Columns.ID, userIds)
         }
 
     override fun saveUsers(users: List<User>): Completable =
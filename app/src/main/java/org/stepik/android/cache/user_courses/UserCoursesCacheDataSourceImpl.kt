@@ -24,6 +24,11 @@ constructor(
             userCourseDao.getAllUserCourses(mapToDbQuery(userCourseQuery))
         }
 
+    override fun getUserCoursesByCourseIds(courseIds: LongArray): Single<List<UserCourse>> =
+        Single.fromCallable {
+            userCourseDao.getAllInRange(DbStructureUserCourse.Columns.COURSE, courseIds)
+        }
+
     override fun saveUserCourses(userCourses: List<UserCourse>): Completable =
         Completable.fromAction {
             userCourseDao.insertOrReplaceAll(userCourses)
@@ -4,6 +4,7 @@ import org.stepik.android.model.Video
 
 interface VideoDao {
     fun get(videoId: Long): Video?
+    fun get(videoIds: LongArray): List<Video>
     fun replace(video: Video)
     fun remove(videoId: Long)
 }
\ No newline at end of file
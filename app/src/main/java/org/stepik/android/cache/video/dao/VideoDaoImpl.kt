@@ -29,6 +29,20 @@ constructor(
             .takeUnless { it.urls.isNullOrEmpty() }
     }
 
+    override fun get(videoIds: LongArray): List<Video> {
+        val videoUrlEntities = videoUrlEntityDao
+            .getAllInRange(VideoUrlDbScheme.Columns.VIDEO_ID, videoIds)
+            .groupBy(VideoUrlEntity::videoId)
+
+        return videoEntityDao
+            .getAllInRange(VideoDbScheme.Columns.ID, videoIds)
+            .mapNotNull { videoEntity ->
+                videoEntityMapper
+                    .entityToVideo(videoEntity, videoUrlEntities[videoEntity.id] ?: emptyList())
+                    .takeUnless { it.urls.isNullOrEmpty() }
+            }
+    }
+
     override fun replace(video: Video) {
         val (videoEntity, videoUrlEntities) =
                 videoEntityMapper.videoToEntity(video)
@@ -1,22 +1,56 @@
 package org.stepik.android.data.comment.repository
 
 import io.reactivex.Completable
+import io.reactivex.Maybe
 import io.reactivex.Single
+import ru.nobird.android.domain.rx.doCompletableOnSuccess
+import org.stepik.android.data.comment.source.CommentCacheDataSource
 import org.stepik.android.data.comment.source.CommentRemoteDataSource
+import org.stepik.android.domain.base.DataSourceType
 import org.stepik.android.domain.comment.model.CommentsData
 import org.stepik.android.domain.comment.repository.CommentRepository
+import org.stepik.android.domain.discussion_proxy.model.DiscussionOrder
 import org.stepik.android.model.comments.Comment
 import javax.inject.Inject
 
 class CommentRepositoryImpl
 @Inject
 constructor(
+    private val commentCacheDataSource: CommentCacheDataSource,
     private val commentRemoteDataSource: CommentRemoteDataSource
 ) : CommentRepository {
     override fun getComments(vararg commentIds: Long): Single<CommentsData> =
         commentRemoteDataSource
             .getComments(*commentIds)
 
+    override fun getDiscussionComments(
+        discussionProxy: String,
+        discussionOrder: DiscussionOrder,
+        commentIds: LongArray,
+        sourceType: DataSourceType
+    ): Maybe<CommentsData> =
+        when (sourceType) {
+            DataSourceType.CACHE ->
+                commentCacheDataSource
+                    .getDiscussionComments(discussionProxy, discussionOrder)
+                    .filter { commentsData ->
+                        val cachedCommentIds = commentsData.comments.mapTo(HashSet()) { it.id }
+                        commentIds.all { it in cachedCommentIds }
+                    }
+
+            DataSourceType.REMOTE ->
+                commentRemoteDataSource
+                    .getComments(*commentIds)
+                    .doCompletableOnSuccess { commentCacheDataSource.saveDiscussionComments(discussionProxy, discussionOrder, it).onErrorComplete() }
+                    .toMaybe()
+
+            else -> throw IllegalArgumentException("Unsupported source type = $sourceType")
+        }
+
+    override fun updateDiscussionComments(discussionProxy: String, commentsData: CommentsData): Completable =
+        commentCacheDataSource
+            .updateDiscussionComments(discussionProxy, commentsData)
+
     override fun createComment(comment: Comment): Single<CommentsData> =
         commentRemoteDataSource
             .createComment(comment)
@@ -28,4 +62,4 @@ constructor(
     override fun removeComment(commentId: Long): Completable =
         commentRemoteDataSource
             .removeComment(commentId)
-}
\ No newline at end of file
+}
@@ -0,0 +1,23 @@
+package org.stepik.android.data.comment.source
+
+import io.reactivex.Completable
+import io.reactivex.Maybe
+import org.stepik.android.domain.comment.model.CommentsData
+import org.stepik.android.domain.discussion_proxy.model.DiscussionOrder
+
+interface CommentCacheDataSource {
+    /**
+     * Returns not expired comments of [discussionProxy] previously loaded with [discussionOrder]
+     */
+    fun getDiscussionComments(discussionProxy: String, discussionOrder: DiscussionOrder): Maybe<CommentsData>
+
+    /**
+     * Merges [commentsData] into comments of [discussionProxy] loaded with [discussionOrder]
+     */
+    fun saveDiscussionComments(discussionProxy: String, discussionOrder: DiscussionOrder, commentsData: CommentsData): Completable
+
+    /**
+     * Replaces already cached comments, users and votes of [discussionProxy] with ones from [commentsData] for all orderings
+     */
+    fun updateDiscussionComments(discussionProxy: String, commentsData: CommentsData): Completable
+}
@@ -1,6 +1,7 @@
 package org.stepik.android.data.course_payments.repository
 
 import io.reactivex.Single
+import io.reactivex.rxkotlin.toObservable
 import org.solovyev.android.checkout.Purchase
 import org.solovyev.android.checkout.Sku
 import org.stepik.android.data.course_payments.source.CoursePaymentsCacheDataSource
@@ -34,4 +35,29 @@ constructor(
             else ->
                 throw IllegalArgumentException("Unsupported source type = $sourceType")
         }
+
+    override fun getCoursePaymentsByCourseIds(vararg courseIds: Long, coursePaymentStatus: CoursePayment.Status?, sourceType: DataSourceType): Single<List<CoursePayment>> =
+        when {
+            courseIds.isEmpty() ->
+                Single.just(emptyList())
+
+            sourceType == DataSourceType.REMOTE ->
+                // remote api filters payments by a single course, so requests are merged and saved to cache at once
+                courseIds
+                    .toObservable()
+                    .flatMapMaybe { courseId ->
+                        coursePaymentsRemoteDataSource
+                            .getCoursePaymentsByCourseId(courseId, coursePaymentStatus)
+                            .filter(List<CoursePayment>::isNotEmpty)
+                    }
+                    .toList()
+                    .map(List<List<CoursePayment>>::flatten)
+                    .doCompletableOnSuccess(coursePaymentsCacheDataSource::saveCoursePayments)
+
+            sourceType == DataSourceType.CACHE ->
+                coursePaymentsCacheDataSource.getCoursePaymentsByCourseIds(courseIds, coursePaymentStatus)
+
+            else ->
+                throw IllegalArgumentException("Unsupported source type = $sourceType")
+        }
 }
\ No newline at end of file
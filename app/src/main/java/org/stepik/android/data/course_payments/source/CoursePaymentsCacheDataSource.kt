@@ -12,5 +12,12 @@ interface CoursePaymentsCacheDataSource {
      */
     fun getCoursePaymentsByCourseId(courseId: Long, coursePaymentStatus: CoursePayment.Status? = null): Single<List<CoursePayment>>
 
+    /**
+     * Return course payments for selected course ids
+     *
+     * @param coursePaymentStatus - course payments status filter, if null no filter will be applied
+     */
+    fun getCoursePaymentsByCourseIds(courseIds: LongArray, coursePaymentStatus: CoursePayment.Status? = null): Single<List<CoursePayment>>
+
     fun saveCoursePayments(coursePayments: List<CoursePayment>): Completable
 }
\ No newline at end of file
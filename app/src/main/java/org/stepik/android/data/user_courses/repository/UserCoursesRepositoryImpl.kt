@@ -3,6 +3,7 @@ package org.stepik.android.data.user_courses.repository
 import io.reactivex.Completable
 import io.reactivex.Maybe
 import io.reactivex.Single
+import io.reactivex.rxkotlin.toObservable
 import org.stepic.droid.util.PagedList
 import ru.nobird.android.domain.rx.doCompletableOnSuccess
 import org.stepik.android.data.user_courses.source.UserCoursesCacheDataSource
@@ -65,6 +66,49 @@ constructor(
         }
     }
 
+    override fun getUserCoursesByCourseIds(vararg courseIds: Long, sourceType: DataSourceType): Single<List<UserCourse>> {
+        if (courseIds.isEmpty()) {
+            return Single.just(emptyList())
+        }
+
+        val cacheSource = userCoursesCacheDataSource
+            .getUserCoursesByCourseIds(courseIds)
+
+        return when (sourceType) {
+            DataSourceType.CACHE ->
+                cacheSource
+                    .flatMap { cachedUserCourses ->
+                        val cachedCourseIds = cachedUserCourses.mapTo(HashSet(), UserCourse::course)
+                        val missingCourseIds = courseIds.filterNot(cachedCourseIds::contains)
+
+                        if (missingCourseIds.isEmpty()) {
+                            Single.just(cachedUserCourses)
+                        } else {
+                            getRemoteUserCoursesByCourseIds(missingCourseIds)
+                                .map { cachedUserCourses + it }
+                        }
+                    }
+
+            DataSourceType.REMOTE ->
+                getRemoteUserCoursesByCourseIds(courseIds.asList())
+                    .onErrorResumeNext(cacheSource)
+        }
+    }
+
+    /**
+     * Remote api filters user courses by a single course, so requests are merged and saved to cache at once
+     */
+    private fun getRemoteUserCoursesByCourseIds(courseIds: List<Long>): Single<List<UserCourse>> =
+        courseIds
+            .toObservable()
+            .flatMapMaybe { courseId ->
+                userCoursesRemoteDataSource
+                    .getUserCourses(UserCourseQuery(course = courseId))
+                    .maybeFirst()
+            }
+            .toList()
+            .doCompletableOnSuccess(userCoursesCacheDataSource::saveUserCourses)
+
     override fun saveUserCourse(userCourse: UserCourse): Single<UserCourse> =
         userCoursesRemoteDataSource
             .saveUserCourse(userCourse.id, userCourse)
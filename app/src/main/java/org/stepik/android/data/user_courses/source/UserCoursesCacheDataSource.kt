@@ -7,6 +7,7 @@ import org.stepik.android.domain.user_courses.model.UserCourse
 
 interface UserCoursesCacheDataSource {
     fun getUserCourses(userCourseQuery: UserCourseQuery): Single<List<UserCourse>>
+    fun getUserCoursesByCourseIds(courseIds: LongArray): Single<List<UserCourse>>
     fun saveUserCourses(userCourses: List<UserCourse>): Completable
     fun removeUserCourse(courseId: Long): Completable
 }
\ No newline at end of file
@@ -1,7 +1,10 @@
 package org.stepik.android.domain.comment.interactor
 
+import io.reactivex.Maybe
+import io.reactivex.Observable
 import io.reactivex.Single
 import org.stepic.droid.util.PagedList
+import org.stepik.android.domain.base.DataSourceType
 import org.stepik.android.domain.base.PaginationDirection
 import org.stepik.android.domain.comment.mapper.CommentsDataMapper
 import org.stepik.android.domain.comment.model.CommentsData
@@ -29,15 +32,18 @@ constructor(
         private const val PAGE_SIZE = 10
     }
 
+    /**
+     * Emits comments from local cache first if all of them are cached and then remote ones
+     */
     fun getComments(
         discussionProxy: DiscussionProxy,
         discussionOrder: DiscussionOrder,
         discussionId: Long?,
         cachedCommentItems: List<CommentItem.Data>
-    ): Single<PagedList<CommentItem.Data>> =
+    ): Observable<PagedList<CommentItem.Data>> =
         Single
             .just(discussionProxy.getOrdering(discussionOrder))
-            .flatMap { orderedCommentIds ->
+            .flatMapObservable { orderedCommentIds ->
                 val index = orderedCommentIds.indexOf(discussionId)
                 val start = max(index - PAGE_SIZE / 2, 0)
                 val end = min(start + PAGE_SIZE, orderedCommentIds.size)
@@ -51,8 +57,22 @@ constructor(
                 val cachedCommentIds = cachedComments
                     .map(CommentItem.Data::id)
 
-                commentRepository
-                    .getComments(*(commentIds - cachedCommentIds).toLongArray())
+                val cacheSource =
+                    if (cachedCommentItems.isEmpty()) {
+                        commentRepository
+                            .getDiscussionComments(discussionProxy.id, discussionOrder, commentIds.toLongArray(), DataSourceType.CACHE)
+                            .onErrorComplete()
+                            .toObservable()
+                    } else {
+                        Observable.empty()
+                    }
+
+                val remoteSource = commentRepository
+                    .getDiscussionComments(discussionProxy.id, discussionOrder, (commentIds - cachedCommentIds).toLongArray(), DataSourceType.REMOTE)
+                    .toObservable()
+
+                Observable
+                    .concat(cacheSource, remoteSource)
                     .map { commentsDataMapper.mapToCommentDataItems(commentIds.toLongArray(), it, discussionId, cachedCommentItems) }
                     .map { comments ->
                         PagedList(comments, hasPrev = start > 0, hasNext = end < orderedCommentIds.size)
@@ -69,7 +89,16 @@ constructor(
             discussionProxy.getOrdering(discussionOrder),
             direction,
             lastCommentId
-        )
+        ) { commentIds ->
+            commentRepository
+                .getDiscussionComments(discussionProxy.id, discussionOrder, commentIds, DataSourceType.REMOTE)
+                .onErrorResumeNext { error: Throwable ->
+                    commentRepository
+                        .getDiscussionComments(discussionProxy.id, discussionOrder, commentIds, DataSourceType.CACHE)
+                        .switchIfEmpty(Maybe.error(error))
+                }
+                .toSingle()
+        }
 
     fun getMoreReplies(
         comment: Comment,
@@ -79,12 +108,15 @@ constructor(
             comment.replies ?: emptyList(),
             PaginationDirection.NEXT,
             lastCommentId
-        )
+        ) { commentIds ->
+            commentRepository.getComments(*commentIds)
+        }
 
-    private fun getMore(
+    private inline fun getMore(
         commentIds: List<Long>,
         direction: PaginationDirection,
-        lastCommentId: Long
+        lastCommentId: Long,
+        loadComments: (LongArray) -> Single<CommentsData>
     ): Single<PagedList<CommentItem.Data>> {
         val index = commentIds
             .indexOf(lastCommentId)
@@ -106,20 +138,25 @@ constructor(
             .subList(start, end)
             .toLongArray()
 
-        return commentRepository
-            .getComments(*slicedCommentIds)
+        return loadComments(slicedCommentIds)
             .map { commentsDataMapper.mapToCommentDataItems(slicedCommentIds, it) }
             .map { comments ->
                 PagedList(comments, hasPrev = start > 0, hasNext = end < commentIds.size)
             }
     }
 
-    fun changeCommentVote(commentId: Long, vote: Vote): Single<CommentItem.Data> =
+    fun changeCommentVote(discussionProxy: String, commentId: Long, vote: Vote): Single<CommentItem.Data> =
         voteRepository
             .saveVote(vote)
             .flatMap {
                 commentRepository
                     .getComments(commentId)
+                    .flatMap { commentsData ->
+                        commentRepository
+                            .updateDiscussionComments(discussionProxy, commentsData)
+                            .onErrorComplete()
+                            .toSingleDefault(commentsData)
+                    }
                     .map { commentsData ->
                         commentsDataMapper
                             .mapToCommentDataItems(longArrayOf(commentId), commentsData)
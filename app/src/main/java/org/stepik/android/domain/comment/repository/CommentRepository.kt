@@ -1,16 +1,35 @@
 package org.stepik.android.domain.comment.repository
 
 import io.reactivex.Completable
+import io.reactivex.Maybe
 import io.reactivex.Single
+import org.stepik.android.domain.base.DataSourceType
 import org.stepik.android.domain.comment.model.CommentsData
+import org.stepik.android.domain.discussion_proxy.model.DiscussionOrder
 import org.stepik.android.model.comments.Comment
 
 interface CommentRepository {
     fun getComments(vararg commentIds: Long): Single<CommentsData>
 
+    /**
+     * Returns comments of discussion proxy with id [discussionProxy] opened with [discussionOrder],
+     * remote comments are stored to cache, cache emits comments only if all of [commentIds] are cached
+     */
+    fun getDiscussionComments(
+        discussionProxy: String,
+        discussionOrder: DiscussionOrder,
+        commentIds: LongArray,
+        sourceType: DataSourceType
+    ): Maybe<CommentsData>
+
+    /**
+     * Updates cached comments of discussion proxy with id [discussionProxy] in place, e.g. after vote
+     */
+    fun updateDiscussionComments(discussionProxy: String, commentsData: CommentsData): Completable
+
     fun createComment(comment: Comment): Single<CommentsData>
 
     fun saveComment(comment: Comment): Single<CommentsData>
 
     fun removeComment(commentId: Long): Completable
-}
\ No newline at end of file
+}
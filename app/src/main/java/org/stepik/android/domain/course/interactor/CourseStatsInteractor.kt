@@ -2,8 +2,8 @@ package org.stepik.android.domain.course.interactor
 
 import io.reactivex.Single
 import io.reactivex.rxkotlin.Singles.zip
-import io.reactivex.rxkotlin.toObservable
 import org.solovyev.android.checkout.ProductTypes
+import org.solovyev.android.checkout.Sku
 import org.stepic.droid.analytic.experiments.InAppPurchaseSplitTest
 import ru.nobird.android.core.model.mapToLongArray
 import org.stepik.android.domain.base.DataSourceType
@@ -16,6 +16,7 @@ import org.stepik.android.domain.course.repository.CourseReviewSummaryRepository
 import org.stepik.android.domain.course_payments.model.CoursePayment
 import org.stepik.android.domain.course_payments.repository.CoursePaymentsRepository
 import org.stepik.android.domain.progress.repository.ProgressRepository
+import org.stepik.android.domain.user_courses.model.UserCourse
 import org.stepik.android.domain.user_courses.repository.UserCoursesRepository
 import org.stepik.android.model.Course
 import org.stepik.android.model.CourseReviewSummary
@@ -74,48 +75,78 @@ constructor(
         progressRepository
             .getProgresses(progressIds = *courses.mapNotNull(Progressable::progress).toTypedArray(), primarySourceType = sourceType)
 
-    private fun resolveCoursesEnrollmentStates(courses: List<Course>, sourceType: DataSourceType, resolveEnrollmentState: Boolean): Single<List<Pair<Long, EnrollmentState>>> =
-        courses
-            .toObservable()
-            .flatMapSingle { resolveCourseEnrollmentState(it, sourceType, resolveEnrollmentState) }
-            .toList()
+    /**
+     * Resolves enrollment states of all [courses] with at most one query to each of
+     * [userCoursesRepository], [coursePaymentsRepository] and [billingRepository]
+     */
+    private fun resolveCoursesEnrollmentStates(courses: List<Course>, sourceType: DataSourceType, resolveEnrollmentState: Boolean): Single<List<Pair<Long, EnrollmentState>>> {
+        val enrolledCourses = courses.filter { it.enrollment > 0 }
+        val paidCourses =
+            if (resolveEnrollmentState) {
+                courses.filter { it.enrollment == 0L && it.isPaid }
+            } else {
+                emptyList()
+            }
+
+        return zip(
+            userCoursesRepository
+                .getUserCoursesByCourseIds(*enrolledCourses.mapToLongArray(Course::id), sourceType = sourceType),
+            resolvePaidCoursesEnrollmentStates(paidCourses, sourceType)
+        ) { userCourses, paidEnrollmentStates ->
+            val userCoursesMap = userCourses.associateBy(UserCourse::course)
 
-    private fun resolveCourseEnrollmentState(course: Course, sourceType: DataSourceType, resolveEnrollmentState: Boolean): Single<Pair<Long, EnrollmentState>> =
-        when {
-            course.enrollment > 0 ->
-                userCoursesRepository
-                    .getUserCourseByCourseId(course.id, sourceType)
-                    .map {
-                        course.id to EnrollmentState.Enrolled(it) as EnrollmentState
+            courses.map { course ->
+                val enrollmentState =
+                    when {
+                        course.enrollment > 0 ->
+                            userCoursesMap[course.id]
+                                ?.let { EnrollmentState.Enrolled(it) }
+                                ?: throw NoSuchElementException("No user course for course = ${course.id}")
+
+                        else ->
+                            paidEnrollmentStates[course.id] ?: EnrollmentState.NotEnrolledFree
                     }
-                    .toSingle()
+                course.id to enrollmentState
+            }
+        }
+    }
 
-            !course.isPaid ->
-                Single.just(course.id to EnrollmentState.NotEnrolledFree)
+    /**
+     * Courses with successful payments are treated as free, others are available via in-app purchase if it's active
+     */
+    private fun resolvePaidCoursesEnrollmentStates(courses: List<Course>, sourceType: DataSourceType): Single<Map<Long, EnrollmentState>> {
+        if (courses.isEmpty()) {
+            return Single.just(emptyMap())
+        }
 
-            resolveEnrollmentState ->
-                coursePaymentsRepository
-                    .getCoursePaymentsByCourseId(course.id, coursePaymentStatus = CoursePayment.Status.SUCCESS, sourceType = sourceType)
-                    .flatMap { payments ->
-                        if (payments.isEmpty()) {
-                            if (inAppPurchaseSplitTest.currentGroup.isInAppPurchaseActive) {
-                                billingRepository
-                                    .getInventory(ProductTypes.IN_APP, COURSE_TIER_PREFIX + course.priceTier)
-                                    .map(::SkuSerializableWrapper)
-                                    .map(EnrollmentState::NotEnrolledInApp)
-                                    .cast(EnrollmentState::class.java)
-                                    .toSingle(EnrollmentState.NotEnrolledWeb)
-                                    .map { course.id to it }
+        return coursePaymentsRepository
+            .getCoursePaymentsByCourseIds(*courses.mapToLongArray(Course::id), coursePaymentStatus = CoursePayment.Status.SUCCESS, sourceType = sourceType)
+            .flatMap { payments ->
+                val paidCourseIds = payments.mapTo(HashSet(), CoursePayment::course)
+                val notPaidCourses = courses.filterNot { it.id in paidCourseIds }
+
+                resolveSkus(notPaidCourses)
+                    .onErrorReturnItem(emptyMap()) // if billing not supported on current device
+                    .map { skus ->
+                        courses.associateBy(Course::id) { course ->
+                            if (course.id in paidCourseIds) {
+                                EnrollmentState.NotEnrolledFree
                             } else {
-                                Single.just(course.id to EnrollmentState.NotEnrolledWeb)
+                                skus[COURSE_TIER_PREFIX + course.priceTier]
+                                    ?.let { EnrollmentState.NotEnrolledInApp(SkuSerializableWrapper(it)) }
+                                    ?: EnrollmentState.NotEnrolledWeb
                             }
-                        } else {
-                            Single.just(course.id to EnrollmentState.NotEnrolledFree)
                         }
                     }
-                    .onErrorReturnItem(course.id to EnrollmentState.NotEnrolledWeb) // if billing not supported on current device or to access paid course offline
+            }
+            .onErrorReturn { courses.associateBy(Course::id) { EnrollmentState.NotEnrolledWeb } } // to access paid course offline
+    }
 
-            else ->
-                Single.just(course.id to EnrollmentState.NotEnrolledFree)
+    private fun resolveSkus(courses: List<Course>): Single<Map<String, Sku>> =
+        if (courses.isNotEmpty() && inAppPurchaseSplitTest.currentGroup.isInAppPurchaseActive) {
+            billingRepository
+                .getInventoryBySkuIds(ProductTypes.IN_APP, courses.mapTo(HashSet()) { COURSE_TIER_PREFIX + it.priceTier })
+        } else {
+            Single.just(emptyMap())
         }
-}
\ No newline at end of file
+}
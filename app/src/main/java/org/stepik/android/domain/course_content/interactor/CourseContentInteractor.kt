@@ -3,10 +3,8 @@ package org.stepik.android.domain.course_content.interactor
 import com.google.firebase.perf.FirebasePerformance
 import io.reactivex.Observable
 import io.reactivex.Single
-import io.reactivex.rxkotlin.Observables
 import io.reactivex.rxkotlin.toObservable
 import io.reactivex.schedulers.Schedulers
-import io.reactivex.subjects.PublishSubject
 import org.stepic.droid.analytic.AmplitudeAnalytic
 import org.stepic.droid.analytic.Analytic
 import ru.nobird.android.core.model.mapToLongArray
@@ -18,10 +16,13 @@ import org.stepik.android.domain.progress.repository.ProgressRepository
 import org.stepik.android.domain.section.repository.SectionRepository
 import org.stepik.android.domain.unit.repository.UnitRepository
 import org.stepik.android.model.Course
+import org.stepik.android.model.Lesson
+import org.stepik.android.model.Progress
 import org.stepik.android.model.Section
 import org.stepik.android.model.Unit
 import org.stepik.android.presentation.course_content.mapper.CourseContentItemMapper
 import org.stepik.android.view.course_content.model.CourseContentItem
+import java.util.concurrent.TimeUnit
 import java.util.concurrent.atomic.AtomicInteger
 import javax.inject.Inject
 
@@ -38,6 +39,10 @@ constructor(
 ) {
     companion object {
         private const val UNITS_CHUNK_SIZE = 10
+        private const val UNITS_CHUNKS_CONCURRENCY = 4
+
+        private const val PROGRESSES_BATCH_CHUNKS = 5
+        private const val PROGRESSES_BATCH_TIMEOUT_MS = 300L
     }
 
     fun getCourseContent(shouldSkipStoredValue: Boolean = false): Observable<Pair<Course, List<CourseContentItem>>> {
@@ -103,52 +108,89 @@ constructor(
 
     private fun loadUnits(course: Course, items: List<CourseContentItem>, dataSourceType: DataSourceType): Observable<Pair<Course, List<CourseContentItem>>> =
         Observable
-            .fromCallable { courseContentItemMapper.getUnitPlaceholdersIds(items) }
-            .flatMap { unitIds ->
-                val subject = PublishSubject.create<Array<String>>()
-
-                val unitsSource = unitIds
+            .fromCallable { courseContentItemMapper.getUnitIndices(items) }
+            .flatMap { unitIndices ->
+                val sectionItems = items
+                    .filterIsInstance<CourseContentItem.SectionItem>()
+                    .associateBy { it.section.id }
+
+                // both maps are accessed only from scan
+                val progresses = HashMap<String, Progress>()
+                val progressIndices = HashMap<String, Int>()
+                items.forEachIndexed { index, item ->
+                    (item as? CourseContentItem.UnitItem)?.unit?.progress?.let { progressIndices[it] = index }
+                }
+
+                unitIndices
+                    .keys
                     .chunked(UNITS_CHUNK_SIZE)
                     .toObservable()
-                    .concatMapSingle { ids ->
-                        getUnits(ids.toLongArray(), dataSourceType)
-                            .flatMap { units ->
-                                lessonRepository
-                                    .getLessons(*units.mapToLongArray(Unit::lesson), primarySourceType = dataSourceType)
-                                    .map { units to it }
-                                    .doOnSuccess { subject.onNext(units.getProgresses()) }
-                            }
-                    }
-
-                val progressesSource =
-                    if (dataSourceType == DataSourceType.CACHE) {
-                        Observable.just(emptyList())
-                    } else {
-                        Observable.concat(
-                            Observable.just(emptyList()),
-                            subject
-                                .observeOn(Schedulers.io())
-                                .flatMapSingle { progressIds ->
-                                    progressRepository.getProgresses(*progressIds)
-                                }
+                    .flatMap({ ids ->
+                        getUnitsWithLessons(ids.toLongArray(), dataSourceType)
+                            .subscribeOn(Schedulers.io())
+                            .toObservable()
+                    }, UNITS_CHUNKS_CONCURRENCY)
+                    .publish { unitsSource ->
+                        Observable.merge(
+                            unitsSource.map { (units, lessons) -> ContentUpdate.Units(units, lessons) },
+                            getProgressesOfUnits(unitsSource, dataSourceType).map { ContentUpdate.Progresses(it) }
                         )
                     }
+                    .scan(items) { newItems, update ->
+                        when (update) {
+                            is ContentUpdate.Units -> {
+                                val unitItems = courseContentItemMapper.mapUnits(course, sectionItems, update.units, update.lessons, progresses)
+                                unitItems.forEach { unitItem ->
+                                    val index = unitIndices[unitItem.unit.id]
+                                    val progressId = unitItem.unit.progress
+                                    if (index != null && progressId != null) {
+                                        progressIndices[progressId] = index
+                                    }
+                                }
+                                courseContentItemMapper.replaceUnits(newItems, unitItems, unitIndices)
+                            }
 
-                Observables
-                    .combineLatest(progressesSource, unitsSource) { progresses, (units, lessons) ->
-                        Triple(units, lessons, progresses)
-                    }
-                    .scan(items) { newItems, (units, lessons, progresses) ->
-                        val sectionItems = newItems
-                            .filterIsInstance<CourseContentItem.SectionItem>()
-                        val unitItems = courseContentItemMapper.mapUnits(course, sectionItems, units, lessons, progresses)
-
-                        courseContentItemMapper.replaceUnits(newItems, unitItems, progresses)
+                            is ContentUpdate.Progresses -> {
+                                update.progresses.forEach { progress -> progress.id?.let { progresses[it] = progress } }
+                                courseContentItemMapper.replaceProgresses(newItems, update.progresses, progressIndices)
+                            }
+                        }
                     }
             }
             .map { course to it }
 
+    /**
+     * Coalesces progresses of several loaded chunks of units into a single request
+     */
+    private fun getProgressesOfUnits(unitsSource: Observable<Pair<List<Unit>, List<Lesson>>>, dataSourceType: DataSourceType): Observable<List<Progress>> =
+        if (dataSourceType == DataSourceType.CACHE) {
+            Observable.empty()
+        } else {
+            unitsSource
+                .buffer(PROGRESSES_BATCH_TIMEOUT_MS, TimeUnit.MILLISECONDS, PROGRESSES_BATCH_CHUNKS)
+                .map { chunks -> chunks.flatMap { (units, _) -> units.getProgresses().asIterable() } }
+                .filter { it.isNotEmpty() }
+                .flatMapSingle { progressIds ->
+                    progressRepository
+                        .getProgresses(*progressIds.toTypedArray())
+                        .subscribeOn(Schedulers.io())
+                }
+        }
+
+    private fun getUnitsWithLessons(unitIds: LongArray, dataSourceType: DataSourceType): Single<Pair<List<Unit>, List<Lesson>>> =
+        getUnits(unitIds, dataSourceType)
+            .flatMap { units ->
+                lessonRepository
+                    .getLessons(*units.mapToLongArray(Unit::lesson), primarySourceType = dataSourceType)
+                    .map { units to it }
+            }
+
     private fun getUnits(unitIds: LongArray, dataSourceType: DataSourceType): Single<List<Unit>> =
         unitRepository
             .getUnits(*unitIds, primarySourceType = dataSourceType)
-}
\ No newline at end of file
+}
+
+private sealed class ContentUpdate {
+    class Units(val units: List<Unit>, val lessons: List<Lesson>) : ContentUpdate()
+    class Progresses(val progresses: List<Progress>) : ContentUpdate()
+}
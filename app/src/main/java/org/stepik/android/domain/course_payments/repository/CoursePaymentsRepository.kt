@@ -15,4 +15,11 @@ interface CoursePaymentsRepository {
      * @param coursePaymentStatus - course payments status filter, if null no filter will be applied
      */
     fun getCoursePaymentsByCourseId(courseId: Long, coursePaymentStatus: CoursePayment.Status? = null, sourceType: DataSourceType = DataSourceType.CACHE): Single<List<CoursePayment>>
+
+    /**
+     * Return course payments for selected course ids, cached payments are resolved with a single query
+     *
+     * @param coursePaymentStatus - course payments status filter, if null no filter will be applied
+     */
+    fun getCoursePaymentsByCourseIds(vararg courseIds: Long, coursePaymentStatus: CoursePayment.Status? = null, sourceType: DataSourceType = DataSourceType.CACHE): Single<List<CoursePayment>>
 }
\ No newline at end of file
@@ -11,6 +11,12 @@ import org.stepik.android.domain.user_courses.model.UserCourse
 interface UserCoursesRepository {
     fun getUserCourses(userCourseQuery: UserCourseQuery = UserCourseQuery(page = 1, isArchived = false), sourceType: DataSourceType = DataSourceType.CACHE): Single<PagedList<UserCourse>>
     fun getUserCourseByCourseId(courseId: Long, sourceType: DataSourceType = DataSourceType.CACHE): Maybe<UserCourse>
+
+    /**
+     * Returns user courses of [courseIds] resolved with a single cache query,
+     * only user courses missing in cache are requested remotely
+     */
+    fun getUserCoursesByCourseIds(vararg courseIds: Long, sourceType: DataSourceType = DataSourceType.CACHE): Single<List<UserCourse>>
     fun saveUserCourse(userCourse: UserCourse): Single<UserCourse>
 
     /***
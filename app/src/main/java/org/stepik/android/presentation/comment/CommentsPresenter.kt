@@ -107,18 +107,27 @@ constructor(
 
             val newState = CommentsView.State.DiscussionLoaded(isGuest, discussionProxy, discussionOrder, discussionId, CommentsView.CommentsState.Loading)
             state = newState
+            var isCommentsLoaded = false
             compositeDisposable += commentInteractor
                 .getComments(discussionProxy, discussionOrder, discussionId, cachedComments)
                 .observeOn(mainScheduler)
                 .subscribeOn(backgroundScheduler)
                 .subscribeBy(
-                    onSuccess = {
+                    onNext = {
                         state = newState.copy(commentsState = CommentsView.CommentsState.Loaded(it, commentsStateMapper.mapCommentDataItemsToRawItems(it)))
-                        if (discussionId != null) {
+                        if (discussionId != null && !isCommentsLoaded) {
                             view?.focusDiscussion(discussionId)
                         }
+                        isCommentsLoaded = true
                     },
-                    onError = { state = CommentsView.State.NetworkError }
+                    onError = {
+                        // cached comments stay on screen if remote ones can't be loaded
+                        if (isCommentsLoaded) {
+                            view?.showNetworkError()
+                        } else {
+                            state = CommentsView.State.NetworkError
+                        }
+                    }
                 )
         }
     }
@@ -224,7 +233,7 @@ constructor(
 
         state = oldState.copy(commentsState = commentsStateMapper.mapToVotePending(commentsState, commentDataItem))
         compositeDisposable += commentInteractor
-            .changeCommentVote(commentDataItem.id, newVote)
+            .changeCommentVote(oldState.discussionProxy.id, commentDataItem.id, newVote)
             .observeOn(mainScheduler)
             .subscribeOn(backgroundScheduler)
             .subscribeBy(
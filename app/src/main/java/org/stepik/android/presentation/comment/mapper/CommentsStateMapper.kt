@@ -1,9 +1,11 @@
 package org.stepik.android.presentation.comment.mapper
 
+import org.stepic.droid.util.ChunkedList
 import org.stepic.droid.util.PagedList
+import org.stepic.droid.util.appendPage
 import org.stepic.droid.util.filterNot
 import org.stepic.droid.util.mapPaged
-import org.stepic.droid.util.plus
+import org.stepic.droid.util.prependPage
 import org.stepic.droid.util.transform
 import org.stepik.android.domain.base.PaginationDirection
 import org.stepik.android.model.comments.Vote
@@ -50,10 +52,10 @@ constructor() {
     fun mapToLoadMoreState(commentsState: CommentsView.CommentsState.Loaded, direction: PaginationDirection): CommentsView.CommentsState =
         when (direction) {
             PaginationDirection.PREV ->
-                commentsState.copy(commentItems = listOf(CommentItem.Placeholder) + commentsState.commentItems)
+                commentsState.copy(commentItems = ChunkedList.concat(listOf(CommentItem.Placeholder), commentsState.commentItems))
 
             PaginationDirection.NEXT ->
-                commentsState.copy(commentItems = commentsState.commentItems + CommentItem.Placeholder)
+                commentsState.copy(commentItems = ChunkedList.concat(commentsState.commentItems, listOf(CommentItem.Placeholder)))
         }
 
     /**
@@ -71,10 +73,12 @@ constructor() {
         val (newDataItems: PagedList<CommentItem.Data>, newItems) =
             when (direction) {
                 PaginationDirection.PREV ->
-                    items + commentsState.commentDataItems to rawItems + commentsState.commentItems.dropWhile(CommentItem.Placeholder::equals)
+                    commentsState.commentDataItems.prependPage(items) to
+                            ChunkedList.concat(rawItems, dropPlaceholders(commentsState.commentItems, direction))
 
                 PaginationDirection.NEXT ->
-                    commentsState.commentDataItems + items to commentsState.commentItems.dropLastWhile(CommentItem.Placeholder::equals) + rawItems
+                    commentsState.commentDataItems.appendPage(items) to
+                            ChunkedList.concat(dropPlaceholders(commentsState.commentItems, direction), rawItems)
             }
 
         return state.copy(commentsState = commentsState.copy(commentDataItems = newDataItems, commentItems = newItems))
@@ -89,18 +93,23 @@ constructor() {
             return state
         }
 
-        val newItems =
-            when (direction) {
-                PaginationDirection.PREV ->
-                    state.commentsState.commentItems.dropWhile(CommentItem.Placeholder::equals)
-
-                PaginationDirection.NEXT ->
-                    state.commentsState.commentItems.dropLastWhile(CommentItem.Placeholder::equals)
-            }
+        val newItems = dropPlaceholders(state.commentsState.commentItems, direction)
 
         return state.copy(commentsState = state.commentsState.copy(commentItems = newItems))
     }
 
+    /**
+     * Removes pagination placeholders from the [direction] side of [commentItems] keeping rest of chunks shared
+     */
+    private fun dropPlaceholders(commentItems: List<CommentItem>, direction: PaginationDirection): List<CommentItem> =
+        when (direction) {
+            PaginationDirection.PREV ->
+                ChunkedList.drop(commentItems, commentItems.indexOfFirst { it != CommentItem.Placeholder }.takeIf { it >= 0 } ?: commentItems.size)
+
+            PaginationDirection.NEXT ->
+                ChunkedList.dropLast(commentItems, commentItems.size - 1 - commentItems.indexOfLast { it != CommentItem.Placeholder })
+        }
+
     /**
      * stable state -> replies loading
      */
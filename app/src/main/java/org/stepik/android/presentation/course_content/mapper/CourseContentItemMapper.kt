@@ -52,11 +52,12 @@ constructor(
             null
         }
 
-    fun mapUnits(course: Course, sectionItems: List<CourseContentItem.SectionItem>, units: List<Unit>, lessons: List<Lesson>, progresses: List<Progress>): List<CourseContentItem.UnitItem> =
-        units.mapNotNull { unit ->
-            val sectionItem = sectionItems.find { it.section.id == unit.section } ?: return@mapNotNull null
-            val lesson = lessons.find { it.id == unit.lesson } ?: return@mapNotNull null
-            val progress = progresses.find { it.id == unit.progress }
+    fun mapUnits(course: Course, sectionItems: Map<Long, CourseContentItem.SectionItem>, units: List<Unit>, lessons: List<Lesson>, progresses: Map<String, Progress>): List<CourseContentItem.UnitItem> {
+        val lessonsById = lessons.associateBy(Lesson::id)
+        return units.mapNotNull { unit ->
+            val sectionItem = sectionItems[unit.section] ?: return@mapNotNull null
+            val lesson = lessonsById[unit.lesson] ?: return@mapNotNull null
+            val progress = unit.progress?.let(progresses::get)
             CourseContentItem.UnitItem(
                 sectionItem.section, unit, lesson, progress,
                 access =
@@ -71,27 +72,47 @@ constructor(
                     }
             )
         }
+    }
 
-    fun replaceUnits(items: List<CourseContentItem>, unitItems: List<CourseContentItem.UnitItem>, progresses: List<Progress>): List<CourseContentItem> =
-        items.map { item ->
+    /**
+     * Replaces items at [unitIndices] of units from [unitItems], other items are kept as is
+     */
+    fun replaceUnits(items: List<CourseContentItem>, unitItems: List<CourseContentItem.UnitItem>, unitIndices: Map<Long, Int>): List<CourseContentItem> {
+        val newItems = ArrayList(items)
+        unitItems.forEach { unitItem ->
+            val index = unitIndices[unitItem.unit.id] ?: return@forEach
+            newItems[index] = unitItem
+        }
+        return newItems
+    }
+
+    /**
+     * Updates progress of unit items at [progressIndices], other items are kept as is
+     */
+    fun replaceProgresses(items: List<CourseContentItem>, progresses: List<Progress>, progressIndices: Map<String, Int>): List<CourseContentItem> {
+        val newItems = ArrayList(items)
+        progresses.forEach { progress ->
+            val index = progress.id?.let(progressIndices::get) ?: return@forEach
+            val unitItem = newItems[index] as? CourseContentItem.UnitItem ?: return@forEach
+            newItems[index] = unitItem.copy(progress = progress)
+        }
+        return newItems
+    }
+
+    /**
+     * @return indices of units and unit placeholders by unit id in order of [items]
+     */
+    fun getUnitIndices(items: List<CourseContentItem>): Map<Long, Int> {
+        val unitIndices = LinkedHashMap<Long, Int>()
+        items.forEachIndexed { index, item ->
             when (item) {
                 is CourseContentItem.UnitItem ->
-                    unitItems
-                        .find { unitItem -> item.unit.id == unitItem.unit.id  }
-                        ?: item.copy(progress = progresses.find { it.id == item.unit.progress } ?: item.progress)
+                    unitIndices[item.unit.id] = index
 
                 is CourseContentItem.UnitItemPlaceholder ->
-                    unitItems
-                        .find { unitItem -> item.unitId == unitItem.unit.id }
-                        ?: item
-
-                else ->
-                    item
+                    unitIndices[item.unitId] = index
             }
         }
-
-    fun getUnitPlaceholdersIds(items: List<CourseContentItem>): List<Long> =
-        items
-            .filterIsInstance<CourseContentItem.SectionItem>()
-            .fold(emptyList()) { acc, sectionItem -> acc + sectionItem.section.units }
-}
\ No newline at end of file
+        return unitIndices
+    }
+}
@@ -1,26 +1,50 @@
 package org.stepik.android.remote.base
 
+import io.reactivex.Flowable
+import io.reactivex.Observable
 import io.reactivex.Single
+import io.reactivex.schedulers.Schedulers
 import org.stepic.droid.util.PagedList
-import org.stepic.droid.util.concatWithPagedList
 import org.stepik.android.remote.base.mapper.toPagedList
 import org.stepik.android.remote.base.model.MetaResponse
 
 const val CHUNK_SIZE = 100
 
-inline fun <R> LongArray.chunkedSingleMap(chuckSize: Int = CHUNK_SIZE, mapper: (LongArray) -> Single<List<R>>): Single<List<R>> =
+/**
+ * Max amount of chunk requests executed at the same time
+ */
+const val CHUNK_PARALLELISM = 4
+
+inline fun <R> LongArray.chunkedSingleMap(chuckSize: Int = CHUNK_SIZE, parallelism: Int = CHUNK_PARALLELISM, mapper: (LongArray) -> Single<List<R>>): Single<List<R>> =
     asIterable()
         .chunked(chuckSize)
         .map { mapper(it.toLongArray()) }
-        .let { Single.concat(it) }
-        .reduce(emptyList()) { a, b -> a + b }
+        .concatChunks(expectedSize = size, parallelism = parallelism)
 
-inline fun <reified T, R> Array<out T>.chunkedSingleMap(chuckSize: Int = CHUNK_SIZE, mapper: (Array<T>) -> Single<List<R>>): Single<List<R>> =
+inline fun <reified T, R> Array<out T>.chunkedSingleMap(chuckSize: Int = CHUNK_SIZE, parallelism: Int = CHUNK_PARALLELISM, mapper: (Array<T>) -> Single<List<R>>): Single<List<R>> =
     asIterable()
         .chunked(chuckSize)
         .map { mapper(it.toTypedArray()) }
-        .let { Single.concat(it) }
-        .reduce(emptyList()) { a, b -> a + b }
+        .concatChunks(expectedSize = size, parallelism = parallelism)
+
+/**
+ * Runs up to [parallelism] chunk requests concurrently
+ * and collects their results in original order into one list presized with [expectedSize]
+ */
+fun <R> List<Single<List<R>>>.concatChunks(expectedSize: Int, parallelism: Int): Single<List<R>> {
+    val chunks =
+        if (size > 1 && parallelism > 1) {
+            Flowable
+                .fromIterable(this)
+                .concatMapEager({ it.toFlowable().subscribeOn(Schedulers.io()) }, parallelism, 1)
+        } else {
+            Single.concat(this)
+        }
+
+    return chunks
+        .collect({ ArrayList<R>(expectedSize) }, { items, chunk -> items.addAll(chunk) })
+        .map<List<R>> { it }
+}
 
 /**
  * Downloads all pages until Meta::hasNext is true starting from [page]
@@ -29,16 +53,32 @@ inline fun <reified T, R> Array<out T>.chunkedSingleMap(chuckSize: Int = CHUNK_S
  * [sourceFactory] - factory of requests
  * [mapper] - mapper for request result
  *
+ * Request of page N + 1 is started as soon as page N is received, while page N is mapped on computation scheduler
+ *
  * @return concatenated [PagedList] of data from all requests with last page information
  */
 fun <T, R : MetaResponse> concatAllPages(page: Int = 1, sourceFactory: (page: Int) -> Single<R>, mapper: (R) -> List<T>): Single<PagedList<T>> =
+    loadAllPages(page, sourceFactory)
+        .observeOn(Schedulers.computation())
+        .map { it.toPagedList(mapper) }
+        .toList()
+        .map { pages ->
+            val items = ArrayList<T>(pages.sumBy { it.size })
+            pages.forEach { items.addAll(it) }
+
+            val lastPage = pages.last()
+            PagedList(items, page = lastPage.page, hasNext = lastPage.hasNext, hasPrev = lastPage.hasPrev)
+        }
+
+private fun <R : MetaResponse> loadAllPages(page: Int, sourceFactory: (page: Int) -> Single<R>): Observable<R> =
     sourceFactory(page)
-        .flatMap { response ->
-            val items = response.toPagedList(mapper)
+        .toObservable()
+        .concatMap { response ->
             if (response.meta.hasNext) {
-                concatAllPages(page + 1, sourceFactory, mapper)
-                    .map { items.concatWithPagedList(it) }
+                Observable
+                    .just(response)
+                    .concatWith(Observable.defer { loadAllPages(page + 1, sourceFactory) })
             } else {
-                Single.just(items)
+                Observable.just(response)
             }
-        }
\ No newline at end of file
+        }
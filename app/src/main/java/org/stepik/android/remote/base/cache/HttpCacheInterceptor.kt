@@ -0,0 +1,40 @@
+package org.stepik.android.remote.base.cache
+
+import okhttp3.Interceptor
+import okhttp3.Response
+import javax.inject.Inject
+
+/**
+ * Network interceptor that replaces caching headers of api responses with [HttpCachePolicy] freshness,
+ * so stale entries are revalidated by OkHttp with If-None-Match / If-Modified-Since requests
+ */
+class HttpCacheInterceptor
+@Inject
+constructor() : Interceptor {
+    companion object {
+        private const val HEADER_CACHE_CONTROL = "Cache-Control"
+        private const val HEADER_PRAGMA = "Pragma"
+        private const val HEADER_EXPIRES = "Expires"
+
+        private const val METHOD_GET = "GET"
+    }
+
+    override fun intercept(chain: Interceptor.Chain): Response {
+        val request = chain.request()
+        val response = chain.proceed(request)
+
+        if (request.method() != METHOD_GET || !response.isSuccessful) {
+            return response
+        }
+
+        val maxAge = HttpCachePolicy.getMaxAge(request.url().encodedPath())
+            ?: return response
+
+        return response
+            .newBuilder()
+            .removeHeader(HEADER_PRAGMA)
+            .removeHeader(HEADER_EXPIRES)
+            .header(HEADER_CACHE_CONTROL, "private, max-age=$maxAge")
+            .build()
+    }
+}
@@ -0,0 +1,31 @@
+package org.stepik.android.remote.base.cache
+
+import java.util.concurrent.TimeUnit
+
+/**
+ * Freshness lifetimes of cacheable api endpoints.
+ * Zero lifetime means that cached response is always revalidated with conditional request before use.
+ */
+object HttpCachePolicy {
+    const val CACHE_DIRECTORY = "http_cache"
+    const val CACHE_SIZE_BYTES = 20L * 1024 * 1024
+
+    private val endpointMaxAge: Map<String, Long> =
+        mapOf(
+            "api/courses" to 0L,
+            "api/sections" to 0L,
+            "api/lessons" to TimeUnit.MINUTES.toSeconds(1),
+            "api/steps" to TimeUnit.MINUTES.toSeconds(1),
+            "api/users" to TimeUnit.MINUTES.toSeconds(5)
+        )
+
+    /**
+     * Returns max-age in seconds for given url path or null if endpoint shouldn't be cached
+     */
+    fun getMaxAge(encodedPath: String): Long? {
+        val path = encodedPath.trim('/')
+        return endpointMaxAge.entries
+            .find { (endpoint, _) -> path == endpoint || path.startsWith("$endpoint/") }
+            ?.value
+    }
+}
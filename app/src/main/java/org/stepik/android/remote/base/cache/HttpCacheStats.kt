@@ -0,0 +1,57 @@
+package org.stepik.android.remote.base.cache
+
+import okhttp3.Interceptor
+import okhttp3.Response
+import org.stepic.droid.di.AppSingleton
+import java.net.HttpURLConnection
+import java.util.concurrent.atomic.AtomicLong
+import javax.inject.Inject
+
+/**
+ * Counts how responses of [HttpCachePolicy] endpoints were served: from cache, from network or by conditional revalidation
+ */
+@AppSingleton
+class HttpCacheStats
+@Inject
+constructor() : Interceptor {
+    private val hits = AtomicLong()
+    private val misses = AtomicLong()
+    private val revalidations = AtomicLong()
+
+    val hitCount: Long
+        get() = hits.get()
+
+    val missCount: Long
+        get() = misses.get()
+
+    /**
+     * Number of conditional requests answered with 304 Not Modified
+     */
+    val revalidationCount: Long
+        get() = revalidations.get()
+
+    override fun intercept(chain: Interceptor.Chain): Response {
+        val request = chain.request()
+        val response = chain.proceed(request)
+        if (HttpCachePolicy.getMaxAge(request.url().encodedPath()) == null) {
+            return response
+        }
+
+        val cacheResponse = response.cacheResponse()
+        val networkResponse = response.networkResponse()
+        when {
+            cacheResponse != null && networkResponse == null ->
+                hits.incrementAndGet()
+
+            networkResponse?.code() == HttpURLConnection.HTTP_NOT_MODIFIED ->
+                revalidations.incrementAndGet()
+
+            networkResponse != null ->
+                misses.incrementAndGet()
+        }
+        return response
+    }
+
+    override fun toString(): String =
+        "HttpCacheStats(hits=$hitCount, misses=$missCount, revalidations=$revalidationCount)"
+}
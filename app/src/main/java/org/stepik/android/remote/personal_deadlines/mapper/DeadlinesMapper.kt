@@ -15,7 +15,7 @@ class DeadlinesMapper
 @Inject
 constructor() {
     private val gson = GsonBuilder()
-        .registerTypeAdapter(Date::class.java, UTCDateAdapter())
+        .registerTypeAdapter(Date::class.java, UTCDateAdapter().asTypeAdapter())
         .create()
 
     fun mapToStorageRequest(deadlines: DeadlinesWrapper, recordId: Long? = null): StorageRequest =
@@ -0,0 +1,72 @@
+package org.stepik.android.view.glide.cache
+
+import org.stepic.droid.di.AppSingleton
+import java.util.concurrent.atomic.AtomicLong
+import javax.inject.Inject
+
+/**
+ * Counts how image resources were decoded by [org.stepik.android.view.glide.mapper.ImageResourceDecoder]
+ * and how much time was spent on svg parsing and rasterization
+ */
+@AppSingleton
+class ImageDecodeStats
+@Inject
+constructor() {
+    private val decodes = AtomicLong()
+    private val documentHits = AtomicLong()
+    private val parses = AtomicLong()
+    private val parseNanos = AtomicLong()
+    private val rasterHits = AtomicLong()
+    private val rasterizations = AtomicLong()
+    private val rasterizationNanos = AtomicLong()
+
+    val decodeCount: Long
+        get() = decodes.get()
+
+    /**
+     * Number of svg documents taken from [SvgCache] without parsing
+     */
+    val documentHitCount: Long
+        get() = documentHits.get()
+
+    val parseCount: Long
+        get() = parses.get()
+
+    val parseTimeNanos: Long
+        get() = parseNanos.get()
+
+    val rasterHitCount: Long
+        get() = rasterHits.get()
+
+    val rasterizationCount: Long
+        get() = rasterizations.get()
+
+    val rasterizationTimeNanos: Long
+        get() = rasterizationNanos.get()
+
+    fun onDecode() {
+        decodes.incrementAndGet()
+    }
+
+    fun onDocumentHit() {
+        documentHits.incrementAndGet()
+    }
+
+    fun onParsed(nanos: Long) {
+        parses.incrementAndGet()
+        parseNanos.addAndGet(nanos)
+    }
+
+    fun onRasterHit() {
+        rasterHits.incrementAndGet()
+    }
+
+    fun onRasterized(nanos: Long) {
+        rasterizations.incrementAndGet()
+        rasterizationNanos.addAndGet(nanos)
+    }
+
+    override fun toString(): String =
+        "ImageDecodeStats(decodes=$decodeCount, documentHits=$documentHitCount, parses=$parseCount, parseTimeMs=${parseTimeNanos / 1_000_000}, " +
+                "rasterHits=$rasterHitCount, rasterizations=$rasterizationCount, rasterizationTimeMs=${rasterizationTimeNanos / 1_000_000})"
+}
@@ -0,0 +1,127 @@
+package org.stepik.android.view.glide.cache
+
+import android.graphics.Bitmap
+import android.graphics.Canvas
+import android.graphics.RectF
+import android.util.LruCache
+import com.bumptech.glide.request.target.Target
+import com.caverock.androidsvg.SVG
+import com.caverock.androidsvg.SVGParseException
+import org.stepic.droid.di.AppSingleton
+import java.io.ByteArrayInputStream
+import javax.inject.Inject
+import kotlin.math.roundToInt
+
+/**
+ * Parsed svg documents and their rasterizations per target size.
+ * Documents are keyed by source bytes, as decoder doesn't know the url or asset it was loaded from,
+ * so the same badge or cover is parsed once for all its urls.
+ *
+ * Cached [SVG] instances are shared between threads, so they should be rendered under their own lock.
+ */
+@AppSingleton
+class SvgCache
+@Inject
+constructor(
+    private val imageDecodeStats: ImageDecodeStats
+) {
+    companion object {
+        private const val DOCUMENTS_MAX_SIZE_BYTES = 2 * 1024 * 1024
+        private const val MAX_RASTER_SIDE_PX = 1024
+
+        private val RASTERS_MAX_SIZE_BYTES = (Runtime.getRuntime().maxMemory() / 16).toInt()
+    }
+
+    // parsed tree size is proportional to the source size
+    private val documents = object : LruCache<SourceKey, SVG>(DOCUMENTS_MAX_SIZE_BYTES) {
+        override fun sizeOf(key: SourceKey, value: SVG): Int =
+            key.bytes.size
+    }
+
+    private val rasters = object : LruCache<RasterKey, Bitmap>(RASTERS_MAX_SIZE_BYTES) {
+        override fun sizeOf(key: RasterKey, value: Bitmap): Int =
+            value.byteCount
+    }
+
+    /**
+     * @throws SVGParseException if [source] is not a svg document
+     */
+    fun getDocument(source: SourceKey): SVG {
+        documents.get(source)?.let { svg ->
+            imageDecodeStats.onDocumentHit()
+            return svg
+        }
+
+        val start = System.nanoTime()
+        val svg = SVG.getFromInputStream(ByteArrayInputStream(source.bytes))
+        imageDecodeStats.onParsed(System.nanoTime() - start)
+
+        documents.put(source, svg)
+        return svg
+    }
+
+    /**
+     * Renders [svg] to bitmap which fits [width] x [height] keeping document aspect ratio
+     *
+     * @return bitmap or null if target size is not known or document can't be scaled to it
+     */
+    fun getRaster(source: SourceKey, svg: SVG, width: Int, height: Int): Bitmap? {
+        if (width == Target.SIZE_ORIGINAL || height == Target.SIZE_ORIGINAL ||
+            width <= 0 || height <= 0 ||
+            width > MAX_RASTER_SIDE_PX || height > MAX_RASTER_SIDE_PX) {
+            return null
+        }
+
+        val aspectRatio = svg.documentAspectRatio
+        if (svg.documentViewBox == null || aspectRatio <= 0f) {
+            return null // document without view box is rendered in its own size
+        }
+
+        val rasterWidth: Int
+        val rasterHeight: Int
+        if (width.toFloat() / height > aspectRatio) {
+            rasterWidth = maxOf((height * aspectRatio).roundToInt(), 1)
+            rasterHeight = height
+        } else {
+            rasterWidth = width
+            rasterHeight = maxOf((width / aspectRatio).roundToInt(), 1)
+        }
+
+        val key = RasterKey(source, rasterWidth, rasterHeight)
+        rasters.get(key)?.let { bitmap ->
+            imageDecodeStats.onRasterHit()
+            return bitmap
+        }
+
+        val start = System.nanoTime()
+        val bitmap = Bitmap.createBitmap(rasterWidth, rasterHeight, Bitmap.Config.ARGB_8888)
+        synchronized(svg) {
+            svg.renderToCanvas(Canvas(bitmap), RectF(0f, 0f, rasterWidth.toFloat(), rasterHeight.toFloat()))
+        }
+        imageDecodeStats.onRasterized(System.nanoTime() - start)
+
+        rasters.put(key, bitmap)
+        return bitmap
+    }
+
+    fun evictAll() {
+        documents.evictAll()
+        rasters.evictAll()
+    }
+
+    class SourceKey(val bytes: ByteArray) {
+        private val hashCode = bytes.contentHashCode()
+
+        override fun equals(other: Any?): Boolean =
+            other is SourceKey && hashCode == other.hashCode && bytes.contentEquals(other.bytes)
+
+        override fun hashCode(): Int =
+            hashCode
+    }
+
+    private data class RasterKey(
+        val source: SourceKey,
+        val width: Int,
+        val height: Int
+    )
+}
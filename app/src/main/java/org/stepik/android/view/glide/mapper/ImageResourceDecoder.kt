@@ -5,25 +5,35 @@ import com.bumptech.glide.load.Options
 import com.bumptech.glide.load.ResourceDecoder
 import com.bumptech.glide.load.engine.Resource
 import com.bumptech.glide.load.resource.SimpleResource
-import com.caverock.androidsvg.SVG
 import com.caverock.androidsvg.SVGParseException
+import org.stepik.android.view.glide.cache.ImageDecodeStats
+import org.stepik.android.view.glide.cache.SvgCache
 import org.stepik.android.view.glide.model.ImageResource
-import java.io.ByteArrayInputStream
 import java.io.IOException
 import java.io.InputStream
 
-class ImageResourceDecoder : ResourceDecoder<InputStream, ImageResource> {
+class ImageResourceDecoder(
+    private val svgCache: SvgCache,
+    private val imageDecodeStats: ImageDecodeStats
+) : ResourceDecoder<InputStream, ImageResource> {
     override fun decode(
         source: InputStream,
         width: Int,
         height: Int,
         options: Options
     ): Resource<ImageResource>? {
+        imageDecodeStats.onDecode()
         val bytes = source.readBytes()
 
         return try {
-            val svg = SVG.getFromInputStream(ByteArrayInputStream(bytes))
-            SimpleResource(ImageResource.Vector(svg))
+            val sourceKey = SvgCache.SourceKey(bytes)
+            val svg = svgCache.getDocument(sourceKey)
+            val raster = svgCache.getRaster(sourceKey, svg, width, height)
+            if (raster != null) {
+                SimpleResource(ImageResource.Raster(raster))
+            } else {
+                SimpleResource(ImageResource.Vector(svg))
+            }
         } catch (ex: SVGParseException) {
             try {
                 val bitmap = BitmapFactory.decodeByteArray(bytes, 0, bytes.size)
@@ -36,4 +46,4 @@ class ImageResourceDecoder : ResourceDecoder<InputStream, ImageResource> {
 
     override fun handles(source: InputStream, options: Options): Boolean =
         true
-}
\ No newline at end of file
+}
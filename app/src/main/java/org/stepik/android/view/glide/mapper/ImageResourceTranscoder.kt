@@ -17,7 +17,7 @@ class ImageResourceTranscoder : ResourceTranscoder<ImageResource, PictureDrawabl
         val picture =
             when (val res = toTranscode.get()) {
                 is ImageResource.Vector ->
-                    res.svg.renderToPicture()
+                    synchronized(res.svg) { res.svg.renderToPicture() } // svg documents are shared by SvgCache
 
                 is ImageResource.Raster ->
                     Picture()
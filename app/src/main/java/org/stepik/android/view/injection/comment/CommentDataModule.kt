@@ -3,7 +3,9 @@ package org.stepik.android.view.injection.comment
 import dagger.Binds
 import dagger.Module
 import dagger.Provides
+import org.stepik.android.cache.comment.CommentCacheDataSourceImpl
 import org.stepik.android.data.comment.repository.CommentRepositoryImpl
+import org.stepik.android.data.comment.source.CommentCacheDataSource
 import org.stepik.android.data.comment.source.CommentRemoteDataSource
 import org.stepik.android.domain.comment.repository.CommentRepository
 import org.stepik.android.remote.comment.CommentRemoteDataSourceImpl
@@ -18,6 +20,11 @@ internal abstract class CommentDataModule {
         commentRepositoryImpl: CommentRepositoryImpl
     ): CommentRepository
 
+    @Binds
+    internal abstract fun bindCommentCacheDataSource(
+        commentCacheDataSourceImpl: CommentCacheDataSourceImpl
+    ): CommentCacheDataSource
+
     @Binds
     internal abstract fun bindCommentRemoteDataSource(
         commentRemoteDataSourceImpl: CommentRemoteDataSourceImpl
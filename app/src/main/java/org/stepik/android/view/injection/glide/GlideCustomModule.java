@@ -11,6 +11,8 @@ import com.bumptech.glide.annotation.GlideModule;
 import com.bumptech.glide.module.AppGlideModule;
 
 import org.stepic.droid.base.App;
+import org.stepik.android.view.glide.cache.ImageDecodeStats;
+import org.stepik.android.view.glide.cache.SvgCache;
 import org.stepik.android.view.glide.mapper.ImageResourceDecoder;
 import org.stepik.android.view.glide.mapper.ImageResourceTranscoder;
 import org.stepik.android.view.glide.mapper.RelativeUrlLoader;
@@ -26,6 +28,12 @@ public class GlideCustomModule extends AppGlideModule {
     @Inject
     RelativeUrlLoader.Factory relativeUrlLoaderFactory;
 
+    @Inject
+    SvgCache svgCache;
+
+    @Inject
+    ImageDecodeStats imageDecodeStats;
+
     public GlideCustomModule() {
         App.Companion.component().inject(this);
     }
@@ -35,7 +43,7 @@ public class GlideCustomModule extends AppGlideModule {
                                    @NonNull Registry registry) {
         registry.prepend(String.class, InputStream.class, relativeUrlLoaderFactory);
         registry.register(ImageResource.class, PictureDrawable.class, new ImageResourceTranscoder())
-                .append(InputStream.class, ImageResource.class, new ImageResourceDecoder());
+                .append(InputStream.class, ImageResource.class, new ImageResourceDecoder(svgCache, imageDecodeStats));
     }
 
     // Disable manifest parsing to avoid adding similar modules twice.
@@ -1,12 +1,17 @@
 package org.stepik.android.view.injection.network
 
+import android.content.Context
 import dagger.Module
 import dagger.Provides
+import okhttp3.Cache
 import okhttp3.Interceptor
 import okhttp3.OkHttpClient
 import org.stepic.droid.configuration.Config
 import org.stepic.droid.di.AppSingleton
 import org.stepic.droid.util.DebugToolsHelper
+import org.stepik.android.remote.base.cache.HttpCacheInterceptor
+import org.stepik.android.remote.base.cache.HttpCachePolicy
+import org.stepik.android.remote.base.cache.HttpCacheStats
 import org.stepik.android.view.injection.achievement.AchievementDataModule
 import org.stepik.android.view.injection.auth.AuthDataModule
 import org.stepik.android.view.injection.base.Authorized
@@ -15,6 +20,7 @@ import org.stepik.android.view.injection.serialization.SerializationModule
 import retrofit2.Converter
 import retrofit2.Retrofit
 import retrofit2.adapter.rxjava2.RxJava2CallAdapterFactory
+import java.io.File
 import java.util.concurrent.TimeUnit
 
 @Module(includes = [AuthDataModule::class, SerializationModule::class, AchievementDataModule::class])
@@ -31,16 +37,28 @@ abstract class NetworkModule {
         fun provideDebugInterceptors(): List<Interceptor> =
             DebugToolsHelper.getDebugInterceptors()
 
+        @Provides
+        @JvmStatic
+        @AppSingleton
+        internal fun provideHttpCache(context: Context): Cache =
+            Cache(File(context.cacheDir, HttpCachePolicy.CACHE_DIRECTORY), HttpCachePolicy.CACHE_SIZE_BYTES)
+
         @Provides
         @JvmStatic
         @AppSingleton
         internal fun provideOkHttpClient(
             @DebugInterceptors debugInterceptors: List<@JvmSuppressWildcards Interceptor>,
-            interceptors: Set<@JvmSuppressWildcards Interceptor>
+            interceptors: Set<@JvmSuppressWildcards Interceptor>,
+            cache: Cache,
+            httpCacheStats: HttpCacheStats,
+            httpCacheInterceptor: HttpCacheInterceptor
         ): OkHttpClient {
             val okHttpBuilder = OkHttpClient.Builder()
                 .connectTimeout(TIMEOUT_IN_SECONDS, TimeUnit.SECONDS)
                 .readTimeout(TIMEOUT_IN_SECONDS, TimeUnit.SECONDS)
+                .cache(cache)
+                .addInterceptor(httpCacheStats)
+                .addNetworkInterceptor(httpCacheInterceptor)
             interceptors.forEach { okHttpBuilder.addNetworkInterceptor(it) }
             debugInterceptors.forEach { okHttpBuilder.addNetworkInterceptor(it) }
 
@@ -6,14 +6,11 @@ import dagger.Module
 import dagger.Provides
 import org.stepic.droid.di.AppSingleton
 import org.stepic.droid.jsonHelpers.adapters.CodeOptionsAdapterFactory
+import org.stepic.droid.jsonHelpers.adapters.DatasetWrapperAdapterFactory
+import org.stepic.droid.jsonHelpers.adapters.FeedbackAdapterFactory
+import org.stepic.droid.jsonHelpers.adapters.ReplyWrapperAdapterFactory
 import org.stepic.droid.jsonHelpers.adapters.UTCDateAdapter
-import org.stepic.droid.jsonHelpers.deserializers.DatasetDeserializer
-import org.stepic.droid.jsonHelpers.deserializers.FeedbackDeserializer
-import org.stepic.droid.jsonHelpers.deserializers.ReplyDeserializer
-import org.stepic.droid.jsonHelpers.serializers.ReplySerializer
-import org.stepik.android.model.ReplyWrapper
-import org.stepik.android.model.attempts.DatasetWrapper
-import org.stepik.android.model.feedback.Feedback
+import org.stepic.droid.jsonHelpers.adapters.model.ModelAdapterFactory
 import retrofit2.Converter
 import retrofit2.converter.gson.GsonConverterFactory
 import java.util.Date
@@ -35,11 +32,11 @@ abstract class SerializationModule {
             GsonBuilder()
                 .enableComplexMapKeySerialization()
                 .registerTypeAdapterFactory(CodeOptionsAdapterFactory())
-                .registerTypeAdapter(DatasetWrapper::class.java, DatasetDeserializer())
-                .registerTypeAdapter(ReplyWrapper::class.java, ReplyDeserializer())
-                .registerTypeAdapter(ReplyWrapper::class.java, ReplySerializer())
-                .registerTypeAdapter(Date::class.java, UTCDateAdapter())
-                .registerTypeAdapter(Feedback::class.java, FeedbackDeserializer())
+                .registerTypeAdapterFactory(ModelAdapterFactory())
+                .registerTypeAdapterFactory(DatasetWrapperAdapterFactory())
+                .registerTypeAdapterFactory(ReplyWrapperAdapterFactory())
+                .registerTypeAdapterFactory(FeedbackAdapterFactory())
+                .registerTypeAdapter(Date::class.java, UTCDateAdapter().asTypeAdapter())
                 .create()
     }
 }
\ No newline at end of file
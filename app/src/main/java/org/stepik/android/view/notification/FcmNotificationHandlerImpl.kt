@@ -240,7 +240,10 @@ constructor(
             val relatedCourse = getCourse(courseId) ?: return
             val isNeedAdd = notificationOfCourseList.none { it?.id == stepikNotification.id }
 
+            val justText: String = textResolver.fromHtml(rawMessageHtml).toString()
             if (isNeedAdd) {
+                // rendered text is stored with notification, so previous notifications of course are not parsed again
+                stepikNotification.notificationText = justText
                 notificationOfCourseList.add(stepikNotification)
                 databaseFacade.addNotification(stepikNotification)
             }
@@ -265,7 +268,6 @@ constructor(
             val pendingIntent = taskBuilder.getPendingIntent(courseId.toInt(), PendingIntent.FLAG_ONE_SHOT)
 
             val title = applicationContext.getString(R.string.app_name)
-            val justText: String = textResolver.fromHtml(rawMessageHtml).toString()
 
             val notification = NotificationCompat
                     .Builder(applicationContext, stepikNotification.type.channel.channelId)
@@ -290,7 +292,8 @@ constructor(
             } else {
                 val inboxStyle = NotificationCompat.InboxStyle()
                 for (notificationItem in notificationOfCourseList.reversed()) {
-                    val line = textResolver.fromHtml(notificationItem?.htmlText ?: "").toString()
+                    val line = notificationItem?.notificationText
+                        ?: textResolver.fromHtml(notificationItem?.htmlText ?: "").toString()
                     inboxStyle.addLine(line)
                 }
                 inboxStyle.setSummaryText(summaryText)
@@ -0,0 +1,119 @@
+package org.stepic.droid.code.highlight
+
+import org.junit.Assert.assertArrayEquals
+import org.junit.Test
+import org.stepic.droid.code.highlight.prettify.PrettifyParser
+
+class IncrementalHighlighterTest {
+    companion object {
+        private val parser = PrettifyParser()
+
+        private val JAVA_LINES = listOf(
+            "import java.util.*;",
+            "",
+            "/**",
+            " * Doc comment",
+            " */",
+            "public class Main {",
+            "    // line comment",
+            "    public static void main(String[] args) {",
+            "        String s = \"string literal\";",
+            "        int x = 42 + 0x1F;",
+            "        System.out.println(s + x);",
+            "    }",
+            "}"
+        )
+
+        private val PYTHON_LINES = listOf(
+            "import sys",
+            "",
+            "def main():",
+            "    \"\"\"",
+            "    multiline docstring",
+            "    \"\"\"",
+            "    # comment",
+            "    s = 'string'",
+            "    print(s, 42)",
+            "",
+            "main()"
+        )
+
+        private val CPP_LINES = listOf(
+            "#include <iostream>",
+            "",
+            "/* block",
+            "   comment */",
+            "int main() {",
+            "    std::string s = \"str\";",
+            "    return 0; // done",
+            "}"
+        )
+    }
+
+    @Test
+    fun javaEdits() {
+        val source = repeatLines(JAVA_LINES)
+        assertEdits("java", source, listOf(
+            insert(source.length / 2, "x"),
+            insert(source.indexOf("public class", source.length / 3), "/* "),
+            insert(source.length / 4, "\"unterminated"),
+            delete(source.length / 2, 40),
+            insert(0, "// first line\n"),
+            insert(source.length, "\n/* trailing")
+        ))
+    }
+
+    @Test
+    fun pythonEdits() {
+        val source = repeatLines(PYTHON_LINES)
+        assertEdits("py", source, listOf(
+            insert(source.length / 2, "\"\"\"\n"),
+            insert(source.length / 3, "    y = 1\n"),
+            delete(source.indexOf("\"\"\"", source.length / 2), 3),
+            insert(source.length / 5, "#")
+        ))
+    }
+
+    @Test
+    fun cppEdits() {
+        val source = repeatLines(CPP_LINES)
+        assertEdits("cpp", source, listOf(
+            insert(source.indexOf("/* block", source.length / 2) + 2, " */"),
+            delete(source.length / 3, 20),
+            insert(source.length / 2, "\n\n\n"),
+            insert(source.length / 4, "*/")
+        ))
+    }
+
+    private fun assertEdits(lang: String, source: String, edits: List<(String) -> String>) {
+        val highlighter = IncrementalHighlighter(parser)
+        var text = source
+        highlighter.highlight(lang, text)
+
+        edits.forEach { edit ->
+            text = edit(text)
+            val incremental = highlighter.highlight(lang, text)
+            val full = IncrementalHighlighter(parser).highlight(lang, text)
+            assertArrayEquals(stylesPerChar(full, text.length), stylesPerChar(incremental, text.length))
+        }
+    }
+
+    private fun stylesPerChar(decorations: SyntaxDecorations, length: Int): IntArray {
+        val styleIds = IntArray(length) { -1 }
+        for (i in 0 until decorations.size) {
+            for (position in decorations.offsets[i] until minOf(decorations.endOf(i), length)) {
+                styleIds[position] = decorations.styleIds[i]
+            }
+        }
+        return styleIds
+    }
+
+    private fun repeatLines(lines: List<String>): String =
+        (1..20).flatMap { lines }.joinToString(separator = "\n")
+
+    private fun insert(position: Int, value: String): (String) -> String =
+        { text -> text.substring(0, minOf(position, text.length)) + value + text.substring(minOf(position, text.length)) }
+
+    private fun delete(position: Int, count: Int): (String) -> String =
+        { text -> text.substring(0, position) + text.substring(minOf(position + count, text.length)) }
+}
@@ -0,0 +1,81 @@
+package org.stepic.droid.code.highlight.prettify.parser
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNotNull
+import org.junit.Assert.assertNotSame
+import org.junit.Assert.assertSame
+import org.junit.Before
+import org.junit.Test
+
+class PrettifyTest {
+    @Before
+    fun setUp() {
+        Prettify.clearLangHandlerCache()
+    }
+
+    @Test
+    fun handlerIsSharedBetweenInstances() {
+        assertSame(
+            Prettify().langHandlerForExtension("java", ""),
+            Prettify().langHandlerForExtension("java", "")
+        )
+    }
+
+    @Test
+    fun handlerIsSharedBetweenExtensionsOfLanguage() {
+        val prettify = Prettify()
+        assertSame(prettify.langHandlerForExtension("py", ""), prettify.langHandlerForExtension("python", ""))
+        assertSame(prettify.langHandlerForExtension("cpp", ""), prettify.langHandlerForExtension("cc", ""))
+        assertNotSame(prettify.langHandlerForExtension("java", ""), prettify.langHandlerForExtension("py", ""))
+    }
+
+    @Test
+    fun handlerIsCompiledAgainAfterCacheClear() {
+        val handler = Prettify().langHandlerForExtension("java", "")
+        Prettify.clearLangHandlerCache()
+        assertNotSame(handler, Prettify().langHandlerForExtension("java", ""))
+    }
+
+    @Test
+    fun unknownExtensionFallsBackToDefaultHandlers() {
+        val prettify = Prettify()
+        assertSame(prettify.langHandlerForExtension("default-markup", ""), prettify.langHandlerForExtension(null, "  <html></html>"))
+        assertSame(prettify.langHandlerForExtension("default-code", ""), prettify.langHandlerForExtension("unknown", "int x = 1;"))
+    }
+
+    @Test
+    fun allRegisteredGrammarsCompile() {
+        val prettify = Prettify()
+        Prettify.getRegisteredExtensions().forEach { extension ->
+            assertNotNull(extension, prettify.langHandlerForExtension(extension, ""))
+        }
+    }
+
+    @Test
+    fun styleIdsAreStable() {
+        val styleId = Prettify.getStyleId(Prettify.PR_KEYWORD)
+        assertEquals(styleId, Prettify.getStyleId(Prettify.PR_KEYWORD))
+        assertEquals(Prettify.PR_KEYWORD, Prettify.getStyle(styleId))
+    }
+
+    @Test
+    fun decorationBufferRemovesDuplicatesAsUtil() {
+        val source = "0123456789"
+        val decorations = listOf<Any>(
+            0, Prettify.PR_PLAIN,
+            2, Prettify.PR_KEYWORD,
+            2, Prettify.PR_STRING,
+            4, Prettify.PR_STRING,
+            6, Prettify.PR_PLAIN,
+            8, Prettify.PR_COMMENT,
+            8, Prettify.PR_PLAIN,
+            10, Prettify.PR_COMMENT
+        )
+
+        val job = Job(0, source)
+        job.setDecorations(decorations)
+        job.decorationBuffer.trimTail(source.length)
+
+        assertEquals(Util.removeDuplicates(decorations, source), job.decorations)
+    }
+}
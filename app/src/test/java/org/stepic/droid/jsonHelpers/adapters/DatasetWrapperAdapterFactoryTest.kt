@@ -1,4 +1,4 @@
-package org.stepic.droid.jsonHelpers.deserializers
+package org.stepic.droid.jsonHelpers.adapters
 
 import com.google.gson.Gson
 import org.junit.Assert.*
@@ -7,7 +7,7 @@ import org.stepic.droid.testUtils.TestingGsonProvider
 import org.stepik.android.model.attempts.DatasetWrapper
 
 
-class DatasetDeserializerTest {
+class DatasetWrapperAdapterFactoryTest {
 
     private val gson: Gson = TestingGsonProvider.gson
 
@@ -17,7 +17,7 @@ class DatasetDeserializerTest {
 
         val datasetWrapper = gson.fromJson(json, DatasetWrapper::class.java)
 
-        assertNull(datasetWrapper) //gson do not invoke DatasetDeserializer if DatasetWrapper is null
+        assertNull(datasetWrapper) //json null is read as null wrapper
     }
 
     @Test
@@ -0,0 +1,30 @@
+package org.stepic.droid.jsonHelpers.adapters
+
+import com.google.gson.Gson
+import org.junit.Assert.assertEquals
+import org.junit.Test
+import org.stepic.droid.testUtils.TestingGsonProvider
+import org.stepik.android.model.feedback.BlanksFeedback
+import org.stepik.android.model.feedback.ChoiceFeedback
+import org.stepik.android.model.feedback.Feedback
+import org.stepik.android.model.feedback.StringFeedback
+
+class FeedbackAdapterFactoryTest {
+
+    private val gson: Gson = TestingGsonProvider.gson
+
+    @Test
+    fun stringFeedback() {
+        assertEquals(StringFeedback("wrong"), gson.fromJson(""""wrong"""", Feedback::class.java))
+    }
+
+    @Test
+    fun choiceFeedback() {
+        assertEquals(ChoiceFeedback(listOf("hint")), gson.fromJson("""{"options_feedback": ["hint"]}""", Feedback::class.java))
+    }
+
+    @Test
+    fun blanksFeedback() {
+        assertEquals(BlanksFeedback(listOf(true)), gson.fromJson("""{"blanks_feedback": [true]}""", Feedback::class.java))
+    }
+}
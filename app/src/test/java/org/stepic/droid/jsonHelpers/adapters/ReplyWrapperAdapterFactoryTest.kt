@@ -0,0 +1,56 @@
+package org.stepic.droid.jsonHelpers.adapters
+
+import com.google.gson.Gson
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import org.stepic.droid.testUtils.TestingGsonProvider
+import org.stepik.android.model.ReplyWrapper
+
+class ReplyWrapperAdapterFactoryTest {
+
+    private val gson: Gson = TestingGsonProvider.gson
+
+    @Test
+    fun booleanChoices() {
+        val json = """{"choices": [true, false], "text": "text"}"""
+
+        val reply = gson.fromJson(json, ReplyWrapper::class.java).reply
+
+        assertEquals(listOf(true, false), reply?.choices)
+        assertEquals("text", reply?.text)
+        assertNull(reply?.tableChoices)
+    }
+
+    @Test
+    fun tableChoices() {
+        val json = """{"choices": [{"name_row": "row", "columns": [{"name": "column", "answer": true}]}]}"""
+
+        val reply = gson.fromJson(json, ReplyWrapper::class.java).reply
+
+        assertNull(reply?.choices)
+        assertEquals("row", reply?.tableChoices?.single()?.nameRow)
+        assertEquals(1, reply?.tableChoices?.single()?.columns?.size)
+    }
+
+    @Test
+    fun emptyChoices_emptyTableChoices() {
+        val json = """{"choices": []}"""
+
+        val reply = gson.fromJson(json, ReplyWrapper::class.java).reply
+
+        assertNull(reply?.choices)
+        assertTrue(reply?.tableChoices?.isEmpty() == true)
+    }
+
+    @Test
+    fun serializedTableChoices_restored() {
+        val json = """{"choices": [{"name_row": "row", "columns": []}], "code": "print()", "language": "python3"}"""
+        val reply = gson.fromJson(json, ReplyWrapper::class.java)
+
+        val restored = gson.fromJson(gson.toJson(reply), ReplyWrapper::class.java)
+
+        assertEquals(reply, restored)
+    }
+}
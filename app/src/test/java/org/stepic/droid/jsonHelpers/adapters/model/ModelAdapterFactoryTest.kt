@@ -0,0 +1,86 @@
+package org.stepic.droid.jsonHelpers.adapters.model
+
+import com.google.gson.Gson
+import com.google.gson.GsonBuilder
+import org.junit.Assert.assertEquals
+import org.junit.Test
+import org.stepic.droid.jsonHelpers.adapters.CodeOptionsAdapterFactory
+import org.stepic.droid.jsonHelpers.adapters.UTCDateAdapter
+import org.stepik.android.model.Block
+import org.stepik.android.model.Course
+import org.stepik.android.model.Lesson
+import org.stepik.android.model.Progress
+import org.stepik.android.model.Section
+import org.stepik.android.model.Step
+import org.stepik.android.model.Unit
+import java.util.Date
+
+class ModelAdapterFactoryTest {
+    private val reflectiveGson: Gson =
+        GsonBuilder()
+            .registerTypeAdapterFactory(CodeOptionsAdapterFactory())
+            .registerTypeAdapter(Date::class.java, UTCDateAdapter())
+            .create()
+
+    private val streamingGson: Gson =
+        GsonBuilder()
+            .registerTypeAdapterFactory(CodeOptionsAdapterFactory())
+            .registerTypeAdapterFactory(ModelAdapterFactory())
+            .registerTypeAdapter(Date::class.java, UTCDateAdapter().asTypeAdapter())
+            .create()
+
+    private fun <T> assertSameAsReflective(json: String, type: Class<T>) {
+        val expected = reflectiveGson.toJson(reflectiveGson.fromJson(json, type))
+        val actual = reflectiveGson.toJson(streamingGson.fromJson(json, type))
+        assertEquals(expected, actual)
+    }
+
+    @Test
+    fun courseTest() {
+        val json = """{"id": 67, "summary": "Summary", "workload": "3-5 hours", "cover": "/media/cover.png", "intro": "https://player.vimeo.com/video/1", "course_format": "", "target_audience": "", "certificate_footer": null, "certificate_cover_org": null, "is_certificate_auto_issued": true, "certificate_regular_threshold": 50, "certificate_distinction_threshold": 90, "instructors": [1, 2], "certificate": "Certificate", "requirements": "", "description": "Description", "sections": [9, 10, 11], "total_units": 27, "enrollment": 1234, "is_featured": true, "actions": {}, "progress": "78-67", "first_lesson": 8, "first_unit": 9, "certificate_link": null, "certificate_name_link": null, "is_certificate_issued": false, "readiness": 0.92, "is_contest": false, "is_self_paced": true, "is_adaptive": false, "is_idea_compatible": true, "last_deadline": null, "is_paid": false, "price": null, "currency_code": null, "display_price": "-", "price_tier": null, "owner": 1, "language": "ru", "is_active": true, "is_public": true, "slug": "course-67", "title": "Title", "begin_date": null, "end_date": null, "learners_count": 100500, "review_summary": 67, "time_to_complete": null, "intro_video": {"id": 1, "thumbnail": "t.png", "urls": [{"quality": "720", "url": "https://v.mp4"}], "duration": 100}, "options": null, "authors": [1], "last_step": "67-1", "schedule_link": null, "schedule_long_link": null, "schedule_type": "ended"}"""
+
+        assertSameAsReflective(json, Course::class.java)
+    }
+
+    @Test
+    fun sectionTest() {
+        val json = """{"id": 8761, "course": 4100, "units": [1, 2, 3], "position": 2, "discounting_policy": "no_discount", "progress": "79-8761", "actions": {"test_section": "#"}, "required_section": null, "required_percent": 100, "is_exam": false, "title": "Title", "slug": "slug-8761", "begin_date": null, "soft_deadline": "2017-10-20T15:27:21Z", "grading_policy": "halved", "is_active": true, "create_date": "2017-10-20T15:27:21Z", "update_date": "2017-10-20T15:27:49Z"}"""
+
+        assertSameAsReflective(json, Section::class.java)
+    }
+
+    @Test
+    fun unitTest() {
+        val json = """{"id": 1, "section": 2, "lesson": 3, "assignments": [4, 5], "position": 1, "progress": "77-1", "begin_date": null, "end_date": "2017-10-20T15:27:21Z", "grading_policy": "halved", "grading_policy_source": "section", "is_active": true, "create_date": "2017-10-20T15:27:21Z", "update_date": "2017-10-20T15:27:49Z"}"""
+
+        assertSameAsReflective(json, Unit::class.java)
+    }
+
+    @Test
+    fun lessonTest() {
+        val json = """{"id": 58532, "steps": [1, 2, 3], "actions": {"learn_lesson": "#"}, "progress": "77-58532", "subscriptions": ["31-58532"], "viewed_by": 10, "passed_by": 5, "time_to_complete": 300, "cover_url": null, "is_comments_enabled": true, "owner": 1, "language": "en", "is_featured": false, "is_public": true, "title": "Lesson", "slug": "lesson-58532", "create_date": "2017-10-20T15:27:21Z", "update_date": "2017-10-20T15:27:49Z", "learners_group": null, "teachers_group": null, "courses": [67], "vote_delta": -1}"""
+
+        assertSameAsReflective(json, Lesson::class.java)
+    }
+
+    @Test
+    fun stepTest() {
+        val json = """{"id": 236461, "lesson": 58532, "position": 8, "status": "ready", "block": {"name": "code", "text": "Sum of two numbers", "video": null, "animation": null, "options": {"execution_time_limit": 5, "execution_memory_limit": 256, "limits": {"python3": {"time": 5, "memory": 256}}, "code_templates": {"python3": "# put your python code here"}, "samples": [["1 2", "3"]], "is_run_user_code_allowed": true}, "subtitle_files": []}, "actions": {"submit": "#"}, "progress": "77-236461", "subscriptions": ["31-77-236461"], "viewed_by": 0, "passed_by": 0, "correct_ratio": null, "worth": null, "has_submissions_restrictions": false, "max_submissions_count": 3, "create_date": "2017-10-31T08:41:17Z", "update_date": "2017-10-31T08:41:17Z", "discussions_count": 0, "discussion_proxy": "77-236461-1", "discussion_threads": ["77-236461-1"]}"""
+
+        assertSameAsReflective(json, Step::class.java)
+    }
+
+    @Test
+    fun blockTest() {
+        val json = """{"name": "text", "text": "<p>text</p>", "video": null, "options": {}, "subtitle_files": [], "source": {"code": ""}, "feedback_correct": "", "feedback_wrong": null}"""
+
+        assertSameAsReflective(json, Block::class.java)
+    }
+
+    @Test
+    fun progressTest() {
+        val json = """{"id": "77-236461", "last_viewed": "1509438077.0", "score": "1", "cost": 1, "n_steps": 1, "n_steps_passed": 1, "is_passed": "true"}"""
+
+        assertSameAsReflective(json, Progress::class.java)
+    }
+}
@@ -0,0 +1,121 @@
+package org.stepic.droid.persistence.downloads.http
+
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+class HttpDownloadQueueTest {
+    companion object {
+        private const val MAX_RUNNING_JOBS = 3
+        private const val MAX_RUNNING_JOBS_PER_HOST = 2
+    }
+
+    private lateinit var executor: ExecutorService
+    private lateinit var queue: HttpDownloadQueue<TestJob>
+
+    @Before
+    fun setUp() {
+        executor = Executors.newFixedThreadPool(MAX_RUNNING_JOBS * 2)
+        queue = HttpDownloadQueue(executor, MAX_RUNNING_JOBS, MAX_RUNNING_JOBS_PER_HOST)
+    }
+
+    @After
+    fun tearDown() {
+        executor.shutdownNow()
+    }
+
+    @Test
+    fun jobsOfSameHostAreLimited() {
+        val release = CountDownLatch(1)
+        val jobs = List(4) { TestJob("a.example.com", release) }
+
+        queue.enqueue(jobs)
+        jobs.take(MAX_RUNNING_JOBS_PER_HOST).forEach { it.awaitStarted() }
+
+        assertEquals(MAX_RUNNING_JOBS_PER_HOST, queue.getRunningJobs().size)
+        assertEquals(2, queue.getPendingJobsCount())
+
+        release.countDown()
+        jobs.forEach { it.awaitFinished() }
+        jobs.forEach { assertEquals(1, it.runs.get()) }
+    }
+
+    @Test
+    fun jobsAreLimitedAcrossHosts() {
+        val release = CountDownLatch(1)
+        val jobs = listOf("a", "a", "b", "b", "c").map { TestJob("$it.example.com", release) }
+
+        queue.enqueue(jobs)
+        jobs.take(MAX_RUNNING_JOBS).forEach { it.awaitStarted() }
+
+        assertEquals(MAX_RUNNING_JOBS, queue.getRunningJobs().size)
+        assertEquals(listOf("a.example.com", "a.example.com", "b.example.com"), queue.getRunningJobs().map { it.host })
+
+        release.countDown()
+        jobs.forEach { it.awaitFinished() }
+    }
+
+    @Test
+    fun notReadyJobsWaitForPromote() {
+        val release = CountDownLatch(0)
+        val job = TestJob("a.example.com", release, ready = false)
+
+        queue.enqueue(listOf(job))
+        assertEquals(1, queue.getPendingJobsCount())
+        assertEquals(0, job.runs.get())
+
+        job.ready = true
+        queue.promote()
+        job.awaitFinished()
+
+        assertEquals(0, queue.getPendingJobsCount())
+        assertEquals(1, job.runs.get())
+    }
+
+    @Test
+    fun pendingJobCanBeRemoved() {
+        val job = TestJob("a.example.com", CountDownLatch(0), ready = false)
+
+        queue.enqueue(listOf(job))
+
+        assertTrue(queue.remove(job))
+        assertEquals(0, queue.getPendingJobsCount())
+    }
+
+    private class TestJob(
+        override val host: String,
+        private val release: CountDownLatch,
+        @Volatile
+        var ready: Boolean = true
+    ) : HttpDownloadQueue.Job {
+        private val started = CountDownLatch(1)
+        private val finished = CountDownLatch(1)
+
+        val runs = AtomicInteger()
+
+        override fun isReady(): Boolean =
+            ready
+
+        override fun run() {
+            runs.incrementAndGet()
+            started.countDown()
+            release.await(5, TimeUnit.SECONDS)
+            finished.countDown()
+        }
+
+        fun awaitStarted() {
+            assertTrue(started.await(5, TimeUnit.SECONDS))
+        }
+
+        fun awaitFinished() {
+            assertTrue(finished.await(5, TimeUnit.SECONDS))
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package org.stepic.droid.persistence.downloads.http
+
+import okhttp3.OkHttpClient
+import okhttp3.mockwebserver.MockResponse
+import okhttp3.mockwebserver.MockWebServer
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import java.io.File
+import java.io.IOException
+import java.net.HttpURLConnection
+import java.util.concurrent.TimeUnit
+
+class HttpFileDownloadTest {
+    companion object {
+        private const val CONTENT = "0123456789abcdefghij"
+        private const val ETAG = "\"v1\""
+    }
+
+    @get:Rule
+    val temporaryFolder = TemporaryFolder()
+
+    private lateinit var server: MockWebServer
+    private lateinit var client: OkHttpClient
+    private lateinit var targetFile: File
+
+    @Before
+    fun setUp() {
+        server = MockWebServer()
+        server.start()
+
+        client = OkHttpClient()
+        targetFile = File(temporaryFolder.root, "video.mp4")
+    }
+
+    @After
+    fun tearDown() {
+        server.shutdown()
+    }
+
+    @Test
+    fun fileIsDownloadedToPartFileTillCommit() {
+        server.enqueue(MockResponse().addHeader("ETag", ETAG).setBody(CONTENT))
+
+        val download = createDownload()
+        var lastProgress = 0L to 0L
+        download.execute { bytesDownloaded, bytesTotal -> lastProgress = bytesDownloaded to bytesTotal }
+
+        assertFalse(targetFile.exists())
+        assertEquals(CONTENT, download.partFile.readText())
+        assertEquals(CONTENT.length.toLong() to CONTENT.length.toLong(), lastProgress)
+        assertEquals(ETAG, download.validatorFile.readText())
+
+        download.commit()
+
+        assertEquals(CONTENT, targetFile.readText())
+        assertFalse(download.partFile.exists())
+        assertFalse(download.validatorFile.exists())
+        assertNull(server.takeRequest().getHeader("Range"))
+    }
+
+    @Test
+    fun partFileIsResumedWithRangeRequest() {
+        val offset = 8
+        HttpFileDownload.getPartFile(targetFile).writeText(CONTENT.substring(0, offset))
+        HttpFileDownload.getValidatorFile(targetFile).writeText(ETAG)
+        server.enqueue(MockResponse()
+            .setResponseCode(HttpURLConnection.HTTP_PARTIAL)
+            .addHeader("Content-Range", "bytes $offset-${CONTENT.length - 1}/${CONTENT.length}")
+            .setBody(CONTENT.substring(offset)))
+
+        val download = createDownload()
+        download.execute { _, _ -> }
+        download.commit()
+
+        assertEquals(CONTENT, targetFile.readText())
+        val request = server.takeRequest()
+        assertEquals("bytes=$offset-", request.getHeader("Range"))
+        assertEquals(ETAG, request.getHeader("If-Range"))
+    }
+
+    @Test
+    fun partFileWithoutValidatorIsDownloadedFromScratch() {
+        HttpFileDownload.getPartFile(targetFile).writeText("stale")
+        server.enqueue(MockResponse().setBody(CONTENT))
+
+        val download = createDownload()
+        download.execute { _, _ -> }
+        download.commit()
+
+        assertEquals(CONTENT, targetFile.readText())
+        assertNull(server.takeRequest().getHeader("Range"))
+    }
+
+    @Test
+    fun partFileIsOverwrittenIfRemoteFileWasChanged() {
+        HttpFileDownload.getPartFile(targetFile).writeText("stale")
+        HttpFileDownload.getValidatorFile(targetFile).writeText(ETAG)
+        server.enqueue(MockResponse().addHeader("ETag", "\"v2\"").setBody(CONTENT)) // If-Range doesn't match
+
+        val download = createDownload()
+        download.execute { _, _ -> }
+        download.commit()
+
+        assertEquals(CONTENT, targetFile.readText())
+        assertEquals("bytes=5-", server.takeRequest().getHeader("Range"))
+    }
+
+    @Test
+    fun completePartFileIsAcceptedOnRangeNotSatisfiable() {
+        HttpFileDownload.getPartFile(targetFile).writeText(CONTENT)
+        HttpFileDownload.getValidatorFile(targetFile).writeText(ETAG)
+        server.enqueue(MockResponse()
+            .setResponseCode(416)
+            .addHeader("Content-Range", "bytes */${CONTENT.length}"))
+
+        val download = createDownload()
+        download.execute { _, _ -> }
+        download.commit()
+
+        assertEquals(CONTENT, targetFile.readText())
+    }
+
+    @Test
+    fun httpErrorIsThrownAndTargetFileIsNotTouched() {
+        targetFile.writeText("previous")
+        server.enqueue(MockResponse().setResponseCode(HttpURLConnection.HTTP_NOT_FOUND))
+
+        val download = createDownload()
+        val error =
+            try {
+                download.execute { _, _ -> }
+                null
+            } catch (e: HttpDownloadException) {
+                e
+            }
+
+        assertEquals(HttpURLConnection.HTTP_NOT_FOUND, error?.code)
+        assertEquals("previous", targetFile.readText())
+    }
+
+    @Test
+    fun cancelledDownloadKeepsPartFile() {
+        server.enqueue(MockResponse().setBody(CONTENT).throttleBody(4, 1, TimeUnit.SECONDS))
+
+        val download = createDownload()
+        val error =
+            try {
+                download.execute { bytesDownloaded, _ ->
+                    if (bytesDownloaded > 0) {
+                        download.cancel()
+                    }
+                }
+                null
+            } catch (e: IOException) {
+                e
+            }
+
+        assertTrue(error != null)
+        assertTrue(download.isCancelled)
+        assertTrue(download.partFile.exists())
+        assertFalse(targetFile.exists())
+    }
+
+    private fun createDownload(): HttpFileDownload =
+        HttpFileDownload(client, server.url("/video.mp4").toString(), targetFile)
+}
@@ -0,0 +1,134 @@
+package org.stepic.droid.persistence.downloads.progress
+
+import com.nhaarman.mockitokotlin2.mock
+import io.reactivex.Single
+import io.reactivex.schedulers.Schedulers
+import io.reactivex.subjects.PublishSubject
+import org.junit.Assert.assertEquals
+import org.junit.Before
+import org.junit.Test
+import org.stepic.droid.persistence.downloads.progress.mapper.DownloadProgressStatusMapper
+import org.stepic.droid.persistence.model.DownloadProgress
+import org.stepic.droid.persistence.model.DownloadTask
+import org.stepic.droid.persistence.model.PersistentItem
+import org.stepic.droid.persistence.model.PersistentState
+import org.stepic.droid.persistence.model.Structure
+import org.stepic.droid.persistence.model.SystemDownloadRecord
+import org.stepic.droid.persistence.storage.PersistentStateManager
+import org.stepic.droid.persistence.storage.dao.PersistentItemDao
+import org.stepic.droid.persistence.storage.dao.SystemDownloadsDao
+import org.stepic.droid.persistence.storage.structure.DBStructurePersistentItem
+
+class DownloadProgressPollerTest {
+    private val intervalUpdates = PublishSubject.create<kotlin.Unit>()
+
+    private val itemType = DownloadProgressPoller.ItemType(PersistentState.Type.UNIT, DBStructurePersistentItem.Columns.UNIT) { it.unit }
+
+    private val items = listOf(1L, 2L).map { unit ->
+        PersistentItem(
+            downloadId = unit * 10,
+            status = PersistentItem.Status.IN_PROGRESS,
+            task = DownloadTask("https://example.com/$unit.mp4", Structure(course = 1, section = 1, unit = unit, lesson = unit, step = unit))
+        )
+    }
+
+    private val systemDownloadsQueries = mutableListOf<LongArray>()
+    private val persistentItemsQueries = mutableListOf<LongArray>()
+
+    private var shouldFailSystemDownloadsQuery = false
+
+    private lateinit var poller: DownloadProgressPoller
+
+    @Before
+    fun setUp() {
+        val systemDownloadsDao = object : SystemDownloadsDao {
+            override fun get(vararg ids: Long): Single<List<SystemDownloadRecord>> {
+                if (shouldFailSystemDownloadsQuery) {
+                    return Single.error(IllegalStateException())
+                }
+                systemDownloadsQueries += ids
+                return Single.just(ids.map { SystemDownloadRecord(it, "", 1, 2, 0, 0, "") })
+            }
+        }
+
+        val persistentItemDao = object : PersistentItemDao by mock<PersistentItemDao>() {
+            override fun getAllInRange(whereColumn: String, ids: LongArray): List<PersistentItem> {
+                persistentItemsQueries += ids
+                return items.filter { it.task.structure.unit in ids }
+            }
+        }
+
+        val persistentStateManager = object : PersistentStateManager by mock<PersistentStateManager>() {
+            override fun getStates(ids: LongArray, type: PersistentState.Type): Map<Long, PersistentState.State> =
+                ids.associate { it to PersistentState.State.CACHED }
+        }
+
+        val downloadProgressStatusMapper = object : DownloadProgressStatusMapper {
+            override fun countItemProgress(
+                persistentItems: List<PersistentItem>,
+                downloadRecords: List<SystemDownloadRecord>,
+                itemState: PersistentState.State
+            ): DownloadProgress.Status =
+                DownloadProgress.Status.InProgress(downloadRecords.size.toFloat() / persistentItems.size)
+        }
+
+        poller = DownloadProgressPoller(
+            intervalUpdates,
+            systemDownloadsDao,
+            persistentItemDao,
+            persistentStateManager,
+            downloadProgressStatusMapper,
+            Schedulers.trampoline()
+        )
+    }
+
+    @Test
+    fun watchedItemsArePolledWithSingleQuery() {
+        val firstObserver = poller.getProgress(itemType, 1).test()
+        val secondObserver = poller.getProgress(itemType, 2).test()
+        systemDownloadsQueries.clear()
+        persistentItemsQueries.clear()
+
+        intervalUpdates.onNext(kotlin.Unit)
+
+        assertEquals(1, systemDownloadsQueries.size)
+        assertEquals(setOf(10L, 20L), systemDownloadsQueries.single().toSet())
+        assertEquals(setOf(1L, 2L), persistentItemsQueries.single().toSet())
+
+        assertEquals(DownloadProgress(1, DownloadProgress.Status.InProgress(1f)), firstObserver.values().last())
+        assertEquals(DownloadProgress(2, DownloadProgress.Status.InProgress(1f)), secondObserver.values().last())
+    }
+
+    @Test
+    fun unwatchedItemsAreNotPolled() {
+        val firstObserver = poller.getProgress(itemType, 1).test()
+        poller.getProgress(itemType, 2).test()
+        firstObserver.dispose()
+        systemDownloadsQueries.clear()
+
+        intervalUpdates.onNext(kotlin.Unit)
+
+        assertEquals(listOf(20L), systemDownloadsQueries.single().toList())
+    }
+
+    @Test
+    fun newlyWatchedItemIsPolledImmediately() {
+        val observer = poller.getProgress(itemType, 1).test()
+
+        observer.assertValue(DownloadProgress(1, DownloadProgress.Status.InProgress(1f)))
+    }
+
+    @Test
+    fun failedPollDoesNotTerminateProgress() {
+        val observer = poller.getProgress(itemType, 1).test()
+
+        shouldFailSystemDownloadsQuery = true
+        intervalUpdates.onNext(kotlin.Unit)
+        shouldFailSystemDownloadsQuery = false
+        intervalUpdates.onNext(kotlin.Unit)
+
+        observer.assertNoErrors()
+        observer.assertNotComplete()
+        observer.assertValueCount(2)
+    }
+}
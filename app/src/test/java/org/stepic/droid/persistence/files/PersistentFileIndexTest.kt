@@ -0,0 +1,89 @@
+package org.stepic.droid.persistence.files
+
+import io.reactivex.schedulers.TestScheduler
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import java.io.File
+import java.nio.file.Files
+import java.util.concurrent.TimeUnit
+
+class PersistentFileIndexTest {
+    @get:Rule
+    val temporaryFolder = TemporaryFolder()
+
+    private val scheduler = TestScheduler()
+
+    private lateinit var directory: File
+    private lateinit var index: PersistentFileIndex
+
+    @Before
+    fun setUp() {
+        directory = temporaryFolder.newFolder("downloads")
+        index = PersistentFileIndex(scheduler)
+    }
+
+    @Test
+    fun existingFileIsResolvedToCanonicalPath() {
+        File(directory, "1.mp4").createNewFile()
+
+        assertEquals(File(directory.canonicalPath, "1.mp4").path, index.resolvePath(directory, "1.mp4"))
+        assertNull(index.resolvePath(directory, "2.mp4"))
+    }
+
+    @Test
+    fun indexedFileIsResolvedWithoutFileSystemCheck() {
+        val file = File(directory, "1.mp4")
+        file.createNewFile()
+        index.resolvePath(directory, "1.mp4")
+
+        file.delete() // deleted bypassing index
+
+        assertEquals(File(directory.canonicalPath, "1.mp4").path, index.resolvePath(directory, "1.mp4"))
+    }
+
+    @Test
+    fun removedFileIsNotResolved() {
+        val file = File(directory, "1.mp4")
+        file.createNewFile()
+        index.resolvePath(directory, "1.mp4")
+
+        file.delete()
+        index.onFileRemoved(file)
+
+        assertNull(index.resolvePath(directory, "1.mp4"))
+    }
+
+    @Test
+    fun fileRemovedByResolvedPathIsNotResolvedThroughSymlink() {
+        val link = File(temporaryFolder.root, "link")
+        Files.createSymbolicLink(link.toPath(), directory.toPath())
+        File(directory, "1.mp4").createNewFile()
+
+        val path = index.resolvePath(link, "1.mp4")
+        assertEquals(File(directory.canonicalPath, "1.mp4").path, path)
+
+        val file = File(path)
+        file.delete()
+        index.onFileRemoved(file)
+
+        assertNull(index.resolvePath(link, "1.mp4"))
+    }
+
+    @Test
+    fun staleIndexIsVerifiedInBackground() {
+        val file = File(directory, "1.mp4")
+        file.createNewFile()
+        index.resolvePath(directory, "1.mp4")
+        file.delete()
+
+        scheduler.advanceTimeBy(2, TimeUnit.MINUTES)
+        index.resolvePath(directory, "1.mp4") // schedules verification
+        scheduler.triggerActions()
+
+        assertNull(index.resolvePath(directory, "1.mp4"))
+    }
+}
@@ -0,0 +1,120 @@
+package org.stepic.droid.persistence.storage
+
+import com.nhaarman.mockitokotlin2.doReturn
+import com.nhaarman.mockitokotlin2.mock
+import com.nhaarman.mockitokotlin2.whenever
+import io.reactivex.subjects.PublishSubject
+import org.junit.Assert.assertEquals
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.mockito.Mock
+import org.mockito.Mockito.lenient
+import org.mockito.junit.MockitoJUnitRunner
+import org.stepic.droid.persistence.model.PersistentState
+import org.stepic.droid.persistence.model.Structure
+import org.stepic.droid.persistence.storage.dao.PersistentStateDao
+import org.stepic.droid.storage.operations.DatabaseFacade
+import org.stepik.android.model.Course
+import org.stepik.android.model.Lesson
+import org.stepik.android.model.Section
+import org.stepik.android.model.Unit
+
+@RunWith(MockitoJUnitRunner::class)
+class PersistentStateManagerTest {
+    @Mock
+    private lateinit var databaseFacade: DatabaseFacade
+
+    private val persistentStateDao = InMemoryPersistentStateDao()
+
+    private lateinit var persistentStateManager: PersistentStateManagerImpl
+
+    private val structures = listOf(1L, 2L).map { step -> Structure(course = 1, section = 1, unit = 1, lesson = 1, step = step) }
+
+    @Before
+    fun setUp() {
+        val course = mock<Course>()
+        whenever(course.sections) doReturn longArrayOf(1)
+        whenever(databaseFacade.getCourseById(1)) doReturn course
+        whenever(databaseFacade.getSectionById(1)) doReturn Section(id = 1, units = listOf(1L))
+        lenient().`when`(databaseFacade.getUnitById(1)).thenReturn(Unit(id = 1, lesson = 1)) // unit is missing in some tests
+        whenever(databaseFacade.getLessonById(1)) doReturn Lesson(id = 1, steps = longArrayOf(1, 2))
+
+        persistentStateManager = PersistentStateManagerImpl(persistentStateDao, databaseFacade, PublishSubject.create())
+    }
+
+    @Test
+    fun parentStatesAreAggregatedFromChildren() {
+        structures.forEach { persistentStateManager.invalidateStructure(it, PersistentState.State.IN_PROGRESS) }
+        assertCourseState(PersistentState.State.IN_PROGRESS)
+
+        persistentStateManager.invalidateStructure(structures[0], PersistentState.State.CACHED)
+        assertCourseState(PersistentState.State.IN_PROGRESS)
+
+        persistentStateManager.invalidateStructure(structures[1], PersistentState.State.CACHED)
+        assertCourseState(PersistentState.State.CACHED)
+
+        persistentStateManager.invalidateStructure(structures[1], PersistentState.State.NOT_CACHED)
+        assertCourseState(PersistentState.State.NOT_CACHED)
+        assertEquals(1, persistentStateDao.getState(1, PersistentState.Type.LESSON)?.childrenCached)
+    }
+
+    @Test
+    fun unknownCountersAreComputedFromChildren() {
+        persistentStateDao.insertOrReplaceAll(listOf(
+            PersistentState(1, PersistentState.Type.STEP, PersistentState.State.CACHED),
+            PersistentState(1, PersistentState.Type.LESSON, PersistentState.State.NOT_CACHED)
+        ))
+
+        persistentStateManager.invalidateStructure(structures[1], PersistentState.State.CACHED)
+
+        assertEquals(2, persistentStateDao.getState(1, PersistentState.Type.LESSON)?.childrenCached)
+        assertCourseState(PersistentState.State.CACHED)
+    }
+
+    @Test
+    fun countersAreRecomputedIfChildrenListChanged() {
+        structures.forEach { persistentStateManager.invalidateStructure(it, PersistentState.State.CACHED) }
+        assertCourseState(PersistentState.State.CACHED)
+
+        whenever(databaseFacade.getLessonById(1)) doReturn Lesson(id = 1, steps = longArrayOf(1, 3, 4)) // step 2 was removed
+        persistentStateManager.invalidateStructure(structures[0].copy(step = 3), PersistentState.State.CACHED)
+
+        assertEquals(2, persistentStateDao.getState(1, PersistentState.Type.LESSON)?.childrenCached)
+        assertCourseState(PersistentState.State.NOT_CACHED)
+    }
+
+    @Test
+    fun missingLevelIsSkipped() {
+        whenever(databaseFacade.getUnitById(1)) doReturn null
+        persistentStateDao.insertOrReplaceAll(listOf(
+            PersistentState(2, PersistentState.Type.STEP, PersistentState.State.CACHED),
+            PersistentState(1, PersistentState.Type.UNIT, PersistentState.State.CACHED)
+        ))
+
+        persistentStateManager.invalidateStructure(structures[0], PersistentState.State.CACHED)
+
+        assertEquals(PersistentState.State.CACHED, persistentStateManager.getState(1, PersistentState.Type.SECTION))
+        assertEquals(PersistentState.State.CACHED, persistentStateManager.getState(1, PersistentState.Type.COURSE))
+    }
+
+    private fun assertCourseState(state: PersistentState.State) {
+        PersistentState.Type.values()
+            .filter { it != PersistentState.Type.STEP }
+            .forEach { assertEquals(it.name, state, persistentStateManager.getState(1, it)) }
+    }
+
+    private class InMemoryPersistentStateDao : PersistentStateDao by mock() {
+        private val states = HashMap<Pair<Long, PersistentState.Type>, PersistentState>()
+
+        override fun getState(id: Long, type: PersistentState.Type): PersistentState? =
+            states[id to type]
+
+        override fun getStates(ids: LongArray, type: PersistentState.Type): List<PersistentState> =
+            ids.mapNotNull { states[it to type] }
+
+        override fun insertOrReplaceAll(persistentObjects: List<PersistentState>) {
+            persistentObjects.forEach { states[it.id to it.type] = it }
+        }
+    }
+}
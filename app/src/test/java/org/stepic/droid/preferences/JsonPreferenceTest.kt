@@ -0,0 +1,59 @@
+package org.stepic.droid.preferences
+
+import android.content.Context
+import com.google.gson.Gson
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertSame
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.RuntimeEnvironment
+import org.stepik.android.model.user.Profile
+
+@RunWith(RobolectricTestRunner::class)
+class JsonPreferenceTest {
+    private val preferences = RuntimeEnvironment.application
+        .getSharedPreferences("json_preference_test", Context.MODE_PRIVATE)
+
+    @Test
+    fun valueIsDecodedOnce() {
+        preferences.edit().putString(KEY, Gson().toJson(Profile(id = 1, firstName = "first"))).commit()
+        val preference = JsonPreference<Profile>(KEY, Profile::class.java, Gson())
+
+        val profile = preference.get(preferences)
+        assertEquals(1L, profile?.id)
+        assertSame(profile, preference.get(preferences))
+    }
+
+    @Test
+    fun snapshotIsReplacedOnWrite() {
+        val preference = JsonPreference<Profile>(KEY, Profile::class.java, Gson())
+        assertNull(preference.get(preferences))
+
+        val profile = Profile(id = 2)
+        val editor = preferences.edit()
+        preference.put(editor, profile)
+        editor.commit()
+
+        assertSame(profile, preference.get(preferences))
+        assertEquals(2L, JsonPreference<Profile>(KEY, Profile::class.java, Gson()).get(preferences)?.id)
+    }
+
+    @Test
+    fun snapshotIsDroppedOnInvalidate() {
+        val preference = JsonPreference<Profile>(KEY, Profile::class.java, Gson())
+        val editor = preferences.edit()
+        preference.put(editor, Profile(id = 3))
+        editor.commit()
+
+        preferences.edit().clear().commit()
+        preference.invalidate()
+
+        assertNull(preference.get(preferences))
+    }
+
+    companion object {
+        private const val KEY = "profile"
+    }
+}
@@ -0,0 +1,197 @@
+package org.stepic.droid.storage.dao
+
+import android.content.ContentValues
+import android.database.sqlite.SQLiteStatement
+import com.google.gson.Gson
+import com.nhaarman.mockitokotlin2.any
+import com.nhaarman.mockitokotlin2.argumentCaptor
+import com.nhaarman.mockitokotlin2.eq
+import com.nhaarman.mockitokotlin2.mock
+import com.nhaarman.mockitokotlin2.verify
+import org.junit.Assert.assertEquals
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.mockito.Mockito
+import org.robolectric.RobolectricTestRunner
+import org.stepic.droid.model.BlockPersistentWrapper
+import org.stepic.droid.storage.operations.DatabaseOperations
+import org.stepic.droid.storage.operations.StatementBinder
+import org.stepik.android.model.Actions
+import org.stepik.android.model.Block
+import org.stepik.android.model.Lesson
+import org.stepik.android.model.Progress
+import org.stepik.android.model.Step
+import org.stepik.android.model.Unit
+import org.stepik.android.model.Video
+import org.stepik.android.model.code.CodeOptions
+import java.util.Date
+
+/**
+ * Bulk replace binds rows with [StatementBinder] while single replace uses getContentValues,
+ * so both mappings should produce the same row for each dao
+ */
+@RunWith(RobolectricTestRunner::class)
+class StatementBinderTest {
+    private val databaseOperations = mock<DatabaseOperations>()
+    private val gson = Gson()
+
+    @Test
+    fun blockBinderMatchesContentValues() {
+        val dao = BlockDaoImpl(databaseOperations, gson, mock())
+        val codeOptions = CodeOptions(
+            limits = emptyMap(),
+            executionTimeLimit = 5,
+            codeTemplates = mapOf("python3" to "print()"),
+            executionMemoryLimit = 256,
+            samples = emptyList(),
+            isRunUserCodeAllowed = true
+        )
+        val block = BlockPersistentWrapper(
+            Block(name = "video", text = "text", video = Video(id = 3, thumbnail = "thumbnail", duration = 60), options = codeOptions),
+            stepId = 1
+        )
+        val blockWithoutVideo = BlockPersistentWrapper(Block(name = "text", text = "text"), stepId = 2)
+
+        val binder = captureBinder(dao, listOf(block, blockWithoutVideo))
+        assertRowsEqual(dao.getContentValues(block), bindRow(binder, block))
+        assertRowsEqual(dao.getContentValues(blockWithoutVideo), bindRow(binder, blockWithoutVideo))
+    }
+
+    @Test
+    fun lessonBinderMatchesContentValues() {
+        val dao = LessonDaoImpl(databaseOperations, gson)
+        val lesson = Lesson(
+            id = 1,
+            title = "title",
+            slug = "slug",
+            coverUrl = "cover",
+            courses = longArrayOf(2, 3),
+            steps = longArrayOf(4, 5, 6),
+            isFeatured = true,
+            progress = "77-1",
+            owner = 8,
+            subscriptions = arrayOf("31-77-1"),
+            viewedBy = 9,
+            passedBy = 10,
+            voteDelta = -1,
+            language = "en",
+            isPublic = true,
+            createDate = Date(1000),
+            learnersGroup = "learners",
+            timeToComplete = 600
+        )
+
+        val binder = captureBinder(dao, listOf(lesson))
+        assertRowsEqual(dao.getContentValues(lesson), bindRow(binder, lesson))
+    }
+
+    @Test
+    fun progressBinderMatchesContentValues() {
+        val dao = ProgressDaoImpl(databaseOperations)
+        val progress = Progress(id = "77-1", lastViewed = "1000", score = "0.5", cost = 1, nSteps = 3, nStepsPassed = 2, isPassed = true)
+        val emptyProgress = Progress()
+
+        val binder = captureBinder(dao, listOf(progress, emptyProgress))
+        assertRowsEqual(dao.getContentValues(progress), bindRow(binder, progress))
+        assertRowsEqual(dao.getContentValues(emptyProgress), bindRow(binder, emptyProgress))
+    }
+
+    @Test
+    fun stepBinderMatchesContentValues() {
+        val dao = StepDaoImpl(databaseOperations, mock())
+        val step = Step(
+            id = 1,
+            lesson = 2,
+            position = 3,
+            status = Step.Status.READY,
+            progress = "77-1",
+            subscriptions = listOf("31-77-1"),
+            viewedBy = 4,
+            passedBy = 5,
+            worth = 6,
+            updateDate = Date(1000),
+            actions = Actions(doReview = "review"),
+            discussionsCount = 7,
+            discussionProxy = "proxy",
+            discussionThreads = listOf("default", "solutions"),
+            hasSubmissionRestriction = true,
+            maxSubmissionCount = 8,
+            correctRatio = 0.25
+        )
+
+        val binder = captureBinder(dao, listOf(step))
+        assertRowsEqual(dao.getContentValues(step), bindRow(binder, step))
+    }
+
+    @Test
+    fun unitBinderMatchesContentValues() {
+        val dao = UnitDaoImpl(databaseOperations)
+        val unit = Unit(
+            id = 1,
+            section = 2,
+            lesson = 3,
+            assignments = longArrayOf(4, 5),
+            position = 6,
+            progress = "77-1",
+            beginDate = Date(1000),
+            softDeadline = Date(2000),
+            gradingPolicy = "halved",
+            beginDateSource = "section",
+            softDeadlineSource = "course",
+            isActive = true,
+            updateDate = Date(3000)
+        )
+
+        val binder = captureBinder(dao, listOf(unit))
+        assertRowsEqual(dao.getContentValues(unit), bindRow(binder, unit))
+    }
+
+    private fun <T> captureBinder(dao: DaoBase<T>, items: List<T>): StatementBinder<T> {
+        dao.insertOrReplaceAll(items)
+
+        val binderCaptor = argumentCaptor<StatementBinder<T>>()
+        verify(databaseOperations).executeBulkReplace(any(), binderCaptor.capture(), eq(items))
+        return binderCaptor.firstValue
+    }
+
+    /**
+     * @return row bound to statement by [binder] with column names as keys and normalized values
+     */
+    private fun <T> bindRow(binder: StatementBinder<T>, item: T): Map<String, Any?> {
+        val statement = mock<SQLiteStatement>()
+        binder.bind(statement, item)
+
+        val row = LinkedHashMap<String, Any?>()
+        Mockito.mockingDetails(statement).invocations.filter { it.method.name.startsWith("bind") }.forEach { invocation ->
+            val index = invocation.getArgument<Int>(0)
+            val column = binder.columns[index - 1]
+            assertEquals("Column $column is bound twice", false, row.containsKey(column))
+
+            row[column] = when (invocation.method.name) {
+                "bindNull" -> null
+                else -> normalize(invocation.getArgument(1))
+            }
+        }
+        assertEquals(binder.columns.toSet(), row.keys)
+        return row
+    }
+
+    /**
+     * Columns missing in [values] are stored as null by REPLACE, so binder should bind null for them
+     */
+    private fun assertRowsEqual(values: ContentValues, row: Map<String, Any?>) {
+        assertEquals(emptySet<String>(), values.keySet() - row.keys)
+        row.forEach { (column, value) ->
+            assertEquals("Column $column", normalize(values.get(column)), value)
+        }
+    }
+
+    private fun normalize(value: Any?): Any? =
+        when (value) {
+            is Boolean -> if (value) 1L else 0L
+            is Int -> value.toLong()
+            is Float -> value.toDouble()
+            is ByteArray -> value.toList()
+            else -> value
+        }
+}
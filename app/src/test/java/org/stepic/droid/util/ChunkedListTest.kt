@@ -0,0 +1,50 @@
+package org.stepic.droid.util
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertSame
+import org.junit.Test
+
+class ChunkedListTest {
+
+    @Test
+    fun concatKeepsOrder() {
+        val list = ChunkedList.concat(ChunkedList.concat(listOf(1, 2), listOf(3)), listOf(4, 5, 6))
+
+        assertEquals(listOf(1, 2, 3, 4, 5, 6), list)
+        assertEquals(listOf(1, 2, 3, 4, 5, 6), (0 until list.size).map(list::get))
+    }
+
+    @Test
+    fun concatWithEmptyListReturnsSameList() {
+        val list = listOf(1, 2)
+
+        assertSame(list, ChunkedList.concat(list, emptyList()))
+        assertSame(list, ChunkedList.concat(emptyList(), list))
+    }
+
+    @Test
+    fun dropSharesRestOfChunks() {
+        val list = ChunkedList.concat(listOf(0, 0), ChunkedList.concat(listOf(1, 2, 3), listOf(0)))
+
+        assertEquals(listOf(1, 2, 3, 0), ChunkedList.drop(list, 2))
+        assertEquals(listOf(0, 0, 1, 2, 3), ChunkedList.dropLast(list, 1))
+        assertEquals(listOf(2, 3), ChunkedList.dropLast(ChunkedList.drop(list, 3), 1))
+        assertEquals(emptyList<Int>(), ChunkedList.drop(list, list.size))
+    }
+
+    @Test
+    fun pagesAreAppendedAndPrepended() {
+        val page = PagedList(listOf(3, 4), page = 2, hasNext = true, hasPrev = true)
+
+        val appended = page.appendPage(PagedList(listOf(5), page = 3, hasNext = false, hasPrev = true))
+        assertEquals(listOf(3, 4, 5), appended)
+        assertEquals(3, appended.page)
+        assertEquals(false, appended.hasNext)
+        assertEquals(true, appended.hasPrev)
+
+        val prepended = appended.prependPage(PagedList(listOf(1, 2), page = 1, hasNext = true, hasPrev = false))
+        assertEquals(listOf(1, 2, 3, 4, 5), prepended)
+        assertEquals(false, prepended.hasNext)
+        assertEquals(false, prepended.hasPrev)
+    }
+}
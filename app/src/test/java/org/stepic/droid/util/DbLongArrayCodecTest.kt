@@ -0,0 +1,45 @@
+package org.stepic.droid.util
+
+import org.junit.Assert.assertArrayEquals
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+class DbLongArrayCodecTest {
+
+    @Test
+    fun encodeDecodeTest() {
+        val ids = longArrayOf(1, 2, 3, 100500, 7, 0, Long.MAX_VALUE, Long.MIN_VALUE, -1)
+        assertArrayEquals(ids, DbLongArrayCodec.decode(DbLongArrayCodec.encode(ids)))
+    }
+
+    @Test
+    fun emptyArrayIsEncodedAsNull() {
+        assertNull(DbLongArrayCodec.encode(longArrayOf()))
+        assertNull(DbLongArrayCodec.encode(null as LongArray?))
+        assertNull(DbLongArrayCodec.decode(null))
+    }
+
+    @Test
+    fun sequentialIdsAreEncodedCompactly() {
+        val ids = LongArray(100) { 1_000_000L + it }
+        val bytes = DbLongArrayCodec.encode(ids)!!
+        assertTrue("expected ~1 byte per id, but was ${bytes.size} bytes", bytes.size < ids.size + 8)
+        assertArrayEquals(ids, DbLongArrayCodec.decode(bytes))
+    }
+
+    @Test
+    fun unknownFormatIsDecodedAsNull() {
+        assertNull(DbLongArrayCodec.decode("1__,__2".toByteArray()))
+    }
+
+    @Test
+    fun malformedBytesAreDecodedAsNull() {
+        val bytes = DbLongArrayCodec.encode(longArrayOf(1, 100500, 2))!!
+
+        assertNull(DbLongArrayCodec.decode(bytes.copyOf(bytes.size - 1))) // truncated
+        assertNull(DbLongArrayCodec.decode(bytes + 0.toByte())) // trailing bytes
+        assertNull(DbLongArrayCodec.decode(byteArrayOf(1, 0x7F))) // count exceeds content
+        assertNull(DbLongArrayCodec.decode(byteArrayOf(1, 1) + ByteArray(11) { 0x80.toByte() })) // unterminated varint
+    }
+}
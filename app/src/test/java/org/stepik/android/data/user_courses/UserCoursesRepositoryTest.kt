@@ -0,0 +1,61 @@
+package org.stepik.android.data.user_courses
+
+import com.nhaarman.mockitokotlin2.any
+import com.nhaarman.mockitokotlin2.doReturn
+import com.nhaarman.mockitokotlin2.never
+import com.nhaarman.mockitokotlin2.verify
+import com.nhaarman.mockitokotlin2.whenever
+import io.reactivex.Completable
+import io.reactivex.Single
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.mockito.Mock
+import org.mockito.junit.MockitoJUnitRunner
+import org.stepic.droid.util.PagedList
+import org.stepik.android.data.user_courses.repository.UserCoursesRepositoryImpl
+import org.stepik.android.data.user_courses.source.UserCoursesCacheDataSource
+import org.stepik.android.data.user_courses.source.UserCoursesRemoteDataSource
+import org.stepik.android.domain.base.DataSourceType
+import org.stepik.android.domain.course_list.model.UserCourseQuery
+import org.stepik.android.domain.user_courses.model.UserCourse
+
+@RunWith(MockitoJUnitRunner::class)
+class UserCoursesRepositoryTest {
+    @Mock
+    private lateinit var userCoursesCacheDataSource: UserCoursesCacheDataSource
+    @Mock
+    private lateinit var userCoursesRemoteDataSource: UserCoursesRemoteDataSource
+
+    @Test
+    fun allUserCoursesInCacheTest() {
+        val userCoursesRepository = UserCoursesRepositoryImpl(userCoursesRemoteDataSource, userCoursesCacheDataSource)
+
+        val userCourses = listOf(UserCourse(id = 1, user = 1, course = 10), UserCourse(id = 2, user = 1, course = 20))
+        whenever(userCoursesCacheDataSource.getUserCoursesByCourseIds(longArrayOf(10, 20))) doReturn Single.just(userCourses)
+
+        userCoursesRepository
+            .getUserCoursesByCourseIds(10, 20, sourceType = DataSourceType.CACHE)
+            .test()
+            .assertResult(userCourses)
+
+        verify(userCoursesRemoteDataSource, never()).getUserCourses(any())
+    }
+
+    @Test
+    fun onlyMissingUserCoursesAreLoadedTest() {
+        val userCoursesRepository = UserCoursesRepositoryImpl(userCoursesRemoteDataSource, userCoursesCacheDataSource)
+
+        val cachedUserCourse = UserCourse(id = 1, user = 1, course = 10)
+        val remoteUserCourse = UserCourse(id = 2, user = 1, course = 20)
+        whenever(userCoursesCacheDataSource.getUserCoursesByCourseIds(longArrayOf(10, 20))) doReturn Single.just(listOf(cachedUserCourse))
+        whenever(userCoursesCacheDataSource.saveUserCourses(listOf(remoteUserCourse))) doReturn Completable.complete()
+        whenever(userCoursesRemoteDataSource.getUserCourses(UserCourseQuery(course = 20))) doReturn Single.just(PagedList(listOf(remoteUserCourse)))
+
+        userCoursesRepository
+            .getUserCoursesByCourseIds(10, 20, sourceType = DataSourceType.CACHE)
+            .test()
+            .assertResult(listOf(cachedUserCourse, remoteUserCourse))
+
+        verify(userCoursesRemoteDataSource, never()).getUserCourses(UserCourseQuery(course = 10))
+    }
+}
@@ -0,0 +1,55 @@
+package org.stepik.android.presentation.course_content.mapper
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertSame
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.stepik.android.model.Course
+import org.stepik.android.model.Lesson
+import org.stepik.android.model.Progress
+import org.stepik.android.model.Section
+import org.stepik.android.model.Unit
+import org.stepik.android.view.course_content.model.CourseContentItem
+
+@RunWith(RobolectricTestRunner::class)
+class CourseContentItemMapperTest {
+    private val mapper = CourseContentItemMapper(CourseContentSectionDatesMapper())
+
+    private val sections = listOf(
+        Section(id = 1, units = listOf(11, 12)),
+        Section(id = 2, units = listOf(21))
+    )
+
+    @Test
+    fun unitIndicesFollowItemsOrder() {
+        val items = mapper.mapSectionsWithEmptyUnits(Course(id = 1), sections, emptyList(), emptyList())
+
+        assertEquals(mapOf(11L to 1, 12L to 2, 21L to 4), mapper.getUnitIndices(items))
+    }
+
+    @Test
+    fun onlyChangedIndicesAreReplaced() {
+        val course = Course(id = 1)
+        val items = mapper.mapSectionsWithEmptyUnits(course, sections, emptyList(), emptyList())
+        val unitIndices = mapper.getUnitIndices(items)
+        val sectionItems = items
+            .filterIsInstance<CourseContentItem.SectionItem>()
+            .associateBy { it.section.id }
+
+        val units = listOf(Unit(id = 12, section = 1, lesson = 120, progress = "77-12"))
+        val unitItems = mapper.mapUnits(course, sectionItems, units, listOf(Lesson(id = 120)), emptyMap())
+        val withUnits = mapper.replaceUnits(items, unitItems, unitIndices)
+
+        assertSame(items[1], withUnits[1])
+        assertSame(unitItems[0], withUnits[2])
+        assertSame(items[4], withUnits[4])
+
+        val progress = Progress(id = "77-12", nStepsPassed = 1)
+        val withProgresses = mapper.replaceProgresses(withUnits, listOf(progress, Progress(id = "unknown")), mapOf("77-12" to 2))
+
+        assertEquals(progress, (withProgresses[2] as CourseContentItem.UnitItem).progress)
+        assertSame(withUnits[1], withProgresses[1])
+        assertEquals(null, (withUnits[2] as CourseContentItem.UnitItem).progress)
+    }
+}
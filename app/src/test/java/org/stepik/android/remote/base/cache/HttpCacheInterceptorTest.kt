@@ -0,0 +1,118 @@
+package org.stepik.android.remote.base.cache
+
+import okhttp3.Cache
+import okhttp3.OkHttpClient
+import okhttp3.Request
+import okhttp3.mockwebserver.MockResponse
+import okhttp3.mockwebserver.MockWebServer
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import java.net.HttpURLConnection
+
+class HttpCacheInterceptorTest {
+    @get:Rule
+    val temporaryFolder = TemporaryFolder()
+
+    private lateinit var server: MockWebServer
+    private lateinit var cache: Cache
+    private lateinit var stats: HttpCacheStats
+    private lateinit var client: OkHttpClient
+
+    @Before
+    fun setUp() {
+        server = MockWebServer()
+        server.start()
+
+        cache = Cache(temporaryFolder.newFolder(), HttpCachePolicy.CACHE_SIZE_BYTES)
+        stats = HttpCacheStats()
+        client = OkHttpClient.Builder()
+            .cache(cache)
+            .addInterceptor(stats)
+            .addNetworkInterceptor(HttpCacheInterceptor())
+            .build()
+    }
+
+    @After
+    fun tearDown() {
+        server.shutdown()
+        cache.close()
+    }
+
+    @Test
+    fun freshResponseIsServedFromCache() {
+        server.enqueue(MockResponse().setBody("""{"steps":[]}""").addHeader("Cache-Control", "no-cache"))
+
+        assertEquals("""{"steps":[]}""", fetch("/api/steps?ids[]=1"))
+        assertEquals("""{"steps":[]}""", fetch("/api/steps?ids[]=1"))
+
+        assertEquals(1, server.requestCount)
+        assertEquals(1, stats.missCount)
+        assertEquals(1, stats.hitCount)
+        assertEquals(0, stats.revalidationCount)
+    }
+
+    @Test
+    fun staleResponseIsRevalidatedWithETag() {
+        server.enqueue(MockResponse().setBody("""{"courses":[]}""").addHeader("ETag", "\"v1\""))
+        server.enqueue(MockResponse().setResponseCode(HttpURLConnection.HTTP_NOT_MODIFIED))
+
+        assertEquals("""{"courses":[]}""", fetch("/api/courses/1"))
+        assertEquals("""{"courses":[]}""", fetch("/api/courses/1"))
+
+        assertNull(server.takeRequest().getHeader("If-None-Match"))
+        assertEquals("\"v1\"", server.takeRequest().getHeader("If-None-Match"))
+        assertEquals(1, stats.missCount)
+        assertEquals(0, stats.hitCount)
+        assertEquals(1, stats.revalidationCount)
+    }
+
+    @Test
+    fun staleResponseIsRevalidatedWithLastModified() {
+        val lastModified = "Wed, 21 Oct 2020 07:28:00 GMT"
+        server.enqueue(MockResponse().setBody("""{"sections":[]}""").addHeader("Last-Modified", lastModified))
+        server.enqueue(MockResponse().setResponseCode(HttpURLConnection.HTTP_NOT_MODIFIED))
+
+        fetch("/api/sections?ids[]=1")
+        fetch("/api/sections?ids[]=1")
+
+        server.takeRequest()
+        assertEquals(lastModified, server.takeRequest().getHeader("If-Modified-Since"))
+        assertEquals(1, stats.revalidationCount)
+    }
+
+    @Test
+    fun changedResponseIsCountedAsMiss() {
+        server.enqueue(MockResponse().setBody("""{"courses":[1]}""").addHeader("ETag", "\"v1\""))
+        server.enqueue(MockResponse().setBody("""{"courses":[2]}""").addHeader("ETag", "\"v2\""))
+
+        fetch("/api/courses/1")
+        assertEquals("""{"courses":[2]}""", fetch("/api/courses/1"))
+
+        assertEquals(2, stats.missCount)
+        assertEquals(0, stats.revalidationCount)
+    }
+
+    @Test
+    fun otherEndpointsAreNotCached() {
+        server.enqueue(MockResponse().setBody("{}"))
+        server.enqueue(MockResponse().setBody("{}"))
+
+        fetch("/api/submissions?step=1")
+        fetch("/api/submissions?step=1")
+
+        assertEquals(2, server.requestCount)
+        assertEquals(0, stats.missCount)
+        assertEquals(0, stats.hitCount)
+    }
+
+    private fun fetch(path: String): String =
+        client
+            .newCall(Request.Builder().url(server.url(path)).build())
+            .execute()
+            .use { it.body()!!.string() }
+}
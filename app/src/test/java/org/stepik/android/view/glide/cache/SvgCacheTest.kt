@@ -0,0 +1,86 @@
+package org.stepik.android.view.glide.cache
+
+import com.caverock.androidsvg.SVGParseException
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNotSame
+import org.junit.Assert.assertSame
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+
+@RunWith(RobolectricTestRunner::class)
+class SvgCacheTest {
+    companion object {
+        private const val BADGE =
+            "<svg xmlns=\"http://www.w3.org/2000/svg\" viewBox=\"0 0 24 24\"><circle cx=\"12\" cy=\"12\" r=\"10\" fill=\"#66cc66\"/></svg>"
+
+        private const val OTHER_BADGE =
+            "<svg xmlns=\"http://www.w3.org/2000/svg\" viewBox=\"0 0 24 24\"><rect width=\"24\" height=\"24\" fill=\"#cc6666\"/></svg>"
+    }
+
+    @Test
+    fun documentIsParsedOnceForSameSource() {
+        val stats = ImageDecodeStats()
+        val svgCache = SvgCache(stats)
+
+        val svg = svgCache.getDocument(SvgCache.SourceKey(BADGE.toByteArray()))
+        assertSame(svg, svgCache.getDocument(SvgCache.SourceKey(BADGE.toByteArray())))
+        assertNotSame(svg, svgCache.getDocument(SvgCache.SourceKey(OTHER_BADGE.toByteArray())))
+
+        assertEquals(2, stats.parseCount)
+        assertEquals(1, stats.documentHitCount)
+    }
+
+    @Test
+    fun documentIsParsedAgainAfterEviction() {
+        val stats = ImageDecodeStats()
+        val svgCache = SvgCache(stats)
+
+        svgCache.getDocument(SvgCache.SourceKey(BADGE.toByteArray()))
+        svgCache.evictAll()
+        svgCache.getDocument(SvgCache.SourceKey(BADGE.toByteArray()))
+
+        assertEquals(2, stats.parseCount)
+        assertEquals(0, stats.documentHitCount)
+    }
+
+    @Test(expected = SVGParseException::class)
+    fun rasterSourceIsNotCached() {
+        val svgCache = SvgCache(ImageDecodeStats())
+        val png = byteArrayOf(0x89.toByte(), 'P'.toByte(), 'N'.toByte(), 'G'.toByte(), 0x0D, 0x0A, 0x1A, 0x0A)
+        svgCache.getDocument(SvgCache.SourceKey(png))
+    }
+
+    @Test
+    fun parsersAreReusedBetweenDocuments() {
+        val svgCache = SvgCache(ImageDecodeStats())
+        repeat(10) { index ->
+            // broken documents shouldn't break pooled readers
+            try {
+                svgCache.getDocument(SvgCache.SourceKey("<svg><g>".toByteArray()))
+            } catch (e: SVGParseException) {
+            }
+            val svg = svgCache.getDocument(SvgCache.SourceKey(BADGE.replace("r=\"10\"", "r=\"$index\"").toByteArray()))
+            assertEquals(1f, svg.documentAspectRatio, 0f)
+        }
+    }
+
+    @Test
+    fun recordedPictureIsReusedUntilDocumentIsChanged() {
+        val svg = SvgCache(ImageDecodeStats()).getDocument(SvgCache.SourceKey(BADGE.toByteArray()))
+
+        val picture = svg.renderToPicture(48, 48)
+        assertSame(picture, svg.renderToPicture(48, 48))
+        assertNotSame(picture, svg.renderToPicture(96, 96))
+
+        svg.renderDPI = svg.renderDPI
+        assertSame(picture, svg.renderToPicture(48, 48))
+
+        svg.renderDPI = 2 * svg.renderDPI
+        assertNotSame(picture, svg.renderToPicture(48, 48))
+
+        val resized = svg.renderToPicture(48, 48)
+        svg.setDocumentViewBox(0f, 0f, 12f, 12f)
+        assertNotSame(resized, svg.renderToPicture(48, 48))
+    }
+}
@@ -20,6 +20,17 @@ interface BillingRepository {
         getInventory(productType, listOf(sku))
             .maybeFirst()
 
+    /**
+     * Return skus by sku id for the set of [skuIds] with a single inventory query
+     */
+    fun getInventoryBySkuIds(productType: String, skuIds: Set<String>): Single<Map<String, Sku>> =
+        if (skuIds.isEmpty()) {
+            Single.just(emptyMap())
+        } else {
+            getInventory(productType, skuIds.toList())
+                .map { skus -> skus.associateBy { it.id.code } }
+        }
+
     /**
      * Return all available purchases (not consumed)
      */